@@ -4,6 +4,10 @@ java {
     }
 }
 
+dependencies {
+    testImplementation("org.openjdk.jol:jol-core:0.17")
+}
+
 springBoot {
     mainClass.set("com.example.inker.application.InkerApplicationKt")
 }
\ No newline at end of file
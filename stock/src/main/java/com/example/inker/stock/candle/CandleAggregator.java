@@ -0,0 +1,89 @@
+package com.example.inker.stock.candle;
+
+import com.example.inker.stock.dto.CandleResponse;
+import com.example.inker.stock.entity.EpochMicros;
+import com.example.inker.stock.entity.Stock;
+import com.example.inker.stock.exception.StockValidationException;
+import com.example.inker.stock.repository.StockRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 실시간 OHLCV 봉 집계기 (1분/5분/1시간/1일)
+ * 저장소 변경 리스너로 모든 가격 반영 경로(단건/일괄/피드/재생)의 변경을 받아 주식별 진행 중인 1분 봉을 갱신합니다.
+ * 봉 시각은 주식의 updatedAt, 거래량은 누적 거래량(volume)의 증가분입니다.
+ * 주식별 단위마다 최근 stock.candle.max-bars개의 마감된 봉을 보관합니다.
+ */
+@Component
+public class CandleAggregator {
+
+    private static final int MAX_LIMIT = 10000;
+
+    private final StockRepository stockRepository;
+    private final int maxBars;
+    private final ConcurrentHashMap<Long, StockCandles> candlesById = new ConcurrentHashMap<>();
+
+    public CandleAggregator(
+            StockRepository stockRepository,
+            @Value("${stock.candle.max-bars:10080}") int maxBars) {
+        this.stockRepository = stockRepository;
+        this.maxBars = maxBars;
+    }
+
+    @PostConstruct
+    public void start() {
+        stockRepository.addChangeListener(this::onChange);
+        stockRepository.addDeleteListener(candlesById::remove);
+    }
+
+    /**
+     * 심볼의 봉 조회 (시작 시각이 [from, to)인 봉 중 가장 최근 limit개, 없는 심볼이면 null)
+     * from/to가 없으면 해당 방향으로 제한하지 않습니다.
+     */
+    public List<CandleResponse> getCandles(String symbol, String resolution, LocalDateTime from, LocalDateTime to,
+                                           int limit) {
+        CandleResolution candleResolution = CandleResolution.of(resolution);
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new StockValidationException("limit은 1 이상 " + MAX_LIMIT + " 이하여야 합니다");
+        }
+        long fromMicros = from != null ? EpochMicros.of(from) : Long.MIN_VALUE;
+        long toMicros = to != null ? EpochMicros.of(to) : Long.MAX_VALUE;
+        if (fromMicros >= toMicros) {
+            throw new StockValidationException("from은 to보다 이전이어야 합니다");
+        }
+        Optional<Stock> stock = stockRepository.findBySymbol(symbol);
+        if (stock.isEmpty()) {
+            return null;
+        }
+        StockCandles candles = candlesById.get(stock.get().getId());
+        return candles != null ? candles.range(candleResolution, fromMicros, toMicros, limit) : List.of();
+    }
+
+    /**
+     * 주식의 가장 최근 limit개 봉 (진행 중인 봉 포함, 오래된 순, 봉이 없으면 빈 목록)
+     */
+    public List<CandleResponse> getRecentCandles(long id, CandleResolution resolution, int limit) {
+        StockCandles candles = candlesById.get(id);
+        return candles != null ? candles.range(resolution, Long.MIN_VALUE, Long.MAX_VALUE, limit) : List.of();
+    }
+
+    /**
+     * 저장소 변경 리스너 (같은 주식의 변경은 저장소가 순서대로 호출)
+     */
+    private void onChange(Stock stock) {
+        Double price = stock.getCurrentPrice();
+        long micros = stock.getUpdatedAtMicros();
+        if (price == null || micros == EpochMicros.NULL) {
+            return;
+        }
+        Long volume = stock.getVolume();
+        candlesById.computeIfAbsent(stock.getId(), id -> new StockCandles(maxBars))
+                .onTick(micros, price, volume != null ? volume : StockCandles.NO_VOLUME);
+    }
+}
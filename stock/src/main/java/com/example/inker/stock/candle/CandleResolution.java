@@ -0,0 +1,46 @@
+package com.example.inker.stock.candle;
+
+import com.example.inker.stock.exception.StockValidationException;
+
+/**
+ * 봉 단위 (세밀한 순서로 선언하며, 각 단위는 바로 앞 단위의 배수)
+ */
+public enum CandleResolution {
+
+    MINUTE_1("1m", 60_000_000L),
+    MINUTE_5("5m", 5 * 60_000_000L),
+    HOUR_1("1h", 60 * 60_000_000L),
+    DAY_1("1d", 24 * 60 * 60_000_000L);
+
+    private final String code;
+    private final long widthMicros;
+
+    CandleResolution(String code, long widthMicros) {
+        this.code = code;
+        this.widthMicros = widthMicros;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public long getWidthMicros() {
+        return widthMicros;
+    }
+
+    /**
+     * 시각이 속한 봉의 시작 시각 (epoch 마이크로초)
+     */
+    public long startOf(long micros) {
+        return micros - Math.floorMod(micros, widthMicros);
+    }
+
+    public static CandleResolution of(String code) {
+        for (CandleResolution resolution : values()) {
+            if (resolution.code.equals(code)) {
+                return resolution;
+            }
+        }
+        throw new StockValidationException("지원하지 않는 봉 단위입니다: " + code + " (1m, 5m, 1h, 1d)");
+    }
+}
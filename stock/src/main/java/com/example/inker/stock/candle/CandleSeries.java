@@ -0,0 +1,153 @@
+package com.example.inker.stock.candle;
+
+import com.example.inker.stock.dto.CandleResponse;
+import com.example.inker.stock.entity.EpochMicros;
+
+import java.util.List;
+
+/**
+ * 한 주식의 한 봉 단위 시계열
+ * 마감된 봉은 시작 시각 오름차순으로 원시 타입 배열(링 버퍼)에 보관하고, 진행 중인 봉은 필드로 보관합니다.
+ * 보관 개수가 maxBars에 이르면 가장 오래된 봉부터 덮어씁니다. 동기화는 호출자(StockCandles)가 합니다.
+ */
+final class CandleSeries {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    final CandleResolution resolution;
+    private final int maxBars;
+
+    // 마감된 봉 (논리 인덱스 i는 배열 위치 (head + i) % capacity)
+    private long[] starts = new long[0];
+    private double[] opens = new double[0];
+    private double[] highs = new double[0];
+    private double[] lows = new double[0];
+    private double[] closes = new double[0];
+    private long[] volumes = new long[0];
+    private int head;
+    private int size;
+
+    // 진행 중인 봉 (openStart가 NULL이면 없음)
+    long openStart = EpochMicros.NULL;
+    double open;
+    double high;
+    double low;
+    double close;
+    long volume;
+
+    CandleSeries(CandleResolution resolution, int maxBars) {
+        this.resolution = resolution;
+        this.maxBars = maxBars;
+    }
+
+    boolean hasOpenBar() {
+        return openStart != EpochMicros.NULL;
+    }
+
+    /**
+     * 진행 중인 봉 시작
+     */
+    void begin(long start, double open, double high, double low, double close, long volume) {
+        this.openStart = start;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+    }
+
+    /**
+     * 진행 중인 봉에 더 늦은 틱이나 더 세밀한 봉을 합침
+     */
+    void fold(double high, double low, double close, long volume) {
+        if (high > this.high) {
+            this.high = high;
+        }
+        if (low < this.low) {
+            this.low = low;
+        }
+        this.close = close;
+        this.volume += volume;
+    }
+
+    /**
+     * 진행 중인 봉을 마감해 배열에 추가
+     */
+    void closeOpenBar() {
+        int capacity = starts.length;
+        int slot;
+        if (size == capacity && capacity < maxBars) {
+            grow(Math.min(Math.max(capacity * 2, INITIAL_CAPACITY), maxBars));
+            capacity = starts.length;
+        }
+        if (size == capacity) {
+            // 가장 오래된 봉 자리에 기록
+            slot = head;
+            head = (head + 1) % capacity;
+        } else {
+            slot = (head + size) % capacity;
+            size++;
+        }
+        starts[slot] = openStart;
+        opens[slot] = open;
+        highs[slot] = high;
+        lows[slot] = low;
+        closes[slot] = close;
+        volumes[slot] = volume;
+        openStart = EpochMicros.NULL;
+    }
+
+    /**
+     * 시작 시각이 [fromMicros, toMicros)인 마감된 봉 중 가장 최근 limit개를 시간순으로 추가
+     * 이진 탐색 뒤 반환하는 봉만 읽습니다.
+     */
+    void addClosed(long fromMicros, long toMicros, int limit, List<CandleResponse> out) {
+        int end = lowerBound(toMicros);
+        int begin = Math.max(lowerBound(fromMicros), end - limit);
+        for (int i = begin; i < end; i++) {
+            int slot = (head + i) % starts.length;
+            out.add(new CandleResponse(EpochMicros.toLocalDateTime(starts[slot]), opens[slot], highs[slot],
+                    lows[slot], closes[slot], volumes[slot]));
+        }
+    }
+
+    // 시작 시각이 micros 이상인 첫 논리 인덱스
+    private int lowerBound(long micros) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[(head + mid) % starts.length] < micros) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void grow(int capacity) {
+        long[] newStarts = new long[capacity];
+        double[] newOpens = new double[capacity];
+        double[] newHighs = new double[capacity];
+        double[] newLows = new double[capacity];
+        double[] newCloses = new double[capacity];
+        long[] newVolumes = new long[capacity];
+        for (int i = 0; i < size; i++) {
+            int slot = (head + i) % starts.length;
+            newStarts[i] = starts[slot];
+            newOpens[i] = opens[slot];
+            newHighs[i] = highs[slot];
+            newLows[i] = lows[slot];
+            newCloses[i] = closes[slot];
+            newVolumes[i] = volumes[slot];
+        }
+        starts = newStarts;
+        opens = newOpens;
+        highs = newHighs;
+        lows = newLows;
+        closes = newCloses;
+        volumes = newVolumes;
+        head = 0;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.inker.stock.candle;
+
+import com.example.inker.stock.dto.CandleResponse;
+import com.example.inker.stock.entity.EpochMicros;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 한 주식의 모든 봉 단위 시계열
+ * 틱은 1분 봉만 갱신하고, 마감된 봉은 바로 위 단위의 진행 중인 봉에 합칩니다(상위 단위는 원시 틱을 보지 않음).
+ * 진행 중인 상위 봉은 마감된 하위 봉만 담고 있으므로, 조회 시 하위 단위의 진행 중인 봉을 합쳐 보여줍니다.
+ */
+final class StockCandles {
+
+    // 거래량이 없는 틱 (Stock과 같은 표현)
+    static final long NO_VOLUME = Long.MIN_VALUE;
+
+    private final CandleSeries[] levels;
+    // 마지막으로 본 누적 거래량 (봉 거래량은 증가분의 합)
+    private long lastVolume = NO_VOLUME;
+    // 마지막으로 반영한 틱의 가격 (처음에는 NaN이라 어떤 가격과도 다름)
+    private double lastPrice = Double.NaN;
+
+    StockCandles(int maxBars) {
+        CandleResolution[] resolutions = CandleResolution.values();
+        levels = new CandleSeries[resolutions.length];
+        for (int i = 0; i < resolutions.length; i++) {
+            levels[i] = new CandleSeries(resolutions[i], maxBars);
+        }
+    }
+
+    /**
+     * 틱 반영 (진행 중인 1분 봉보다 이른 틱은 무시하고 false)
+     * 가격과 누적 거래량이 모두 직전 틱과 같은 변경(이름/섹터만 바뀐 경우 등)은 틱으로 세지 않고 false입니다.
+     */
+    synchronized boolean onTick(long micros, double price, long cumulativeVolume) {
+        if (price == lastPrice && cumulativeVolume == lastVolume) {
+            return false;
+        }
+        long volume = volumeDelta(cumulativeVolume);
+        lastPrice = price;
+        CandleSeries minute = levels[0];
+        long start = minute.resolution.startOf(micros);
+        if (minute.hasOpenBar()) {
+            if (start < minute.openStart) {
+                return false;
+            }
+            if (start == minute.openStart) {
+                minute.fold(price, price, price, volume);
+                return true;
+            }
+            // 새 봉 시작: 1분 봉을 마감하고, 이 틱이 속하지 않게 된 상위 봉도 차례로 마감
+            close(0);
+            for (int level = 1; level < levels.length; level++) {
+                CandleSeries series = levels[level];
+                if (!series.hasOpenBar() || series.resolution.startOf(micros) == series.openStart) {
+                    break;
+                }
+                close(level);
+            }
+        }
+        minute.begin(start, price, price, price, price, volume);
+        return true;
+    }
+
+    /**
+     * 시작 시각이 [fromMicros, toMicros)인 봉 중 가장 최근 limit개 (진행 중인 봉 포함)
+     */
+    synchronized List<CandleResponse> range(CandleResolution resolution, long fromMicros, long toMicros, int limit) {
+        int level = resolution.ordinal();
+        CandleResponse live = liveBar(level);
+        boolean includeLive = live != null && limit > 0
+                && levels[level].resolution.startOf(levels[0].openStart) >= fromMicros
+                && levels[level].resolution.startOf(levels[0].openStart) < toMicros;
+        List<CandleResponse> out = new ArrayList<>(Math.min(limit, 1024));
+        levels[level].addClosed(fromMicros, toMicros, includeLive ? limit - 1 : limit, out);
+        if (includeLive) {
+            out.add(live);
+        }
+        return out;
+    }
+
+    // 마감된 봉을 배열에 넣고 바로 위 단위의 진행 중인 봉에 합침
+    private void close(int level) {
+        CandleSeries series = levels[level];
+        long start = series.openStart;
+        double open = series.open;
+        double high = series.high;
+        double low = series.low;
+        double close = series.close;
+        long volume = series.volume;
+        series.closeOpenBar();
+        if (level + 1 == levels.length) {
+            return;
+        }
+        CandleSeries parent = levels[level + 1];
+        long parentStart = parent.resolution.startOf(start);
+        if (parent.hasOpenBar() && parent.openStart != parentStart) {
+            close(level + 1);
+        }
+        if (parent.hasOpenBar()) {
+            parent.fold(high, low, close, volume);
+        } else {
+            parent.begin(parentStart, open, high, low, close, volume);
+        }
+    }
+
+    // 해당 단위의 진행 중인 봉 + 더 세밀한 단위의 진행 중인 봉 (틱이 없었으면 null)
+    private CandleResponse liveBar(int level) {
+        if (!levels[0].hasOpenBar()) {
+            return null;
+        }
+        long start = levels[level].resolution.startOf(levels[0].openStart);
+        double open = Double.NaN;
+        double high = Double.NEGATIVE_INFINITY;
+        double low = Double.POSITIVE_INFINITY;
+        double close = Double.NaN;
+        long volume = 0;
+        // 이른 구간(상위 단위)부터 합쳐 시가는 처음, 종가는 마지막 값
+        for (int i = level; i >= 0; i--) {
+            CandleSeries series = levels[i];
+            if (!series.hasOpenBar()) {
+                continue;
+            }
+            if (Double.isNaN(open)) {
+                open = series.open;
+            }
+            high = Math.max(high, series.high);
+            low = Math.min(low, series.low);
+            close = series.close;
+            volume += series.volume;
+        }
+        return new CandleResponse(EpochMicros.toLocalDateTime(start), open, high, low, close, volume);
+    }
+
+    private long volumeDelta(long cumulativeVolume) {
+        if (cumulativeVolume == NO_VOLUME) {
+            return 0;
+        }
+        long previous = lastVolume;
+        lastVolume = cumulativeVolume;
+        if (previous == NO_VOLUME) {
+            return 0;
+        }
+        // 거래량이 줄었으면 누적이 다시 시작된 것으로 봄
+        return cumulativeVolume >= previous ? cumulativeVolume - previous : cumulativeVolume;
+    }
+}
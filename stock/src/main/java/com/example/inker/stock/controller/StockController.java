@@ -1,70 +1,286 @@
 package com.example.inker.stock.controller;
 
+import com.example.inker.stock.candle.CandleAggregator;
+import com.example.inker.stock.dto.BulkPriceUpdateResponse;
+import com.example.inker.stock.dto.CandleResponse;
 import com.example.inker.stock.dto.CreateStockRequest;
+import com.example.inker.stock.dto.PriceTickRequest;
+import com.example.inker.stock.dto.SectorSummaryResponse;
+import com.example.inker.stock.dto.StockAnalysisResponse;
+import com.example.inker.stock.dto.StockPageResponse;
 import com.example.inker.stock.dto.StockResponse;
 import com.example.inker.stock.dto.UpdateStockPriceRequest;
 import com.example.inker.stock.dto.UpdateStockRequest;
+import com.example.inker.stock.exception.StockPreconditionFailedException;
+import com.example.inker.stock.limit.StockConcurrencyLimits;
+import com.example.inker.stock.partition.StockPartitioning;
+import com.example.inker.stock.replication.StockReplication;
+import com.example.inker.stock.repository.StockSnapshot;
+import com.example.inker.stock.service.AnalysisBulkheads;
+import com.example.inker.stock.service.PostCommitAnalysisQueue;
+import com.example.inker.stock.service.StockAnalyticsRefresher;
+import com.example.inker.stock.service.AnalysisContext;
+import com.example.inker.stock.service.AnalysisStage;
+import com.example.inker.stock.service.StockMetrics;
 import com.example.inker.stock.service.StockService;
+import com.example.inker.stock.shard.StockWriteShards;
+import com.example.inker.stock.stream.PriceBroadcaster;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * 주식 관련 API 컨트롤러
+ * 분석 파이프라인을 거치는 엔드포인트는 엔드포인트별 마감을 정해 서비스에 넘기며, 마감이 지나면 504를 반환합니다.
+ * 같은 엔드포인트는 그룹별 적응형 동시 처리 한도 안에서만 실행하고, 한도를 넘은 요청은 바로 503을 반환합니다.
+ * 실패하거나 차단된 분석 단계는 응답을 막지 않고 X-Analysis-Unavailable 헤더로 표시합니다.
+ * 복제본(stock.replication.role=replica)으로 동작하면 쓰기 요청은 처리하지 않고 503을 반환합니다.
+ * 파티셔닝 중이면 다른 파티션의 단건 요청은 담당 노드로 보내고(PartitionRoutingInterceptor), 목록/섹터/검색은 모든 노드 결과를 합칩니다.
  */
 @RestController
 @RequestMapping("/api/v1/stocks")
 public class StockController {
     
+    private static final String ANALYSIS_UNAVAILABLE_HEADER = "X-Analysis-Unavailable";
+    
     private final StockService stockService;
+    private final ObjectMapper objectMapper;
+    private final StockMetrics stockMetrics;
+    private final PriceBroadcaster priceBroadcaster;
+    private final CandleAggregator candleAggregator;
+    private final StockConcurrencyLimits concurrencyLimits;
+    private final AnalysisBulkheads analysisBulkheads;
+    private final PostCommitAnalysisQueue analysisQueue;
+    private final StockAnalyticsRefresher analyticsRefresher;
+    private final StockWriteShards writeShards;
+    private final StockReplication replication;
+    private final StockPartitioning partitioning;
+    // 엔드포인트별 분석 파이프라인 마감 (밀리초, 0 이하이면 마감 없음)
+    private final long lookupDeadlineMillis;
+    private final long listDeadlineMillis;
+    private final long writeDeadlineMillis;
+    private final long bulkDeadlineMillis;
     
-    public StockController(StockService stockService) {
+    public StockController(StockService stockService, ObjectMapper objectMapper, StockMetrics stockMetrics,
+                           PriceBroadcaster priceBroadcaster, CandleAggregator candleAggregator,
+                           StockConcurrencyLimits concurrencyLimits, AnalysisBulkheads analysisBulkheads,
+                           PostCommitAnalysisQueue analysisQueue, StockAnalyticsRefresher analyticsRefresher,
+                           StockWriteShards writeShards, StockReplication replication, StockPartitioning partitioning,
+                           @Value("${stock.deadline.lookup-millis:1000}") long lookupDeadlineMillis,
+                           @Value("${stock.deadline.list-millis:3000}") long listDeadlineMillis,
+                           @Value("${stock.deadline.write-millis:2000}") long writeDeadlineMillis,
+                           @Value("${stock.deadline.bulk-millis:5000}") long bulkDeadlineMillis) {
         this.stockService = stockService;
+        this.objectMapper = objectMapper;
+        this.stockMetrics = stockMetrics;
+        this.priceBroadcaster = priceBroadcaster;
+        this.candleAggregator = candleAggregator;
+        this.concurrencyLimits = concurrencyLimits;
+        this.analysisBulkheads = analysisBulkheads;
+        this.analysisQueue = analysisQueue;
+        this.analyticsRefresher = analyticsRefresher;
+        this.writeShards = writeShards;
+        this.replication = replication;
+        this.partitioning = partitioning;
+        this.lookupDeadlineMillis = lookupDeadlineMillis;
+        this.listDeadlineMillis = listDeadlineMillis;
+        this.writeDeadlineMillis = writeDeadlineMillis;
+        this.bulkDeadlineMillis = bulkDeadlineMillis;
     }
     
     /**
-     * 모든 주식 조회
+     * 모든 주식 조회 (파티셔닝 중이면 모든 노드의 결과를 ID 순으로 합치며 ETag 없이 응답)
      */
     @GetMapping
-    public ResponseEntity<List<StockResponse>> getAllStocks() {
-        List<StockResponse> stocks = stockService.getAllStocks();
-        return ResponseEntity.ok(stocks);
+    public ResponseEntity<byte[]> getAllStocks(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = StockPartitioning.FORWARDED_HEADER, required = false) String forwardedBy) {
+        if (spansPartitions(forwardedBy)) {
+            AnalysisContext context = AnalysisContext.withTimeout(listDeadlineMillis);
+            byte[] json = concurrencyLimits.list().call(() -> stockService.getAllStocksJson(context));
+            byte[] merged = partitioning.mergeJsonArrays(json, partitioning.gather(StockPartitioning.BASE_PATH, Map.of()));
+            return analyzed(HttpStatus.OK, context).contentType(MediaType.APPLICATION_JSON).body(merged);
+        }
+        StockSnapshot snapshot = stockService.currentSnapshot();
+        String eTag = stockService.getCollectionETag(snapshot);
+        if (matchesETag(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
+        AnalysisContext context = AnalysisContext.withTimeout(listDeadlineMillis);
+        byte[] json = concurrencyLimits.list().call(() -> stockService.getAllStocksJson(snapshot, context));
+        return jsonBody(eTag, json, context);
+    }
+    
+    /**
+     * 모든 주식 페이지 조회 (nextCursor를 cursor로 넘겨 다음 페이지 조회)
+     */
+    @GetMapping("/page")
+    public ResponseEntity<StockPageResponse> getAllStocksPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        AnalysisContext context = AnalysisContext.withTimeout(listDeadlineMillis);
+        StockPageResponse page = concurrencyLimits.list().call(() -> stockService.getAllStocks(cursor, size, context));
+        return analyzed(HttpStatus.OK, context).body(page);
+    }
+    
+    /**
+     * 모든 주식 스트리밍 조회 (NDJSON, 한 줄에 한 건씩 바로 기록)
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllStocks() {
+        // 한도는 분석 단계까지만 적용 (본문 기록은 응답 스트림으로 이어짐)
+        AnalysisContext context = AnalysisContext.withTimeout(listDeadlineMillis);
+        Stream<StockResponse> stocks = concurrencyLimits.list().call(() -> stockService.streamAllStocks(context));
+        StreamingResponseBody body = outputStream -> {
+            try (stocks; JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                // 값 사이 기본 구분자(공백) 대신 줄바꿈만 사용하고, 응답 스트림은 닫지 않음
+                generator.setRootValueSeparator(null);
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                Iterator<StockResponse> iterator = stocks.iterator();
+                while (iterator.hasNext()) {
+                    generator.writeObject(iterator.next());
+                    generator.writeRaw('\n');
+                }
+            }
+        };
+        return analyzed(HttpStatus.OK, context)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+    
+    /**
+     * 가격 변경 구독 (SSE, 예: ?symbols=AAPL,MSFT)
+     * 느린 클라이언트는 주식별로 합쳐진 최신 가격을 받으며, 구독자 수 한도를 넘으면 503을 반환합니다.
+     */
+    @GetMapping(value = "/stream/prices", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamPrices(@RequestParam List<String> symbols) {
+        SseEmitter emitter = priceBroadcaster.subscribe(symbols);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(emitter);
     }
     
     /**
      * ID로 주식 조회
      */
     @GetMapping("/{id}")
-    public ResponseEntity<StockResponse> getStockById(@PathVariable Long id) {
-        StockResponse stock = stockService.getStockById(id);
-        return stock != null ? ResponseEntity.ok(stock) : ResponseEntity.notFound().build();
+    public ResponseEntity<StockResponse> getStockById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // 분석과 직렬화 전에 버전만 비교
+        String eTag = stockService.getStockETag(id);
+        if (eTag != null && matchesETag(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
+        AnalysisContext context = AnalysisContext.withTimeout(lookupDeadlineMillis);
+        StockResponse stock = concurrencyLimits.lookup().call(() -> stockService.getStockById(id, context));
+        return stock != null ? withETag(stock, context) : ResponseEntity.notFound().build();
+    }
+    
+    /**
+     * 주식의 미리 계산된 분석 결과 조회 (백그라운드 갱신 결과, stale이면 분석 뒤 바뀐 주식)
+     */
+    @GetMapping("/{id}/analysis")
+    public ResponseEntity<StockAnalysisResponse> getStockAnalysis(@PathVariable Long id) {
+        return ResponseEntity.ok(analyticsRefresher.getAnalysis(id));
     }
     
     /**
      * 심볼로 주식 조회
      */
     @GetMapping("/symbol/{symbol}")
-    public ResponseEntity<StockResponse> getStockBySymbol(@PathVariable String symbol) {
-        StockResponse stock = stockService.getStockBySymbol(symbol);
-        return stock != null ? ResponseEntity.ok(stock) : ResponseEntity.notFound().build();
+    public ResponseEntity<StockResponse> getStockBySymbol(
+            @PathVariable String symbol,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = stockService.getStockETagBySymbol(symbol);
+        if (eTag != null && matchesETag(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
+        AnalysisContext context = AnalysisContext.withTimeout(lookupDeadlineMillis);
+        StockResponse stock = concurrencyLimits.lookup().call(() -> stockService.getStockBySymbol(symbol, context));
+        return stock != null ? withETag(stock, context) : ResponseEntity.notFound().build();
+    }
+    
+    /**
+     * 심볼의 OHLCV 봉 조회 (resolution: 1m, 5m, 1h, 1d)
+     * 시작 시각이 [from, to)인 봉 중 가장 최근 limit개를 시간순으로 반환하며, 마지막 봉은 진행 중일 수 있습니다.
+     */
+    @GetMapping("/symbol/{symbol}/candles")
+    public ResponseEntity<List<CandleResponse>> getCandles(
+            @PathVariable String symbol,
+            @RequestParam(defaultValue = "1m") String resolution,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "500") int limit) {
+        List<CandleResponse> candles = candleAggregator.getCandles(symbol, resolution, from, to, limit);
+        return candles != null ? ResponseEntity.ok(candles) : ResponseEntity.notFound().build();
     }
     
     /**
-     * 섹터별 주식 조회
+     * 섹터별 주식 조회 (파티셔닝 중이면 모든 노드의 결과를 합침)
      */
     @GetMapping("/sector/{sector}")
-    public ResponseEntity<List<StockResponse>> getStocksBySector(@PathVariable String sector) {
-        List<StockResponse> stocks = stockService.getStocksBySector(sector);
-        return ResponseEntity.ok(stocks);
+    public ResponseEntity<byte[]> getStocksBySector(
+            @PathVariable String sector,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = StockPartitioning.FORWARDED_HEADER, required = false) String forwardedBy) {
+        if (spansPartitions(forwardedBy)) {
+            byte[] merged = partitioning.mergeJsonArrays(stockService.getStocksBySectorJson(sector),
+                    partitioning.gather(StockPartitioning.BASE_PATH + "/sector/" + sector, Map.of()));
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(merged);
+        }
+        StockSnapshot snapshot = stockService.currentSnapshot();
+        String eTag = stockService.getCollectionETag(snapshot);
+        if (matchesETag(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
+        return jsonBody(eTag, stockService.getStocksBySectorJson(snapshot, sector));
     }
     
     /**
-     * 주식 검색
+     * 섹터 집계 조회 (이 노드의 주식만 집계)
+     */
+    @GetMapping("/sector/{sector}/summary")
+    public ResponseEntity<SectorSummaryResponse> getSectorSummary(
+            @PathVariable String sector,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        StockSnapshot snapshot = stockService.currentSnapshot();
+        String eTag = stockService.getCollectionETag(snapshot);
+        if (matchesETag(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
+        return ResponseEntity.ok().eTag(eTag).body(stockService.getSectorSummary(snapshot, sector));
+    }
+    
+    /**
+     * 주식 검색 (파티셔닝 중이면 모든 노드의 결과를 합침)
      */
     @GetMapping("/search")
-    public ResponseEntity<List<StockResponse>> searchStocks(@RequestParam String keyword) {
+    public ResponseEntity<List<StockResponse>> searchStocks(
+            @RequestParam String keyword,
+            @RequestHeader(value = StockPartitioning.FORWARDED_HEADER, required = false) String forwardedBy) {
         List<StockResponse> stocks = stockService.searchStocks(keyword);
+        if (spansPartitions(forwardedBy)) {
+            stocks = partitioning.mergeStocks(stocks, partitioning.gather(StockPartitioning.BASE_PATH + "/search", Map.of("keyword", keyword)));
+        }
         return ResponseEntity.ok(stocks);
     }
     
@@ -72,57 +288,261 @@ public class StockController {
      * 상위 상승주 조회
      */
     @GetMapping("/top-gainers")
-    public ResponseEntity<List<StockResponse>> getTopGainers() {
-        List<StockResponse> stocks = stockService.getTopGainers();
-        return ResponseEntity.ok(stocks);
+    public ResponseEntity<byte[]> getTopGainers(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        StockSnapshot snapshot = stockService.currentSnapshot();
+        String eTag = stockService.getCollectionETag(snapshot);
+        if (matchesETag(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
+        return jsonBody(eTag, stockService.getTopGainersJson(snapshot));
     }
     
     /**
      * 시가총액 상위 주식 조회
      */
     @GetMapping("/top-market-cap")
-    public ResponseEntity<List<StockResponse>> getTopByMarketCap() {
-        List<StockResponse> stocks = stockService.getTopByMarketCap();
-        return ResponseEntity.ok(stocks);
+    public ResponseEntity<byte[]> getTopByMarketCap(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        StockSnapshot snapshot = stockService.currentSnapshot();
+        String eTag = stockService.getCollectionETag(snapshot);
+        if (matchesETag(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
+        return jsonBody(eTag, stockService.getTopByMarketCapJson(snapshot, limit));
+    }
+    
+    /**
+     * 시가총액 순위 페이지 조회 (nextCursor를 cursor로 넘겨 다음 페이지 조회)
+     */
+    @GetMapping("/top-market-cap/page")
+    public ResponseEntity<StockPageResponse> getStocksByMarketCap(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        StockPageResponse page = stockService.getStocksByMarketCap(cursor, size);
+        return ResponseEntity.ok(page);
+    }
+    
+    /**
+     * 운영 지표 조회
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<Map<String, Long>> getMetrics() {
+        Map<String, Long> values = stockMetrics.snapshot();
+        values.putAll(concurrencyLimits.snapshot());
+        values.putAll(analysisBulkheads.snapshot());
+        values.putAll(analysisQueue.snapshot());
+        values.putAll(analyticsRefresher.snapshot());
+        values.putAll(writeShards.snapshot());
+        values.putAll(replication.snapshot());
+        values.putAll(partitioning.snapshot());
+        return ResponseEntity.ok(values);
+    }
+    
+    /**
+     * 노드별 담당 파티션 (파티셔닝이 꺼져 있으면 404)
+     */
+    @GetMapping("/partitions")
+    public ResponseEntity<Map<String, List<Integer>>> getPartitions() {
+        return partitioning.isEnabled() ? ResponseEntity.ok(partitioning.getAssignments()) : ResponseEntity.notFound().build();
     }
     
     /**
-     * 주식 생성
+     * 이 노드에 있는 파티션 행 내보내기 (파티션을 넘겨받는 노드가 기동 시 호출, 다른 노드의 요청이 아니면 404)
+     */
+    @GetMapping(value = "/partitions/rows", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> exportPartitionRows(
+            @RequestParam List<Integer> partitions,
+            @RequestHeader(value = StockPartitioning.FORWARDED_HEADER, required = false) String forwardedBy,
+            HttpServletRequest request) {
+        if (!partitioning.isPeerRequest(forwardedBy, request.getRemoteAddr())) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(partitioning.exportRows(partitions));
+    }
+    
+    /**
+     * 다른 노드가 넘긴 파티션 행 받기 (행을 넘기는 노드가 기동 시 호출, 변경 로그에 기록한 뒤 응답)
+     * 다른 노드의 요청이 아니면 404, 레코드 형식이 잘못되었으면 400입니다.
+     */
+    @PostMapping(value = "/partitions/rows", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Map<String, Long>> importPartitionRows(
+            @RequestBody byte[] rows,
+            @RequestHeader(value = StockPartitioning.FORWARDED_HEADER, required = false) String forwardedBy,
+            HttpServletRequest request) {
+        if (!partitioning.isPeerRequest(forwardedBy, request.getRemoteAddr())) {
+            return ResponseEntity.notFound().build();
+        }
+        replication.checkWritable();
+        return ResponseEntity.ok(Map.of("imported", partitioning.importRows(rows)));
+    }
+    
+    /**
+     * 주식 생성 (파티셔닝 중이면 심볼의 담당 노드에서 생성)
      */
     @PostMapping
-    public ResponseEntity<StockResponse> createStock(@RequestBody CreateStockRequest request) {
-        StockResponse createdStock = stockService.createStock(request);
-        return ResponseEntity.status(201).body(createdStock);
+    public ResponseEntity<StockResponse> createStock(
+            @RequestBody CreateStockRequest request,
+            @RequestHeader(value = StockPartitioning.FORWARDED_HEADER, required = false) String forwardedBy) throws IOException {
+        replication.checkWritable();
+        if (spansPartitions(forwardedBy) && request.getSymbol() != null && !partitioning.ownsSymbol(request.getSymbol())) {
+            return createOnOwner(request);
+        }
+        AnalysisContext context = AnalysisContext.withTimeout(writeDeadlineMillis);
+        StockResponse createdStock = concurrencyLimits.write().call(() -> stockService.createStock(request, context));
+        return analyzed(HttpStatus.CREATED, context).body(createdStock);
     }
     
     /**
-     * 주식 수정
+     * 주식 수정 (If-Match가 있으면 그 version일 때만 반영, 다르면 412, 동시 변경에 지면 409)
      */
     @PutMapping("/{id}")
     public ResponseEntity<StockResponse> updateStock(
             @PathVariable Long id,
-            @RequestBody UpdateStockRequest request) {
-        StockResponse updatedStock = stockService.updateStock(id, request);
-        return updatedStock != null ? ResponseEntity.ok(updatedStock) : ResponseEntity.notFound().build();
+            @RequestBody UpdateStockRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        replication.checkWritable();
+        Long expectedVersion = expectedVersion(ifMatch);
+        AnalysisContext context = AnalysisContext.withTimeout(writeDeadlineMillis);
+        StockResponse updatedStock = concurrencyLimits.write().call(() ->
+                stockService.updateStock(id, request, expectedVersion, context));
+        return updatedStock != null ? withETag(updatedStock, context) : ResponseEntity.notFound().build();
     }
     
     /**
-     * 주식 가격 업데이트
+     * 주식 가격 업데이트 (If-Match는 주식 수정과 같음)
      */
     @PatchMapping("/{id}/price")
     public ResponseEntity<StockResponse> updateStockPrice(
             @PathVariable Long id,
-            @RequestBody UpdateStockPriceRequest request) {
-        StockResponse updatedStock = stockService.updateStockPrice(id, request);
-        return updatedStock != null ? ResponseEntity.ok(updatedStock) : ResponseEntity.notFound().build();
+            @RequestBody UpdateStockPriceRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        replication.checkWritable();
+        Long expectedVersion = expectedVersion(ifMatch);
+        AnalysisContext context = AnalysisContext.withTimeout(writeDeadlineMillis);
+        StockResponse updatedStock = concurrencyLimits.write().call(() ->
+                stockService.updateStockPrice(id, request, expectedVersion, context));
+        return updatedStock != null ? withETag(updatedStock, context) : ResponseEntity.notFound().build();
+    }
+    
+    /**
+     * 주식 가격 일괄 업데이트 (항목별 처리 결과 반환)
+     */
+    @PatchMapping("/prices")
+    public ResponseEntity<BulkPriceUpdateResponse> updateStockPrices(@RequestBody List<PriceTickRequest> ticks) {
+        replication.checkWritable();
+        AnalysisContext context = AnalysisContext.withTimeout(bulkDeadlineMillis);
+        BulkPriceUpdateResponse response = concurrencyLimits.bulk().call(() -> stockService.updateStockPrices(ticks, context));
+        return analyzed(HttpStatus.OK, context).body(response);
     }
     
     /**
      * 주식 삭제
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteStock(@PathVariable Long id) {
-        boolean deleted = stockService.deleteStock(id);
-        return deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+    public ResponseEntity<Void> deleteStock(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        replication.checkWritable();
+        Long expectedVersion = expectedVersion(ifMatch);
+        AnalysisContext context = AnalysisContext.withTimeout(writeDeadlineMillis);
+        boolean deleted = concurrencyLimits.write().call(() -> stockService.deleteStock(id, expectedVersion, context));
+        return deleted ? analyzed(HttpStatus.NO_CONTENT, context).build() : ResponseEntity.notFound().build();
+    }
+    
+    /**
+     * 심볼의 담당 노드로 생성 요청을 보내거나(forward) 그쪽으로 안내(redirect, 307)
+     */
+    private ResponseEntity<StockResponse> createOnOwner(CreateStockRequest request) throws IOException {
+        String owner = partitioning.ownerOfSymbol(request.getSymbol());
+        if (partitioning.getRouting() == StockPartitioning.Routing.REDIRECT) {
+            partitioning.recordRedirect();
+            return ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT)
+                    .location(partitioning.locationOf(owner, StockPartitioning.BASE_PATH))
+                    .build();
+        }
+        StockPartitioning.RemoteResponse remote = partitioning.forward(owner, "POST", StockPartitioning.BASE_PATH,
+                Map.of(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE), objectMapper.writeValueAsBytes(request));
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(remote.getStatus());
+        remote.getHeaders().forEach((name, value) -> builder.header(name, value));
+        return remote.getStatus() == HttpStatus.CREATED.value()
+                ? builder.body(objectMapper.readValue(remote.getBody(), StockResponse.class))
+                : builder.build();
+    }
+    
+    /**
+     * 파티셔닝 중이고 다른 노드가 전달한 요청이 아니면 모든 노드에 묻거나 담당 노드로 보내야 함
+     */
+    private boolean spansPartitions(String forwardedBy) {
+        return partitioning.isEnabled() && forwardedBy == null;
+    }
+    
+    private static ResponseEntity<StockResponse> withETag(StockResponse stock, AnalysisContext context) {
+        return analyzed(HttpStatus.OK, context).eTag(StockService.eTagOf(stock.getVersion())).body(stock);
+    }
+    
+    private static ResponseEntity<byte[]> jsonBody(String eTag, byte[] json, AnalysisContext context) {
+        return analyzed(HttpStatus.OK, context).eTag(eTag).contentType(MediaType.APPLICATION_JSON).body(json);
+    }
+    
+    /**
+     * 분석 파이프라인을 거친 응답 (결과 없이 넘어간 단계가 있으면 X-Analysis-Unavailable에 단계 코드를 쉼표로 나열)
+     */
+    private static ResponseEntity.BodyBuilder analyzed(HttpStatus status, AnalysisContext context) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(status);
+        if (context.isDegraded()) {
+            builder.header(ANALYSIS_UNAVAILABLE_HEADER, context.getUnavailableStages().stream()
+                    .map(AnalysisStage::getCode)
+                    .collect(Collectors.joining(",")));
+        }
+        return builder;
+    }
+    
+    // 캐시된 JSON 조각으로 만든 목록 응답
+    private static ResponseEntity<byte[]> jsonBody(String eTag, byte[] json) {
+        return ResponseEntity.ok().eTag(eTag).contentType(MediaType.APPLICATION_JSON).body(json);
+    }
+    
+    private static <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+    }
+    
+    /**
+     * If-Match의 version (없거나 *이면 null)
+     * 강한 비교만 하므로 약한 ETag(W/)나 형식이 다른 값은 어떤 version과도 일치하지 않아 412가 됩니다.
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            try {
+                return Long.parseLong(value.substring(1, value.length() - 1));
+            } catch (NumberFormatException e) {
+                // 아래에서 412
+            }
+        }
+        throw new StockPreconditionFailedException("If-Match는 이 API가 발급한 ETag 하나여야 합니다: " + ifMatch);
+    }
+    
+    /**
+     * If-None-Match 비교 (쉼표로 구분된 목록, 약한 비교(W/), * 지원)
+     */
+    private static boolean matchesETag(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
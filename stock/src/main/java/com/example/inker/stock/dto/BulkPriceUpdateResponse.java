@@ -0,0 +1,47 @@
+package com.example.inker.stock.dto;
+
+import java.util.List;
+
+/**
+ * 일괄 가격 업데이트 응답 DTO
+ */
+public class BulkPriceUpdateResponse {
+    private int applied;
+    private int rejected;
+    private List<PriceUpdateResult> results;
+    
+    // 기본 생성자
+    public BulkPriceUpdateResponse() {}
+    
+    // 생성자
+    public BulkPriceUpdateResponse(int applied, int rejected, List<PriceUpdateResult> results) {
+        this.applied = applied;
+        this.rejected = rejected;
+        this.results = results;
+    }
+    
+    // Getter와 Setter
+    public int getApplied() {
+        return applied;
+    }
+    
+    public void setApplied(int applied) {
+        this.applied = applied;
+    }
+    
+    public int getRejected() {
+        return rejected;
+    }
+    
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+    
+    public List<PriceUpdateResult> getResults() {
+        return results;
+    }
+    
+    public void setResults(List<PriceUpdateResult> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.inker.stock.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * OHLCV 봉 응답 DTO
+ */
+public class CandleResponse {
+    private LocalDateTime time;
+    private Double open;
+    private Double high;
+    private Double low;
+    private Double close;
+    private Long volume;
+    
+    // 기본 생성자
+    public CandleResponse() {}
+    
+    // 생성자
+    public CandleResponse(LocalDateTime time, Double open, Double high, Double low, Double close, Long volume) {
+        this.time = time;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+    }
+    
+    // Getter와 Setter
+    public LocalDateTime getTime() {
+        return time;
+    }
+    
+    public void setTime(LocalDateTime time) {
+        this.time = time;
+    }
+    
+    public Double getOpen() {
+        return open;
+    }
+    
+    public void setOpen(Double open) {
+        this.open = open;
+    }
+    
+    public Double getHigh() {
+        return high;
+    }
+    
+    public void setHigh(Double high) {
+        this.high = high;
+    }
+    
+    public Double getLow() {
+        return low;
+    }
+    
+    public void setLow(Double low) {
+        this.low = low;
+    }
+    
+    public Double getClose() {
+        return close;
+    }
+    
+    public void setClose(Double close) {
+        this.close = close;
+    }
+    
+    public Long getVolume() {
+        return volume;
+    }
+    
+    public void setVolume(Long volume) {
+        this.volume = volume;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.inker.stock.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 일괄 가격 업데이트 요청 항목 DTO
+ * id가 있으면 id로, 없으면 symbol로 주식을 찾습니다.
+ */
+public class PriceTickRequest {
+    private Long id;
+    private String symbol;
+    private Double price;
+    private LocalDateTime timestamp;
+    
+    // 기본 생성자
+    public PriceTickRequest() {}
+    
+    // 생성자
+    public PriceTickRequest(Long id, String symbol, Double price, LocalDateTime timestamp) {
+        this.id = id;
+        this.symbol = symbol;
+        this.price = price;
+        this.timestamp = timestamp;
+    }
+    
+    // Getter와 Setter
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getSymbol() {
+        return symbol;
+    }
+    
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+    
+    public Double getPrice() {
+        return price;
+    }
+    
+    public void setPrice(Double price) {
+        this.price = price;
+    }
+    
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+    
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.inker.stock.dto;
+
+import com.example.inker.stock.entity.Stock;
+import java.time.LocalDateTime;
+
+/**
+ * 가격 스트림 이벤트 DTO
+ */
+public class PriceUpdateEvent {
+
+    private Long id;
+    private String symbol;
+    private Double currentPrice;
+    private Double previousPrice;
+    private Long volume;
+    private LocalDateTime updatedAt;
+
+    // 기본 생성자
+    public PriceUpdateEvent() {}
+
+    // 생성자
+    public PriceUpdateEvent(Long id, String symbol, Double currentPrice, Double previousPrice, Long volume,
+                            LocalDateTime updatedAt) {
+        this.id = id;
+        this.symbol = symbol;
+        this.currentPrice = currentPrice;
+        this.previousPrice = previousPrice;
+        this.volume = volume;
+        this.updatedAt = updatedAt;
+    }
+
+    // from 메서드
+    public static PriceUpdateEvent from(Stock stock) {
+        return new PriceUpdateEvent(
+            stock.getId(),
+            stock.getSymbol(),
+            stock.getCurrentPrice(),
+            stock.getPreviousPrice(),
+            stock.getVolume(),
+            stock.getUpdatedAt()
+        );
+    }
+
+    // Getter와 Setter
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public Double getCurrentPrice() {
+        return currentPrice;
+    }
+
+    public void setCurrentPrice(Double currentPrice) {
+        this.currentPrice = currentPrice;
+    }
+
+    public Double getPreviousPrice() {
+        return previousPrice;
+    }
+
+    public void setPreviousPrice(Double previousPrice) {
+        this.previousPrice = previousPrice;
+    }
+
+    public Long getVolume() {
+        return volume;
+    }
+
+    public void setVolume(Long volume) {
+        this.volume = volume;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.inker.stock.dto;
+
+/**
+ * 일괄 가격 업데이트 항목별 결과 DTO
+ */
+public class PriceUpdateResult {
+    
+    /**
+     * 항목 처리 상태
+     */
+    public enum Status {
+        // 반영됨
+        APPLIED,
+        // 같은 요청 안의 더 최신 틱으로 대체됨
+        SUPERSEDED,
+        // 이미 반영된 시각보다 오래된 틱
+        STALE,
+        // 주식을 찾을 수 없음
+        NOT_FOUND,
+        // 가격 또는 식별자가 올바르지 않음
+        INVALID
+    }
+    
+    private int index;
+    private Long id;
+    private String symbol;
+    private Status status;
+    
+    // 기본 생성자
+    public PriceUpdateResult() {}
+    
+    // 생성자
+    public PriceUpdateResult(int index, Long id, String symbol, Status status) {
+        this.index = index;
+        this.id = id;
+        this.symbol = symbol;
+        this.status = status;
+    }
+    
+    // Getter와 Setter
+    public int getIndex() {
+        return index;
+    }
+    
+    public void setIndex(int index) {
+        this.index = index;
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getSymbol() {
+        return symbol;
+    }
+    
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+    
+    public Status getStatus() {
+        return status;
+    }
+    
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.inker.stock.dto;
+
+import java.util.List;
+
+/**
+ * 섹터 집계 응답 DTO
+ */
+public class SectorSummaryResponse {
+    private String sector;
+    private int count;
+    private List<String> symbols;
+    private double totalMarketCap;
+    private long totalVolume;
+    private Double averageChangePercent;
+
+    // 기본 생성자
+    public SectorSummaryResponse() {}
+
+    // 생성자
+    public SectorSummaryResponse(String sector, int count, List<String> symbols, double totalMarketCap,
+                                 long totalVolume, Double averageChangePercent) {
+        this.sector = sector;
+        this.count = count;
+        this.symbols = symbols;
+        this.totalMarketCap = totalMarketCap;
+        this.totalVolume = totalVolume;
+        this.averageChangePercent = averageChangePercent;
+    }
+
+    // Getter와 Setter
+    public String getSector() {
+        return sector;
+    }
+
+    public void setSector(String sector) {
+        this.sector = sector;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public List<String> getSymbols() {
+        return symbols;
+    }
+
+    public void setSymbols(List<String> symbols) {
+        this.symbols = symbols;
+    }
+
+    public double getTotalMarketCap() {
+        return totalMarketCap;
+    }
+
+    public void setTotalMarketCap(double totalMarketCap) {
+        this.totalMarketCap = totalMarketCap;
+    }
+
+    public long getTotalVolume() {
+        return totalVolume;
+    }
+
+    public void setTotalVolume(long totalVolume) {
+        this.totalVolume = totalVolume;
+    }
+
+    public Double getAverageChangePercent() {
+        return averageChangePercent;
+    }
+
+    public void setAverageChangePercent(Double averageChangePercent) {
+        this.averageChangePercent = averageChangePercent;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.inker.stock.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 주식 분석 결과 응답 DTO (백그라운드 갱신으로 미리 계산된 값)
+ */
+public class StockAnalysisResponse {
+    private Long id;
+    private String symbol;
+    private Long analyzedVersion;
+    private Double currentPrice;
+    private Double changePercent;
+    private Double movingAverage;
+    private Double vwap;
+    private Double volatilityPercent;
+    private String trend;
+    private Integer barCount;
+    private List<String> unavailableStages;
+    private LocalDateTime analyzedAt;
+    private Boolean stale;
+    private Long stalenessMillis;
+    
+    // 기본 생성자
+    public StockAnalysisResponse() {}
+    
+    // Getter와 Setter
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getSymbol() {
+        return symbol;
+    }
+    
+    public void setSymbol(String symbol) {
+        this.symbol = symbol;
+    }
+    
+    public Long getAnalyzedVersion() {
+        return analyzedVersion;
+    }
+    
+    public void setAnalyzedVersion(Long analyzedVersion) {
+        this.analyzedVersion = analyzedVersion;
+    }
+    
+    public Double getCurrentPrice() {
+        return currentPrice;
+    }
+    
+    public void setCurrentPrice(Double currentPrice) {
+        this.currentPrice = currentPrice;
+    }
+    
+    public Double getChangePercent() {
+        return changePercent;
+    }
+    
+    public void setChangePercent(Double changePercent) {
+        this.changePercent = changePercent;
+    }
+    
+    public Double getMovingAverage() {
+        return movingAverage;
+    }
+    
+    public void setMovingAverage(Double movingAverage) {
+        this.movingAverage = movingAverage;
+    }
+    
+    public Double getVwap() {
+        return vwap;
+    }
+    
+    public void setVwap(Double vwap) {
+        this.vwap = vwap;
+    }
+    
+    public Double getVolatilityPercent() {
+        return volatilityPercent;
+    }
+    
+    public void setVolatilityPercent(Double volatilityPercent) {
+        this.volatilityPercent = volatilityPercent;
+    }
+    
+    public String getTrend() {
+        return trend;
+    }
+    
+    public void setTrend(String trend) {
+        this.trend = trend;
+    }
+    
+    public Integer getBarCount() {
+        return barCount;
+    }
+    
+    public void setBarCount(Integer barCount) {
+        this.barCount = barCount;
+    }
+    
+    public List<String> getUnavailableStages() {
+        return unavailableStages;
+    }
+    
+    public void setUnavailableStages(List<String> unavailableStages) {
+        this.unavailableStages = unavailableStages;
+    }
+    
+    public LocalDateTime getAnalyzedAt() {
+        return analyzedAt;
+    }
+    
+    public void setAnalyzedAt(LocalDateTime analyzedAt) {
+        this.analyzedAt = analyzedAt;
+    }
+    
+    public Boolean getStale() {
+        return stale;
+    }
+    
+    public void setStale(Boolean stale) {
+        this.stale = stale;
+    }
+    
+    public Long getStalenessMillis() {
+        return stalenessMillis;
+    }
+    
+    public void setStalenessMillis(Long stalenessMillis) {
+        this.stalenessMillis = stalenessMillis;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.inker.stock.dto;
+
+import java.util.List;
+
+/**
+ * 커서 기반 주식 페이지 응답 DTO
+ */
+public class StockPageResponse {
+    private List<StockResponse> items;
+    private String nextCursor;
+
+    // 기본 생성자
+    public StockPageResponse() {}
+
+    // 생성자
+    public StockPageResponse(List<StockResponse> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getter와 Setter
+    public List<StockResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<StockResponse> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -15,6 +15,7 @@ public class StockResponse {
     private String sector;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
     
     // 기본 생성자
     public StockResponse() {}
@@ -36,7 +37,7 @@ public class StockResponse {
     
     // from 메서드
     public static StockResponse from(Stock stock) {
-        return new StockResponse(
+        StockResponse response = new StockResponse(
             stock.getId(),
             stock.getSymbol(),
             stock.getCompanyName(),
@@ -48,6 +49,8 @@ public class StockResponse {
             stock.getCreatedAt(),
             stock.getUpdatedAt()
         );
+        response.setVersion(stock.getVersion());
+        return response;
     }
     
     // Getter와 Setter
@@ -130,4 +133,12 @@ public class StockResponse {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
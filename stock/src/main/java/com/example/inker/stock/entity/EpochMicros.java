@@ -0,0 +1,30 @@
+package com.example.inker.stock.entity;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * LocalDateTime <-> epoch 마이크로초(UTC 기준) 변환
+ * null은 NULL 값(Long.MIN_VALUE)으로 표현합니다.
+ */
+public final class EpochMicros {
+
+    public static final long NULL = Long.MIN_VALUE;
+
+    private EpochMicros() {}
+
+    public static long of(LocalDateTime time) {
+        if (time == null) {
+            return NULL;
+        }
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    public static LocalDateTime toLocalDateTime(long micros) {
+        if (micros == NULL) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+}
@@ -4,114 +4,193 @@ import java.time.LocalDateTime;
 
 /**
  * 주식 정보 엔티티
+ * 숫자는 원시 타입으로, 시각은 epoch 마이크로초로 보관하고
+ * 심볼과 섹터는 공유 사전 코드로 보관합니다.
+ * null 값은 NaN(double), Long.MIN_VALUE(long), StringDictionary.NULL_CODE(int)로 표현하며
+ * Getter는 기존과 같은 박싱 타입을 돌려줍니다.
+ * version은 저장할 때마다 저장소가 부여하는 단조 증가 번호입니다(0은 아직 저장되지 않음).
+ * 저장소에 들어간 인스턴스는 변경하지 않고, 복사본을 고쳐 version 비교 교체로 저장합니다.
  */
 public class Stock {
-    
-    private Long id;
-    private String symbol;
+
+    // 모든 주식이 공유하는 심볼/섹터 사전
+    public static final StringDictionary SYMBOLS = new StringDictionary();
+    public static final StringDictionary SECTORS = new StringDictionary();
+
+    private static final long NO_ID = 0L;
+    private static final long NULL_VOLUME = Long.MIN_VALUE;
+
+    private long id = NO_ID;
+    private int symbolCode = StringDictionary.NULL_CODE;
     private String companyName;
-    private Double currentPrice;
-    private Double previousPrice;
-    private Long volume;
-    private Double marketCap;
-    private String sector;
-    private LocalDateTime createdAt;
-    private LocalDateTime updatedAt;
-    
+    private double currentPrice = Double.NaN;
+    private double previousPrice = Double.NaN;
+    private long volume = NULL_VOLUME;
+    private double marketCap = Double.NaN;
+    private int sectorCode = StringDictionary.NULL_CODE;
+    private long createdAtMicros = EpochMicros.NULL;
+    private long updatedAtMicros = EpochMicros.NULL;
+    private volatile long version;
+    // 저장소에 교체된 뒤 변경 로그 기록 요청 전까지 true (복사되지 않음)
+    private volatile boolean logPending;
+
     // 기본 생성자
     public Stock() {}
-    
+
     // 생성자
-    public Stock(String symbol, String companyName, Double currentPrice, Double previousPrice, 
+    public Stock(String symbol, String companyName, Double currentPrice, Double previousPrice,
                  Long volume, Double marketCap, String sector) {
-        this.symbol = symbol;
+        setSymbol(symbol);
         this.companyName = companyName;
-        this.currentPrice = currentPrice;
-        this.previousPrice = previousPrice;
-        this.volume = volume;
-        this.marketCap = marketCap;
-        this.sector = sector;
-        this.createdAt = LocalDateTime.now();
-    }
-    
+        setCurrentPrice(currentPrice);
+        setPreviousPrice(previousPrice);
+        setVolume(volume);
+        setMarketCap(marketCap);
+        setSector(sector);
+        setCreatedAt(LocalDateTime.now());
+    }
+
+    // 복사 생성자 (version 포함)
+    public Stock(Stock source) {
+        this.id = source.id;
+        this.symbolCode = source.symbolCode;
+        this.companyName = source.companyName;
+        this.currentPrice = source.currentPrice;
+        this.previousPrice = source.previousPrice;
+        this.volume = source.volume;
+        this.marketCap = source.marketCap;
+        this.sectorCode = source.sectorCode;
+        this.createdAtMicros = source.createdAtMicros;
+        this.updatedAtMicros = source.updatedAtMicros;
+        this.version = source.version;
+    }
+
     // Getter와 Setter
     public Long getId() {
-        return id;
+        return id != NO_ID ? id : null;
     }
-    
+
     public void setId(Long id) {
-        this.id = id;
+        this.id = id != null ? id : NO_ID;
     }
-    
+
     public String getSymbol() {
-        return symbol;
+        return SYMBOLS.decode(symbolCode);
     }
-    
+
     public void setSymbol(String symbol) {
-        this.symbol = symbol;
+        this.symbolCode = SYMBOLS.encode(symbol);
+    }
+
+    public int getSymbolCode() {
+        return symbolCode;
     }
-    
+
     public String getCompanyName() {
         return companyName;
     }
-    
+
     public void setCompanyName(String companyName) {
         this.companyName = companyName;
     }
-    
+
     public Double getCurrentPrice() {
-        return currentPrice;
+        return boxed(currentPrice);
     }
-    
+
     public void setCurrentPrice(Double currentPrice) {
-        this.currentPrice = currentPrice;
+        this.currentPrice = unboxed(currentPrice);
     }
-    
+
     public Double getPreviousPrice() {
-        return previousPrice;
+        return boxed(previousPrice);
     }
-    
+
     public void setPreviousPrice(Double previousPrice) {
-        this.previousPrice = previousPrice;
+        this.previousPrice = unboxed(previousPrice);
     }
-    
+
     public Long getVolume() {
-        return volume;
+        return volume != NULL_VOLUME ? volume : null;
     }
-    
+
     public void setVolume(Long volume) {
-        this.volume = volume;
+        this.volume = volume != null ? volume : NULL_VOLUME;
     }
-    
+
     public Double getMarketCap() {
-        return marketCap;
+        return boxed(marketCap);
     }
-    
+
     public void setMarketCap(Double marketCap) {
-        this.marketCap = marketCap;
+        this.marketCap = unboxed(marketCap);
     }
-    
+
     public String getSector() {
-        return sector;
+        return SECTORS.decode(sectorCode);
     }
-    
+
     public void setSector(String sector) {
-        this.sector = sector;
+        this.sectorCode = SECTORS.encode(sector);
     }
-    
+
+    public int getSectorCode() {
+        return sectorCode;
+    }
+
     public LocalDateTime getCreatedAt() {
-        return createdAt;
+        return EpochMicros.toLocalDateTime(createdAtMicros);
     }
-    
+
     public void setCreatedAt(LocalDateTime createdAt) {
-        this.createdAt = createdAt;
+        this.createdAtMicros = EpochMicros.of(createdAt);
     }
-    
+
+    public long getCreatedAtMicros() {
+        return createdAtMicros;
+    }
+
+    public void setCreatedAtMicros(long createdAtMicros) {
+        this.createdAtMicros = createdAtMicros;
+    }
+
     public LocalDateTime getUpdatedAt() {
-        return updatedAt;
+        return EpochMicros.toLocalDateTime(updatedAtMicros);
     }
-    
+
     public void setUpdatedAt(LocalDateTime updatedAt) {
-        this.updatedAt = updatedAt;
+        this.updatedAtMicros = EpochMicros.of(updatedAt);
+    }
+
+    public long getUpdatedAtMicros() {
+        return updatedAtMicros;
+    }
+
+    public void setUpdatedAtMicros(long updatedAtMicros) {
+        this.updatedAtMicros = updatedAtMicros;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public boolean isLogPending() {
+        return logPending;
+    }
+
+    public void setLogPending(boolean logPending) {
+        this.logPending = logPending;
+    }
+
+    private static Double boxed(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private static double unboxed(Double value) {
+        return value != null ? value : Double.NaN;
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.example.inker.stock.entity;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 문자열 사전
+ * 반복되는 문자열(섹터, 심볼)을 0부터 증가하는 int 코드로 인코딩합니다.
+ * 코드는 추가만 되며 한 번 발급된 코드는 바뀌지 않습니다. null은 -1로 인코딩합니다.
+ */
+public class StringDictionary {
+
+    public static final int NULL_CODE = -1;
+
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[16];
+    private int size;
+
+    /**
+     * 문자열의 코드를 반환하고, 처음 보는 문자열이면 새 코드를 발급
+     */
+    public int encode(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        Integer code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        synchronized (this) {
+            code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size] = value;
+            codes.put(value, size);
+            return size++;
+        }
+    }
+
+    /**
+     * 이미 발급된 코드 조회 (없으면 NULL_CODE)
+     */
+    public int lookup(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        Integer code = codes.get(value);
+        return code != null ? code : NULL_CODE;
+    }
+
+    public String decode(int code) {
+        return code == NULL_CODE ? null : values[code];
+    }
+
+    public int size() {
+        return codes.size();
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.inker.stock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 같은 주식을 동시에 변경하려던 다른 요청이 먼저 반영되어 쓰기를 포기한 경우 (409)
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class StockConflictException extends RuntimeException {
+    public StockConflictException() {
+        super("재고가 동시에 변경되었습니다");
+    }
+    
+    public StockConflictException(String message) {
+        super(message);
+    }
+}
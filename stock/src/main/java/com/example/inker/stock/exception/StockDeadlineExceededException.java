@@ -0,0 +1,18 @@
+package com.example.inker.stock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 요청 마감이 지났거나 요청 스레드가 인터럽트되어 남은 분석 단계를 실행하지 않고 중단한 경우 (504)
+ */
+@ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+public class StockDeadlineExceededException extends RuntimeException {
+    public StockDeadlineExceededException() {
+        super("요청 처리 마감이 지났습니다");
+    }
+
+    public StockDeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,12 @@
 package com.example.inker.stock.exception;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 없는 재고 (404, 파티션 라우팅은 담당 노드의 404를 보고 다른 노드에 다시 묻습니다)
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
 public class StockNotFoundException extends RuntimeException {
     public StockNotFoundException() {
         super("재고를 찾을 수 없습니다");
@@ -8,4 +15,4 @@ public class StockNotFoundException extends RuntimeException {
     public StockNotFoundException(String message) {
         super(message);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,18 @@
+package com.example.inker.stock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 엔드포인트 그룹의 동시 처리 한도를 넘어 요청을 처리하지 않고 거절한 경우 (503)
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class StockOverloadedException extends RuntimeException {
+    public StockOverloadedException() {
+        super("요청이 많아 처리할 수 없습니다");
+    }
+
+    public StockOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.inker.stock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 요청한 파티션을 맡은 노드에 닿지 못한 경우 (502)
+ */
+@ResponseStatus(HttpStatus.BAD_GATEWAY)
+public class StockPartitionUnavailableException extends RuntimeException {
+    public StockPartitionUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
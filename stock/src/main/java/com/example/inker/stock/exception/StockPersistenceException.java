@@ -0,0 +1,11 @@
+package com.example.inker.stock.exception;
+
+public class StockPersistenceException extends RuntimeException {
+    public StockPersistenceException() {
+        super("재고 데이터 저장에 실패했습니다");
+    }
+    
+    public StockPersistenceException(String message, Throwable cause) {
+        super(message, cause);
+    }
+} 
\ No newline at end of file
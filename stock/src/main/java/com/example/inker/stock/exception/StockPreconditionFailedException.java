@@ -0,0 +1,18 @@
+package com.example.inker.stock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * If-Match로 보낸 version이 현재 재고 version과 다른 경우 (412)
+ */
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class StockPreconditionFailedException extends RuntimeException {
+    public StockPreconditionFailedException() {
+        super("재고 version이 일치하지 않습니다");
+    }
+    
+    public StockPreconditionFailedException(String message) {
+        super(message);
+    }
+}
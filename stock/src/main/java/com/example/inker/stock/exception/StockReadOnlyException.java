@@ -0,0 +1,14 @@
+package com.example.inker.stock.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 복제본(replica) 인스턴스로 들어온 쓰기 요청 (503, 쓰기는 primary에서만 처리)
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class StockReadOnlyException extends RuntimeException {
+    public StockReadOnlyException() {
+        super("읽기 전용 복제본입니다. 쓰기는 primary로 보내야 합니다");
+    }
+}
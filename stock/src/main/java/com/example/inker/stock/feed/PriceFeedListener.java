@@ -0,0 +1,183 @@
+package com.example.inker.stock.feed;
+
+import com.example.inker.stock.service.StockService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 바이너리 시세 피드 수신기 (NIO TCP)
+ * stock.feed.enabled=true이면 stock.feed.host:stock.feed.port에서 PriceTickMessage 스트림을 받습니다.
+ * 연결마다 direct ByteBuffer 하나를 재사용하고, 고정 위치에서 바로 읽어 StockService.applyPriceTick으로 반영합니다.
+ * 틱마다 updateStockPrice와 같은 검증과 커밋 후 분석 요청을 거치므로 분석은 수신 스레드에서 실행하지 않습니다.
+ * 한 번의 select에서 읽은 틱 묶음마다 마지막 변경 로그 기록을 기다려, 기록이 밀리면 소켓 읽기를 늦춥니다.
+ */
+@Component
+public class PriceFeedListener {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceFeedListener.class);
+
+    private static final int BUFFER_SIZE = PriceTickMessage.SIZE * 2048;
+
+    private final StockService stockService;
+    private final boolean enabled;
+    private final String host;
+    private final int port;
+    private final LongAdder received = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+
+    // 한 번의 select에서 반영한 마지막 틱의 변경 로그 기록 (수신 스레드 전용)
+    private CompletableFuture<Void> batchDurable;
+
+    private Selector selector;
+    private ServerSocketChannel server;
+    private volatile boolean running;
+    private Thread loop;
+
+    public PriceFeedListener(
+            StockService stockService,
+            @Value("${stock.feed.enabled:false}") boolean enabled,
+            @Value("${stock.feed.host:127.0.0.1}") String host,
+            @Value("${stock.feed.port:9300}") int port) {
+        this.stockService = stockService;
+        this.enabled = enabled;
+        this.host = host;
+        this.port = port;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(host, port));
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        running = true;
+        loop = new Thread(this::runLoop, "stock-feed");
+        loop.setDaemon(true);
+        loop.start();
+        log.info("시세 피드 수신 시작: {}", server.getLocalAddress());
+    }
+
+    /**
+     * 실제로 바인딩된 포트 (stock.feed.port=0이면 임의 포트)
+     */
+    public int getLocalPort() {
+        return server != null ? server.socket().getLocalPort() : -1;
+    }
+
+    public long getReceivedCount() {
+        return received.sum();
+    }
+
+    public long getAppliedCount() {
+        return applied.sum();
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        loop.join(TimeUnit.SECONDS.toMillis(5));
+        for (SelectionKey key : selector.keys()) {
+            key.channel().close();
+        }
+        selector.close();
+    }
+
+    private void runLoop() {
+        while (running) {
+            try {
+                selector.select();
+                batchDurable = null;
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else if (key.isReadable()) {
+                        read(key);
+                    }
+                }
+                // 변경 로그는 순서대로 기록되므로 마지막 기록만 기다리면 앞선 기록도 끝난 상태
+                if (batchDurable != null) {
+                    batchDurable.join();
+                }
+            } catch (Exception e) {
+                if (running) {
+                    log.error("시세 피드 처리 실패", e);
+                }
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.register(selector, SelectionKey.OP_READ, ByteBuffer.allocateDirect(BUFFER_SIZE));
+        log.info("시세 피드 연결: {}", channel.getRemoteAddress());
+    }
+
+    private void read(SelectionKey key) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        ByteBuffer buffer = (ByteBuffer) key.attachment();
+        int ticks = 0;
+        int read;
+        try {
+            read = channel.read(buffer);
+        } catch (IOException e) {
+            read = -1;
+        }
+        buffer.flip();
+        int offset = buffer.position();
+        while (buffer.limit() - offset >= PriceTickMessage.SIZE) {
+            CompletableFuture<Void> durable = stockService.applyPriceTick(
+                    PriceTickMessage.stockId(buffer, offset),
+                    PriceTickMessage.price(buffer, offset),
+                    PriceTickMessage.volume(buffer, offset),
+                    PriceTickMessage.timestampMicros(buffer, offset));
+            if (durable != null) {
+                batchDurable = durable;
+                applied.increment();
+            }
+            ticks++;
+            offset += PriceTickMessage.SIZE;
+        }
+        received.add(ticks);
+        buffer.position(offset);
+        buffer.compact();
+        if (read < 0) {
+            log.info("시세 피드 연결 종료: {}", channel.getRemoteAddress());
+            key.cancel();
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.inker.stock.feed;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 바이너리 시세 틱 메시지 레이아웃 (고정 32바이트, 빅 엔디언)
+ * [stockId long][price double][volume long][timestampMicros long]
+ * volume이 음수이면 거래량을 바꾸지 않고, timestampMicros가 Long.MIN_VALUE이면 수신 시각을 사용합니다.
+ *
+ * 읽기는 버퍼의 절대 위치 getter만 사용하므로 객체를 만들지 않습니다.
+ */
+public final class PriceTickMessage {
+
+    public static final int SIZE = 32;
+
+    private static final int STOCK_ID = 0;
+    private static final int PRICE = 8;
+    private static final int VOLUME = 16;
+    private static final int TIMESTAMP = 24;
+
+    private PriceTickMessage() {}
+
+    public static long stockId(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset + STOCK_ID);
+    }
+
+    public static double price(ByteBuffer buffer, int offset) {
+        return buffer.getDouble(offset + PRICE);
+    }
+
+    public static long volume(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset + VOLUME);
+    }
+
+    public static long timestampMicros(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset + TIMESTAMP);
+    }
+
+    /**
+     * 현재 위치에 틱 메시지 하나를 기록
+     */
+    public static void put(ByteBuffer buffer, long stockId, double price, long volume, long timestampMicros) {
+        buffer.putLong(stockId);
+        buffer.putDouble(price);
+        buffer.putLong(volume);
+        buffer.putLong(timestampMicros);
+    }
+}
@@ -0,0 +1,527 @@
+package com.example.inker.stock.feed;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 과거 틱 파일 재생 엔진 (백테스트용)
+ * 각 파일은 타임스탬프 순으로 기록되어 있어야 하며, 파일을 구간으로 나눠 구간마다 전용 스레드가
+ * 메모리 매핑한 창(window) 단위로 파싱합니다. 파싱 결과는 고정 크기 원시 배열 블록을 재사용하므로
+ * 힙 사용량은 파일 크기와 무관하게 (구간 수 x 블록 깊이)로 제한됩니다.
+ * 모든 구간의 블록을 타임스탬프 기준 k-way 병합하여 호출 스레드에서 순서대로 전달합니다.
+ *
+ * 형식:
+ * - BINARY: PriceTickMessage 레코드(32바이트)의 연속
+ * - CSV: stockId,price,volume,timestampMicros 줄의 연속 (숫자로 시작하지 않는 줄은 헤더로 보고 건너뜀)
+ */
+public class TickReplayEngine {
+
+    public enum Format { BINARY, CSV }
+
+    /**
+     * 틱 수신자 (박싱 없이 원시 값으로 전달)
+     */
+    @FunctionalInterface
+    public interface TickConsumer {
+        void accept(long stockId, double price, long volume, long timestampMicros);
+    }
+
+    private static final long WINDOW_BYTES = 64L << 20;
+    private static final int BLOCK_TICKS = 8192;
+    private static final int BLOCK_DEPTH = 4;
+    private static final long MIN_SEGMENT_BYTES = 1L << 20;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private final int parallelism;
+    private final long windowBytes;
+    private final long minSegmentBytes;
+
+    public TickReplayEngine(int parallelism) {
+        this(parallelism, WINDOW_BYTES, MIN_SEGMENT_BYTES);
+    }
+
+    /**
+     * 매핑 창 크기와 구간 최소 크기를 지정 (작은 파일로 구간/창 경계를 시험할 때 사용)
+     */
+    TickReplayEngine(int parallelism, long windowBytes, long minSegmentBytes) {
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.windowBytes = windowBytes;
+        this.minSegmentBytes = minSegmentBytes;
+    }
+
+    /**
+     * 파일들을 타임스탬프 순으로 재생
+     * speed가 0 이하이면 최대 속도로, 1이면 기록된 시간 간격 그대로, 그 외에는 배속으로 재생합니다.
+     */
+    public Result replay(List<Path> files, Format format, double speed, TickConsumer consumer) throws IOException {
+        List<Segment> segments = new ArrayList<>();
+        try {
+            int segmentsPerFile = Math.max(1, parallelism / Math.max(1, files.size()));
+            for (Path file : files) {
+                FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                long[] bounds = split(channel, format, segmentsPerFile);
+                for (int i = 0; i + 1 < bounds.length; i++) {
+                    if (bounds[i] < bounds[i + 1]) {
+                        segments.add(new Segment(channel, format, bounds[i], bounds[i + 1], i == 0, windowBytes));
+                    }
+                }
+                if (bounds.length < 2 || bounds[0] == bounds[bounds.length - 1]) {
+                    channel.close();
+                }
+            }
+            for (int i = 0; i < segments.size(); i++) {
+                segments.get(i).start("stock-replay-" + i);
+            }
+            return merge(segments, speed, consumer);
+        } finally {
+            for (Segment segment : segments) {
+                segment.cancel();
+            }
+            for (Segment segment : segments) {
+                if (segment.first) {
+                    segment.channel.close();
+                }
+            }
+        }
+    }
+
+    private Result merge(List<Segment> segments, double speed, TickConsumer consumer) {
+        long startedAt = System.nanoTime();
+        // 각 구간의 현재 블록 헤드를 타임스탬프 최소 힙으로 유지
+        int[] heap = new int[segments.size()];
+        int heapSize = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            if (segments.get(i).advance()) {
+                heap[heapSize++] = i;
+                siftUp(heap, heapSize - 1, segments);
+            }
+        }
+
+        long ticks = 0;
+        long outOfOrder = 0;
+        long lastTimestamp = Long.MIN_VALUE;
+        long firstTimestamp = Long.MIN_VALUE;
+        long paceStart = 0;
+        while (heapSize > 0) {
+            Segment segment = segments.get(heap[0]);
+            TickBlock block = segment.current;
+            int index = segment.index;
+            long timestamp = block.timestamps[index];
+            if (timestamp < lastTimestamp) {
+                outOfOrder++;
+            }
+            lastTimestamp = Math.max(lastTimestamp, timestamp);
+            if (speed > 0) {
+                if (firstTimestamp == Long.MIN_VALUE) {
+                    firstTimestamp = timestamp;
+                    paceStart = System.nanoTime();
+                }
+                long due = paceStart + (long) ((timestamp - firstTimestamp) * 1000 / speed);
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+            consumer.accept(block.stockIds[index], block.prices[index], block.volumes[index], timestamp);
+            ticks++;
+
+            if (segment.advance()) {
+                siftDown(heap, 0, heapSize, segments);
+            } else {
+                heap[0] = heap[--heapSize];
+                siftDown(heap, 0, heapSize, segments);
+            }
+        }
+        for (Segment segment : segments) {
+            segment.rethrow();
+        }
+        return new Result(ticks, outOfOrder, System.nanoTime() - startedAt);
+    }
+
+    private static void siftUp(int[] heap, int position, List<Segment> segments) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!before(heap[position], heap[parent], segments)) {
+                return;
+            }
+            swap(heap, position, parent);
+            position = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int position, int size, List<Segment> segments) {
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            if (left < size && before(heap[left], heap[smallest], segments)) {
+                smallest = left;
+            }
+            if (left + 1 < size && before(heap[left + 1], heap[smallest], segments)) {
+                smallest = left + 1;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(heap, position, smallest);
+            position = smallest;
+        }
+    }
+
+    // 타임스탬프가 같으면 앞 구간(파일 순서, 파일 내 앞부분)을 먼저
+    private static boolean before(int a, int b, List<Segment> segments) {
+        long ta = segments.get(a).headTimestamp();
+        long tb = segments.get(b).headTimestamp();
+        return ta < tb || (ta == tb && a < b);
+    }
+
+    private static void swap(int[] heap, int a, int b) {
+        int temp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = temp;
+    }
+
+    /**
+     * 파일을 레코드(BINARY) 또는 줄(CSV) 경계에서 나눈 구간 경계 목록
+     */
+    private long[] split(FileChannel channel, Format format, int count) throws IOException {
+        long size = channel.size();
+        if (format == Format.BINARY) {
+            size -= size % PriceTickMessage.SIZE;
+        }
+        count = (int) Math.max(1, Math.min(count, size / minSegmentBytes));
+        long[] bounds = new long[count + 1];
+        bounds[count] = size;
+        for (int i = 1; i < count; i++) {
+            long position = size / count * i;
+            if (format == Format.BINARY) {
+                position -= position % PriceTickMessage.SIZE;
+            } else {
+                position = nextLineStart(channel, position, size);
+            }
+            bounds[i] = Math.max(position, bounds[i - 1]);
+        }
+        return bounds;
+    }
+
+    private long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        long window = Math.min(windowBytes, size - position);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, window);
+        for (int i = 0; i < window; i++) {
+            if (buffer.get(i) == '\n') {
+                return position + i + 1;
+            }
+        }
+        if (position + window == size) {
+            // 줄바꿈 없이 끝나는 마지막 줄 안의 경계
+            return size;
+        }
+        throw new IOException("CSV 줄이 너무 깁니다: " + position);
+    }
+
+    /**
+     * 재생 결과
+     */
+    public static final class Result {
+        private final long ticks;
+        private final long outOfOrder;
+        private final long elapsedNanos;
+
+        Result(long ticks, long outOfOrder, long elapsedNanos) {
+            this.ticks = ticks;
+            this.outOfOrder = outOfOrder;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public long getTicks() {
+            return ticks;
+        }
+
+        /**
+         * 타임스탬프가 앞선 틱보다 이른 틱 수 (입력 파일이 정렬되어 있지 않을 때 발생)
+         */
+        public long getOutOfOrder() {
+            return outOfOrder;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+    }
+
+    /**
+     * 원시 배열 틱 블록 (구간마다 BLOCK_DEPTH + 1개를 돌려 씀)
+     */
+    private static final class TickBlock {
+        private final long[] stockIds = new long[BLOCK_TICKS];
+        private final double[] prices = new double[BLOCK_TICKS];
+        private final long[] volumes = new long[BLOCK_TICKS];
+        private final long[] timestamps = new long[BLOCK_TICKS];
+        private int size;
+        // 구간의 마지막 블록 표시 (size가 0일 수 있음)
+        private boolean last;
+    }
+
+    /**
+     * 파일의 한 구간을 파싱하는 작업과 병합용 커서
+     */
+    private static final class Segment implements Runnable {
+        private final FileChannel channel;
+        private final Format format;
+        private final long start;
+        private final long end;
+        // 채널을 닫을 책임이 있는 파일의 첫 구간
+        private final boolean first;
+        private final long windowBytes;
+        private final BlockingQueue<TickBlock> filled = new ArrayBlockingQueue<>(BLOCK_DEPTH + 1);
+        private final BlockingQueue<TickBlock> free = new ArrayBlockingQueue<>(BLOCK_DEPTH + 1);
+        private volatile boolean cancelled;
+        private volatile Throwable failure;
+        private Thread thread;
+
+        // 병합 스레드 전용 커서
+        private TickBlock current;
+        private int index;
+        private boolean exhausted;
+
+        private Segment(FileChannel channel, Format format, long start, long end, boolean first, long windowBytes) {
+            this.channel = channel;
+            this.format = format;
+            this.start = start;
+            this.end = end;
+            this.first = first;
+            this.windowBytes = windowBytes;
+            for (int i = 0; i < BLOCK_DEPTH + 1; i++) {
+                free.add(new TickBlock());
+            }
+        }
+
+        private void start(String name) {
+            thread = new Thread(this, name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        @Override
+        public void run() {
+            TickBlock block = null;
+            try {
+                block = free.take();
+                long position = start;
+                while (position < end && !cancelled) {
+                    long length = Math.min(windowBytes, end - position);
+                    MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                    boolean lastWindow = position + length == end;
+                    int consumed = 0;
+                    while (!cancelled) {
+                        if (block.size == BLOCK_TICKS) {
+                            filled.put(block);
+                            block = free.take();
+                            block.size = 0;
+                        }
+                        int next = format == Format.BINARY
+                                ? parseBinary(window, consumed, (int) length, block)
+                                : parseCsvLine(window, consumed, (int) length, lastWindow, block);
+                        if (next < 0) {
+                            break;
+                        }
+                        consumed = next;
+                    }
+                    if (consumed == 0 && !cancelled) {
+                        throw new IOException("CSV 줄이 너무 깁니다: " + position);
+                    }
+                    position += consumed;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                failure = e;
+            } finally {
+                if (block == null) {
+                    block = new TickBlock();
+                }
+                block.last = true;
+                // 블록 수가 큐 용량과 같으므로 항상 성공
+                filled.offer(block);
+            }
+        }
+
+        /**
+         * 다음 틱으로 이동 (없으면 false)
+         */
+        private boolean advance() {
+            if (exhausted) {
+                return false;
+            }
+            if (current != null && ++index < current.size) {
+                return true;
+            }
+            try {
+                while (true) {
+                    if (current != null) {
+                        boolean last = current.last;
+                        current.size = 0;
+                        current.last = false;
+                        free.add(current);
+                        current = null;
+                        if (last) {
+                            exhausted = true;
+                            return false;
+                        }
+                    }
+                    current = filled.take();
+                    index = 0;
+                    if (current.size > 0) {
+                        return true;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                exhausted = true;
+                return false;
+            }
+        }
+
+        private long headTimestamp() {
+            return current.timestamps[index];
+        }
+
+        private void cancel() {
+            cancelled = true;
+            if (thread != null) {
+                thread.interrupt();
+            }
+        }
+
+        private void rethrow() {
+            Throwable e = failure;
+            if (e instanceof IOException) {
+                throw new UncheckedIOException((IOException) e);
+            }
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            }
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+        }
+    }
+
+    /**
+     * 창의 offset 위치 레코드 하나를 블록에 추가하고 다음 위치를 반환 (남은 레코드가 없으면 -1)
+     */
+    private static int parseBinary(MappedByteBuffer window, int offset, int length, TickBlock block) {
+        if (length - offset < PriceTickMessage.SIZE) {
+            return -1;
+        }
+        int i = block.size++;
+        block.stockIds[i] = PriceTickMessage.stockId(window, offset);
+        block.prices[i] = PriceTickMessage.price(window, offset);
+        block.volumes[i] = PriceTickMessage.volume(window, offset);
+        block.timestamps[i] = PriceTickMessage.timestampMicros(window, offset);
+        return offset + PriceTickMessage.SIZE;
+    }
+
+    /**
+     * 창의 offset 위치 CSV 줄 하나를 블록에 추가하고 다음 줄 위치를 반환
+     * 줄이 창 끝에서 잘렸으면 -1을 반환하여 그 줄부터 다음 창을 매핑하게 합니다.
+     */
+    private static int parseCsvLine(MappedByteBuffer window, int offset, int length, boolean lastWindow,
+                                    TickBlock block) {
+        int lineEnd = offset;
+        while (lineEnd < length && window.get(lineEnd) != '\n') {
+            lineEnd++;
+        }
+        if (lineEnd == length && (!lastWindow || offset == length)) {
+            return -1;
+        }
+        int next = Math.min(lineEnd + 1, length);
+        int end = lineEnd > offset && window.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+        byte head = offset < end ? window.get(offset) : 0;
+        if (head != '-' && (head < '0' || head > '9')) {
+            // 헤더 또는 빈 줄
+            return next;
+        }
+
+        int i = block.size;
+        int field = offset;
+        int comma = indexOf(window, field, end);
+        block.stockIds[i] = parseLong(window, field, comma);
+        field = comma + 1;
+        comma = indexOf(window, field, end);
+        block.prices[i] = parseDouble(window, field, comma);
+        field = comma + 1;
+        comma = indexOf(window, field, end);
+        block.volumes[i] = comma > field ? parseLong(window, field, comma) : -1;
+        field = comma + 1;
+        block.timestamps[i] = parseLong(window, field, end);
+        block.size++;
+        return next;
+    }
+
+    private static int indexOf(MappedByteBuffer window, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (window.get(i) == ',') {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("CSV 필드가 부족합니다: " + text(window, from, end));
+    }
+
+    private static long parseLong(MappedByteBuffer window, int from, int to) {
+        boolean negative = from < to && window.get(from) == '-';
+        long value = 0;
+        for (int i = negative ? from + 1 : from; i < to; i++) {
+            int digit = window.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new IllegalArgumentException("숫자가 아닙니다: " + text(window, from, to));
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * 정수부와 소수부가 합쳐 15자리 이하인 일반 소수는 직접 계산 (정확히 반올림됨),
+     * 지수 표기나 더 긴 값은 Double.parseDouble로 처리
+     */
+    private static double parseDouble(MappedByteBuffer window, int from, int to) {
+        boolean negative = from < to && window.get(from) == '-';
+        long mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        for (int i = negative ? from + 1 : from; i < to; i++) {
+            byte b = window.get(i);
+            if (b == '.' && scale < 0) {
+                scale = 0;
+            } else if (b >= '0' && b <= '9' && digits < 15) {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else {
+                return Double.parseDouble(text(window, from, to));
+            }
+        }
+        double value = mantissa / POWERS_OF_TEN[Math.max(scale, 0)];
+        return negative ? -value : value;
+    }
+
+    private static String text(MappedByteBuffer window, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        window.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
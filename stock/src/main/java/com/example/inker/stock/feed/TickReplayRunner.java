@@ -0,0 +1,131 @@
+package com.example.inker.stock.feed;
+
+import com.example.inker.stock.service.StockService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 과거 틱 재생 실행기
+ * stock.replay.path(쉼표로 구분한 파일 목록)가 설정되면 기동 후 백그라운드 스레드에서
+ * TickReplayEngine으로 파일을 재생하여 StockService.applyPriceTick 경로로 반영합니다.
+ * 최대 속도 재생에서는 ANALYSIS_BATCH 틱마다, 실시간/배속 재생에서는 틱마다 가격 분석을 수행합니다.
+ * 분석 단계의 실패나 시간 초과는 재생을 멈추지 않고 묶음별로 세어 완료 로그에 남깁니다.
+ */
+@Component
+public class TickReplayRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(TickReplayRunner.class);
+
+    private static final int ANALYSIS_BATCH = 4096;
+
+    private final StockService stockService;
+    private final List<Path> files;
+    private final TickReplayEngine.Format format;
+    private final double speed;
+    private final int parallelism;
+    private Thread thread;
+
+    public TickReplayRunner(
+            StockService stockService,
+            @Value("${stock.replay.path:}") String paths,
+            @Value("${stock.replay.format:binary}") String format,
+            @Value("${stock.replay.speed:0}") double speed,
+            @Value("${stock.replay.parallelism:0}") int parallelism) {
+        this.stockService = stockService;
+        this.files = paths.isBlank() ? List.of() : Arrays.stream(paths.split(","))
+                .map(String::trim)
+                .map(Path::of)
+                .toList();
+        this.format = TickReplayEngine.Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        this.speed = speed;
+        this.parallelism = parallelism;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (files.isEmpty()) {
+            return;
+        }
+        thread = new Thread(this::run, "stock-replay");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void run() {
+        int batch = speed > 0 ? 1 : ANALYSIS_BATCH;
+        BatchingConsumer consumer = new BatchingConsumer(batch);
+        try {
+            TickReplayEngine.Result result = new TickReplayEngine(parallelism)
+                    .replay(files, format, speed, consumer);
+            consumer.flush();
+            double seconds = result.getElapsedNanos() / 1e9;
+            log.info("틱 재생 완료: {}건 (반영 {}건, 순서 어긋남 {}건, 분석 단계 생략 묶음 {}/{}건), {}초, 초당 {}건",
+                    result.getTicks(), consumer.applied, result.getOutOfOrder(),
+                    consumer.degradedBatches, consumer.batches,
+                    String.format("%.3f", seconds), String.format("%.0f", result.getTicks() / seconds));
+        } catch (Exception e) {
+            log.error("틱 재생 실패: {}", files, e);
+        }
+    }
+
+    /**
+     * 틱을 반영하고 일정 개수마다 분석과 변경 로그 기록 대기를 수행
+     */
+    private final class BatchingConsumer implements TickReplayEngine.TickConsumer {
+        private final int batch;
+        private int pending;
+        private long applied;
+        private long batches;
+        // 분석 단계를 하나 이상 건너뛴 묶음 수
+        private long degradedBatches;
+        private CompletableFuture<Void> lastDurable;
+
+        private BatchingConsumer(int batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public void accept(long stockId, double price, long volume, long timestampMicros) {
+            CompletableFuture<Void> durable = stockService.applyPriceTick(stockId, price, volume, timestampMicros);
+            if (durable != null) {
+                lastDurable = durable;
+                applied++;
+            }
+            if (++pending >= batch) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (pending == 0) {
+                return;
+            }
+            batches++;
+            if (stockService.analyzePriceTicks() > 0) {
+                degradedBatches++;
+            }
+            if (lastDurable != null) {
+                lastDurable.join();
+                lastDurable = null;
+            }
+            pending = 0;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.inker.stock.limit;
+
+import com.example.inker.stock.exception.StockDeadlineExceededException;
+import com.example.inker.stock.exception.StockOverloadedException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * AIMD 방식의 적응형 동시 처리 한도 (엔드포인트 그룹 하나)
+ * 목표 지연 안에 끝난 요청마다 한도를 1/한도씩 늘려 한도만큼의 요청이 끝날 때마다 약 1 증가하고,
+ * 목표 지연을 넘기거나 마감을 넘긴 요청이 나오면 한도를 backoffRatio배로 줄입니다 (목표 지연 구간마다 최대 한 번).
+ * 한도만큼 처리 중이면 새 요청은 기다리지 않고 바로 거절합니다.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private volatile int limit;
+    // 정수 한도로 내리기 전의 추정값과 마지막 감소 시각 (this로 보호)
+    private double estimate;
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimiter(String name, int minLimit, int maxLimit, long targetLatencyMillis,
+                                      double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit || !(backoffRatio > 0 && backoffRatio < 1)) {
+            throw new IllegalArgumentException("유효하지 않은 동시 처리 한도 설정입니다: " + name);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+        this.backoffRatio = backoffRatio;
+        // 처음에는 최대 한도의 절반에서 시작
+        this.estimate = Math.max(minLimit, maxLimit / 2.0);
+        this.limit = (int) estimate;
+        this.lastDecreaseNanos = System.nanoTime() - targetLatencyNanos;
+    }
+
+    /**
+     * 한도 안에서 call 실행 (한도를 넘으면 실행하지 않고 503)
+     */
+    public <T> T call(Supplier<T> call) {
+        if (!tryAcquire()) {
+            throw new StockOverloadedException("요청이 많아 " + name + " 요청을 처리할 수 없습니다");
+        }
+        long startNanos = System.nanoTime();
+        boolean dropped = false;
+        try {
+            return call.get();
+        } catch (StockDeadlineExceededException e) {
+            dropped = true;
+            throw e;
+        } finally {
+            release(startNanos, dropped);
+        }
+    }
+
+    public boolean tryAcquire() {
+        for (;;) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 처리 완료 (dropped는 마감 경과처럼 과부하로 실패한 경우)
+     */
+    public void release(long startNanos, boolean dropped) {
+        long now = System.nanoTime();
+        int inFlightBefore = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (dropped || now - startNanos > targetLatencyNanos) {
+                // 같은 과부하 구간에 끝난 요청들이 한도를 연달아 깎지 않게 목표 지연 구간마다 한 번만 감소
+                if (now - lastDecreaseNanos >= targetLatencyNanos) {
+                    estimate = Math.max(minLimit, estimate * backoffRatio);
+                    lastDecreaseNanos = now;
+                }
+            } else if (inFlightBefore * 2 >= limit) {
+                // 한도를 절반 이상 쓰고 있을 때만 증가 (한가할 때 한도가 의미 없이 커지지 않게)
+                estimate = Math.min(maxLimit, estimate + 1.0 / estimate);
+            }
+            limit = (int) estimate;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
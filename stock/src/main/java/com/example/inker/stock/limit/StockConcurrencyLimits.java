@@ -0,0 +1,72 @@
+package com.example.inker.stock.limit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 분석 파이프라인을 거치는 주식 엔드포인트 그룹별 동시 처리 한도
+ * 그룹별 최대 한도의 합이 서블릿 스레드 풀보다 작게 유지되면 주식 요청이 몰려도
+ * 다른 모듈(사용자, 예약)의 요청을 처리할 스레드가 남습니다.
+ */
+@Component
+public class StockConcurrencyLimits {
+
+    // 단건 조회 (ID, 심볼)
+    private final AdaptiveConcurrencyLimiter lookup;
+    // 전체 목록 (전체, 페이지, 스트리밍)
+    private final AdaptiveConcurrencyLimiter list;
+    // 단건 생성/수정/가격/삭제
+    private final AdaptiveConcurrencyLimiter write;
+    // 일괄 가격 업데이트
+    private final AdaptiveConcurrencyLimiter bulk;
+
+    public StockConcurrencyLimits(
+            @Value("${stock.limit.min:1}") int minLimit,
+            @Value("${stock.limit.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${stock.limit.lookup.max:64}") int lookupMax,
+            @Value("${stock.limit.lookup.target-latency-millis:100}") long lookupTargetMillis,
+            @Value("${stock.limit.list.max:16}") int listMax,
+            @Value("${stock.limit.list.target-latency-millis:500}") long listTargetMillis,
+            @Value("${stock.limit.write.max:32}") int writeMax,
+            @Value("${stock.limit.write.target-latency-millis:200}") long writeTargetMillis,
+            @Value("${stock.limit.bulk.max:8}") int bulkMax,
+            @Value("${stock.limit.bulk.target-latency-millis:1000}") long bulkTargetMillis) {
+        this.lookup = new AdaptiveConcurrencyLimiter("lookup", minLimit, lookupMax, lookupTargetMillis, backoffRatio);
+        this.list = new AdaptiveConcurrencyLimiter("list", minLimit, listMax, listTargetMillis, backoffRatio);
+        this.write = new AdaptiveConcurrencyLimiter("write", minLimit, writeMax, writeTargetMillis, backoffRatio);
+        this.bulk = new AdaptiveConcurrencyLimiter("bulk", minLimit, bulkMax, bulkTargetMillis, backoffRatio);
+    }
+
+    public AdaptiveConcurrencyLimiter lookup() {
+        return lookup;
+    }
+
+    public AdaptiveConcurrencyLimiter list() {
+        return list;
+    }
+
+    public AdaptiveConcurrencyLimiter write() {
+        return write;
+    }
+
+    public AdaptiveConcurrencyLimiter bulk() {
+        return bulk;
+    }
+
+    /**
+     * 그룹별 현재 한도, 처리 중인 요청 수, 누적 거절 수
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> values = new LinkedHashMap<>();
+        for (AdaptiveConcurrencyLimiter limiter : List.of(lookup, list, write, bulk)) {
+            values.put(limiter.getName() + "Limit", (long) limiter.getLimit());
+            values.put(limiter.getName() + "InFlight", (long) limiter.getInFlight());
+            values.put(limiter.getName() + "Rejected", limiter.getRejected());
+        }
+        return values;
+    }
+}
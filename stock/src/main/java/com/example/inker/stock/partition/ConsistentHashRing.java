@@ -0,0 +1,109 @@
+package com.example.inker.stock.partition;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 심볼 파티션의 일관 해시 링
+ * 심볼은 해시로 고정된 partitionCount개 파티션 중 하나에 속하고, 파티션은 링에서 자기 위치 다음에 오는
+ * 노드(노드마다 virtualNodes개 가상 노드)가 맡습니다. 노드가 하나 늘면 새 노드의 가상 노드 앞 구간에 있던
+ * 파티션만 옮겨지므로 전체의 약 1/N만 이동하며, 파티션 번호 자체는 바뀌지 않습니다.
+ */
+public final class ConsistentHashRing {
+
+    private final int partitionCount;
+    // 가상 노드 위치 (오름차순)와 그 노드 이름
+    private final long[] points;
+    private final String[] pointNodes;
+    // 파티션별 담당 노드
+    private final String[] owners;
+
+    public ConsistentHashRing(List<String> nodes, int partitionCount, int virtualNodes) {
+        if (nodes.isEmpty() || partitionCount <= 0 || virtualNodes <= 0) {
+            throw new IllegalArgumentException("노드, 파티션 수, 가상 노드 수는 하나 이상이어야 합니다");
+        }
+        this.partitionCount = partitionCount;
+        long[][] entries = new long[nodes.size() * virtualNodes][];
+        int n = 0;
+        for (int node = 0; node < nodes.size(); node++) {
+            for (int i = 0; i < virtualNodes; i++) {
+                entries[n++] = new long[]{hash(nodes.get(node) + "#" + i), node};
+            }
+        }
+        // 위치가 같으면 노드 순서로 정해 모든 인스턴스가 같은 링을 만듦
+        Arrays.sort(entries, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        this.points = new long[entries.length];
+        this.pointNodes = new String[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            points[i] = entries[i][0];
+            pointNodes[i] = nodes.get((int) entries[i][1]);
+        }
+        this.owners = new String[partitionCount];
+        for (int partition = 0; partition < partitionCount; partition++) {
+            owners[partition] = nodeAt(hash("partition-" + partition));
+        }
+    }
+
+    private String nodeAt(long position) {
+        int index = Arrays.binarySearch(points, position);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return pointNodes[index == points.length ? 0 : index];
+    }
+
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    /**
+     * 심볼이 속한 파티션 (대소문자 구분 없음)
+     */
+    public int partitionOf(String symbol) {
+        return (int) Math.floorMod(hash(symbol.toUpperCase(Locale.ROOT)), (long) partitionCount);
+    }
+
+    /**
+     * ID가 속한 파티션 (파티션을 켠 뒤 발급한 ID는 partitionCount로 나눈 나머지가 심볼의 파티션)
+     */
+    public int partitionOfId(long id) {
+        return (int) Math.floorMod(id, (long) partitionCount);
+    }
+
+    public String ownerOf(int partition) {
+        return owners[partition];
+    }
+
+    /**
+     * node가 맡은 파티션 번호 (오름차순)
+     */
+    public List<Integer> partitionsOf(String node) {
+        List<Integer> partitions = new ArrayList<>();
+        for (int partition = 0; partition < partitionCount; partition++) {
+            if (owners[partition].equals(node)) {
+                partitions.add(partition);
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * 64비트 FNV-1a 해시에 murmur3 마무리 섞기 (JVM과 관계없이 같은 값)
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
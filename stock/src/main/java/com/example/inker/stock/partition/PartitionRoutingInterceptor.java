@@ -0,0 +1,121 @@
+package com.example.inker.stock.partition;
+
+import com.example.inker.stock.entity.Stock;
+import com.example.inker.stock.exception.StockPartitionUnavailableException;
+import com.example.inker.stock.repository.StockRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 다른 파티션의 단건 요청을 담당 노드로 보내는 인터셉터
+ * /symbol/{symbol}/...은 심볼의 파티션, /{id}/...는 ID의 파티션으로 담당 노드를 찾습니다.
+ * 이 노드에 있는 행이거나 이 노드가 맡은 파티션이면 그대로 처리하고, 아니면 전달하거나 307로 보냅니다.
+ * 파티셔닝 전에 발급된 ID는 파티션과 맞지 않을 수 있어, 담당 노드에 없으면(404) 나머지 노드에 차례로 묻습니다.
+ * 기동 때 담당 노드로 넘기지 못해 이 노드에 남은 행은 담당 노드가 그 행을 갖고 있지 않으면 이 노드에서 처리합니다.
+ * 본문으로 심볼을 받는 주식 생성은 컨트롤러에서 같은 방식으로 보냅니다.
+ */
+public class PartitionRoutingInterceptor implements HandlerInterceptor {
+
+    private final StockPartitioning partitioning;
+    private final StockRepository stockRepository;
+
+    public PartitionRoutingInterceptor(StockPartitioning partitioning, StockRepository stockRepository) {
+        this.partitioning = partitioning;
+        this.stockRepository = stockRepository;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!partitioning.isEnabled() || request.getHeader(StockPartitioning.FORWARDED_HEADER) != null) {
+            return true;
+        }
+        String uri = request.getRequestURI();
+        int base = uri.indexOf(StockPartitioning.BASE_PATH + "/");
+        if (base < 0) {
+            return true;
+        }
+        String[] segments = uri.substring(base + StockPartitioning.BASE_PATH.length() + 1).split("/");
+        String owner;
+        boolean byId = false;
+        if (segments.length >= 2 && segments[0].equals("symbol")) {
+            owner = partitioning.ownerOfSymbol(URLDecoder.decode(segments[1], StandardCharsets.UTF_8));
+        } else if (isId(segments[0])) {
+            long id = Long.parseLong(segments[0]);
+            Stock local = stockRepository.findById(id).orElse(null);
+            if (local != null && (partitioning.ownsSymbol(local.getSymbol()) || !heldByOwner(local))) {
+                return true;
+            }
+            owner = partitioning.ownerOfId(id);
+            byId = true;
+        } else {
+            return true;
+        }
+        if (owner.equals(partitioning.getSelf())) {
+            return true;
+        }
+        String pathAndQuery = request.getQueryString() != null ? uri + "?" + request.getQueryString() : uri;
+        if (partitioning.getRouting() == StockPartitioning.Routing.REDIRECT) {
+            partitioning.recordRedirect();
+            response.setStatus(HttpServletResponse.SC_TEMPORARY_REDIRECT);
+            response.setHeader("Location", partitioning.locationOf(owner, pathAndQuery).toString());
+            return false;
+        }
+        Map<String, String> headers = new HashMap<>();
+        for (String name : StockPartitioning.forwardedRequestHeaders()) {
+            String value = request.getHeader(name);
+            if (value != null) {
+                headers.put(name, value);
+            }
+        }
+        byte[] body = request.getInputStream().readAllBytes();
+        StockPartitioning.RemoteResponse remote = partitioning.forward(owner, request.getMethod(), pathAndQuery, headers, body);
+        if (byId && remote.getStatus() == HttpServletResponse.SC_NOT_FOUND) {
+            List<String> others = new ArrayList<>(partitioning.peers());
+            others.remove(owner);
+            for (String node : others) {
+                StockPartitioning.RemoteResponse candidate = partitioning.forward(node, request.getMethod(), pathAndQuery, headers, body);
+                if (candidate.getStatus() != HttpServletResponse.SC_NOT_FOUND) {
+                    remote = candidate;
+                    break;
+                }
+            }
+        }
+        response.setStatus(remote.getStatus());
+        remote.getHeaders().forEach(response::setHeader);
+        try (OutputStream out = response.getOutputStream()) {
+            out.write(remote.getBody());
+        }
+        return false;
+    }
+
+    // 넘기지 못한 행을 심볼의 담당 노드가 갖고 있는지 (닿지 못하면 갖고 있지 않은 것으로 봄)
+    private boolean heldByOwner(Stock local) {
+        try {
+            return partitioning.forward(partitioning.ownerOfSymbol(local.getSymbol()), "GET",
+                    StockPartitioning.BASE_PATH + "/" + local.getId(), Map.of(), null).getStatus() != HttpServletResponse.SC_NOT_FOUND;
+        } catch (StockPartitionUnavailableException e) {
+            return false;
+        }
+    }
+
+    private static boolean isId(String segment) {
+        if (segment.isEmpty() || segment.length() > 18) {
+            return false;
+        }
+        for (int i = 0; i < segment.length(); i++) {
+            if (!Character.isDigit(segment.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
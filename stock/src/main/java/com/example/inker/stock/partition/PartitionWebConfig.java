@@ -0,0 +1,27 @@
+package com.example.inker.stock.partition;
+
+import com.example.inker.stock.repository.StockRepository;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 주식 API에 파티션 라우팅 인터셉터 등록 (파티셔닝이 꺼져 있으면 인터셉터가 그대로 통과)
+ */
+@Configuration
+public class PartitionWebConfig implements WebMvcConfigurer {
+
+    private final StockPartitioning partitioning;
+    private final StockRepository stockRepository;
+
+    public PartitionWebConfig(StockPartitioning partitioning, StockRepository stockRepository) {
+        this.partitioning = partitioning;
+        this.stockRepository = stockRepository;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new PartitionRoutingInterceptor(partitioning, stockRepository))
+                .addPathPatterns(StockPartitioning.BASE_PATH + "/**");
+    }
+}
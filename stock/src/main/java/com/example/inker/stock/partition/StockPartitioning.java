@@ -0,0 +1,585 @@
+package com.example.inker.stock.partition;
+
+import com.example.inker.stock.dto.StockResponse;
+import com.example.inker.stock.entity.EpochMicros;
+import com.example.inker.stock.entity.Stock;
+import com.example.inker.stock.exception.StockPartitionUnavailableException;
+import com.example.inker.stock.exception.StockValidationException;
+import com.example.inker.stock.persistence.StockMutation;
+import com.example.inker.stock.persistence.StockPersistenceManager;
+import com.example.inker.stock.persistence.StockWriteAheadLog;
+import com.example.inker.stock.repository.StockRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URLEncoder;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * 여러 인스턴스에 걸친 주식 심볼 파티셔닝
+ * stock.partition.nodes(이름=기본 URL을 쉼표로 구분)와 stock.partition.self가 설정되면 심볼을 일관 해시 링으로
+ * 나눠 이 노드가 맡은 파티션의 주식만 보관합니다. 다른 파티션의 요청은 stock.partition.routing에 따라
+ * 담당 노드로 전달(forward)하거나 클라이언트를 그쪽으로 보내고(redirect, 307), 목록과 섹터 조회는
+ * 모든 노드에 보내 결과를 합칩니다. 설정하지 않으면(기본) 이 노드가 전체를 맡습니다.
+ * 기동 시 맡은 파티션의 행은 다른 노드에서 받아 오고, 맡지 않은 파티션의 행은 담당 노드로 넘깁니다.
+ * 넘긴 행은 담당 노드가 받아 변경 로그에 기록했다고 응답한 뒤에만 지우므로, 담당 노드에 닿지 못하면
+ * 행을 그대로 두고 이 노드에서 계속 처리하다가 다음 기동 때 다시 넘깁니다.
+ * 노드를 추가할 때는 새 노드를 전체 목록으로 먼저 띄워 옮겨 올 파티션을 받게 한 뒤, 기존 노드를 같은 목록으로 다시 띄웁니다.
+ */
+@Component
+public class StockPartitioning {
+
+    private static final Logger log = LoggerFactory.getLogger(StockPartitioning.class);
+
+    /**
+     * 다른 노드가 전달한 요청 표시 (받은 노드는 다시 전달하거나 합치지 않고 자기 행만으로 처리)
+     */
+    public static final String FORWARDED_HEADER = "X-Stock-Partition-Forwarded";
+
+    public static final String BASE_PATH = "/api/v1/stocks";
+
+    // 전달할 요청 헤더와 돌려줄 응답 헤더
+    private static final List<String> REQUEST_HEADERS = List.of("Content-Type", "Accept", "If-Match", "If-None-Match");
+    private static final List<String> RESPONSE_HEADERS = List.of("Content-Type", "ETag", "Location", "X-Analysis-Unavailable");
+    // 한 번에 넘기는 행 수
+    private static final int HANDOFF_BATCH = 4096;
+    // 받는 행의 version이 현재 시각(epoch 마이크로초)보다 앞설 수 있는 한도
+    // 변경 번호는 기동 시각에서 시작해 쓰기마다 1씩 커지므로 정상 노드는 이 한도를 넘지 않습니다.
+    private static final long MAX_VERSION_LEAD_MICROS = TimeUnit.DAYS.toMicros(1);
+
+    public enum Routing { FORWARD, REDIRECT }
+
+    private final StockRepository stockRepository;
+    private final StockWriteAheadLog writeAheadLog;
+    private final ObjectMapper objectMapper;
+    // 노드 이름과 기본 URL (설정 순서)
+    private final Map<String, URI> nodes = new LinkedHashMap<>();
+    private final String self;
+    private final Routing routing;
+    private final Duration timeout;
+    // 파티셔닝을 끄면 null
+    private final ConsistentHashRing ring;
+    private final HttpClient client;
+    private final LongAdder forwarded = new LongAdder();
+    private final LongAdder redirected = new LongAdder();
+    private final LongAdder fanOuts = new LongAdder();
+    private final LongAdder rowsPulled = new LongAdder();
+    private final LongAdder rowsPruned = new LongAdder();
+    private final LongAdder rowsRetained = new LongAdder();
+
+    /**
+     * persistenceManager는 스냅샷과 변경 로그 적재가 끝난 뒤에 파티션을 정리하도록 의존만 합니다.
+     */
+    public StockPartitioning(
+            StockRepository stockRepository,
+            ObjectMapper objectMapper,
+            StockPersistenceManager persistenceManager,
+            StockWriteAheadLog writeAheadLog,
+            @Value("${stock.partition.nodes:}") String nodeList,
+            @Value("${stock.partition.self:}") String self,
+            @Value("${stock.partition.count:256}") int partitionCount,
+            @Value("${stock.partition.virtual-nodes:128}") int virtualNodes,
+            @Value("${stock.partition.routing:forward}") String routing,
+            @Value("${stock.partition.timeout-millis:2000}") long timeoutMillis) {
+        this.stockRepository = stockRepository;
+        this.writeAheadLog = writeAheadLog;
+        this.objectMapper = objectMapper;
+        for (String entry : nodeList.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("stock.partition.nodes는 이름=URL 목록이어야 합니다: " + entry);
+            }
+            String baseUrl = entry.substring(separator + 1).trim();
+            nodes.put(entry.substring(0, separator).trim(),
+                    URI.create(baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl));
+        }
+        if (!nodes.isEmpty() && !nodes.containsKey(self)) {
+            throw new IllegalArgumentException("stock.partition.self가 stock.partition.nodes에 없습니다: " + self);
+        }
+        this.self = self;
+        this.routing = Routing.valueOf(routing.trim().toUpperCase(Locale.ROOT));
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.ring = nodes.isEmpty() ? null : new ConsistentHashRing(new ArrayList<>(nodes.keySet()), partitionCount, virtualNodes);
+        this.client = nodes.isEmpty() ? null : HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (ring == null) {
+            return;
+        }
+        List<Integer> owned = ring.partitionsOf(self);
+        for (String peer : peers()) {
+            try {
+                rowsPulled.add(pull(peer, owned));
+            } catch (RuntimeException e) {
+                // 받지 못한 행은 그 노드가 기동할 때 넘겨줌
+                log.warn("파티션 행 받기 실패 (건너뜀): {}", peer, e);
+            }
+        }
+        handOff();
+        log.info("파티션 준비 완료: 노드 {}, 파티션 {}/{}개 담당, 받음 {}건, 넘김 {}건, 넘기지 못해 유지 {}건",
+                self, owned.size(), ring.getPartitionCount(), rowsPulled.sum(), rowsPruned.sum(), rowsRetained.sum());
+    }
+
+    /**
+     * peer에 남아 있는 partitions의 행을 받아 반영 (version이 더 새 행만 반영됨)
+     */
+    private long pull(String peer, List<Integer> partitions) {
+        String query = partitions.stream().map(String::valueOf).collect(Collectors.joining(","));
+        RemoteResponse response = send(peer, "GET", pathAndQuery(BASE_PATH + "/partitions/rows", Map.of("partitions", query)),
+                Map.of(), null);
+        if (response.getStatus() != 200) {
+            throw new IllegalStateException("파티션 행 요청 실패: " + response.getStatus());
+        }
+        return importRows(response.getBody());
+    }
+
+    /**
+     * 맡지 않은 파티션의 행을 담당 노드로 넘기고, 담당 노드가 받았다고 응답한 행만 지움
+     * 넘기는 동안 바뀐 행은 지우지 않으며, 지운 것도 변경 로그에 기록해 재시작 때 되살아나지 않게 합니다.
+     */
+    private void handOff() {
+        Map<String, List<Stock>> rowsByOwner = new LinkedHashMap<>();
+        for (Stock stock : stockRepository.findAll()) {
+            if (!ownsSymbol(stock.getSymbol())) {
+                rowsByOwner.computeIfAbsent(ownerOfSymbol(stock.getSymbol()), node -> new ArrayList<>()).add(stock);
+            }
+        }
+        for (Map.Entry<String, List<Stock>> entry : rowsByOwner.entrySet()) {
+            List<Stock> rows = entry.getValue();
+            for (int from = 0; from < rows.size(); from += HANDOFF_BATCH) {
+                List<Stock> batch = rows.subList(from, Math.min(rows.size(), from + HANDOFF_BATCH));
+                try {
+                    RemoteResponse response = send(entry.getKey(), "POST", BASE_PATH + "/partitions/rows",
+                            Map.of("Content-Type", "application/octet-stream"), encodeRows(batch));
+                    if (response.getStatus() != 200) {
+                        throw new IllegalStateException("파티션 행 넘기기 실패: " + response.getStatus());
+                    }
+                } catch (RuntimeException e) {
+                    rowsRetained.add(rows.size() - from);
+                    log.warn("파티션 행 넘기기 실패 (이 노드에 유지): {}, {}건", entry.getKey(), rows.size() - from, e);
+                    break;
+                }
+                prune(batch);
+            }
+        }
+    }
+
+    // 넘긴 행 중 그 사이 바뀌지 않은 행을 지우고 삭제를 기록
+    private void prune(List<Stock> rows) {
+        List<CompletableFuture<Void>> logged = new ArrayList<>(rows.size());
+        for (Stock stock : rows) {
+            long deletedVersion = stockRepository.deleteIfCurrent(stock);
+            if (deletedVersion != 0L) {
+                logged.add(writeAheadLog.append(StockMutation.encodeDelete(stock.getId(), deletedVersion)));
+                rowsPruned.increment();
+            } else {
+                rowsRetained.increment();
+            }
+        }
+        logged.forEach(writeAheadLog::awaitDurable);
+    }
+
+    /**
+     * 다른 노드의 행 반영 ([길이 int][StockMutation 인코딩] 반복, version이 더 새 행만 반영)
+     * 모든 레코드를 먼저 확인해 길이가 맞지 않거나 해석할 수 없는 레코드, UPSERT가 아니거나 ID/version이 범위를 벗어난
+     * 레코드가 하나라도 있으면 아무것도 반영하지 않고 StockValidationException(400)을 던집니다.
+     * 변경 로그 기록이 끝난 뒤 반환하므로, 행을 넘긴 노드는 응답을 받은 뒤에 자기 행을 지워도 됩니다.
+     */
+    public long importRows(byte[] body) {
+        ByteBuffer rows = ByteBuffer.wrap(body);
+        long maxVersion = EpochMicros.of(LocalDateTime.now(ZoneOffset.UTC)) + MAX_VERSION_LEAD_MICROS;
+        List<byte[]> records = new ArrayList<>();
+        List<StockMutation> mutations = new ArrayList<>();
+        while (rows.hasRemaining()) {
+            int length = rows.remaining() >= Integer.BYTES ? rows.getInt() : -1;
+            if (length <= 0 || length > rows.remaining()) {
+                throw new StockValidationException("파티션 행 레코드 " + records.size() + "의 길이가 잘못되었습니다");
+            }
+            byte[] record = new byte[length];
+            rows.get(record);
+            StockMutation mutation;
+            try {
+                mutation = StockMutation.decode(ByteBuffer.wrap(record));
+            } catch (RuntimeException e) {
+                throw new StockValidationException("파티션 행 레코드 " + records.size() + "를 해석할 수 없습니다");
+            }
+            if (mutation.getType() != StockMutation.Type.UPSERT || mutation.getId() <= 0
+                    || mutation.getVersion() <= 0 || mutation.getVersion() > maxVersion) {
+                throw new StockValidationException("파티션 행 레코드 " + records.size() + "의 종류, ID 또는 version이 범위를 벗어났습니다");
+            }
+            records.add(record);
+            mutations.add(mutation);
+        }
+        List<CompletableFuture<Void>> logged = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            mutations.get(i).applyTo(stockRepository);
+            logged.add(writeAheadLog.append(records.get(i)));
+        }
+        logged.forEach(writeAheadLog::awaitDurable);
+        return records.size();
+    }
+
+    /**
+     * 파티션 행 주고받기 요청이 다른 노드에서 왔는지 확인 (파티셔닝이 꺼져 있으면 false)
+     * 전달 헤더의 노드 이름이 설정된 다른 노드이고, 요청 주소가 그 노드 URL 호스트의 주소 중 하나여야 합니다.
+     */
+    public boolean isPeerRequest(String forwardedBy, String remoteAddress) {
+        if (ring == null || forwardedBy == null || remoteAddress == null
+                || forwardedBy.equals(self) || !nodes.containsKey(forwardedBy)) {
+            return false;
+        }
+        try {
+            InetAddress remote = InetAddress.getByName(remoteAddress);
+            for (InetAddress address : InetAddress.getAllByName(nodes.get(forwardedBy).getHost())) {
+                if (address.equals(remote)) {
+                    return true;
+                }
+            }
+        } catch (UnknownHostException e) {
+            log.warn("파티션 노드 주소 확인 실패: {}", forwardedBy, e);
+        }
+        return false;
+    }
+
+    /**
+     * 심볼 변경 확인 (파티셔닝 중이면 다른 파티션으로 옮겨지는 변경은 거부)
+     * ID가 이전 심볼의 파티션에 맞춰 발급되었고 행도 그 파티션의 담당 노드에 있으므로, 파티션이 바뀌는 변경은
+     * 삭제 후 새 심볼로 생성해야 합니다.
+     */
+    public void checkSymbolChange(String current, String requested) {
+        if (ring != null && current != null && requested != null
+                && ring.partitionOf(current) != ring.partitionOf(requested)) {
+            throw new StockValidationException("심볼 " + current + "를 다른 파티션의 심볼 " + requested + "로 바꿀 수 없습니다");
+        }
+    }
+
+    public boolean isEnabled() {
+        return ring != null;
+    }
+
+    public Routing getRouting() {
+        return routing;
+    }
+
+    public String getSelf() {
+        return self;
+    }
+
+    public boolean ownsSymbol(String symbol) {
+        return ring == null || symbol == null || ring.ownerOf(ring.partitionOf(symbol)).equals(self);
+    }
+
+    public String ownerOfSymbol(String symbol) {
+        return ring.ownerOf(ring.partitionOf(symbol));
+    }
+
+    /**
+     * ID의 담당 노드 (파티셔닝을 켠 뒤 발급한 ID 기준, 그 전 ID는 다른 노드에 있을 수 있음)
+     */
+    public String ownerOfId(long id) {
+        return ring.ownerOf(ring.partitionOfId(id));
+    }
+
+    /**
+     * symbol 주식에 발급할 새 ID (파티셔닝 중이면 ID만으로 담당 노드를 찾도록 파티션 번호에 맞춤)
+     */
+    public long nextId(String symbol) {
+        if (ring == null || symbol == null) {
+            return stockRepository.nextId();
+        }
+        return stockRepository.nextIdIn(ring.getPartitionCount(), ring.partitionOf(symbol));
+    }
+
+    /**
+     * 이 노드를 뺀 노드 이름 (설정 순서)
+     */
+    public List<String> peers() {
+        List<String> peers = new ArrayList<>(nodes.keySet());
+        peers.remove(self);
+        return peers;
+    }
+
+    /**
+     * 노드별 담당 파티션
+     */
+    public Map<String, List<Integer>> getAssignments() {
+        Map<String, List<Integer>> assignments = new LinkedHashMap<>();
+        for (String node : nodes.keySet()) {
+            assignments.put(node, ring.partitionsOf(node));
+        }
+        return assignments;
+    }
+
+    /**
+     * 담당 노드의 같은 경로 URL (redirect용)
+     */
+    public URI locationOf(String node, String pathAndQuery) {
+        return URI.create(nodes.get(node) + pathAndQuery);
+    }
+
+    /**
+     * 요청을 담당 노드로 전달하고 응답을 받음 (닿지 못하면 502)
+     */
+    public RemoteResponse forward(String node, String method, String pathAndQuery, Map<String, String> headers, byte[] body) {
+        forwarded.increment();
+        return send(node, method, pathAndQuery, headers, body);
+    }
+
+    public void recordRedirect() {
+        redirected.increment();
+    }
+
+    /**
+     * 같은 GET 요청을 다른 모든 노드에 동시에 보내 200 응답 본문을 모음 (query는 인코딩하지 않은 이름과 값)
+     * 한 노드라도 닿지 못하면 일부만 합친 결과를 주지 않고 502로 실패합니다.
+     */
+    public List<byte[]> gather(String path, Map<String, String> query) {
+        fanOuts.increment();
+        String target = pathAndQuery(path, query);
+        List<CompletableFuture<HttpResponse<byte[]>>> responses = new ArrayList<>();
+        for (String peer : peers()) {
+            responses.add(client.sendAsync(request(peer, "GET", target, Map.of(), null), HttpResponse.BodyHandlers.ofByteArray()));
+        }
+        List<byte[]> bodies = new ArrayList<>();
+        for (CompletableFuture<HttpResponse<byte[]>> response : responses) {
+            try {
+                HttpResponse<byte[]> result = response.join();
+                if (result.statusCode() == 200) {
+                    bodies.add(result.body());
+                }
+            } catch (CompletionException e) {
+                throw new StockPartitionUnavailableException("다른 파티션 노드 응답 실패: " + target, e.getCause());
+            }
+        }
+        return bodies;
+    }
+
+    /**
+     * 이 노드의 JSON 배열과 다른 노드의 JSON 배열을 ID 순 하나로 합침 (같은 ID는 version이 큰 행)
+     * 파티션을 옮기는 중이면 같은 행이 두 노드에 있을 수 있어 ID로 중복을 제거합니다.
+     */
+    public byte[] mergeJsonArrays(byte[] local, List<byte[]> remote) {
+        try {
+            TreeMap<Long, JsonNode> merged = new TreeMap<>();
+            addRows(merged, objectMapper.readTree(local));
+            for (byte[] body : remote) {
+                addRows(merged, objectMapper.readTree(body));
+            }
+            ArrayNode result = objectMapper.createArrayNode();
+            result.addAll(merged.values());
+            return objectMapper.writeValueAsBytes(result);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void addRows(TreeMap<Long, JsonNode> merged, JsonNode rows) {
+        for (JsonNode row : rows) {
+            merged.merge(row.path("id").asLong(), row,
+                    (a, b) -> a.path("version").asLong() >= b.path("version").asLong() ? a : b);
+        }
+    }
+
+    /**
+     * 이 노드의 응답 목록과 다른 노드의 JSON 배열을 ID 순 하나로 합침 (중복 처리는 mergeJsonArrays와 같음)
+     */
+    public List<StockResponse> mergeStocks(List<StockResponse> local, List<byte[]> remote) {
+        Map<Long, StockResponse> merged = new LinkedHashMap<>();
+        try {
+            for (StockResponse stock : local) {
+                merged.put(stock.getId(), stock);
+            }
+            for (byte[] body : remote) {
+                for (StockResponse stock : objectMapper.readValue(body, StockResponse[].class)) {
+                    merged.merge(stock.getId(), stock, (a, b) -> versionOf(a) >= versionOf(b) ? a : b);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<StockResponse> result = new ArrayList<>(merged.values());
+        result.sort(Comparator.comparing(StockResponse::getId));
+        return result;
+    }
+
+    private static long versionOf(StockResponse stock) {
+        return stock.getVersion() != null ? stock.getVersion() : 0L;
+    }
+
+    /**
+     * 이 노드에 있는 partitions의 행 ([길이 int][StockMutation 인코딩] 반복, 파티션을 넘겨받는 노드가 가져감)
+     */
+    public byte[] exportRows(List<Integer> partitions) {
+        if (ring == null) {
+            return new byte[0];
+        }
+        Set<Integer> wanted = new HashSet<>(partitions);
+        List<Stock> rows = new ArrayList<>();
+        for (Stock stock : stockRepository.findAll()) {
+            if (stock.getSymbol() != null && wanted.contains(ring.partitionOf(stock.getSymbol()))) {
+                rows.add(stock);
+            }
+        }
+        return encodeRows(rows);
+    }
+
+    private static byte[] encodeRows(List<Stock> rows) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        try {
+            for (Stock stock : rows) {
+                byte[] record = StockMutation.encodeUpsert(stock);
+                out.writeInt(record.length);
+                out.write(record);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private RemoteResponse send(String node, String method, String pathAndQuery, Map<String, String> headers, byte[] body) {
+        try {
+            HttpResponse<byte[]> response = client.send(request(node, method, pathAndQuery, headers, body),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            Map<String, String> responseHeaders = new LinkedHashMap<>();
+            for (String name : RESPONSE_HEADERS) {
+                response.headers().firstValue(name).ifPresent(value -> responseHeaders.put(name, value));
+            }
+            return new RemoteResponse(response.statusCode(), responseHeaders, response.body());
+        } catch (IOException e) {
+            throw new StockPartitionUnavailableException("파티션 노드 응답 실패: " + node, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StockPartitionUnavailableException("파티션 노드 요청 중단: " + node, e);
+        }
+    }
+
+    private HttpRequest request(String node, String method, String pathAndQuery, Map<String, String> headers, byte[] body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(nodes.get(node) + pathAndQuery))
+                .timeout(timeout)
+                .header(FORWARDED_HEADER, self)
+                .method(method, body != null && body.length > 0
+                        ? HttpRequest.BodyPublishers.ofByteArray(body)
+                        : HttpRequest.BodyPublishers.noBody());
+        for (String name : REQUEST_HEADERS) {
+            String value = headers.get(name);
+            if (value != null) {
+                builder.header(name, value);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * 요청에서 전달할 헤더 이름 목록
+     */
+    public static List<String> forwardedRequestHeaders() {
+        return REQUEST_HEADERS;
+    }
+
+    /**
+     * 퍼센트 인코딩한 경로와 쿼리 (쿼리 값의 &, =, + 등도 인코딩하므로 값이 그대로 전달됨)
+     */
+    public static String pathAndQuery(String path, Map<String, String> query) {
+        String encodedPath;
+        try {
+            encodedPath = new URI(null, null, path, null, null).toASCIIString();
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException(e);
+        }
+        if (query.isEmpty()) {
+            return encodedPath;
+        }
+        return encodedPath + "?" + query.entrySet().stream()
+                .map(entry -> URLEncoder.encode(entry.getKey(), StandardCharsets.UTF_8) + "="
+                        + URLEncoder.encode(entry.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+    }
+
+    /**
+     * 파티셔닝 지표 (담당 파티션 수, 전달, redirect, 전체 노드 조회 수, 기동 시 받은/넘긴/넘기지 못한 행 수)
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> values = new LinkedHashMap<>();
+        if (ring == null) {
+            return values;
+        }
+        values.put("partitionNodes", (long) nodes.size());
+        values.put("partitionsOwned", (long) ring.partitionsOf(self).size());
+        values.put("partitionForwarded", forwarded.sum());
+        values.put("partitionRedirected", redirected.sum());
+        values.put("partitionFanOuts", fanOuts.sum());
+        values.put("partitionRowsPulled", rowsPulled.sum());
+        values.put("partitionRowsPruned", rowsPruned.sum());
+        values.put("partitionRowsRetained", rowsRetained.sum());
+        return values;
+    }
+
+    /**
+     * 다른 노드의 응답 (상태, 돌려줄 헤더, 본문)
+     */
+    public static final class RemoteResponse {
+        private final int status;
+        private final Map<String, String> headers;
+        private final byte[] body;
+
+        RemoteResponse(int status, Map<String, String> headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public Map<String, String> getHeaders() {
+            return headers;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.inker.stock.persistence;
+
+import com.example.inker.stock.entity.Stock;
+import com.example.inker.stock.repository.StockRepository;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 주식 변경 로그 레코드
+ * UPSERT는 변경 후 전체 행(after-image), DELETE는 ID와 삭제 번호를 담기 때문에 여러 번 적용해도 결과가 같습니다.
+ * 재생 시 현재 행보다 오래된 version의 UPSERT/DELETE는 무시하므로, 서로 다른 행의 기록 순서가 반영 순서와 달라도 됩니다.
+ */
+public final class StockMutation {
+
+    public enum Type { UPSERT, DELETE }
+
+    private static final byte UPSERT = 3;
+    private static final byte DELETE = 4;
+    private static final int FIXED_UPSERT_SIZE = 1 + 8 * Long.BYTES;
+
+    private final Type type;
+    private final long id;
+    private final long version;
+    private final Stock stock;
+
+    private StockMutation(Type type, long id, long version, Stock stock) {
+        this.type = type;
+        this.id = id;
+        this.version = version;
+        this.stock = stock;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * UPSERT이면 행 version, DELETE이면 삭제 번호
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * UPSERT 레코드의 주식 (DELETE이면 null)
+     */
+    public Stock getStock() {
+        return stock;
+    }
+
+    public void applyTo(StockRepository repository) {
+        if (type == Type.UPSERT) {
+            repository.restore(stock);
+        } else {
+            repository.restoreDelete(id, version);
+        }
+    }
+
+    public static byte[] encodeUpsert(Stock stock) {
+        byte[] symbol = bytesOf(stock.getSymbol());
+        byte[] companyName = bytesOf(stock.getCompanyName());
+        byte[] sector = bytesOf(stock.getSector());
+        ByteBuffer buffer = ByteBuffer.allocate(FIXED_UPSERT_SIZE + sizeOf(symbol) + sizeOf(companyName) + sizeOf(sector));
+        buffer.put(UPSERT);
+        buffer.putLong(stock.getId());
+        buffer.putLong(stock.getVersion());
+        buffer.putDouble(stock.getCurrentPrice() != null ? stock.getCurrentPrice() : Double.NaN);
+        buffer.putDouble(stock.getPreviousPrice() != null ? stock.getPreviousPrice() : Double.NaN);
+        buffer.putDouble(stock.getMarketCap() != null ? stock.getMarketCap() : Double.NaN);
+        buffer.putLong(stock.getVolume() != null ? stock.getVolume() : Long.MIN_VALUE);
+        buffer.putLong(stock.getCreatedAtMicros());
+        buffer.putLong(stock.getUpdatedAtMicros());
+        putString(buffer, symbol);
+        putString(buffer, companyName);
+        putString(buffer, sector);
+        return buffer.array();
+    }
+
+    public static byte[] encodeDelete(long id, long deletedVersion) {
+        return ByteBuffer.allocate(1 + 2 * Long.BYTES).put(DELETE).putLong(id).putLong(deletedVersion).array();
+    }
+
+    public static StockMutation decode(ByteBuffer payload) {
+        byte type = payload.get();
+        long id = payload.getLong();
+        if (type == DELETE) {
+            return new StockMutation(Type.DELETE, id, payload.getLong(), null);
+        }
+        if (type != UPSERT) {
+            throw new IllegalArgumentException("알 수 없는 변경 로그 레코드 타입입니다: " + type);
+        }
+        Stock stock = new Stock();
+        stock.setId(id);
+        stock.setVersion(payload.getLong());
+        stock.setCurrentPrice(toBoxed(payload.getDouble()));
+        stock.setPreviousPrice(toBoxed(payload.getDouble()));
+        stock.setMarketCap(toBoxed(payload.getDouble()));
+        long volume = payload.getLong();
+        stock.setVolume(volume != Long.MIN_VALUE ? volume : null);
+        stock.setCreatedAtMicros(payload.getLong());
+        stock.setUpdatedAtMicros(payload.getLong());
+        stock.setSymbol(getString(payload));
+        stock.setCompanyName(getString(payload));
+        stock.setSector(getString(payload));
+        return new StockMutation(Type.UPSERT, id, stock.getVersion(), stock);
+    }
+
+    private static byte[] bytesOf(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int sizeOf(byte[] bytes) {
+        return Integer.BYTES + (bytes != null ? bytes.length : 0);
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Double toBoxed(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+}
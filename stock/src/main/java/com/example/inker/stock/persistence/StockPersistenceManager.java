@@ -0,0 +1,119 @@
+package com.example.inker.stock.persistence;
+
+import com.example.inker.stock.entity.Stock;
+import com.example.inker.stock.repository.StockRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주식 저장소 영속화 관리자
+ * stock.snapshot.path가 설정되면 기동 시 스냅샷을 적재하고,
+ * 주기적으로 그리고 종료 시 스냅샷을 기록합니다.
+ * 변경 로그가 켜져 있으면 스냅샷 위에 로그를 재생하고, 스냅샷에 반영된 로그는 잘라냅니다.
+ * 로그는 스냅샷을 기록할 때만 잘라내므로 스냅샷 경로 없이 로그만 켜는 설정은 기동 시 거부합니다.
+ */
+@Component
+public class StockPersistenceManager {
+
+    private static final Logger log = LoggerFactory.getLogger(StockPersistenceManager.class);
+
+    private final StockRepository stockRepository;
+    private final StockWriteAheadLog writeAheadLog;
+    private final Path snapshotPath;
+    private final long snapshotIntervalSeconds;
+    private ScheduledExecutorService scheduler;
+
+    public StockPersistenceManager(
+            StockRepository stockRepository,
+            StockWriteAheadLog writeAheadLog,
+            @Value("${stock.snapshot.path:}") String snapshotPath,
+            @Value("${stock.snapshot.interval-seconds:60}") long snapshotIntervalSeconds) {
+        this.stockRepository = stockRepository;
+        this.writeAheadLog = writeAheadLog;
+        this.snapshotPath = snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+        if (this.snapshotPath == null && writeAheadLog.isEnabled()) {
+            throw new IllegalArgumentException("stock.wal.path를 쓰려면 stock.snapshot.path도 설정해야 합니다 (로그를 잘라낼 스냅샷이 없음)");
+        }
+        this.snapshotIntervalSeconds = snapshotIntervalSeconds;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (snapshotPath != null && Files.exists(snapshotPath)) {
+            long startedAt = System.nanoTime();
+            List<Stock> stocks = StockSnapshotFile.read(snapshotPath);
+            long readMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+            stockRepository.replaceAll(stocks);
+            log.info("스냅샷 적재 완료: {}건, 읽기 {}ms, 전체 {}ms", stocks.size(), readMillis,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        }
+        if (writeAheadLog.isEnabled()) {
+            long startedAt = System.nanoTime();
+            long replayed = writeAheadLog.replay(mutation -> mutation.applyTo(stockRepository));
+            log.info("변경 로그 재생 완료: {}건, {}ms", replayed,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+            // 재생한 내용을 스냅샷에 반영하고 로그를 비움
+            if (replayed > 0) {
+                snapshot();
+            }
+        }
+        if (snapshotPath == null) {
+            return;
+        }
+        if (snapshotIntervalSeconds > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "stock-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::snapshotQuietly,
+                    snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * 현재 저장소 전체를 스냅샷으로 기록
+     * 변경은 저장소에 먼저 반영된 뒤 로그에 기록되므로, 복사 전에 읽은 로그 위치까지는
+     * 스냅샷에 모두 포함되어 잘라내도 안전합니다. 그 이후 레코드는 다시 재생해도 결과가 같습니다.
+     */
+    public synchronized void snapshot() throws IOException {
+        if (snapshotPath == null) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        long logPosition = writeAheadLog.durablePosition();
+        List<Stock> stocks = stockRepository.findAll();
+        StockSnapshotFile.write(snapshotPath, stocks);
+        writeAheadLog.truncateBefore(logPosition);
+        log.info("스냅샷 기록 완료: {}건, {}ms", stocks.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+        snapshotQuietly();
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            log.error("스냅샷 기록 실패: {}", snapshotPath, e);
+        }
+    }
+}
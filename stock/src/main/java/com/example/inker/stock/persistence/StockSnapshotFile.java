@@ -0,0 +1,196 @@
+package com.example.inker.stock.persistence;
+
+import com.example.inker.stock.entity.Stock;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 주식 스냅샷 파일 (바이너리)
+ *
+ * 레이아웃 (리틀 엔디언):
+ * [헤더 32바이트] magic, formatVersion, count, reserved, stringsOffset(8), stringsLength(8)
+ * [레코드 count x 80바이트] id, currentPrice, previousPrice, marketCap, volume, createdAt, updatedAt,
+ *                          symbolRef, companyNameRef, sectorRef, padding, version
+ * [문자열 테이블] (길이 int + UTF-8 바이트) 반복, 레코드의 *Ref는 테이블 내 오프셋 (-1은 null)
+ *
+ * 쓰기와 읽기 모두 메모리 매핑된 FileChannel을 통해 고정 위치에서 직접 읽고 씁니다.
+ */
+public final class StockSnapshotFile {
+
+    private static final int MAGIC = 0x53544B31; // "STK1"
+    private static final int FORMAT_VERSION = 2;
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_SIZE = 80;
+    private static final int NULL_REF = -1;
+
+    private StockSnapshotFile() {}
+
+    /**
+     * 스냅샷 기록 (임시 파일에 쓴 뒤 원자적으로 교체)
+     */
+    public static void write(Path path, List<Stock> stocks) throws IOException {
+        // 문자열 테이블 구성 (섹터처럼 반복되는 문자열은 한 번만 기록)
+        Map<String, Integer> stringRefs = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        int[] refs = new int[stocks.size() * 3];
+        long stringsLength = 0;
+        for (int i = 0; i < stocks.size(); i++) {
+            Stock stock = stocks.get(i);
+            String[] values = {stock.getSymbol(), stock.getCompanyName(), stock.getSector()};
+            for (int j = 0; j < values.length; j++) {
+                String value = values[j];
+                if (value == null) {
+                    refs[i * 3 + j] = NULL_REF;
+                    continue;
+                }
+                Integer ref = stringRefs.get(value);
+                if (ref == null) {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    ref = (int) stringsLength;
+                    stringRefs.put(value, ref);
+                    strings.add(bytes);
+                    stringsLength += Integer.BYTES + bytes.length;
+                }
+                refs[i * 3 + j] = ref;
+            }
+        }
+
+        long stringsOffset = HEADER_SIZE + (long) stocks.size() * RECORD_SIZE;
+        long fileSize = stringsOffset + stringsLength;
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IOException("스냅샷 크기가 단일 매핑 한도를 초과합니다: " + fileSize);
+        }
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, FORMAT_VERSION);
+            buffer.putInt(8, stocks.size());
+            buffer.putLong(16, stringsOffset);
+            buffer.putLong(24, stringsLength);
+
+            for (int i = 0; i < stocks.size(); i++) {
+                Stock stock = stocks.get(i);
+                int base = HEADER_SIZE + i * RECORD_SIZE;
+                buffer.putLong(base, stock.getId());
+                buffer.putDouble(base + 8, toDouble(stock.getCurrentPrice()));
+                buffer.putDouble(base + 16, toDouble(stock.getPreviousPrice()));
+                buffer.putDouble(base + 24, toDouble(stock.getMarketCap()));
+                buffer.putLong(base + 32, stock.getVolume() != null ? stock.getVolume() : Long.MIN_VALUE);
+                buffer.putLong(base + 40, stock.getCreatedAtMicros());
+                buffer.putLong(base + 48, stock.getUpdatedAtMicros());
+                buffer.putInt(base + 56, refs[i * 3]);
+                buffer.putInt(base + 60, refs[i * 3 + 1]);
+                buffer.putInt(base + 64, refs[i * 3 + 2]);
+                buffer.putLong(base + 72, stock.getVersion());
+            }
+
+            buffer.position((int) stringsOffset);
+            for (byte[] bytes : strings) {
+                buffer.putInt(bytes.length);
+                buffer.put(bytes);
+            }
+            buffer.force();
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 스냅샷 로드 (파일을 매핑하여 고정 위치에서 바로 읽음)
+     */
+    public static List<Stock> read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_SIZE || fileSize > Integer.MAX_VALUE) {
+                throw new IOException("스냅샷 파일 크기가 올바르지 않습니다: " + fileSize);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+                throw new IOException("스냅샷 파일 형식이 올바르지 않습니다: " + path);
+            }
+            int count = buffer.getInt(8);
+            int stringsOffset = (int) buffer.getLong(16);
+            long stringsLength = buffer.getLong(24);
+            if (count < 0 || stringsOffset != HEADER_SIZE + (long) count * RECORD_SIZE
+                    || stringsOffset + stringsLength != fileSize) {
+                throw new IOException("스냅샷 파일이 손상되었습니다: " + path);
+            }
+
+            // 섹터처럼 반복되는 참조는 한 번만 디코딩
+            Map<Integer, String> sectors = new HashMap<>();
+            List<Stock> stocks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int base = HEADER_SIZE + i * RECORD_SIZE;
+                Stock stock = new Stock();
+                stock.setId(buffer.getLong(base));
+                stock.setCurrentPrice(toBoxed(buffer.getDouble(base + 8)));
+                stock.setPreviousPrice(toBoxed(buffer.getDouble(base + 16)));
+                stock.setMarketCap(toBoxed(buffer.getDouble(base + 24)));
+                long volume = buffer.getLong(base + 32);
+                stock.setVolume(volume != Long.MIN_VALUE ? volume : null);
+                stock.setCreatedAtMicros(buffer.getLong(base + 40));
+                stock.setUpdatedAtMicros(buffer.getLong(base + 48));
+                stock.setSymbol(readString(buffer, stringsOffset, stringsLength, buffer.getInt(base + 56)));
+                stock.setCompanyName(readString(buffer, stringsOffset, stringsLength, buffer.getInt(base + 60)));
+                int sectorRef = buffer.getInt(base + 64);
+                String sector = sectors.get(sectorRef);
+                if (sector == null) {
+                    sector = readString(buffer, stringsOffset, stringsLength, sectorRef);
+                    sectors.put(sectorRef, sector);
+                }
+                stock.setSector(sector);
+                stock.setVersion(buffer.getLong(base + 72));
+                stocks.add(stock);
+            }
+            return stocks;
+        }
+    }
+
+    // 참조와 길이가 문자열 영역을 벗어나면 손상된 파일로 보고 IOException
+    private static String readString(MappedByteBuffer buffer, int stringsOffset, long stringsLength, int ref)
+            throws IOException {
+        if (ref == NULL_REF) {
+            return null;
+        }
+        if (ref < 0 || ref > stringsLength - Integer.BYTES) {
+            throw new IOException("스냅샷 문자열 참조가 범위를 벗어났습니다: " + ref);
+        }
+        int position = stringsOffset + ref;
+        int length = buffer.getInt(position);
+        if (length < 0 || ref + (long) Integer.BYTES + length > stringsLength) {
+            throw new IOException("스냅샷 문자열 길이가 범위를 벗어났습니다: ref=" + ref + ", length=" + length);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(position + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static double toDouble(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+
+    private static Double toBoxed(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+}
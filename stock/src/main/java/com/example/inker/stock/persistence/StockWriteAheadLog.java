@@ -0,0 +1,306 @@
+package com.example.inker.stock.persistence;
+
+import com.example.inker.stock.exception.StockPersistenceException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * 주식 변경 로그 (append-only WAL)
+ * 동시에 들어온 변경은 전용 writer 스레드가 모아 한 번의 write와 fsync로 기록합니다(group commit).
+ * 첫 레코드가 들어온 뒤 stock.wal.max-batch-delay-micros 안에 배치를 마감하므로 대기 지연이 제한됩니다.
+ *
+ * 레코드 레이아웃: [payload 길이 int][payload CRC32 int][payload]
+ * stock.wal.path가 비어 있으면 비활성화되며 append는 즉시 완료됩니다.
+ */
+@Component
+public class StockWriteAheadLog {
+
+    private static final Logger log = LoggerFactory.getLogger(StockWriteAheadLog.class);
+
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int MAX_BATCH_BYTES = 1 << 20;
+    private static final int MAX_RECORD_BYTES = 16 << 20;
+    private static final CompletableFuture<Void> COMPLETED = CompletableFuture.completedFuture(null);
+
+    private final Path path;
+    private final long maxBatchDelayNanos;
+    private final boolean fsync;
+    private final LinkedBlockingQueue<PendingRecord> queue = new LinkedBlockingQueue<>();
+    private final ReentrantLock ioLock = new ReentrantLock();
+
+    private FileChannel channel;
+    // fsync까지 끝난 로그 끝 위치
+    private volatile long durablePosition;
+    private volatile boolean running;
+    private Thread writer;
+
+    public StockWriteAheadLog(
+            @Value("${stock.wal.path:}") String path,
+            @Value("${stock.wal.max-batch-delay-micros:200}") long maxBatchDelayMicros,
+            @Value("${stock.wal.fsync:true}") boolean fsync) {
+        this.path = path.isBlank() ? null : Path.of(path);
+        this.maxBatchDelayNanos = TimeUnit.MICROSECONDS.toNanos(maxBatchDelayMicros);
+        this.fsync = fsync;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (path == null) {
+            return;
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        durablePosition = channel.size();
+        channel.position(durablePosition);
+        running = true;
+        writer = new Thread(this::runWriter, "stock-wal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public boolean isEnabled() {
+        return path != null;
+    }
+
+    /**
+     * 로그 전체를 순서대로 재생 (기동 시 스냅샷 적재 직후 호출)
+     * 끝부분이 잘린 레코드나 해석할 수 없는 레코드(알 수 없는 타입)를 만나면 그 앞까지만 유효한 것으로 보고 파일을 잘라냅니다.
+     */
+    public long replay(Consumer<StockMutation> consumer) throws IOException {
+        if (path == null) {
+            return 0;
+        }
+        long replayed = 0;
+        long validEnd = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            while (true) {
+                int length = in.readInt();
+                int crc = in.readInt();
+                if (length <= 0 || length > MAX_RECORD_BYTES) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                if (crcOf(payload) != crc) {
+                    break;
+                }
+                StockMutation mutation;
+                try {
+                    mutation = StockMutation.decode(ByteBuffer.wrap(payload));
+                } catch (IllegalArgumentException | BufferUnderflowException e) {
+                    log.warn("변경 로그에서 해석할 수 없는 레코드를 만났습니다: offset={} ({})", validEnd, e.toString());
+                    break;
+                }
+                consumer.accept(mutation);
+                validEnd += RECORD_HEADER_SIZE + length;
+                replayed++;
+            }
+        } catch (EOFException e) {
+            // 정상 종료 또는 기록 도중 잘린 마지막 레코드
+        }
+
+        ioLock.lock();
+        try {
+            if (validEnd < channel.size()) {
+                log.warn("변경 로그 끝의 손상된 {}바이트를 잘라냅니다: {}", channel.size() - validEnd, path);
+                channel.truncate(validEnd);
+                channel.position(validEnd);
+                durablePosition = validEnd;
+            }
+        } finally {
+            ioLock.unlock();
+        }
+        return replayed;
+    }
+
+    /**
+     * 레코드 추가 요청 (반환된 future는 fsync가 끝나면 완료)
+     */
+    public CompletableFuture<Void> append(byte[] payload) {
+        if (path == null) {
+            return COMPLETED;
+        }
+        if (!running) {
+            throw new StockPersistenceException("변경 로그가 닫혀 있습니다", null);
+        }
+        PendingRecord record = new PendingRecord(payload, crcOf(payload), System.nanoTime());
+        queue.add(record);
+        return record.durable;
+    }
+
+    /**
+     * append 결과가 디스크에 기록될 때까지 대기
+     */
+    public void awaitDurable(CompletableFuture<Void> durable) {
+        try {
+            durable.join();
+        } catch (CompletionException e) {
+            throw new StockPersistenceException("변경 로그 기록에 실패했습니다", e.getCause());
+        }
+    }
+
+    /**
+     * 지금까지 디스크에 기록된 로그 끝 위치
+     */
+    public long durablePosition() {
+        return durablePosition;
+    }
+
+    /**
+     * 주어진 위치 이전의 로그 제거 (해당 위치까지의 변경이 스냅샷에 반영된 뒤 호출)
+     */
+    public void truncateBefore(long position) throws IOException {
+        if (path == null || position <= 0) {
+            return;
+        }
+        ioLock.lock();
+        try {
+            long end = durablePosition;
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (FileChannel tail = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                long copied = 0;
+                while (copied < end - position) {
+                    copied += channel.transferTo(position + copied, end - position - copied, tail);
+                }
+                tail.force(true);
+            }
+            channel.close();
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            durablePosition = channel.size();
+            channel.position(durablePosition);
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        if (path == null) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        ioLock.lock();
+        try {
+            channel.close();
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    private void runWriter() {
+        List<PendingRecord> batch = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(MAX_BATCH_BYTES);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingRecord first = queue.poll(10, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                int batchBytes = first.size();
+                long deadline = first.enqueuedAt + maxBatchDelayNanos;
+                while (batchBytes < MAX_BATCH_BYTES) {
+                    PendingRecord next = queue.poll();
+                    if (next == null) {
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0 || (next = queue.poll(remaining, TimeUnit.NANOSECONDS)) == null) {
+                            break;
+                        }
+                    }
+                    batch.add(next);
+                    batchBytes += next.size();
+                }
+                flush(batch, batchBytes <= buffer.capacity() ? buffer.clear() : ByteBuffer.allocate(batchBytes));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingRecord> batch, ByteBuffer buffer) {
+        for (PendingRecord record : batch) {
+            buffer.putInt(record.payload.length);
+            buffer.putInt(record.crc);
+            buffer.put(record.payload);
+        }
+        buffer.flip();
+
+        ioLock.lock();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+            durablePosition = channel.position();
+        } catch (IOException e) {
+            log.error("변경 로그 기록 실패: {}", path, e);
+            for (PendingRecord record : batch) {
+                record.durable.completeExceptionally(e);
+            }
+            return;
+        } finally {
+            ioLock.unlock();
+        }
+        for (PendingRecord record : batch) {
+            record.durable.complete(null);
+        }
+    }
+
+    private static int crcOf(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static final class PendingRecord {
+        private final byte[] payload;
+        private final int crc;
+        private final long enqueuedAt;
+        private final CompletableFuture<Void> durable = new CompletableFuture<>();
+
+        private PendingRecord(byte[] payload, int crc, long enqueuedAt) {
+            this.payload = payload;
+            this.crc = crc;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        private int size() {
+            return RECORD_HEADER_SIZE + payload.length;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.inker.stock.replication;
+
+import com.example.inker.stock.entity.Stock;
+
+/**
+ * primary의 복제 로그 (메모리, 최근 capacity개만 보존)
+ * 저장소 변경 알림 순서대로 변경된 행(Stock) 또는 삭제된 ID(Long)를 0부터 증가하는 오프셋에 기록합니다.
+ * 행은 게시 뒤 바뀌지 않으므로 참조만 보관하고, 직렬화는 복제본에 보낼 때 합니다.
+ * 같은 주식의 변경은 저장소가 주식별 락 안에서 알리므로 로그에도 반영 순서대로 남습니다.
+ */
+final class ReplicationLog {
+
+    private final Object[] entries;
+    private final long[] timestamps;
+    private final int mask;
+    // 다음에 기록할 오프셋
+    private long head;
+    // 새 항목을 기다리는 세션 수 (없으면 깨우지 않음)
+    private int waiters;
+
+    /**
+     * capacity는 2의 거듭제곱으로 올림
+     */
+    ReplicationLog(int capacity) {
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.entries = new Object[size];
+        this.timestamps = new long[size];
+        this.mask = size - 1;
+    }
+
+    synchronized void appendUpsert(Stock stock) {
+        append(stock);
+    }
+
+    synchronized void appendDelete(long id) {
+        append(id);
+    }
+
+    private void append(Object entry) {
+        int index = (int) (head & mask);
+        entries[index] = entry;
+        timestamps[index] = System.currentTimeMillis();
+        head++;
+        if (waiters > 0) {
+            notifyAll();
+        }
+    }
+
+    synchronized long head() {
+        return head;
+    }
+
+    /**
+     * offset부터 이어 읽을 수 있는지 (보존 범위 안인지)
+     */
+    synchronized boolean contains(long offset) {
+        return offset >= oldest() && offset <= head;
+    }
+
+    private long oldest() {
+        return Math.max(0L, head - entries.length);
+    }
+
+    /**
+     * from부터 최대 batch.capacity()개를 batch에 담음 (새 항목이 없으면 waitMillis까지 대기)
+     * 담은 개수를 반환하며, from이 보존 범위를 벗어났으면(복제본이 너무 뒤처짐) -1을 반환합니다.
+     */
+    synchronized int read(long from, Batch batch, long waitMillis) throws InterruptedException {
+        if (from == head && waitMillis > 0) {
+            waiters++;
+            try {
+                wait(waitMillis);
+            } finally {
+                waiters--;
+            }
+        }
+        if (from < oldest() || from > head) {
+            return -1;
+        }
+        int count = (int) Math.min(batch.entries.length, head - from);
+        for (int i = 0; i < count; i++) {
+            batch.entries[i] = entries[(int) ((from + i) & mask)];
+        }
+        batch.count = count;
+        batch.head = head;
+        batch.lastTimestamp = count > 0 ? timestamps[(int) ((from + count - 1) & mask)] : System.currentTimeMillis();
+        return count;
+    }
+
+    /**
+     * 한 번에 읽은 로그 항목 (세션 스레드 전용, 재사용)
+     */
+    static final class Batch {
+        final Object[] entries;
+        int count;
+        // 읽은 시점의 로그 끝 오프셋
+        long head;
+        // 마지막 항목이 기록된 시각 (항목이 없으면 읽은 시각)
+        long lastTimestamp;
+
+        Batch(int capacity) {
+            this.entries = new Object[capacity];
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.inker.stock.replication;
+
+import com.example.inker.stock.entity.Stock;
+import com.example.inker.stock.persistence.StockMutation;
+import com.example.inker.stock.repository.StockRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * primary 쪽 복제 서버
+ * 복제본마다 세션 스레드 하나가 복제 로그를 요청받은 오프셋부터 묶음 단위로 압축해 보냅니다.
+ * 요청한 오프셋이 이번 기동의 로그(epoch)가 아니거나 보존 범위를 벗어났으면 현재 행 전체를 먼저 보내고
+ * 그 직전의 로그 끝부터 이어 보냅니다. 전체 동기화 중에 반영된 변경은 다시 받아도 결과가 같습니다.
+ */
+final class ReplicationPrimary {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationPrimary.class);
+
+    private final StockRepository stockRepository;
+    private final ReplicationLog replicationLog;
+    private final long epoch;
+    private final int batchSize;
+    private final long heartbeatMillis;
+    private final Set<Session> sessions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger sessionIds = new AtomicInteger();
+    private final LongAdder snapshotsSent = new LongAdder();
+    private final LongAdder entriesSent = new LongAdder();
+    private final LongAdder rawBytes = new LongAdder();
+    private final LongAdder sentBytes = new LongAdder();
+
+    private ServerSocket server;
+    private Thread acceptor;
+    private volatile boolean running;
+
+    ReplicationPrimary(StockRepository stockRepository, ReplicationLog replicationLog, long epoch,
+                       int batchSize, long heartbeatMillis) {
+        this.stockRepository = stockRepository;
+        this.replicationLog = replicationLog;
+        this.epoch = epoch;
+        this.batchSize = batchSize;
+        this.heartbeatMillis = heartbeatMillis;
+    }
+
+    void start(String host, int port) throws IOException {
+        server = new ServerSocket();
+        server.setReuseAddress(true);
+        server.bind(new InetSocketAddress(host, port));
+        running = true;
+        acceptor = new Thread(this::acceptLoop, "stock-replication-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        log.info("복제 서버 시작: {}", server.getLocalSocketAddress());
+    }
+
+    int getLocalPort() {
+        return server != null ? server.getLocalPort() : -1;
+    }
+
+    void stop() throws IOException, InterruptedException {
+        running = false;
+        if (server != null) {
+            server.close();
+        }
+        for (Session session : sessions) {
+            session.socket.close();
+        }
+        if (acceptor != null) {
+            acceptor.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                Session session = new Session(socket);
+                sessions.add(session);
+                Thread thread = new Thread(session, "stock-replication-session-" + sessionIds.incrementAndGet());
+                thread.setDaemon(true);
+                thread.start();
+            } catch (IOException e) {
+                if (running) {
+                    log.warn("복제 접속 수락 실패", e);
+                }
+            }
+        }
+    }
+
+    int getReplicaCount() {
+        return sessions.size();
+    }
+
+    /**
+     * 접속 중인 복제본 중 가장 많이 밀린 전송 대기 항목 수
+     */
+    long getMaxSendLag() {
+        long head = replicationLog.head();
+        long lag = 0L;
+        for (Session session : sessions) {
+            lag = Math.max(lag, head - session.sentOffset);
+        }
+        return lag;
+    }
+
+    long getSnapshotsSent() {
+        return snapshotsSent.sum();
+    }
+
+    long getEntriesSent() {
+        return entriesSent.sum();
+    }
+
+    long getRawBytes() {
+        return rawBytes.sum();
+    }
+
+    long getSentBytes() {
+        return sentBytes.sum();
+    }
+
+    /**
+     * 복제본 하나로의 전송
+     */
+    private final class Session implements Runnable {
+        private final Socket socket;
+        private final ReplicationProtocol.Writer writer = new ReplicationProtocol.Writer(rawBytes, sentBytes);
+        // 이 복제본에 보낸 다음 오프셋
+        private volatile long sentOffset;
+
+        private Session(Socket socket) {
+            this.socket = socket;
+        }
+
+        @Override
+        public void run() {
+            try (socket) {
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 64 * 1024));
+                if (in.readInt() != ReplicationProtocol.MAGIC) {
+                    log.warn("복제 핸드셰이크 불일치: {}", socket.getRemoteSocketAddress());
+                    return;
+                }
+                long replicaEpoch = in.readLong();
+                long requested = in.readLong();
+                sentOffset = replicaEpoch == epoch && replicationLog.contains(requested)
+                        ? requested
+                        : sendSnapshot(out);
+                log.info("복제본 접속: {}, offset={}", socket.getRemoteSocketAddress(), sentOffset);
+                stream(out);
+            } catch (SocketException | EOFException e) {
+                log.info("복제본 연결 종료: {}", socket.getRemoteSocketAddress());
+            } catch (IOException e) {
+                log.warn("복제 전송 실패: {}", socket.getRemoteSocketAddress(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                sessions.remove(this);
+                writer.close();
+            }
+        }
+
+        /**
+         * 현재 행 전체를 보내고, 복사 직전의 로그 끝 오프셋(이어 보낼 위치)을 반환
+         */
+        private long sendSnapshot(DataOutputStream out) throws IOException {
+            long resumeOffset = replicationLog.head();
+            List<Stock> stocks = stockRepository.findAll();
+            int inFrame = 0;
+            for (Stock stock : stocks) {
+                writer.add(StockMutation.encodeUpsert(stock));
+                if (++inFrame == batchSize) {
+                    writer.write(out, ReplicationProtocol.SNAPSHOT, epoch, resumeOffset, resumeOffset, System.currentTimeMillis());
+                    inFrame = 0;
+                }
+            }
+            if (inFrame > 0) {
+                writer.write(out, ReplicationProtocol.SNAPSHOT, epoch, resumeOffset, resumeOffset, System.currentTimeMillis());
+            }
+            writer.write(out, ReplicationProtocol.SNAPSHOT_END, epoch, resumeOffset, resumeOffset, System.currentTimeMillis());
+            out.flush();
+            snapshotsSent.increment();
+            log.info("복제본 전체 동기화 전송: {}건", stocks.size());
+            return resumeOffset;
+        }
+
+        private void stream(DataOutputStream out) throws IOException, InterruptedException {
+            ReplicationLog.Batch batch = new ReplicationLog.Batch(batchSize);
+            while (running) {
+                int count = replicationLog.read(sentOffset, batch, heartbeatMillis);
+                if (count < 0) {
+                    // 보존 범위를 벗어남: 연결을 끊으면 복제본이 다시 접속해 전체 동기화를 받음
+                    log.warn("복제본이 보존 범위 밖으로 밀려 연결을 끊습니다: offset={}", sentOffset);
+                    return;
+                }
+                if (count == 0) {
+                    writer.write(out, ReplicationProtocol.HEARTBEAT, epoch, sentOffset, batch.head, batch.lastTimestamp);
+                    out.flush();
+                    continue;
+                }
+                for (int i = 0; i < count; i++) {
+                    Object entry = batch.entries[i];
+                    batch.entries[i] = null;
+                    // 삭제 알림에는 삭제 번호가 없어 0으로 보냄 (로그 순서대로 적용하므로 그대로 삭제하면 됨)
+                    writer.add(entry instanceof Stock stock
+                            ? StockMutation.encodeUpsert(stock)
+                            : StockMutation.encodeDelete((Long) entry, 0L));
+                }
+                writer.write(out, ReplicationProtocol.ENTRIES, epoch, sentOffset, batch.head, batch.lastTimestamp);
+                // 더 보낼 항목이 쌓여 있으면 모아서 한 번에 flush
+                if (sentOffset + count >= replicationLog.head()) {
+                    out.flush();
+                }
+                sentOffset += count;
+                entriesSent.add(count);
+            }
+        }
+    }
+}
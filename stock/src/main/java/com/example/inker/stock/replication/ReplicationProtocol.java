@@ -0,0 +1,177 @@
+package com.example.inker.stock.replication;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 복제 스트림 형식
+ * 복제본은 접속하면 [magic int][epoch long][다음 오프셋 long]을 보내고,
+ * primary는 프레임 [종류 byte][epoch long][첫 오프셋 long][로그 끝 오프셋 long][시각 long]
+ * [레코드 수 int][원본 길이 int][압축 길이 int][deflate 압축 본문]을 이어 보냅니다.
+ * 본문은 레코드마다 [길이 int][StockMutation 인코딩]입니다.
+ */
+final class ReplicationProtocol {
+
+    static final int MAGIC = 0x53544B52;
+
+    // 전체 동기화용 현재 행 묶음 (첫 오프셋은 동기화 뒤 이어 받을 오프셋)
+    static final byte SNAPSHOT = 1;
+    // 전체 동기화 끝 (받은 행으로 저장소 전체 교체)
+    static final byte SNAPSHOT_END = 2;
+    // 첫 오프셋부터 이어지는 로그 항목 묶음
+    static final byte ENTRIES = 3;
+    // 새 항목이 없을 때 로그 끝 오프셋만 알림
+    static final byte HEARTBEAT = 4;
+
+    private ReplicationProtocol() {
+    }
+
+    /**
+     * 프레임 하나 (읽는 쪽에서 재사용)
+     */
+    static final class Frame {
+        byte type;
+        long epoch;
+        long firstOffset;
+        long headOffset;
+        long timestampMillis;
+        int count;
+        // 압축을 푼 본문 (count개 레코드)
+        ByteBuffer records;
+    }
+
+    /**
+     * 프레임 작성기 (세션 스레드 전용)
+     */
+    static final class Writer {
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private final ByteArrayOutputStream raw = new ByteArrayOutputStream(64 * 1024);
+        private final DataOutputStream rawOut = new DataOutputStream(raw);
+        // 보낸 본문의 원본/압축 바이트 누적
+        private final LongAdder rawBytes;
+        private final LongAdder sentBytes;
+        private byte[] compressed = new byte[64 * 1024];
+        private int count;
+
+        Writer(LongAdder rawBytes, LongAdder sentBytes) {
+            this.rawBytes = rawBytes;
+            this.sentBytes = sentBytes;
+        }
+
+        void add(byte[] record) throws IOException {
+            rawOut.writeInt(record.length);
+            rawOut.write(record);
+            count++;
+        }
+
+        /**
+         * 모은 레코드를 압축해 한 프레임으로 보냄 (flush는 호출자가 함)
+         */
+        void write(DataOutputStream out, byte type, long epoch, long firstOffset, long headOffset,
+                   long timestampMillis) throws IOException {
+            byte[] body = raw.toByteArray();
+            int compressedLength = 0;
+            if (body.length > 0) {
+                deflater.reset();
+                deflater.setInput(body);
+                deflater.finish();
+                while (!deflater.finished()) {
+                    if (compressedLength == compressed.length) {
+                        compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                    }
+                    compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+                }
+            }
+            out.writeByte(type);
+            out.writeLong(epoch);
+            out.writeLong(firstOffset);
+            out.writeLong(headOffset);
+            out.writeLong(timestampMillis);
+            out.writeInt(count);
+            out.writeInt(body.length);
+            out.writeInt(compressedLength);
+            out.write(compressed, 0, compressedLength);
+            rawBytes.add(body.length);
+            sentBytes.add(compressedLength);
+            raw.reset();
+            count = 0;
+        }
+
+        void close() {
+            deflater.end();
+        }
+    }
+
+    /**
+     * 프레임 판독기 (복제본 스레드 전용)
+     */
+    static final class Reader {
+        private final Inflater inflater = new Inflater();
+        private byte[] compressed = new byte[64 * 1024];
+        private byte[] body = new byte[64 * 1024];
+
+        void read(DataInputStream in, Frame frame) throws IOException {
+            frame.type = in.readByte();
+            frame.epoch = in.readLong();
+            frame.firstOffset = in.readLong();
+            frame.headOffset = in.readLong();
+            frame.timestampMillis = in.readLong();
+            frame.count = in.readInt();
+            int rawLength = in.readInt();
+            int compressedLength = in.readInt();
+            if (rawLength < 0 || compressedLength < 0) {
+                throw new IOException("잘못된 복제 프레임 길이: " + rawLength + "/" + compressedLength);
+            }
+            if (compressed.length < compressedLength) {
+                compressed = new byte[compressedLength];
+            }
+            if (body.length < rawLength) {
+                body = new byte[rawLength];
+            }
+            in.readFully(compressed, 0, compressedLength);
+            if (rawLength > 0) {
+                inflater.reset();
+                inflater.setInput(compressed, 0, compressedLength);
+                try {
+                    int inflated = 0;
+                    while (inflated < rawLength && !inflater.finished()) {
+                        int n = inflater.inflate(body, inflated, rawLength - inflated);
+                        if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                            break;
+                        }
+                        inflated += n;
+                    }
+                    if (inflated != rawLength) {
+                        throw new IOException("복제 프레임 압축 해제 길이 불일치: " + inflated + "/" + rawLength);
+                    }
+                } catch (DataFormatException e) {
+                    throw new IOException("복제 프레임 압축 해제 실패", e);
+                }
+            }
+            frame.records = ByteBuffer.wrap(body, 0, rawLength);
+        }
+
+        /**
+         * 본문의 다음 레코드 (frame.records의 위치를 옮김)
+         */
+        static ByteBuffer nextRecord(Frame frame) {
+            ByteBuffer records = frame.records;
+            int length = records.getInt();
+            ByteBuffer record = records.slice(records.position(), length);
+            records.position(records.position() + length);
+            return record;
+        }
+
+        void close() {
+            inflater.end();
+        }
+    }
+}
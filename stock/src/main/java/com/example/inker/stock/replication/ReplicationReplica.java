@@ -0,0 +1,220 @@
+package com.example.inker.stock.replication;
+
+import com.example.inker.stock.entity.Stock;
+import com.example.inker.stock.persistence.StockMutation;
+import com.example.inker.stock.repository.StockRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 복제본 쪽 수신기
+ * primary에 접속해 마지막으로 반영한 오프셋부터 로그를 받아 순서대로 저장소에 반영합니다.
+ * 연결이 끊기면 점점 길게 기다렸다가 같은 오프셋부터 다시 요청하고, primary가 그 오프셋을 이어 줄 수 없으면
+ * 전체 동기화를 받아 저장소를 통째로 교체합니다. 반영은 저장소의 복구 경로(restore)를 쓰므로 조회 인덱스와
+ * 변경 알림(캔들, 분석, 시세 스트림)도 primary와 같이 갱신됩니다.
+ */
+final class ReplicationReplica implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicationReplica.class);
+    private static final long MIN_BACKOFF_MILLIS = 100L;
+    private static final long MAX_BACKOFF_MILLIS = 5_000L;
+
+    private final StockRepository stockRepository;
+    private final String host;
+    private final int port;
+    // 하트비트가 이만큼 오지 않으면 연결이 죽은 것으로 보고 다시 접속
+    private final int readTimeoutMillis;
+    private final LongAdder reconnects = new LongAdder();
+    private final LongAdder snapshotsLoaded = new LongAdder();
+    private final LongAdder entriesApplied = new LongAdder();
+
+    // 받고 있는 primary 로그의 epoch와 다음에 반영할 오프셋 (수신 스레드만 기록)
+    private volatile long epoch;
+    private volatile long appliedOffset;
+    // 마지막으로 알게 된 primary 로그 끝 오프셋
+    private volatile long primaryHead;
+    // 마지막 묶음이 primary에 기록된 뒤 반영되기까지 걸린 시간
+    private volatile long applyDelayMillis;
+    // primary에서 마지막으로 프레임을 받은 시각
+    private volatile long lastContactMillis;
+    private volatile boolean connected;
+    private volatile boolean running;
+    private volatile Socket socket;
+    private Thread thread;
+
+    ReplicationReplica(StockRepository stockRepository, String host, int port, int readTimeoutMillis) {
+        this.stockRepository = stockRepository;
+        this.host = host;
+        this.port = port;
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    void start() {
+        running = true;
+        thread = new Thread(this, "stock-replication-replica");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        closeQuietly(socket);
+        if (thread != null) {
+            thread.interrupt();
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    @Override
+    public void run() {
+        long backoffMillis = MIN_BACKOFF_MILLIS;
+        while (running) {
+            try (Socket connection = new Socket()) {
+                socket = connection;
+                connection.connect(new InetSocketAddress(host, port), readTimeoutMillis);
+                connection.setTcpNoDelay(true);
+                connection.setSoTimeout(readTimeoutMillis);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream()));
+                out.writeInt(ReplicationProtocol.MAGIC);
+                out.writeLong(epoch);
+                out.writeLong(appliedOffset);
+                out.flush();
+                connected = true;
+                backoffMillis = MIN_BACKOFF_MILLIS;
+                log.info("primary 접속: {}:{}, offset={}", host, port, appliedOffset);
+                receive(new DataInputStream(new BufferedInputStream(connection.getInputStream(), 64 * 1024)));
+            } catch (IOException | RuntimeException e) {
+                if (running) {
+                    log.warn("복제 수신 중단, {}ms 뒤 다시 접속: {}:{} ({})", backoffMillis, host, port, e.toString());
+                }
+            } finally {
+                connected = false;
+                socket = null;
+            }
+            if (!running) {
+                return;
+            }
+            reconnects.increment();
+            try {
+                Thread.sleep(backoffMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+            backoffMillis = Math.min(MAX_BACKOFF_MILLIS, backoffMillis * 2);
+        }
+    }
+
+    private void receive(DataInputStream in) throws IOException {
+        ReplicationProtocol.Reader reader = new ReplicationProtocol.Reader();
+        ReplicationProtocol.Frame frame = new ReplicationProtocol.Frame();
+        List<Stock> snapshot = new ArrayList<>();
+        try {
+            while (running) {
+                reader.read(in, frame);
+                lastContactMillis = System.currentTimeMillis();
+                switch (frame.type) {
+                    case ReplicationProtocol.SNAPSHOT -> {
+                        for (int i = 0; i < frame.count; i++) {
+                            snapshot.add(StockMutation.decode(ReplicationProtocol.Reader.nextRecord(frame)).getStock());
+                        }
+                    }
+                    case ReplicationProtocol.SNAPSHOT_END -> {
+                        stockRepository.replaceAll(snapshot);
+                        log.info("전체 동기화 반영: {}건, offset={}", snapshot.size(), frame.firstOffset);
+                        snapshot = new ArrayList<>();
+                        epoch = frame.epoch;
+                        appliedOffset = frame.firstOffset;
+                        primaryHead = frame.headOffset;
+                        snapshotsLoaded.increment();
+                    }
+                    case ReplicationProtocol.ENTRIES -> apply(frame);
+                    case ReplicationProtocol.HEARTBEAT -> {
+                        primaryHead = frame.headOffset;
+                        if (appliedOffset >= primaryHead) {
+                            applyDelayMillis = 0L;
+                        }
+                    }
+                    default -> throw new IOException("알 수 없는 복제 프레임 종류: " + frame.type);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private void apply(ReplicationProtocol.Frame frame) throws IOException {
+        if (frame.epoch != epoch || frame.firstOffset != appliedOffset) {
+            throw new IOException("복제 오프셋 불일치: 기대 " + epoch + "/" + appliedOffset
+                    + ", 받음 " + frame.epoch + "/" + frame.firstOffset);
+        }
+        primaryHead = frame.headOffset;
+        for (int i = 0; i < frame.count; i++) {
+            StockMutation.decode(ReplicationProtocol.Reader.nextRecord(frame)).applyTo(stockRepository);
+        }
+        appliedOffset = frame.firstOffset + frame.count;
+        entriesApplied.add(frame.count);
+        applyDelayMillis = Math.max(0L, System.currentTimeMillis() - frame.timestampMillis);
+    }
+
+    boolean isConnected() {
+        return connected;
+    }
+
+    long getAppliedOffset() {
+        return appliedOffset;
+    }
+
+    /**
+     * 알려진 primary 로그 끝까지 아직 반영하지 못한 항목 수
+     */
+    long getLagEntries() {
+        return Math.max(0L, primaryHead - appliedOffset);
+    }
+
+    /**
+     * 복제 지연 (밀리초)
+     * 연결 중이면 마지막 묶음이 primary에 기록된 뒤 반영되기까지 걸린 시간이고,
+     * 끊겨 있으면 primary에서 마지막으로 받은 뒤 지난 시간입니다.
+     */
+    long getLagMillis() {
+        if (connected) {
+            return applyDelayMillis;
+        }
+        return lastContactMillis > 0 ? System.currentTimeMillis() - lastContactMillis : 0L;
+    }
+
+    long getReconnects() {
+        return reconnects.sum();
+    }
+
+    long getSnapshotsLoaded() {
+        return snapshotsLoaded.sum();
+    }
+
+    long getEntriesApplied() {
+        return entriesApplied.sum();
+    }
+
+    private static void closeQuietly(Socket socket) {
+        if (socket == null) {
+            return;
+        }
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // 종료 중
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.inker.stock.replication;
+
+import com.example.inker.stock.exception.StockReadOnlyException;
+import com.example.inker.stock.persistence.StockPersistenceManager;
+import com.example.inker.stock.repository.StockRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 주식 저장소 primary/replica 복제
+ * stock.replication.role=primary이면 저장소 변경을 복제 로그에 쌓아 stock.replication.port로 접속한 복제본에 보내고,
+ * replica이면 stock.replication.primary(host:port)에서 로그를 받아 반영하며 조회만 처리합니다 (쓰기는 503).
+ * 기본값 none이면 아무것도 하지 않습니다.
+ */
+@Component
+public class StockReplication {
+
+    public enum Role { NONE, PRIMARY, REPLICA }
+
+    private final StockRepository stockRepository;
+    private final Role role;
+    private final String host;
+    private final int port;
+    private final String primaryAddress;
+    private final int batchSize;
+    private final int retention;
+    private final long heartbeatMillis;
+    private ReplicationLog replicationLog;
+    private ReplicationPrimary primary;
+    private ReplicationReplica replica;
+
+    /**
+     * persistenceManager는 스냅샷과 변경 로그 적재가 끝난 뒤에 복제를 시작하도록 의존만 합니다.
+     */
+    public StockReplication(
+            StockRepository stockRepository,
+            StockPersistenceManager persistenceManager,
+            @Value("${stock.replication.role:none}") String role,
+            @Value("${stock.replication.host:0.0.0.0}") String host,
+            @Value("${stock.replication.port:9400}") int port,
+            @Value("${stock.replication.primary:127.0.0.1:9400}") String primaryAddress,
+            @Value("${stock.replication.batch-size:512}") int batchSize,
+            @Value("${stock.replication.retention:65536}") int retention,
+            @Value("${stock.replication.heartbeat-millis:1000}") long heartbeatMillis) {
+        this.stockRepository = stockRepository;
+        this.role = Role.valueOf(role.trim().toUpperCase(Locale.ROOT));
+        this.host = host;
+        this.port = port;
+        this.primaryAddress = primaryAddress;
+        this.batchSize = Math.max(1, batchSize);
+        this.retention = retention;
+        this.heartbeatMillis = heartbeatMillis;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (role == Role.PRIMARY) {
+            replicationLog = new ReplicationLog(retention);
+            stockRepository.addChangeListener(replicationLog::appendUpsert);
+            stockRepository.addDeleteListener(replicationLog::appendDelete);
+            // 0이 아닌 임의 값 (복제본의 처음 요청은 epoch 0이라 항상 전체 동기화)
+            long epoch = UUID.randomUUID().getMostSignificantBits() | 1L;
+            primary = new ReplicationPrimary(stockRepository, replicationLog, epoch, batchSize, heartbeatMillis);
+            primary.start(host, port);
+        } else if (role == Role.REPLICA) {
+            int separator = primaryAddress.lastIndexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("stock.replication.primary는 host:port 형식이어야 합니다: " + primaryAddress);
+            }
+            replica = new ReplicationReplica(stockRepository, primaryAddress.substring(0, separator),
+                    Integer.parseInt(primaryAddress.substring(separator + 1)), (int) Math.max(1_000L, heartbeatMillis * 3));
+            replica.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        if (primary != null) {
+            primary.stop();
+        }
+        if (replica != null) {
+            replica.stop();
+        }
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    /**
+     * 복제본이면 쓰기를 거절 (primary에서만 쓰기를 받아야 복제본과 어긋나지 않음)
+     */
+    public void checkWritable() {
+        if (role == Role.REPLICA) {
+            throw new StockReadOnlyException();
+        }
+    }
+
+    /**
+     * 실제로 바인딩된 복제 포트 (stock.replication.port=0이면 임의 포트, primary가 아니면 -1)
+     */
+    public int getLocalPort() {
+        return primary != null ? primary.getLocalPort() : -1;
+    }
+
+    /**
+     * 복제 지표 (primary는 로그 끝과 전송 현황, 복제본은 반영 위치와 지연)
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> values = new LinkedHashMap<>();
+        if (primary != null) {
+            values.put("replicationHeadOffset", replicationLog.head());
+            values.put("replicationReplicas", (long) primary.getReplicaCount());
+            values.put("replicationMaxSendLagEntries", primary.getMaxSendLag());
+            values.put("replicationEntriesSent", primary.getEntriesSent());
+            values.put("replicationSnapshotsSent", primary.getSnapshotsSent());
+            values.put("replicationUncompressedBytes", primary.getRawBytes());
+            values.put("replicationSentBytes", primary.getSentBytes());
+        }
+        if (replica != null) {
+            values.put("replicationConnected", replica.isConnected() ? 1L : 0L);
+            values.put("replicationAppliedOffset", replica.getAppliedOffset());
+            values.put("replicationLagEntries", replica.getLagEntries());
+            values.put("replicationLagMillis", replica.getLagMillis());
+            values.put("replicationEntriesApplied", replica.getEntriesApplied());
+            values.put("replicationSnapshotsLoaded", replica.getSnapshotsLoaded());
+            values.put("replicationReconnects", replica.getReconnects());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,368 @@
+package com.example.inker.stock.repository;
+
+import com.example.inker.stock.dto.SectorSummaryResponse;
+import com.example.inker.stock.entity.Stock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 컬럼형(struct-of-arrays) 주식 스캔 인덱스
+ * 가격과 시가총액은 double[], 거래량과 version은 long[], 섹터와 심볼은 Stock 공유 사전 코드 int[]로 보관하여
+ * 섹터 필터, 섹터 집계와 상위 N개 조회를 배열 루프로 처리하고 결과는 주식 ID(집계는 합계)로 돌려줍니다.
+ * 행은 삽입 순서대로 쌓이고 삭제는 툼스톤으로 표시한 뒤 일정량이 쌓이면 압축합니다.
+ * 저장소 게시 뒤에 갱신되므로 잠시 스냅샷보다 뒤처질 수 있어, 스냅샷을 받는 조회는 살아있는 행의 (ID, version)
+ * 다이제스트가 그 스냅샷과 같을 때만(같은 행 집합을 스캔했을 때만) 결과를 돌려주고 아니면 null을 돌려줍니다.
+ */
+public class ColumnarStockStore {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int COMPACTION_THRESHOLD = 1024;
+    // null 값 표현 (double 컬럼은 NaN)
+    private static final long NULL_LONG = Long.MIN_VALUE;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> rowsById = new HashMap<>();
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private boolean[] live = new boolean[INITIAL_CAPACITY];
+    private int[] sectorCodes = new int[INITIAL_CAPACITY];
+    private int[] symbolCodes = new int[INITIAL_CAPACITY];
+    private double[] currentPrices = new double[INITIAL_CAPACITY];
+    private double[] previousPrices = new double[INITIAL_CAPACITY];
+    private double[] marketCaps = new double[INITIAL_CAPACITY];
+    private long[] volumes = new long[INITIAL_CAPACITY];
+    private long[] versions = new long[INITIAL_CAPACITY];
+    private int rowCount;
+    private int deadCount;
+    // 살아있는 행의 StockSnapshot.digestOf 합
+    private long digest;
+
+    /**
+     * 상위 N개 조회 기준 (모두 내림차순, 같으면 ID 오름차순, 값이 없으면 마지막)
+     */
+    public enum Ranking {
+        // 등락률 (현재가 - 전일가) / 전일가
+        GAIN,
+        MARKET_CAP
+    }
+
+    /**
+     * 주식 행을 추가하거나 같은 ID의 행을 덮어씀
+     */
+    public void upsert(Stock stock) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = rowsById.get(stock.getId());
+            int row;
+            if (existing != null) {
+                row = existing;
+                digest -= StockSnapshot.digestOf(ids[row], versions[row]);
+            } else {
+                ensureCapacity(rowCount + 1);
+                row = rowCount++;
+                rowsById.put(stock.getId(), row);
+            }
+            ids[row] = stock.getId();
+            live[row] = true;
+            sectorCodes[row] = stock.getSectorCode();
+            symbolCodes[row] = stock.getSymbolCode();
+            currentPrices[row] = toDouble(stock.getCurrentPrice());
+            previousPrices[row] = toDouble(stock.getPreviousPrice());
+            marketCaps[row] = toDouble(stock.getMarketCap());
+            volumes[row] = stock.getVolume() != null ? stock.getVolume() : NULL_LONG;
+            versions[row] = stock.getVersion();
+            digest += StockSnapshot.digestOf(ids[row], versions[row]);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowsById.remove(id);
+            if (row == null) {
+                return;
+            }
+            live[row] = false;
+            deadCount++;
+            digest -= StockSnapshot.digestOf(ids[row], versions[row]);
+            if (deadCount >= COMPACTION_THRESHOLD && deadCount > rowCount / 2) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 섹터 필터 (대소문자 무시, 삽입 순서 유지), 주식 ID 반환
+     */
+    public long[] findIdsBySector(String sector) {
+        return findIdsBySector(sector, null);
+    }
+
+    /**
+     * snapshot과 같은 행 집합일 때만 섹터 필터 (뒤처져 있으면 null)
+     */
+    public long[] findIdsBySector(String sector, StockSnapshot snapshot) {
+        lock.readLock().lock();
+        try {
+            if (snapshot != null && digest != snapshot.digest()) {
+                return null;
+            }
+            boolean[] matching = matchingSectorCodes(sector);
+            if (matching == null) {
+                return new long[0];
+            }
+            long[] result = new long[16];
+            int count = 0;
+            for (int row = 0; row < rowCount; row++) {
+                if (live[row] && inSector(matching, row)) {
+                    if (count == result.length) {
+                        result = Arrays.copyOf(result, count * 2);
+                    }
+                    result[count++] = ids[row];
+                }
+            }
+            return Arrays.copyOf(result, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * snapshot과 같은 행 집합일 때만 섹터 집계 (뒤처져 있으면 null)
+     * 값이 없는 시가총액/거래량은 합계에서 빼고, 등락률 평균은 전일가가 있고 0이 아닌 행만 셉니다.
+     */
+    public SectorSummaryResponse summarizeSector(String sector, StockSnapshot snapshot) {
+        lock.readLock().lock();
+        try {
+            if (snapshot != null && digest != snapshot.digest()) {
+                return null;
+            }
+            boolean[] matching = matchingSectorCodes(sector);
+            List<String> symbols = new ArrayList<>();
+            double totalMarketCap = 0.0;
+            long totalVolume = 0L;
+            double changeSum = 0.0;
+            int changeCount = 0;
+            for (int row = 0; matching != null && row < rowCount; row++) {
+                if (!live[row] || !inSector(matching, row)) {
+                    continue;
+                }
+                symbols.add(Stock.SYMBOLS.decode(symbolCodes[row]));
+                if (!Double.isNaN(marketCaps[row])) {
+                    totalMarketCap += marketCaps[row];
+                }
+                if (volumes[row] != NULL_LONG) {
+                    totalVolume += volumes[row];
+                }
+                double rate = (currentPrices[row] - previousPrices[row]) / previousPrices[row];
+                if (!Double.isNaN(rate) && previousPrices[row] != 0.0) {
+                    changeSum += rate * 100;
+                    changeCount++;
+                }
+            }
+            return new SectorSummaryResponse(sector, symbols.size(), symbols, totalMarketCap, totalVolume,
+                    changeCount > 0 ? changeSum / changeCount : null);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 섹터 문자열 비교는 사전 크기만큼만 수행하고 행 루프에서는 코드만 비교 (일치하는 코드가 없으면 null)
+    private static boolean[] matchingSectorCodes(String sector) {
+        boolean[] matching = new boolean[Stock.SECTORS.size()];
+        boolean any = false;
+        for (int code = 0; code < matching.length; code++) {
+            String value = Stock.SECTORS.decode(code);
+            if (value != null && value.equalsIgnoreCase(sector)) {
+                matching[code] = true;
+                any = true;
+            }
+        }
+        return any ? matching : null;
+    }
+
+    private boolean inSector(boolean[] matching, int row) {
+        int code = sectorCodes[row];
+        return code >= 0 && code < matching.length && matching[code];
+    }
+
+    /**
+     * ranking 기준 상위 limit개의 ID와 스캔한 행의 version
+     */
+    public Ranked findTop(Ranking ranking, int limit) {
+        return findTop(ranking, limit, null);
+    }
+
+    /**
+     * snapshot과 같은 행 집합일 때만 상위 limit개 스캔 (뒤처져 있으면 null)
+     * 순위 밖의 행만 스냅샷보다 뒤처진 경우도 다이제스트가 달라 걸러집니다.
+     */
+    public Ranked findTop(Ranking ranking, int limit, StockSnapshot snapshot) {
+        lock.readLock().lock();
+        try {
+            if (snapshot != null && digest != snapshot.digest()) {
+                return null;
+            }
+            TopN top = new TopN(limit);
+            for (int row = 0; row < rowCount; row++) {
+                if (!live[row]) {
+                    continue;
+                }
+                double score = switch (ranking) {
+                    case GAIN -> (currentPrices[row] - previousPrices[row]) / previousPrices[row];
+                    case MARKET_CAP -> marketCaps[row];
+                };
+                top.offer(row, score);
+            }
+            return top.toRanked();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rowCount - deadCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacity);
+        live = Arrays.copyOf(live, capacity);
+        sectorCodes = Arrays.copyOf(sectorCodes, capacity);
+        symbolCodes = Arrays.copyOf(symbolCodes, capacity);
+        currentPrices = Arrays.copyOf(currentPrices, capacity);
+        previousPrices = Arrays.copyOf(previousPrices, capacity);
+        marketCaps = Arrays.copyOf(marketCaps, capacity);
+        volumes = Arrays.copyOf(volumes, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+    }
+
+    /**
+     * 툼스톤 행을 제거하고 살아있는 행을 앞으로 당김 (순서 유지)
+     */
+    private void compact() {
+        int target = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (!live[row]) {
+                continue;
+            }
+            if (target != row) {
+                ids[target] = ids[row];
+                live[target] = true;
+                sectorCodes[target] = sectorCodes[row];
+                symbolCodes[target] = symbolCodes[row];
+                currentPrices[target] = currentPrices[row];
+                previousPrices[target] = previousPrices[row];
+                marketCaps[target] = marketCaps[row];
+                volumes[target] = volumes[row];
+                versions[target] = versions[row];
+                rowsById.put(ids[target], target);
+            }
+            target++;
+        }
+        Arrays.fill(live, target, rowCount, false);
+        rowCount = target;
+        deadCount = 0;
+    }
+
+    private static double toDouble(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+
+    /**
+     * 상위 N개 스캔 결과 (순위 순 ID와 스캔 시점의 version)
+     */
+    public static final class Ranked {
+        private final long[] ids;
+        private final long[] versions;
+
+        private Ranked(long[] ids, long[] versions) {
+            this.ids = ids;
+            this.versions = versions;
+        }
+
+        public long[] getIds() {
+            return ids;
+        }
+
+        /**
+         * 결과를 snapshot의 주식으로 변환 (스캔 뒤 바뀌거나 삭제된 행이 있으면 null)
+         * 순위 밖 행까지 같은지는 확인하지 않으므로, 이 스냅샷의 순위로 쓰려면 같은 스냅샷을 넘겨 스캔해야 합니다.
+         */
+        public List<Stock> resolve(StockSnapshot snapshot) {
+            List<Stock> stocks = new ArrayList<>(ids.length);
+            for (int i = 0; i < ids.length; i++) {
+                Stock stock = snapshot.get(ids[i]);
+                if (stock == null || stock.getVersion() != versions[i]) {
+                    return null;
+                }
+                stocks.add(stock);
+            }
+            return stocks;
+        }
+    }
+
+    /**
+     * 행 번호와 점수만 담는 고정 크기 상위 N개 선택기 (읽기 락 안에서만 사용)
+     */
+    private final class TopN {
+        private final int[] rows;
+        private final double[] scores;
+        private int count;
+
+        TopN(int limit) {
+            this.rows = new int[limit];
+            this.scores = new double[limit];
+        }
+
+        void offer(int row, double score) {
+            // 점수가 없는 행은 가장 낮은 순위
+            if (Double.isNaN(score)) {
+                score = Double.NEGATIVE_INFINITY;
+            }
+            if (rows.length == 0 || (count == rows.length && !ranksBefore(score, row, count - 1))) {
+                return;
+            }
+            int position = count < rows.length ? count++ : count - 1;
+            while (position > 0 && ranksBefore(score, row, position - 1)) {
+                rows[position] = rows[position - 1];
+                scores[position] = scores[position - 1];
+                position--;
+            }
+            rows[position] = row;
+            scores[position] = score;
+        }
+
+        private boolean ranksBefore(double score, int row, int position) {
+            int compared = Double.compare(score, scores[position]);
+            return compared > 0 || (compared == 0 && ids[row] < ids[rows[position]]);
+        }
+
+        Ranked toRanked() {
+            long[] rankedIds = new long[count];
+            long[] rankedVersions = new long[count];
+            for (int i = 0; i < count; i++) {
+                rankedIds[i] = ids[rows[i]];
+                rankedVersions[i] = versions[rows[i]];
+            }
+            return new Ranked(rankedIds, rankedVersions);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.inker.stock.repository;
+
+import com.example.inker.stock.exception.StockValidationException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * 시가총액 정렬 인덱스
+ * (시가총액 내림차순, ID 오름차순) 순서를 유지하며 키셋 커서로 순위를 순회합니다.
+ * 시가총액이 없는 주식은 가장 마지막 순위로 취급합니다.
+ */
+public class MarketCapIndex {
+
+    private static final Comparator<Key> ORDER = Comparator
+            .comparingDouble((Key key) -> key.marketCap).reversed()
+            .thenComparingLong(key -> key.id);
+
+    private final ConcurrentSkipListSet<Key> keys = new ConcurrentSkipListSet<>(ORDER);
+    private final ConcurrentHashMap<Long, Key> keysById = new ConcurrentHashMap<>();
+
+    /**
+     * 주식의 시가총액 키를 추가하거나 교체
+     */
+    public void put(long id, Double marketCap) {
+        Key newKey = new Key(marketCap != null ? marketCap : Double.NEGATIVE_INFINITY, id);
+        keysById.compute(id, (ignored, oldKey) -> {
+            if (oldKey != null) {
+                keys.remove(oldKey);
+            }
+            keys.add(newKey);
+            return newKey;
+        });
+    }
+
+    /**
+     * 주식의 시가총액 키 제거
+     */
+    public void remove(long id) {
+        keysById.computeIfPresent(id, (ignored, oldKey) -> {
+            keys.remove(oldKey);
+            return null;
+        });
+    }
+
+    /**
+     * 커서 다음 순위부터 최대 limit개의 키를 순위 순으로 반환 (커서가 null이면 1위부터)
+     */
+    public List<Key> keysAfter(Key cursor, int limit) {
+        List<Key> page = new ArrayList<>(limit);
+        Iterable<Key> range = cursor != null ? keys.tailSet(cursor, false) : keys;
+        for (Key key : range) {
+            if (page.size() >= limit) {
+                break;
+            }
+            page.add(key);
+        }
+        return page;
+    }
+
+    public int size() {
+        return keysById.size();
+    }
+
+    /**
+     * 인덱스 키 (시가총액 + ID)
+     * 외부에는 불투명한 커서 문자열로만 노출합니다.
+     */
+    public static final class Key {
+        private final double marketCap;
+        private final long id;
+
+        public Key(double marketCap, long id) {
+            this.marketCap = marketCap;
+            this.id = id;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public static Key of(Double marketCap, long id) {
+            return new Key(marketCap != null ? marketCap : Double.NEGATIVE_INFINITY, id);
+        }
+
+        public String toCursor() {
+            return marketCap + "_" + id;
+        }
+
+        public static Key fromCursor(String cursor) {
+            int separator = cursor.lastIndexOf('_');
+            if (separator <= 0 || separator == cursor.length() - 1) {
+                throw new StockValidationException("유효하지 않은 커서입니다: " + cursor);
+            }
+            try {
+                return new Key(Double.parseDouble(cursor.substring(0, separator)),
+                        Long.parseLong(cursor.substring(separator + 1)));
+            } catch (NumberFormatException e) {
+                throw new StockValidationException("유효하지 않은 커서입니다: " + cursor);
+            }
+        }
+    }
+}
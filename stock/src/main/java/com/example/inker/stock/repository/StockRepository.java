@@ -0,0 +1,432 @@
+package com.example.inker.stock.repository;
+
+import com.example.inker.stock.entity.EpochMicros;
+import com.example.inker.stock.entity.Stock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * 주식 저장소
+ * 주식 행은 불변 스냅샷(StockSnapshot)에 담고 루트를 원자적으로 교체해 새 버전을 게시하며, 시가총액/심볼 인덱스를 함께 관리합니다.
+ * 여러 주식을 읽는 조회는 snapshot()으로 한 버전을 잡아 락 없이 읽고, 일괄 변경(commitAll)은 한 번에 게시되므로 절반만 반영된 상태를 보지 않습니다.
+ * 저장된 주식은 변경하지 않으며, 수정은 복사본을 만들어 compareAndSet으로 교체합니다(다른 쓰기가 먼저 반영되면 실패).
+ * stock.storage.columnar=true이면 스캔용 컬럼형 저장소도 함께 유지합니다.
+ */
+@Repository
+public class StockRepository {
+
+    // 현재 게시된 버전 (ID 오름차순)
+    private final AtomicReference<StockSnapshot> head = new AtomicReference<>(StockSnapshot.EMPTY);
+    // 단건 게시는 읽기 락을 함께 잡아 서로 막지 않고, 일괄 게시만 쓰기 락으로 단건 게시를 잠시 멈춤 (조회는 잡지 않음)
+    private final ReentrantReadWriteLock publishLock = new ReentrantReadWriteLock();
+    private final MarketCapIndex marketCapIndex = new MarketCapIndex();
+    // 대문자 심볼 -> ID (심볼 변경 시 이전 키를 지우기 위해 ID별 키도 보관)
+    private final ConcurrentHashMap<String, Long> idsBySymbol = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, String> symbolKeysById = new ConcurrentHashMap<>();
+    private final ColumnarStockStore columnarStore;
+    // 인덱스 갱신용 ID별 스트라이프 락 (맵 교체에는 쓰지 않음)
+    private final Object[] indexLocks = new Object[64];
+    // 저장 직후 호출되는 변경 리스너 (인덱스 락 안에서 호출되므로 가볍게 유지해야 함)
+    private final List<Consumer<Stock>> changeListeners = new CopyOnWriteArrayList<>();
+    private final List<LongConsumer> deleteListeners = new CopyOnWriteArrayList<>();
+    // 저장/삭제마다 증가하는 변경 번호 (저장된 주식의 version으로도 사용)
+    // 기동 시각(epoch 마이크로초)에서 시작하므로 영속화 없이 재시작해도 이전 프로세스가 쓴 번호를 다시 쓰지 않습니다.
+    private final AtomicLong sequence = new AtomicLong(EpochMicros.of(LocalDateTime.now(ZoneOffset.UTC)));
+
+    public StockRepository(@Value("${stock.storage.columnar:false}") boolean columnarEnabled) {
+        this.columnarStore = columnarEnabled ? new ColumnarStockStore() : null;
+        for (int i = 0; i < indexLocks.length; i++) {
+            indexLocks[i] = new Object();
+        }
+
+        // 샘플 데이터 초기화
+        initializeSampleData();
+    }
+
+    /**
+     * 샘플 데이터는 변경 로그에 기록되지 않으므로 어떤 기록보다 오래된 고정 version(1~3)으로 넣습니다.
+     * 스냅샷 없이 로그만 재생해도 기록된 수정과 삭제가 샘플 행을 덮어씁니다.
+     */
+    private void initializeSampleData() {
+        Stock stock1 = new Stock("AAPL", "Apple Inc.", 150.0, 145.0, 1000000L, 2500000000000.0, "Technology");
+        stock1.setId(1L);
+        stock1.setVersion(1L);
+        restore(stock1);
+
+        Stock stock2 = new Stock("GOOGL", "Alphabet Inc.", 2800.0, 2750.0, 500000L, 1800000000000.0, "Technology");
+        stock2.setId(2L);
+        stock2.setVersion(2L);
+        restore(stock2);
+
+        Stock stock3 = new Stock("MSFT", "Microsoft Corporation", 300.0, 295.0, 800000L, 2200000000000.0, "Technology");
+        stock3.setId(3L);
+        stock3.setVersion(3L);
+        restore(stock3);
+    }
+
+    /**
+     * 현재 버전 (잡고 있는 동안 이후 변경과 관계없이 같은 내용을 읽음)
+     */
+    public StockSnapshot snapshot() {
+        return head.get();
+    }
+
+    public List<Stock> findAll() {
+        return head.get().values();
+    }
+
+    /**
+     * ID가 afterId보다 큰 주식을 ID 순으로 최대 limit개 조회
+     */
+    public List<Stock> findAfterId(long afterId, int limit) {
+        return head.get().valuesAfter(afterId, limit);
+    }
+
+    /**
+     * 복사 없이 ID 순으로 순회 (시작 시점 버전을 끝까지 읽음)
+     */
+    public Stream<Stock> streamAll() {
+        return head.get().stream();
+    }
+
+    public Optional<Stock> findById(Long id) {
+        return Optional.ofNullable(head.get().get(id));
+    }
+
+    public Optional<Stock> findBySymbol(String symbol) {
+        Long id = idsBySymbol.get(symbolKey(symbol));
+        return id != null ? findById(id) : Optional.empty();
+    }
+
+    public boolean isEmpty() {
+        return head.get().isEmpty();
+    }
+
+    public long nextId() {
+        return head.get().lastId() + 1;
+    }
+
+    /**
+     * 마지막 ID보다 크고 modulus로 나눈 나머지가 residue인 가장 작은 ID (파티션별로 겹치지 않는 ID 발급)
+     */
+    public long nextIdIn(int modulus, int residue) {
+        long next = head.get().lastId() + 1;
+        return next + Math.floorMod(residue - next, (long) modulus);
+    }
+
+    /**
+     * 조건 없이 저장 (새 변경 번호를 version으로 부여)
+     * 이미 저장된 주식을 고칠 때는 compareAndSet을 사용해야 합니다.
+     */
+    public Stock save(Stock stock) {
+        stock.setVersion(sequence.incrementAndGet());
+        publish(stock.getId(), current -> stock);
+        reindex(stock);
+        return stock;
+    }
+
+    /**
+     * 새 주식 저장 (같은 ID가 이미 있으면 저장하지 않고 false)
+     */
+    public boolean insert(Stock stock) {
+        stock.setVersion(sequence.incrementAndGet());
+        if (publish(stock.getId(), current -> current == null ? stock : current) != null) {
+            return false;
+        }
+        reindex(stock);
+        return true;
+    }
+
+    /**
+     * version 비교 교체 (현재 행이 expected 그대로일 때만 updated로 교체)
+     * 같은 주식에 다른 쓰기가 먼저 반영되었으면 기다리지 않고 false를 반환합니다.
+     * 저장된 행마다 version이 다르므로 인스턴스 비교가 곧 version 비교입니다.
+     */
+    public boolean compareAndSet(Stock expected, Stock updated) {
+        updated.setVersion(sequence.incrementAndGet());
+        if (publish(expected.getId(), current -> current == expected ? updated : current) != expected) {
+            return false;
+        }
+        reindex(updated);
+        return true;
+    }
+
+    /**
+     * 스냅샷/변경 로그에서 복구한 주식 저장 (기록된 version 유지)
+     * 로그 기록 순서가 반영 순서와 다를 수 있으므로 현재 행보다 오래된 version은 무시합니다.
+     * version 0(번호 없는 행)은 항상 반영합니다.
+     */
+    public Stock restore(Stock stock) {
+        sequence.accumulateAndGet(stock.getVersion(), Math::max);
+        Stock existing = publish(stock.getId(), current ->
+                current != null && stock.getVersion() != 0 && current.getVersion() >= stock.getVersion()
+                        ? current : stock);
+        if (existing != null && stock.getVersion() != 0 && existing.getVersion() >= stock.getVersion()) {
+            return existing;
+        }
+        reindex(stock);
+        return stock;
+    }
+
+    /**
+     * 변경 로그에서 복구한 삭제 (삭제 번호보다 오래된 행만 삭제, 0이면 삭제 번호가 없는 복제 스트림의 삭제로 항상 삭제)
+     */
+    public void restoreDelete(long id, long deletedVersion) {
+        sequence.accumulateAndGet(deletedVersion, Math::max);
+        Stock existing = publish(id, current ->
+                current != null && (deletedVersion == 0 || current.getVersion() < deletedVersion) ? null : current);
+        if (existing != null && (deletedVersion == 0 || existing.getVersion() < deletedVersion)) {
+            unindex(id);
+        }
+    }
+
+    /**
+     * 여러 주식을 한 버전으로 게시 (조회 측은 일괄 변경 전이나 후 중 한 상태만 봄)
+     * change는 인덱스별 현재 행(없으면 null)을 받아 새 행(복사본)을 반환하거나, 바꾸지 않으려면 null을 반환합니다.
+     * 게시하는 동안 단건 쓰기는 잠시 기다리므로 change는 가볍게 유지해야 합니다.
+     * 반환 배열은 인덱스별로 게시된 새 행입니다(바꾸지 않았으면 null).
+     */
+    public Stock[] commitAll(long[] ids, BatchChange change) {
+        Stock[] updated = new Stock[ids.length];
+        publishLock.writeLock().lock();
+        try {
+            StockSnapshot.Builder builder = head.get().toBuilder();
+            for (int i = 0; i < ids.length; i++) {
+                Stock next = change.apply(i, builder.get(ids[i]));
+                if (next != null) {
+                    next.setVersion(sequence.incrementAndGet());
+                    builder.put(ids[i], next);
+                    updated[i] = next;
+                }
+            }
+            head.set(builder.build(publishVersion(head.get())));
+        } finally {
+            publishLock.writeLock().unlock();
+        }
+        for (Stock stock : updated) {
+            if (stock != null) {
+                reindex(stock);
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * 일괄 변경에서 주식 하나의 새 행 계산
+     */
+    @FunctionalInterface
+    public interface BatchChange {
+        Stock apply(int index, Stock current);
+    }
+
+    /**
+     * 주식 하나를 바꾼 새 버전 게시, 바꾸기 전 행을 반환
+     * change가 현재 행을 그대로 반환하면 게시하지 않습니다.
+     * 다른 주식의 변경과 겹쳐 루트 교체에 실패하면 새 루트에서 change를 다시 호출합니다.
+     */
+    private Stock publish(long id, UnaryOperator<Stock> change) {
+        publishLock.readLock().lock();
+        try {
+            while (true) {
+                StockSnapshot base = head.get();
+                Stock current = base.get(id);
+                Stock next = change.apply(current);
+                if (next == current || head.compareAndSet(base, base.with(id, next, publishVersion(base)))) {
+                    return current;
+                }
+            }
+        } finally {
+            publishLock.readLock().unlock();
+        }
+    }
+
+    // 게시 번호: 이전 버전보다 크고, 지금까지 발급한 변경 번호보다 작지 않음 (재시작 후에도 이전 프로세스의 번호와 겹치지 않음)
+    private long publishVersion(StockSnapshot base) {
+        return Math.max(base.version() + 1, sequence.get());
+    }
+
+    /**
+     * 교체된 행으로 인덱스 갱신과 변경 알림
+     * 그 사이 더 새 행이 들어왔으면 그 쓰기가 갱신하므로 건너뜁니다.
+     */
+    private void reindex(Stock stock) {
+        Long id = stock.getId();
+        synchronized (indexLock(id)) {
+            if (head.get().get(id) != stock) {
+                return;
+            }
+            marketCapIndex.put(id, stock.getMarketCap());
+            indexSymbol(id, stock.getSymbol());
+            if (columnarStore != null) {
+                columnarStore.upsert(stock);
+            }
+            for (Consumer<Stock> listener : changeListeners) {
+                listener.accept(stock);
+            }
+        }
+    }
+
+    /**
+     * 삭제된 행의 인덱스 제거와 삭제 알림 (그 사이 같은 ID로 다시 생성되었으면 건너뜀)
+     */
+    private void unindex(Long id) {
+        synchronized (indexLock(id)) {
+            if (head.get().get(id) != null) {
+                return;
+            }
+            marketCapIndex.remove(id);
+            String symbolKey = symbolKeysById.remove(id);
+            if (symbolKey != null) {
+                idsBySymbol.remove(symbolKey, id);
+            }
+            if (columnarStore != null) {
+                columnarStore.remove(id);
+            }
+            for (LongConsumer listener : deleteListeners) {
+                listener.accept(id);
+            }
+        }
+    }
+
+    private Object indexLock(long id) {
+        return indexLocks[(int) (id & (indexLocks.length - 1))];
+    }
+
+    public void addChangeListener(Consumer<Stock> listener) {
+        changeListeners.add(listener);
+    }
+
+    public void addDeleteListener(LongConsumer listener) {
+        deleteListeners.add(listener);
+    }
+
+    public boolean delete(Long id) {
+        sequence.incrementAndGet();
+        if (publish(id, current -> null) == null) {
+            return false;
+        }
+        unindex(id);
+        return true;
+    }
+
+    /**
+     * 현재 행이 expected 그대로일 때만 삭제
+     * 삭제 번호(삭제 후 같은 ID로 생성된 행보다 작음)를 반환하고, 다른 쓰기가 먼저 반영되었으면 0을 반환합니다.
+     */
+    public long deleteIfCurrent(Stock expected) {
+        long deletedVersion = sequence.incrementAndGet();
+        if (publish(expected.getId(), current -> current == expected ? null : current) != expected) {
+            return 0L;
+        }
+        unindex(expected.getId());
+        return deletedVersion;
+    }
+
+    private void indexSymbol(Long id, String symbol) {
+        String key = symbolKey(symbol);
+        String previous = key != null ? symbolKeysById.put(id, key) : symbolKeysById.remove(id);
+        if (previous != null && !previous.equals(key)) {
+            idsBySymbol.remove(previous, id);
+        }
+        if (key != null) {
+            idsBySymbol.put(key, id);
+        }
+    }
+
+    private static String symbolKey(String symbol) {
+        return symbol != null ? symbol.toUpperCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * 전체 교체 (스냅샷 복구 시 샘플 데이터 대신 적재)
+     */
+    public void replaceAll(List<Stock> loaded) {
+        for (Stock stock : findAll()) {
+            delete(stock.getId());
+        }
+        for (Stock stock : loaded) {
+            restore(stock);
+        }
+    }
+
+    public boolean isColumnarEnabled() {
+        return columnarStore != null;
+    }
+
+    /**
+     * 컬럼형 저장소 (비활성화 상태이면 null)
+     */
+    public ColumnarStockStore columnar() {
+        return columnarStore;
+    }
+
+    /**
+     * 시가총액 순위로 커서 다음부터 최대 limit개 조회 (정렬 없이 인덱스를 순회)
+     * 인덱스 조회와 삭제가 겹쳐 스냅샷에 없는 ID는 건너뛰고 limit개를 채울 때까지 인덱스를 더 읽습니다.
+     * 다음 커서는 마지막으로 읽은 인덱스 키이므로, 그 사이 시가총액이 바뀐 행이 있어도 순회 위치가 밀리지 않습니다.
+     */
+    public MarketCapPage findByMarketCapAfter(MarketCapIndex.Key cursor, int limit) {
+        return findByMarketCapAfter(head.get(), cursor, limit);
+    }
+
+    /**
+     * 시가총액 순위 조회 (행은 호출 측이 잡은 스냅샷에서 읽음)
+     */
+    public MarketCapPage findByMarketCapAfter(StockSnapshot snapshot, MarketCapIndex.Key cursor, int limit) {
+        List<Stock> stocks = new ArrayList<>(limit);
+        MarketCapIndex.Key last = cursor;
+        while (stocks.size() < limit) {
+            int wanted = limit - stocks.size();
+            List<MarketCapIndex.Key> keys = marketCapIndex.keysAfter(last, wanted);
+            for (MarketCapIndex.Key key : keys) {
+                Stock stock = snapshot.get(key.getId());
+                if (stock != null) {
+                    stocks.add(stock);
+                }
+                last = key;
+            }
+            if (keys.size() < wanted) {
+                // 인덱스 끝까지 읽음
+                return new MarketCapPage(stocks, null);
+            }
+        }
+        return new MarketCapPage(stocks, last);
+    }
+
+    /**
+     * 시가총액 순위 페이지 (nextCursor는 마지막으로 읽은 인덱스 키, 인덱스 끝까지 읽었으면 null)
+     */
+    public static final class MarketCapPage {
+        private final List<Stock> stocks;
+        private final MarketCapIndex.Key nextCursor;
+
+        MarketCapPage(List<Stock> stocks, MarketCapIndex.Key nextCursor) {
+            this.stocks = stocks;
+            this.nextCursor = nextCursor;
+        }
+
+        public List<Stock> getStocks() {
+            return stocks;
+        }
+
+        public MarketCapIndex.Key getNextCursor() {
+            return nextCursor;
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.example.inker.stock.repository;
+
+import com.example.inker.stock.entity.Stock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 주식 저장소의 한 버전 (불변)
+ * ID 비트를 5비트씩 나눈 32갈래 영속 트라이로, 변경 시 바뀐 경로의 노드만 복사하고 나머지는 이전 버전과 공유합니다.
+ * 읽기 측은 스냅샷 하나를 잡고 락 없이 여러 주식을 일관되게 읽으며,
+ * 더 이상 아무도 잡고 있지 않은 이전 버전의 노드는 GC가 회수합니다.
+ */
+public final class StockSnapshot {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    static final StockSnapshot EMPTY = new StockSnapshot(new Object[WIDTH], 0, 0, 0L, 0L);
+
+    // 내부 노드는 Object[WIDTH], shift가 0인 노드의 칸은 Stock
+    private final Object[] root;
+    private final int shift;
+    private final int size;
+    // 게시 번호 (게시된 버전마다 다르며 나중 버전일수록 큼)
+    private final long version;
+    // 담긴 행의 (ID, version) 다이제스트 합 (컬럼형 인덱스가 이 버전과 같은 행을 담고 있는지 확인용)
+    private final long digest;
+
+    private StockSnapshot(Object[] root, int shift, int size, long version, long digest) {
+        this.root = root;
+        this.shift = shift;
+        this.size = size;
+        this.version = version;
+        this.digest = digest;
+    }
+
+    /**
+     * 게시 번호 (같은 번호면 같은 내용이므로 목록 조회 ETag로 사용)
+     */
+    public long version() {
+        return version;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public Stock get(long id) {
+        if (id < 0 || !fits(id, shift)) {
+            return null;
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(int) (id >>> level) & MASK];
+            if (node == null) {
+                return null;
+            }
+        }
+        return (Stock) node[(int) id & MASK];
+    }
+
+    long digest() {
+        return digest;
+    }
+
+    /**
+     * 행 하나의 다이제스트 (행 집합의 다이제스트는 행마다 더한 값이라 추가/삭제 순서와 관계없음)
+     */
+    static long digestOf(long id, long version) {
+        long hash = id * 0x9E3779B97F4A7C15L + version;
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    /**
+     * 가장 큰 ID (비어 있으면 0)
+     */
+    public long lastId() {
+        if (size == 0) {
+            return 0L;
+        }
+        Object[] node = root;
+        for (int level = shift; ; level -= BITS) {
+            int index = WIDTH - 1;
+            while (node[index] == null) {
+                index--;
+            }
+            if (level == 0) {
+                return ((Stock) node[index]).getId();
+            }
+            node = (Object[]) node[index];
+        }
+    }
+
+    /**
+     * ID 순으로 모든 주식
+     */
+    public List<Stock> values() {
+        List<Stock> values = new ArrayList<>(size);
+        iterator(-1L).forEachRemaining(values::add);
+        return values;
+    }
+
+    /**
+     * ID가 afterId보다 큰 주식을 ID 순으로 최대 limit개
+     */
+    public List<Stock> valuesAfter(long afterId, int limit) {
+        List<Stock> page = new ArrayList<>(Math.min(limit, size));
+        Iterator<Stock> iterator = iterator(afterId);
+        while (page.size() < limit && iterator.hasNext()) {
+            page.add(iterator.next());
+        }
+        return page;
+    }
+
+    public Stream<Stock> stream() {
+        return StreamSupport.stream(Spliterators.spliterator(iterator(-1L), size,
+                Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+
+    /**
+     * ID가 afterId보다 큰 주식을 ID 순으로 순회
+     */
+    public Iterator<Stock> iterator(long afterId) {
+        return new Cursor(afterId);
+    }
+
+    /**
+     * 주식 하나를 바꾼 새 버전 (stock이 null이면 삭제)
+     */
+    StockSnapshot with(long id, Stock stock) {
+        return with(id, stock, version + 1);
+    }
+
+    /**
+     * 주식 하나를 바꾼 새 버전 (게시 번호 지정)
+     */
+    StockSnapshot with(long id, Stock stock, long version) {
+        Builder builder = new Builder(this, false);
+        builder.put(id, stock);
+        return builder.build(version);
+    }
+
+    Builder toBuilder() {
+        return new Builder(this, true);
+    }
+
+    private static boolean fits(long id, int shift) {
+        return shift + BITS >= Long.SIZE - 1 || (id >>> (shift + BITS)) == 0;
+    }
+
+    /**
+     * 여러 주식을 바꾼 새 버전을 만드는 빌더
+     * 일괄 변경용 빌더는 이번에 복사한 노드를 다시 복사하지 않고 그대로 고칩니다.
+     */
+    static final class Builder {
+        private Object[] root;
+        private int shift;
+        private int size;
+        private long digest;
+        private final long baseVersion;
+        // 이번 빌더가 새로 만든 노드 (일괄 변경용일 때만)
+        private final Set<Object[]> owned;
+
+        private Builder(StockSnapshot base, boolean batch) {
+            this.root = base.root;
+            this.shift = base.shift;
+            this.size = base.size;
+            this.digest = base.digest;
+            this.baseVersion = base.version;
+            this.owned = batch ? Collections.newSetFromMap(new IdentityHashMap<>()) : null;
+        }
+
+        Stock get(long id) {
+            return new StockSnapshot(root, shift, size, 0L, digest).get(id);
+        }
+
+        void put(long id, Stock stock) {
+            if (id < 0) {
+                throw new IllegalArgumentException("주식 ID는 음수일 수 없습니다: " + id);
+            }
+            if (stock == null && !fits(id, shift)) {
+                return;
+            }
+            while (!fits(id, shift)) {
+                Object[] grown = newNode();
+                grown[0] = root;
+                root = grown;
+                shift += BITS;
+            }
+            Object[] updated = put(root, shift, id, stock);
+            root = updated != null ? updated : new Object[WIDTH];
+        }
+
+        StockSnapshot build() {
+            return build(baseVersion + 1);
+        }
+
+        StockSnapshot build(long version) {
+            return new StockSnapshot(root, shift, size, version, digest);
+        }
+
+        // 경로를 복사해 바꾼 노드 (node가 null이면 새로 만들고, 비게 된 노드는 null)
+        private Object[] put(Object[] node, int level, long id, Stock stock) {
+            int index = (int) (id >>> level) & MASK;
+            Object previous = node != null ? node[index] : null;
+            Object child;
+            if (level == 0) {
+                child = stock;
+                if (previous != null) {
+                    size--;
+                    digest -= digestOf(id, ((Stock) previous).getVersion());
+                }
+                if (stock != null) {
+                    size++;
+                    digest += digestOf(id, stock.getVersion());
+                }
+            } else {
+                child = previous == null && stock == null ? null : put((Object[]) previous, level - BITS, id, stock);
+            }
+            if (child == previous) {
+                return node;
+            }
+            Object[] copy = node != null ? editable(node) : newNode();
+            copy[index] = child;
+            if (child == null && isEmpty(copy)) {
+                return null;
+            }
+            return copy;
+        }
+
+        private Object[] editable(Object[] node) {
+            if (owned != null && owned.contains(node)) {
+                return node;
+            }
+            Object[] copy = node.clone();
+            if (owned != null) {
+                owned.add(copy);
+            }
+            return copy;
+        }
+
+        private Object[] newNode() {
+            Object[] node = new Object[WIDTH];
+            if (owned != null) {
+                owned.add(node);
+            }
+            return node;
+        }
+
+        private static boolean isEmpty(Object[] node) {
+            for (Object child : node) {
+                if (child != null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 깊이 우선 순회 커서 (레벨별 노드와 다음 칸 위치)
+     */
+    private final class Cursor implements Iterator<Stock> {
+        private final Object[][] nodes = new Object[shift / BITS + 1][];
+        private final int[] positions = new int[shift / BITS + 1];
+        private int depth;
+        private Stock next;
+
+        private Cursor(long afterId) {
+            long start = afterId + 1;
+            if (start < 0 || !fits(start, shift)) {
+                depth = -1;
+                return;
+            }
+            // start까지의 경로로 내려가며, 각 레벨에서는 경로 다음 칸부터 이어서 순회
+            Object[] node = root;
+            int d = 0;
+            for (int level = shift; ; level -= BITS, d++) {
+                nodes[d] = node;
+                int index = (int) (start >>> level) & MASK;
+                if (level == 0) {
+                    positions[d] = index;
+                    break;
+                }
+                positions[d] = index + 1;
+                Object child = node[index];
+                if (child == null) {
+                    break;
+                }
+                node = (Object[]) child;
+            }
+            depth = d;
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Stock next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Stock result = next;
+            advance();
+            return result;
+        }
+
+        private void advance() {
+            next = null;
+            while (depth >= 0) {
+                Object[] node = nodes[depth];
+                int position = positions[depth];
+                if (position >= WIDTH) {
+                    depth--;
+                    continue;
+                }
+                positions[depth] = position + 1;
+                Object child = node[position];
+                if (child == null) {
+                    continue;
+                }
+                if (depth == nodes.length - 1) {
+                    next = (Stock) child;
+                    return;
+                }
+                depth++;
+                nodes[depth] = (Object[]) child;
+                positions[depth] = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.inker.stock.service;
+
+import jakarta.annotation.PreDestroy;
+import com.example.inker.stock.exception.StockValidationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 분석 단계별 격리 실행기 모음
+ * 요청의 분석 단계를 각 단계 전용 풀에서 동시에 실행하고, 실패하거나 시간 제한을 넘기거나
+ * 브레이커가 열린 단계는 요청을 실패시키지 않고 사용할 수 없는 단계로 표시합니다.
+ * 단, 단계가 요청의 ID/심볼 형식을 검사해 던진 StockValidationException은 단계 장애가 아니므로
+ * 브레이커에 실패로 집계하지 않고 남은 단계를 버린 뒤 그대로 던져 요청을 실패시킵니다.
+ * 분석 중에 난 InvalidPriceException(전체 추천 실패 등)은 다른 예외와 같이 단계 실패로 집계하고 응답을 낮춥니다.
+ * 따라서 응답 지연은 가장 느린 정상 단계와 단계 시간 제한 중 작은 쪽으로 제한됩니다.
+ */
+@Component
+public class AnalysisBulkheads {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalysisBulkheads.class);
+
+    private final Map<AnalysisStage, StageBulkhead> bulkheads = new EnumMap<>(AnalysisStage.class);
+
+    public AnalysisBulkheads(
+            @Value("${stock.analysis.bulkhead.threads:4}") int threads,
+            @Value("${stock.analysis.bulkhead.queue:256}") int queueCapacity,
+            @Value("${stock.analysis.stage-timeout-millis:200}") long stageTimeoutMillis,
+            @Value("${stock.analysis.breaker.window:20}") int breakerWindow,
+            @Value("${stock.analysis.breaker.failure-ratio:0.5}") double failureRatio,
+            @Value("${stock.analysis.breaker.cool-down-millis:5000}") long coolDownMillis) {
+        for (AnalysisStage stage : AnalysisStage.values()) {
+            bulkheads.put(stage, new StageBulkhead(stage, threads, queueCapacity, stageTimeoutMillis,
+                    breakerWindow, failureRatio, coolDownMillis));
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        bulkheads.values().forEach(StageBulkhead::shutdown);
+    }
+
+    /**
+     * stages[i] 단계로 tasks[i]를 동시에 실행하고 모두 끝나거나 시간 제한이 지날 때까지 대기
+     * 사용할 수 없게 된 단계는 context에 기록합니다.
+     * context가 대기 중에 끝나면(마감, 인터럽트) 남은 단계를 취소하고 끝나지 않은 단계 수를 반환합니다.
+     * 단계가 요청 검증 오류(StockValidationException)를 던지면 남은 단계를 버리고 그 오류를 던집니다.
+     */
+    int runAll(AnalysisContext context, AnalysisStage[] stages, Runnable[] tasks) {
+        StageBulkhead.Call[] calls = new StageBulkhead.Call[tasks.length];
+        for (int i = 0; i < tasks.length; i++) {
+            calls[i] = bulkheads.get(stages[i]).submit(tasks[i]);
+            if (calls[i] == null) {
+                context.markUnavailable(stages[i]);
+            }
+        }
+        int unfinished = 0;
+        for (int i = 0; i < tasks.length; i++) {
+            StageBulkhead.Call call = calls[i];
+            if (call == null) {
+                continue;
+            }
+            if (unfinished > 0) {
+                bulkheads.get(stages[i]).abandon(call);
+                unfinished++;
+                continue;
+            }
+            try {
+                if (!await(bulkheads.get(stages[i]), call, context)) {
+                    unfinished++;
+                }
+            } catch (RuntimeException e) {
+                for (int j = i + 1; j < tasks.length; j++) {
+                    if (calls[j] != null) {
+                        bulkheads.get(stages[j]).abandon(calls[j]);
+                    }
+                }
+                throw e;
+            }
+        }
+        return unfinished;
+    }
+
+    // 단계 하나의 완료 대기 (context가 먼저 끝나 기다리지 못했으면 false)
+    private boolean await(StageBulkhead bulkhead, StageBulkhead.Call call, AnalysisContext context) {
+        long stageRemaining = call.submittedAt + bulkhead.getTimeoutNanos() - System.nanoTime();
+        long waitNanos = Math.min(stageRemaining, context.remainingNanos());
+        try {
+            call.future.get(Math.max(0L, waitNanos), TimeUnit.NANOSECONDS);
+            bulkhead.recordSuccess(call);
+            return true;
+        } catch (TimeoutException e) {
+            if (context.isDone()) {
+                bulkhead.abandon(call);
+                return false;
+            }
+            call.future.cancel(true);
+            bulkhead.recordFailure(call, true);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof StockValidationException) {
+                // 단계는 정상 동작했고 요청이 잘못된 것이므로 성공으로 집계
+                bulkhead.recordSuccess(call);
+                throw (RuntimeException) e.getCause();
+            }
+            log.debug("분석 단계 실패: stage={}", bulkhead.getStage().getCode(), e.getCause());
+            bulkhead.recordFailure(call, false);
+        } catch (CancellationException e) {
+            bulkhead.recordFailure(call, false);
+        } catch (InterruptedException e) {
+            bulkhead.abandon(call);
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        context.markUnavailable(bulkhead.getStage());
+        return true;
+    }
+
+    /**
+     * 단계별 누적 실패(시간 초과 포함), 시간 초과, 실행하지 않은 수(브레이커 열림, 풀 가득 참)와 브레이커 상태
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> values = new LinkedHashMap<>();
+        for (StageBulkhead bulkhead : bulkheads.values()) {
+            String code = bulkhead.getStage().getCode();
+            values.put(code + "StageFailures", bulkhead.getFailures());
+            values.put(code + "StageTimeouts", bulkhead.getTimeouts());
+            values.put(code + "StageRejected", bulkhead.getRejected());
+            values.put(code + "BreakerOpen", bulkhead.isOpen() ? 1L : 0L);
+        }
+        return values;
+    }
+}
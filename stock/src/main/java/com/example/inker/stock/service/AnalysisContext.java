@@ -0,0 +1,82 @@
+package com.example.inker.stock.service;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 하나의 분석 파이프라인 실행 문맥 (마감 시각)
+ * 컨트롤러가 엔드포인트별 마감으로 만들어 서비스에 넘기고, 서비스는 분석 단계를 시작하기 전과 기다리는 동안 확인해
+ * 마감이 지났거나 요청 스레드가 인터럽트된(컨테이너의 요청 중단) 요청의 남은 단계를 실행하지 않습니다.
+ * 동기 처리 중에는 클라이언트 연결 끊김을 응답을 쓰기 전까지 알 수 없으므로, 끊긴 요청도 마감에서 멈춥니다.
+ * 실패하거나 차단되어 결과 없이 넘어간 분석 단계도 여기에 기록되어 응답에 표시됩니다.
+ */
+public final class AnalysisContext {
+
+    // 마감 없음 (내부 호출과 합치기 반영용)
+    private static final AnalysisContext NONE = new AnalysisContext(false, 0L);
+
+    private final boolean bounded;
+    private final long deadlineNanos;
+    // 요청 스레드에서만 기록 (없으면 null)
+    private Set<AnalysisStage> unavailableStages;
+
+    private AnalysisContext(boolean bounded, long deadlineNanos) {
+        this.bounded = bounded;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public static AnalysisContext none() {
+        return NONE;
+    }
+
+    /**
+     * 지금부터 timeoutMillis 뒤가 마감인 문맥 (0 이하이면 마감 없음)
+     */
+    public static AnalysisContext withTimeout(long timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            return new AnalysisContext(false, 0L);
+        }
+        return new AnalysisContext(true, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis));
+    }
+
+    public boolean isExpired() {
+        return bounded && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    /**
+     * 마감까지 남은 시간 (마감이 없으면 Long.MAX_VALUE)
+     */
+    public long remainingNanos() {
+        return bounded ? deadlineNanos - System.nanoTime() : Long.MAX_VALUE;
+    }
+
+    /**
+     * 남은 단계를 건너뛰어야 하는지 (마감 경과, 현재 스레드 인터럽트)
+     */
+    public boolean isDone() {
+        return isExpired() || Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * 결과 없이 넘어간 분석 단계 기록
+     */
+    void markUnavailable(AnalysisStage stage) {
+        if (this == NONE) {
+            return;
+        }
+        if (unavailableStages == null) {
+            unavailableStages = EnumSet.noneOf(AnalysisStage.class);
+        }
+        unavailableStages.add(stage);
+    }
+
+    public boolean isDegraded() {
+        return unavailableStages != null;
+    }
+
+    public Set<AnalysisStage> getUnavailableStages() {
+        return unavailableStages != null ? Collections.unmodifiableSet(unavailableStages) : Set.of();
+    }
+}
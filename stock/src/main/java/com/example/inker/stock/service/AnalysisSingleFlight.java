@@ -0,0 +1,77 @@
+package com.example.inker.stock.service;
+
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.ToIntFunction;
+
+/**
+ * 같은 분석의 동시 실행 합치기 (single-flight)
+ * 키마다 먼저 온 요청(리더)만 분석 단계를 실행하고, 실행 중에 같은 키로 온 요청은 리더의 결과
+ * (결과 없이 넘어간 단계)를 함께 받습니다. 저장소는 각 요청이 분석 뒤에 직접 읽으므로 응답은 합쳐지지 않습니다.
+ * 리더가 자기 마감이나 인터럽트로 중단되면 기다리던 요청은 다시 시도해 새 리더가 될 수 있습니다.
+ */
+final class AnalysisSingleFlight {
+
+    // 리더가 중단되어 결과가 없는 실행
+    private static final Set<AnalysisStage> ABANDONED = null;
+
+    private final ConcurrentHashMap<String, CompletableFuture<Set<AnalysisStage>>> flights = new ConcurrentHashMap<>();
+    private final StockMetrics metrics;
+
+    AnalysisSingleFlight(StockMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * key의 분석 실행 (같은 key가 실행 중이면 그 결과를 기다려 context에 반영)
+     * analysis는 context로 stageCount개 단계를 실행하고 끝나지 않은 단계 수를 반환합니다.
+     * 반환값은 끝나지 않은 단계 수이며, 기다리는 중에 context가 끝나면 stageCount입니다.
+     */
+    int run(String key, AnalysisContext context, int stageCount, ToIntFunction<AnalysisContext> analysis) {
+        while (true) {
+            CompletableFuture<Set<AnalysisStage>> flight = new CompletableFuture<>();
+            CompletableFuture<Set<AnalysisStage>> existing = flights.putIfAbsent(key, flight);
+            if (existing == null) {
+                return lead(key, flight, context, analysis);
+            }
+            Set<AnalysisStage> shared;
+            try {
+                shared = existing.get(Math.max(0L, context.remainingNanos()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                return stageCount;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return stageCount;
+            } catch (ExecutionException e) {
+                // 리더가 예외로 끝남: 같은 예외를 받지 않고 다시 시도
+                continue;
+            }
+            if (shared != ABANDONED) {
+                for (AnalysisStage stage : shared) {
+                    context.markUnavailable(stage);
+                }
+                metrics.recordCoalescedAnalysis();
+                return 0;
+            }
+        }
+    }
+
+    private int lead(String key, CompletableFuture<Set<AnalysisStage>> flight, AnalysisContext context,
+                     ToIntFunction<AnalysisContext> analysis) {
+        try {
+            int unfinished = analysis.applyAsInt(context);
+            flight.complete(unfinished == 0 ? Set.copyOf(context.getUnavailableStages()) : ABANDONED);
+            return unfinished;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            // 끝난 실행은 바로 빼서 이후 요청은 새로 분석 (결과를 캐시하지 않음)
+            flights.remove(key, flight);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.inker.stock.service;
+
+/**
+ * 분석 파이프라인 단계 (2~10단계, 파이프라인 순서)
+ * 단계마다 격리된 실행 풀과 서킷 브레이커를 두며, code는 지표 이름과 응답 헤더에 사용합니다.
+ */
+public enum AnalysisStage {
+    DATA("data"),
+    PRICE("price"),
+    MARKET("market"),
+    VOLUME("volume"),
+    RISK("risk"),
+    PERFORMANCE("performance"),
+    TREND("trend"),
+    PREDICTION("prediction"),
+    RECOMMENDATION("recommendation");
+
+    private final String code;
+
+    AnalysisStage(String code) {
+        this.code = code;
+    }
+
+    public String getCode() {
+        return code;
+    }
+}
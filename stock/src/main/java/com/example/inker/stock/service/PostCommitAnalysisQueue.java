@@ -0,0 +1,178 @@
+package com.example.inker.stock.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 쓰기 커밋 뒤에 실행하는 비동기 분석 작업 큐 (4~10단계, 요청 검증인 2~3단계는 커밋 전에 실행)
+ * 주식마다 대기 중인 분석을 하나만 유지하고, 아직 시작하지 않은 분석이 있는 주식에 다시 요청이 오면
+ * 가장 최근 요청의 단계로 바꿔 한 번만 실행합니다. 작업자는 대기 순서대로 batchSize개씩 꺼내
+ * 단계별 격리 실행기(AnalysisBulkheads)로 실행합니다.
+ * 대기 중인 주식이 capacity개면 새 주식의 요청은 버리고 dropped로 집계합니다 (쓰기는 막지 않음).
+ */
+@Component
+public class PostCommitAnalysisQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(PostCommitAnalysisQueue.class);
+    // 커밋 뒤에 실행하는 단계 (MARKET부터 마지막 단계까지)
+    static final AnalysisStage[] POST_COMMIT_STAGES = Arrays.copyOfRange(
+            AnalysisStage.values(), AnalysisStage.MARKET.ordinal(), AnalysisStage.values().length);
+
+    private final AnalysisBulkheads analysisBulkheads;
+    private final int capacity;
+    private final int batchSize;
+    private final int workerCount;
+    private final ConcurrentHashMap<Long, Pending> pending = new ConcurrentHashMap<>();
+    // 대기 항목이 새로 생긴 주식 ID (생긴 순서)
+    private final LinkedBlockingQueue<Long> ready = new LinkedBlockingQueue<>();
+    private final LongAdder merged = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running;
+
+    public PostCommitAnalysisQueue(
+            AnalysisBulkheads analysisBulkheads,
+            @Value("${stock.analysis.async.capacity:10000}") int capacity,
+            @Value("${stock.analysis.async.batch-size:64}") int batchSize,
+            @Value("${stock.analysis.async.workers:2}") int workerCount) {
+        this.analysisBulkheads = analysisBulkheads;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.workerCount = workerCount;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::runWorker, "stock-analysis-queue-" + (i + 1));
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /**
+     * 주식 하나의 분석 요청 (stages는 POST_COMMIT_STAGES 순서, 바로 반환)
+     * 큐가 가득 차 버려졌으면 false를 반환합니다.
+     */
+    public boolean submit(long id, Runnable[] stages) {
+        boolean[] accepted = {true};
+        pending.compute(id, (key, current) -> {
+            if (current != null) {
+                // 아직 시작하지 않은 분석은 최신 요청으로 바꿈 (대기 시작 시각은 유지)
+                merged.increment();
+                current.stages = stages;
+                return current;
+            }
+            if (pending.mappingCount() >= capacity) {
+                dropped.increment();
+                accepted[0] = false;
+                return null;
+            }
+            ready.add(key);
+            return new Pending(stages, System.nanoTime());
+        });
+        return accepted[0];
+    }
+
+    /**
+     * 아직 시작하지 않은 분석이 대기 중인지
+     * 대기 중인 분석은 이 확인 뒤에 시작하므로, 그 전에 커밋한 쓰기는 같은 단계의 요청을 다시 넣지 않아도 분석에 반영됩니다.
+     */
+    public boolean isPending(long id) {
+        return pending.containsKey(id);
+    }
+
+    private void runWorker() {
+        List<Long> ids = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                ids.add(ready.take());
+                ready.drainTo(ids, batchSize - 1);
+                for (Long id : ids) {
+                    Pending entry = pending.remove(id);
+                    if (entry != null) {
+                        analyze(id, entry);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                ids.clear();
+            }
+        }
+    }
+
+    private void analyze(long id, Pending entry) {
+        // compute가 끝난 항목만 제거되므로 stages는 이미 확정된 상태
+        AnalysisContext context = AnalysisContext.withTimeout(0);
+        try {
+            analysisBulkheads.runAll(context, POST_COMMIT_STAGES, entry.stages);
+            if (context.isDegraded()) {
+                log.debug("커밋 후 분석 일부 단계 생략: id={}, stages={}", id, context.getUnavailableStages());
+            }
+        } catch (RuntimeException e) {
+            log.debug("커밋 후 분석 실패: id={}", id, e);
+        } finally {
+            completed.increment();
+        }
+    }
+
+    /**
+     * 대기 중인 주식 수, 가장 오래 기다린 분석의 대기 시간, 합쳐진/버려진/실행한 요청 수
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> values = new LinkedHashMap<>();
+        values.put("analysisQueueDepth", pending.mappingCount());
+        values.put("analysisQueueLagMicros", TimeUnit.NANOSECONDS.toMicros(oldestWaitNanos()));
+        values.put("analysisQueueMerged", merged.sum());
+        values.put("analysisQueueDropped", dropped.sum());
+        values.put("analysisQueueCompleted", completed.sum());
+        return values;
+    }
+
+    // 대기 순서상 맨 앞 분석이 기다린 시간 (없으면 0)
+    private long oldestWaitNanos() {
+        Long head = ready.peek();
+        Pending entry = head != null ? pending.get(head) : null;
+        return entry != null ? Math.max(0L, System.nanoTime() - entry.enqueuedAt) : 0L;
+    }
+
+    private static final class Pending {
+        private final long enqueuedAt;
+        private Runnable[] stages;
+
+        private Pending(Runnable[] stages, long enqueuedAt) {
+            this.stages = stages;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
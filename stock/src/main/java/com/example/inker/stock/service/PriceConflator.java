@@ -0,0 +1,173 @@
+package com.example.inker.stock.service;
+
+import com.example.inker.stock.dto.StockResponse;
+import com.example.inker.stock.exception.StockOverloadedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주식별 가격 업데이트 합치기(conflation)
+ * 주식마다 대기 중인 업데이트를 하나만 유지하고, 첫 업데이트가 들어온 뒤 window가 지나면
+ * 가장 최신 가격으로 한 번만 반영합니다. 그 사이 들어온 업데이트는 대기 중인 항목에 합쳐지며
+ * 모든 호출자는 같은 반영 결과를 받습니다.
+ * 창은 항목마다 따로 재며, 드레이너 스레드는 창이 지난 항목만 sink에 넘기고 반영이 끝나기를 기다리지 않습니다.
+ * close() 뒤의 제출과 닫을 때 아직 sink에 넘기지 않은 대기 항목은 반영하지 않고 StockOverloadedException으로 끝냅니다.
+ */
+public class PriceConflator {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceConflator.class);
+
+    /**
+     * 합쳐진 업데이트를 실제로 반영하는 쪽 (저장과 분석 요청 포함)
+     * 반영을 다른 스레드에 넘기고 바로 반환해야 하며, 반환된 future는 반영(변경 로그 기록 포함)이 끝나면 완료됩니다.
+     * 같은 주식의 업데이트는 넘긴 순서대로 반영해야 합니다.
+     */
+    @FunctionalInterface
+    public interface Sink {
+        CompletableFuture<StockResponse> apply(long id, double price, long timestampMicros);
+    }
+
+    private final long windowNanos;
+    private final Sink sink;
+    private final StockMetrics metrics;
+    private final ConcurrentHashMap<Long, Pending> pending = new ConcurrentHashMap<>();
+    // 대기 항목이 새로 생긴 주식 ID (생긴 순서 = 창이 끝나는 순서, 대기 항목 하나당 한 번)
+    private final LinkedBlockingQueue<Long> ready = new LinkedBlockingQueue<>();
+    private final Thread drainer;
+    private volatile boolean running = true;
+
+    public PriceConflator(long windowMillis, Sink sink, StockMetrics metrics) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.sink = sink;
+        this.metrics = metrics;
+        this.drainer = new Thread(this::runDrainer, "stock-price-conflator");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+    }
+
+    /**
+     * 가격 업데이트 제출 (반환된 future는 합쳐진 업데이트가 반영되면 완료)
+     */
+    public CompletableFuture<StockResponse> submit(long id, double price, long timestampMicros) {
+        if (!running) {
+            return CompletableFuture.failedFuture(closedException());
+        }
+        CompletableFuture<StockResponse> result = new CompletableFuture<>();
+        boolean[] created = new boolean[1];
+        Pending entry = pending.compute(id, (key, current) -> {
+            if (current == null) {
+                current = new Pending(System.nanoTime());
+                created[0] = true;
+            } else {
+                metrics.recordConflatedPriceUpdate();
+            }
+            if (timestampMicros >= current.timestampMicros) {
+                current.price = price;
+                current.timestampMicros = timestampMicros;
+            }
+            current.waiters.add(result);
+            return current;
+        });
+        // compute가 끝나 항목이 보인 뒤에 알려야 드레이너가 빈 항목을 보고 건너뛰지 않음
+        if (created[0]) {
+            ready.add(id);
+        }
+        // 확인과 compute 사이에 닫혔으면 닫는 쪽이 이 항목을 못 봤을 수 있으므로 직접 끝냄
+        if (!running && pending.remove(id, entry)) {
+            reject(entry);
+        }
+        return result;
+    }
+
+    /**
+     * 새 제출을 거절하고, 드레이너를 멈춘 뒤 남은 대기 항목을 실패로 끝냄
+     * 이미 sink에 넘긴 업데이트는 sink의 결과대로 끝납니다.
+     */
+    public void close() throws InterruptedException {
+        running = false;
+        drainer.interrupt();
+        drainer.join(TimeUnit.SECONDS.toMillis(5));
+        rejectPending();
+    }
+
+    private void runDrainer() {
+        while (running) {
+            try {
+                Long id = ready.take();
+                Pending entry = pending.get(id);
+                if (entry == null) {
+                    continue;
+                }
+                // 창이 모두 같으므로 앞선 항목보다 먼저 끝나는 항목은 없음 (같은 순간에 생긴 항목끼리는 순서가 조금 바뀔 수 있음)
+                long remaining = entry.createdAt + windowNanos - System.nanoTime();
+                if (remaining > 0) {
+                    TimeUnit.NANOSECONDS.sleep(remaining);
+                }
+                if (pending.remove(id, entry)) {
+                    flush(id, entry);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        rejectPending();
+    }
+
+    private void rejectPending() {
+        pending.forEach((id, entry) -> {
+            if (pending.remove(id, entry)) {
+                reject(entry);
+            }
+        });
+    }
+
+    private static void reject(Pending entry) {
+        StockOverloadedException failure = closedException();
+        entry.waiters.forEach(waiter -> waiter.completeExceptionally(failure));
+    }
+
+    private static StockOverloadedException closedException() {
+        return new StockOverloadedException("가격 업데이트 합치기가 종료되어 업데이트를 반영하지 않았습니다");
+    }
+
+    private void flush(long id, Pending entry) {
+        // compute가 끝난 항목만 제거되므로 필드는 이미 확정된 상태
+        CompletableFuture<StockResponse> applied;
+        try {
+            applied = sink.apply(id, entry.price, entry.timestampMicros);
+        } catch (RuntimeException e) {
+            applied = CompletableFuture.failedFuture(e);
+        }
+        applied.whenComplete((response, failure) -> {
+            if (failure == null) {
+                entry.waiters.forEach(waiter -> waiter.complete(response));
+                return;
+            }
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause()
+                    : failure;
+            log.debug("합쳐진 가격 업데이트 반영 실패: id={}", id, cause);
+            entry.waiters.forEach(waiter -> waiter.completeExceptionally(cause));
+        });
+    }
+
+    private static final class Pending {
+        private final long createdAt;
+        private final List<CompletableFuture<StockResponse>> waiters = new ArrayList<>(1);
+        private double price;
+        private long timestampMicros = Long.MIN_VALUE;
+
+        private Pending(long createdAt) {
+            this.createdAt = createdAt;
+        }
+    }
+}
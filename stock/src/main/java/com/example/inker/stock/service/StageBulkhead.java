@@ -0,0 +1,187 @@
+package com.example.inker.stock.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 분석 단계 하나의 격리 실행기 (전용 스레드 풀, 단계 시간 제한, 서킷 브레이커)
+ * 최근 window번의 실행 중 실패(예외, 시간 초과) 비율이 failureRatio 이상이면 브레이커를 열어
+ * coolDown 동안 단계를 실행하지 않고, 그 뒤 시험 실행 하나가 성공하면 다시 닫습니다.
+ */
+class StageBulkhead {
+
+    private final AnalysisStage stage;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutNanos;
+    private final double failureRatio;
+    private final long coolDownNanos;
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    // 서킷 브레이커 상태 (this로 보호)
+    private final boolean[] outcomes;
+    private int nextOutcome;
+    private int recordedOutcomes;
+    private int failedOutcomes;
+    private boolean open;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    StageBulkhead(AnalysisStage stage, int threads, int queueCapacity, long timeoutMillis,
+                  int window, double failureRatio, long coolDownMillis) {
+        this.stage = stage;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "stock-analysis-" + stage.getCode() + "-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        this.outcomes = new boolean[window];
+        this.failureRatio = failureRatio;
+        this.coolDownNanos = TimeUnit.MILLISECONDS.toNanos(coolDownMillis);
+    }
+
+    AnalysisStage getStage() {
+        return stage;
+    }
+
+    long getTimeoutNanos() {
+        return timeoutNanos;
+    }
+
+    /**
+     * 단계 실행 제출 (브레이커가 열려 있거나 풀이 가득 차면 실행하지 않고 null)
+     */
+    Call submit(Runnable task) {
+        boolean trial;
+        synchronized (this) {
+            if (open) {
+                if (trialInFlight || System.nanoTime() - openedAt < coolDownNanos) {
+                    rejected.increment();
+                    return null;
+                }
+                trialInFlight = true;
+                trial = true;
+            } else {
+                trial = false;
+            }
+        }
+        try {
+            return new Call(executor.submit(task), System.nanoTime(), trial);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            if (trial) {
+                synchronized (this) {
+                    trialInFlight = false;
+                }
+            }
+            return null;
+        }
+    }
+
+    synchronized void recordSuccess(Call call) {
+        if (call.trial) {
+            // 시험 실행 성공: 브레이커를 닫고 새로 집계
+            open = false;
+            trialInFlight = false;
+            nextOutcome = 0;
+            recordedOutcomes = 0;
+            failedOutcomes = 0;
+            return;
+        }
+        if (!open) {
+            record(false);
+        }
+    }
+
+    synchronized void recordFailure(Call call, boolean timedOut) {
+        failures.increment();
+        if (timedOut) {
+            timeouts.increment();
+        }
+        if (call.trial) {
+            // 시험 실행 실패: 다시 coolDown 동안 열어 둠
+            openedAt = System.nanoTime();
+            trialInFlight = false;
+            return;
+        }
+        if (open) {
+            return;
+        }
+        record(true);
+        if (recordedOutcomes == outcomes.length && failedOutcomes >= failureRatio * recordedOutcomes) {
+            open = true;
+            openedAt = System.nanoTime();
+        }
+    }
+
+    private void record(boolean failed) {
+        if (recordedOutcomes == outcomes.length) {
+            if (outcomes[nextOutcome]) {
+                failedOutcomes--;
+            }
+        } else {
+            recordedOutcomes++;
+        }
+        outcomes[nextOutcome] = failed;
+        if (failed) {
+            failedOutcomes++;
+        }
+        nextOutcome = (nextOutcome + 1) % outcomes.length;
+    }
+
+    /**
+     * 요청이 먼저 끝나(마감, 인터럽트) 기다리지 않는 실행 취소 (브레이커 집계에는 넣지 않음)
+     */
+    void abandon(Call call) {
+        call.future.cancel(true);
+        if (call.trial) {
+            synchronized (this) {
+                trialInFlight = false;
+            }
+        }
+    }
+
+    synchronized boolean isOpen() {
+        return open;
+    }
+
+    long getFailures() {
+        return failures.sum();
+    }
+
+    long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    long getRejected() {
+        return rejected.sum();
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 제출된 단계 실행 하나
+     */
+    static final class Call {
+        final Future<?> future;
+        final long submittedAt;
+        final boolean trial;
+
+        private Call(Future<?> future, long submittedAt, boolean trial) {
+            this.future = future;
+            this.submittedAt = submittedAt;
+            this.trial = trial;
+        }
+    }
+}
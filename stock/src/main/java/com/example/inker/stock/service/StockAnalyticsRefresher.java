@@ -0,0 +1,367 @@
+package com.example.inker.stock.service;
+
+import com.example.inker.stock.candle.CandleAggregator;
+import com.example.inker.stock.candle.CandleResolution;
+import com.example.inker.stock.dto.CandleResponse;
+import com.example.inker.stock.dto.StockAnalysisResponse;
+import com.example.inker.stock.entity.Stock;
+import com.example.inker.stock.exception.StockNotFoundException;
+import com.example.inker.stock.exception.StockValidationException;
+import com.example.inker.stock.repository.StockRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 주식 분석 결과의 백그라운드 갱신기 (미리 계산된 분석 뷰)
+ * 저장소 변경 리스너로 바뀐 주식을 표시해 두고, refresh-interval마다 표시된 주식을 가격 변동이 큰 순서로
+ * 작업 훔치기(work-stealing) 풀에 넘겨 2~10단계 분석과 최근 1분 봉 지표를 다시 계산합니다.
+ * 2~10단계는 결과를 돌려주지 않는 검사라 실패한 단계만 unavailableStages로 남기며, 뷰에 담기는 지표는
+ * 분석 시점의 가격과 최근 1분 봉에서 계산한 값(등락률, 이동평균, VWAP, 변동성, 추세)뿐입니다.
+ * 마지막 분석 가격보다 urgent-change-ratio 이상 움직인 주식은 다음 주기를 기다리지 않고 바로 갱신합니다.
+ * 조회는 계산 없이 뷰에서 꺼내며, 분석 뒤 바뀐 주식은 stale과 대기 시간을 함께 돌려줍니다.
+ */
+@Component
+public class StockAnalyticsRefresher {
+
+    private static final Logger log = LoggerFactory.getLogger(StockAnalyticsRefresher.class);
+    // 가격이 이동평균에서 이 비율 이상 벗어나야 UP/DOWN
+    private static final double TREND_BAND = 0.005;
+
+    private final StockDataProcessor dataProcessor = new StockDataProcessor();
+    private final StockPriceAnalyzer priceAnalyzer = new StockPriceAnalyzer();
+    private final StockMarketAnalyzer marketAnalyzer = new StockMarketAnalyzer();
+    private final StockVolumeAnalyzer volumeAnalyzer = new StockVolumeAnalyzer();
+    private final StockRiskAnalyzer riskAnalyzer = new StockRiskAnalyzer();
+    private final StockPerformanceAnalyzer performanceAnalyzer = new StockPerformanceAnalyzer();
+    private final StockTrendAnalyzer trendAnalyzer = new StockTrendAnalyzer();
+    private final StockPredictionEngine predictionEngine = new StockPredictionEngine();
+    private final StockRecommendationEngine recommendationEngine = new StockRecommendationEngine();
+
+    private final StockRepository stockRepository;
+    private final CandleAggregator candleAggregator;
+    private final long refreshIntervalMillis;
+    private final double urgentChangeRatio;
+    private final int windowBars;
+    private final ForkJoinPool pool;
+    private final ScheduledExecutorService scheduler;
+    private final ConcurrentHashMap<Long, MaterializedAnalysis> view = new ConcurrentHashMap<>();
+    // 마지막 분석 뒤 바뀐 주식 (갱신을 시작하면 제거)
+    private final ConcurrentHashMap<Long, PendingRefresh> pending = new ConcurrentHashMap<>();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder urgentRefreshes = new LongAdder();
+
+    public StockAnalyticsRefresher(
+            StockRepository stockRepository,
+            CandleAggregator candleAggregator,
+            @Value("${stock.analytics.refresh-interval-millis:1000}") long refreshIntervalMillis,
+            @Value("${stock.analytics.parallelism:0}") int parallelism,
+            @Value("${stock.analytics.urgent-change-ratio:0.05}") double urgentChangeRatio,
+            @Value("${stock.analytics.window-bars:20}") int windowBars) {
+        this.stockRepository = stockRepository;
+        this.candleAggregator = candleAggregator;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        this.urgentChangeRatio = urgentChangeRatio;
+        this.windowBars = windowBars;
+        // 0 이하이면 CPU 수만큼
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                forkJoinPool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                    thread.setName("stock-analytics-" + thread.getPoolIndex());
+                    thread.setDaemon(true);
+                    return thread;
+                }, null, true);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-analytics-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        stockRepository.addChangeListener(this::onChange);
+        stockRepository.addDeleteListener(this::onDelete);
+        // 리스너 등록 전에 적재된 주식도 첫 주기에 분석
+        long now = System.nanoTime();
+        stockRepository.streamAll().forEach(stock -> pending.putIfAbsent(stock.getId(), new PendingRefresh(now)));
+        scheduler.scheduleWithFixedDelay(this::refreshChanged, 0L, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        scheduler.shutdownNow();
+        pool.shutdownNow();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 미리 계산된 분석 결과 조회 (계산하지 않음, 아직 분석되지 않은 주식이면 404)
+     */
+    public StockAnalysisResponse getAnalysis(Long id) {
+        if (id == null || id <= 0) {
+            throw new StockValidationException("유효하지 않은 재고 ID입니다");
+        }
+        MaterializedAnalysis analysis = view.get(id);
+        if (analysis == null) {
+            throw new StockNotFoundException("재고 ID " + id + "의 분석 결과를 찾을 수 없습니다");
+        }
+        PendingRefresh mark = pending.get(id);
+        return analysis.toResponse(mark != null ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - mark.since) : -1L);
+    }
+
+    /**
+     * 저장소 변경 리스너 (쓰기 경로에서 호출되므로 표시와 급변 판단만 수행)
+     */
+    private void onChange(Stock stock) {
+        long id = stock.getId();
+        PendingRefresh mark = pending.computeIfAbsent(id, key -> new PendingRefresh(System.nanoTime()));
+        double change = changeRatio(view.get(id), stock.getCurrentPrice());
+        mark.raise(change);
+        if (change >= urgentChangeRatio && schedule(id, mark)) {
+            urgentRefreshes.increment();
+        }
+    }
+
+    private void onDelete(long id) {
+        pending.remove(id);
+        view.remove(id);
+    }
+
+    // 마지막 분석 가격 대비 변동 비율 (분석 결과가 없거나 비교할 수 없으면 0)
+    private static double changeRatio(MaterializedAnalysis analysis, Double price) {
+        if (analysis == null || price == null || Double.isNaN(analysis.price) || analysis.price == 0.0) {
+            return 0.0;
+        }
+        return Math.abs(price - analysis.price) / Math.abs(analysis.price);
+    }
+
+    // 주기마다 아직 넘기지 않은 주식을 변동이 큰 순서로 풀에 넘김
+    private void refreshChanged() {
+        try {
+            List<Map.Entry<Long, PendingRefresh>> due = new ArrayList<>();
+            for (Map.Entry<Long, PendingRefresh> entry : pending.entrySet()) {
+                if (!entry.getValue().scheduled.get()) {
+                    due.add(entry);
+                }
+            }
+            due.sort(Comparator.comparingDouble((Map.Entry<Long, PendingRefresh> entry) -> entry.getValue().change)
+                    .reversed());
+            for (Map.Entry<Long, PendingRefresh> entry : due) {
+                schedule(entry.getKey(), entry.getValue());
+            }
+        } catch (RuntimeException e) {
+            // 예외가 나가면 이후 주기가 실행되지 않음
+            log.warn("분석 갱신 주기 실패", e);
+        }
+    }
+
+    private boolean schedule(long id, PendingRefresh mark) {
+        if (!mark.scheduled.compareAndSet(false, true)) {
+            return false;
+        }
+        pool.execute(() -> refresh(id));
+        return true;
+    }
+
+    private void refresh(long id) {
+        // 표시를 먼저 지워 분석 중에 들어온 변경은 다음 주기에 다시 분석
+        pending.remove(id);
+        Optional<Stock> found = stockRepository.findById(id);
+        if (found.isEmpty()) {
+            view.remove(id);
+            return;
+        }
+        Stock stock = found.get();
+        Set<AnalysisStage> unavailable = EnumSet.noneOf(AnalysisStage.class);
+        // 2단계: 데이터 처리
+        runStage(AnalysisStage.DATA, () -> dataProcessor.validateStockId(id), unavailable);
+        // 3단계: 가격 분석
+        runStage(AnalysisStage.PRICE, () -> priceAnalyzer.analyzePriceForId(id), unavailable);
+        // 4단계: 시장 분석
+        runStage(AnalysisStage.MARKET, () -> marketAnalyzer.analyzeMarketForId(id), unavailable);
+        // 5단계: 거래량 분석
+        runStage(AnalysisStage.VOLUME, () -> volumeAnalyzer.analyzeVolumeForId(id), unavailable);
+        // 6단계: 리스크 분석
+        runStage(AnalysisStage.RISK, () -> riskAnalyzer.analyzeRiskForId(id), unavailable);
+        // 7단계: 성과 분석
+        runStage(AnalysisStage.PERFORMANCE, () -> performanceAnalyzer.analyzePerformanceForId(id), unavailable);
+        // 8단계: 트렌드 분석
+        runStage(AnalysisStage.TREND, () -> trendAnalyzer.analyzeTrendForId(id), unavailable);
+        // 9단계: 예측 엔진
+        runStage(AnalysisStage.PREDICTION, () -> predictionEngine.predictForId(id), unavailable);
+        // 10단계: 추천 엔진
+        runStage(AnalysisStage.RECOMMENDATION, () -> recommendationEngine.recommendForId(id), unavailable);
+
+        List<CandleResponse> bars = candleAggregator.getRecentCandles(id, CandleResolution.MINUTE_1, windowBars);
+        MaterializedAnalysis analysis = new MaterializedAnalysis(stock, bars, unavailable);
+        // 같은 주식의 갱신이 겹치면 더 최신 version의 결과를 유지
+        view.merge(id, analysis, (current, next) -> current.version > next.version ? current : next);
+        if (stockRepository.findById(id).isEmpty()) {
+            // 분석 중에 삭제된 주식
+            view.remove(id, analysis);
+        }
+        refreshes.increment();
+    }
+
+    private static void runStage(AnalysisStage stage, Runnable task, Set<AnalysisStage> unavailable) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            log.debug("분석 갱신 단계 실패: stage={}", stage.getCode(), e);
+            unavailable.add(stage);
+        }
+    }
+
+    /**
+     * 뷰에 든 주식 수, 분석을 기다리는 주식 수, 가장 오래 기다린 주식의 대기 시간, 갱신/급변 갱신 횟수
+     */
+    public Map<String, Long> snapshot() {
+        long now = System.nanoTime();
+        long oldest = now;
+        for (PendingRefresh mark : pending.values()) {
+            oldest = Math.min(oldest, mark.since);
+        }
+        Map<String, Long> values = new LinkedHashMap<>();
+        values.put("analyticsViewSize", (long) view.size());
+        values.put("analyticsPending", pending.mappingCount());
+        values.put("analyticsMaxStalenessMillis", TimeUnit.NANOSECONDS.toMillis(now - oldest));
+        values.put("analyticsRefreshes", refreshes.sum());
+        values.put("analyticsUrgentRefreshes", urgentRefreshes.sum());
+        return values;
+    }
+
+    /**
+     * 분석을 기다리는 주식 표시 (첫 변경 시각과 그 뒤 가장 큰 가격 변동 비율)
+     */
+    private static final class PendingRefresh {
+        private final long since;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile double change;
+
+        private PendingRefresh(long since) {
+            this.since = since;
+        }
+
+        private synchronized void raise(double value) {
+            if (value > change) {
+                change = value;
+            }
+        }
+    }
+
+    /**
+     * 주식 하나의 미리 계산된 분석 결과 (불변)
+     */
+    private static final class MaterializedAnalysis {
+        private final long id;
+        private final String symbol;
+        private final long version;
+        private final double price;
+        private final Double changePercent;
+        private final Double movingAverage;
+        private final Double vwap;
+        private final Double volatilityPercent;
+        private final String trend;
+        private final int barCount;
+        private final List<String> unavailableStages;
+        private final LocalDateTime analyzedAt;
+
+        private MaterializedAnalysis(Stock stock, List<CandleResponse> bars, Set<AnalysisStage> unavailable) {
+            this.id = stock.getId();
+            this.symbol = stock.getSymbol();
+            this.version = stock.getVersion();
+            Double current = stock.getCurrentPrice();
+            Double previous = stock.getPreviousPrice();
+            this.price = current != null ? current : Double.NaN;
+            this.changePercent = current != null && previous != null && previous != 0.0
+                    ? (current - previous) / previous * 100.0 : null;
+            this.barCount = bars.size();
+
+            double closeSum = 0.0;
+            double tradedValue = 0.0;
+            long tradedVolume = 0L;
+            double returnSum = 0.0;
+            double returnSquareSum = 0.0;
+            int returns = 0;
+            double lastClose = Double.NaN;
+            for (CandleResponse bar : bars) {
+                double close = bar.getClose();
+                closeSum += close;
+                if (bar.getVolume() != null && bar.getVolume() > 0) {
+                    tradedValue += close * bar.getVolume();
+                    tradedVolume += bar.getVolume();
+                }
+                if (lastClose > 0.0 && close > 0.0) {
+                    double logReturn = Math.log(close / lastClose);
+                    returnSum += logReturn;
+                    returnSquareSum += logReturn * logReturn;
+                    returns++;
+                }
+                lastClose = close;
+            }
+            this.movingAverage = barCount > 0 ? closeSum / barCount : null;
+            this.vwap = tradedVolume > 0 ? tradedValue / tradedVolume : null;
+            // 봉 사이 로그 수익률의 표본 표준편차 (수익률이 2개 이상일 때)
+            this.volatilityPercent = returns > 1
+                    ? Math.sqrt(Math.max(0.0, (returnSquareSum - returnSum * returnSum / returns) / (returns - 1))) * 100.0
+                    : null;
+            if (movingAverage == null || Double.isNaN(price)) {
+                this.trend = null;
+            } else if (price > movingAverage * (1 + TREND_BAND)) {
+                this.trend = "UP";
+            } else if (price < movingAverage * (1 - TREND_BAND)) {
+                this.trend = "DOWN";
+            } else {
+                this.trend = "FLAT";
+            }
+            List<String> stages = new ArrayList<>(unavailable.size());
+            for (AnalysisStage stage : unavailable) {
+                stages.add(stage.getCode());
+            }
+            this.unavailableStages = List.copyOf(stages);
+            this.analyzedAt = LocalDateTime.now();
+        }
+
+        // stalenessMillis는 분석 뒤 첫 변경부터 지난 시간 (바뀌지 않았으면 음수)
+        private StockAnalysisResponse toResponse(long stalenessMillis) {
+            StockAnalysisResponse response = new StockAnalysisResponse();
+            response.setId(id);
+            response.setSymbol(symbol);
+            response.setAnalyzedVersion(version);
+            response.setCurrentPrice(Double.isNaN(price) ? null : price);
+            response.setChangePercent(changePercent);
+            response.setMovingAverage(movingAverage);
+            response.setVwap(vwap);
+            response.setVolatilityPercent(volatilityPercent);
+            response.setTrend(trend);
+            response.setBarCount(barCount);
+            response.setUnavailableStages(unavailableStages);
+            response.setAnalyzedAt(analyzedAt);
+            response.setStale(stalenessMillis >= 0);
+            response.setStalenessMillis(Math.max(0L, stalenessMillis));
+            return response;
+        }
+    }
+}
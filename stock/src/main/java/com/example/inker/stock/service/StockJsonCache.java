@@ -0,0 +1,89 @@
+package com.example.inker.stock.service;
+
+import com.example.inker.stock.dto.StockResponse;
+import com.example.inker.stock.entity.Stock;
+import com.example.inker.stock.repository.StockRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 주식별 직렬화된 StockResponse JSON 캐시
+ * 주식 version이 바뀐 뒤 처음 읽힐 때만 DTO를 만들어 직렬화하고, 목록 응답은 캐시된 조각을 이어 붙입니다.
+ * 삭제된 주식의 항목은 저장소 삭제 리스너로 제거하고, 삭제와 겹쳐 리스너 뒤에 넣은 항목은 넣은 쪽이 다시 확인해 제거합니다.
+ */
+@Component
+public class StockJsonCache {
+
+    private final ObjectMapper objectMapper;
+    private final StockRepository stockRepository;
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    public StockJsonCache(ObjectMapper objectMapper, StockRepository stockRepository) {
+        this.objectMapper = objectMapper;
+        this.stockRepository = stockRepository;
+        stockRepository.addDeleteListener(entries::remove);
+    }
+
+    /**
+     * 주식 하나의 JSON 바이트 (현재 version과 같으면 캐시 사용)
+     */
+    public byte[] bytesOf(Stock stock) {
+        Entry entry = entries.get(stock.getId());
+        if (entry != null && entry.version == stock.getVersion()) {
+            return entry.json;
+        }
+        // 저장된 행은 변경되지 않으므로 락 없이 직렬화
+        Entry rebuilt = new Entry(stock.getVersion(), serialize(StockResponse.from(stock)));
+        // 동시에 다시 만든 경우 더 최신 version을 남김
+        entries.merge(stock.getId(), rebuilt, (current, candidate) ->
+                candidate.version >= current.version ? candidate : current);
+        // 삭제는 저장소에서 행을 먼저 지운 뒤 알리므로, 넣은 뒤에도 행이 없으면 삭제 리스너가 이미 지나갔을 수 있음
+        if (stockRepository.findById(stock.getId()).isEmpty()) {
+            entries.remove(stock.getId(), rebuilt);
+        }
+        return rebuilt.json;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * 주식 목록을 JSON 배열 바이트로 (DTO를 만들지 않고 캐시된 조각을 이어 붙임)
+     */
+    public byte[] toJsonArray(List<Stock> stocks) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(stocks.size() * 256 + 2);
+        out.write('[');
+        for (int i = 0; i < stocks.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.writeBytes(bytesOf(stocks.get(i)));
+        }
+        out.write(']');
+        return out.toByteArray();
+    }
+
+    private byte[] serialize(StockResponse response) {
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Entry {
+        private final long version;
+        private final byte[] json;
+
+        private Entry(long version, byte[] json) {
+            this.version = version;
+            this.json = json;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.inker.stock.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 주식 모듈 운영 지표
+ * 카운터는 LongAdder로 누적하고 /api/v1/stocks/metrics에서 이름별 값으로 조회합니다.
+ */
+@Component
+public class StockMetrics {
+
+    private final LongAdder conflatedPriceUpdates = new LongAdder();
+    private final LongAdder conflatedStreamUpdates = new LongAdder();
+    private final AtomicLong streamSubscribers = new AtomicLong();
+    private final LongAdder streamSendTimeouts = new LongAdder();
+    private final LongAdder writeConflicts = new LongAdder();
+    private final LongAdder abandonedAnalyses = new LongAdder();
+    private final LongAdder skippedAnalysisStages = new LongAdder();
+    private final LongAdder coalescedAnalyses = new LongAdder();
+    private final LongAdder columnarScans = new LongAdder();
+    private final LongAdder columnarFallbacks = new LongAdder();
+
+    /**
+     * 같은 주식의 대기 중인 가격 업데이트에 합쳐진 업데이트 수
+     */
+    public void recordConflatedPriceUpdate() {
+        conflatedPriceUpdates.increment();
+    }
+
+    public long getConflatedPriceUpdates() {
+        return conflatedPriceUpdates.sum();
+    }
+
+    /**
+     * 가격 스트림 클라이언트 큐에서 아직 보내지 않은 이벤트를 덮어쓴 수
+     */
+    public void recordConflatedStreamUpdate() {
+        conflatedStreamUpdates.increment();
+    }
+
+    public void recordStreamSubscribed() {
+        streamSubscribers.incrementAndGet();
+    }
+
+    public void recordStreamUnsubscribed() {
+        streamSubscribers.decrementAndGet();
+    }
+
+    /**
+     * 전송이 제한 시간 안에 끝나지 않아 연결을 끊은 가격 스트림 클라이언트 수
+     */
+    public void recordStreamSendTimeout() {
+        streamSendTimeouts.increment();
+    }
+
+    /**
+     * 다른 쓰기가 먼저 반영되어 version 비교 교체에 실패한 수 (재시도 포함)
+     */
+    public void recordWriteConflict() {
+        writeConflicts.increment();
+    }
+
+    /**
+     * 마감 경과나 인터럽트로 분석 파이프라인을 중단한 요청과 실행하지 않은 남은 단계 수 (중단으로 아낀 작업량)
+     */
+    public void recordAbandonedAnalysis(int skippedStages) {
+        abandonedAnalyses.increment();
+        skippedAnalysisStages.add(skippedStages);
+    }
+
+    /**
+     * 같은 분석이 실행 중이라 직접 실행하지 않고 그 결과를 함께 받은 요청 수
+     */
+    public void recordCoalescedAnalysis() {
+        coalescedAnalyses.increment();
+    }
+
+    /**
+     * 컬럼형 인덱스 스캔 시도와, 인덱스가 스냅샷보다 뒤처져 스냅샷 순회로 돌아간 수
+     */
+    public void recordColumnarScan(boolean fellBack) {
+        columnarScans.increment();
+        if (fellBack) {
+            columnarFallbacks.increment();
+        }
+    }
+
+    /**
+     * 지표 이름과 현재 값
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> values = new LinkedHashMap<>();
+        values.put("conflatedPriceUpdates", conflatedPriceUpdates.sum());
+        values.put("conflatedStreamUpdates", conflatedStreamUpdates.sum());
+        values.put("streamSubscribers", streamSubscribers.get());
+        values.put("streamSendTimeouts", streamSendTimeouts.sum());
+        values.put("writeConflicts", writeConflicts.sum());
+        values.put("abandonedAnalyses", abandonedAnalyses.sum());
+        values.put("skippedAnalysisStages", skippedAnalysisStages.sum());
+        values.put("coalescedAnalyses", coalescedAnalyses.sum());
+        values.put("columnarScans", columnarScans.sum());
+        values.put("columnarFallbacks", columnarFallbacks.sum());
+        return values;
+    }
+}
@@ -1,18 +1,49 @@
 package com.example.inker.stock.service;
 
+import com.example.inker.stock.entity.EpochMicros;
 import com.example.inker.stock.entity.Stock;
+import com.example.inker.stock.dto.BulkPriceUpdateResponse;
 import com.example.inker.stock.dto.CreateStockRequest;
+import com.example.inker.stock.dto.PriceTickRequest;
+import com.example.inker.stock.dto.SectorSummaryResponse;
+import com.example.inker.stock.dto.PriceUpdateResult;
+import com.example.inker.stock.dto.StockPageResponse;
 import com.example.inker.stock.dto.StockResponse;
 import com.example.inker.stock.dto.UpdateStockRequest;
 import com.example.inker.stock.dto.UpdateStockPriceRequest;
+import com.example.inker.stock.exception.StockConflictException;
+import com.example.inker.stock.exception.StockDeadlineExceededException;
 import com.example.inker.stock.exception.StockNotFoundException;
+import com.example.inker.stock.exception.StockPersistenceException;
+import com.example.inker.stock.exception.StockPreconditionFailedException;
 import com.example.inker.stock.exception.StockValidationException;
 import com.example.inker.stock.exception.InvalidPriceException;
+import com.example.inker.stock.persistence.StockMutation;
+import com.example.inker.stock.persistence.StockWriteAheadLog;
+import com.example.inker.stock.repository.ColumnarStockStore;
+import com.example.inker.stock.repository.MarketCapIndex;
+import com.example.inker.stock.repository.StockRepository;
+import com.example.inker.stock.repository.StockSnapshot;
+import com.example.inker.stock.partition.StockPartitioning;
+import com.example.inker.stock.shard.StockWriteShards;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
 
 /**
  * 재고 관리 서비스
@@ -21,6 +52,14 @@ import java.util.Optional;
 @Service
 public class StockService {
     
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_BULK_SIZE = 10000;
+    // If-Match 없는 쓰기가 version 경합에서 질 때 최신 행에 다시 적용하는 최대 횟수
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    // 삭제 전에 삭제할 행의 변경 로그 기록 요청을 기다리는 최대 시간
+    private static final long LOG_PENDING_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final AnalysisStage[] PIPELINE_STAGES = AnalysisStage.values();
+    
     private final StockAnalysisOrchestrator orchestrator;
     private final StockDataProcessor dataProcessor;
     private final StockPriceAnalyzer priceAnalyzer;
@@ -32,10 +71,34 @@ public class StockService {
     private final StockPredictionEngine predictionEngine;
     private final StockRecommendationEngine recommendationEngine;
     
-    // 임시 데이터 저장소
-    private final List<Stock> stocks = new ArrayList<>();
+    private final StockRepository stockRepository;
+    private final StockWriteAheadLog writeAheadLog;
+    private final StockJsonCache jsonCache;
+    private final StockMetrics metrics;
+    private final AnalysisBulkheads analysisBulkheads;
+    private final PostCommitAnalysisQueue analysisQueue;
+    private final AnalysisSingleFlight singleFlight;
+    private final StockWriteShards writeShards;
+    private final StockPartitioning partitioning;
+    // stock.conflation.window-millis가 0이면 null (합치기 비활성화)
+    private final PriceConflator priceConflator;
     
-    public StockService() {
+    public StockService(StockRepository stockRepository, StockWriteAheadLog writeAheadLog, StockJsonCache jsonCache,
+                        StockMetrics metrics, AnalysisBulkheads analysisBulkheads, PostCommitAnalysisQueue analysisQueue,
+                        StockWriteShards writeShards, StockPartitioning partitioning,
+                        @Value("${stock.conflation.window-millis:0}") long conflationWindowMillis) {
+        this.stockRepository = stockRepository;
+        this.writeAheadLog = writeAheadLog;
+        this.jsonCache = jsonCache;
+        this.metrics = metrics;
+        this.analysisBulkheads = analysisBulkheads;
+        this.analysisQueue = analysisQueue;
+        this.singleFlight = new AnalysisSingleFlight(metrics);
+        this.writeShards = writeShards;
+        this.partitioning = partitioning;
+        this.priceConflator = conflationWindowMillis > 0
+                ? new PriceConflator(conflationWindowMillis, this::applyConflatedPriceUpdate, metrics)
+                : null;
         this.orchestrator = new StockAnalysisOrchestrator();
         this.dataProcessor = new StockDataProcessor();
         this.priceAnalyzer = new StockPriceAnalyzer();
@@ -46,64 +109,82 @@ public class StockService {
         this.trendAnalyzer = new StockTrendAnalyzer();
         this.predictionEngine = new StockPredictionEngine();
         this.recommendationEngine = new StockRecommendationEngine();
-        
-        // 샘플 데이터 초기화
-        initializeSampleData();
     }
     
-    private void initializeSampleData() {
-        Stock stock1 = new Stock("AAPL", "Apple Inc.", 150.0, 145.0, 1000000L, 2500000000000.0, "Technology");
-        stock1.setId(1L);
-        stocks.add(stock1);
-        
-        Stock stock2 = new Stock("GOOGL", "Alphabet Inc.", 2800.0, 2750.0, 500000L, 1800000000000.0, "Technology");
-        stock2.setId(2L);
-        stocks.add(stock2);
-        
-        Stock stock3 = new Stock("MSFT", "Microsoft Corporation", 300.0, 295.0, 800000L, 2200000000000.0, "Technology");
-        stock3.setId(3L);
-        stocks.add(stock3);
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (priceConflator != null) {
+            priceConflator.close();
+        }
+    }
+    
+    /**
+     * 주식 ETag (주식 version 기반, 없으면 null)
+     * 분석 파이프라인을 거치지 않으므로 조건부 조회의 304 판단에 사용합니다.
+     */
+    public String getStockETag(Long id) {
+        return id != null ? stockRepository.findById(id).map(stock -> eTagOf(stock.getVersion())).orElse(null) : null;
+    }
+    
+    public String getStockETagBySymbol(String symbol) {
+        return symbol != null ? stockRepository.findBySymbol(symbol).map(stock -> eTagOf(stock.getVersion())).orElse(null) : null;
+    }
+    
+    /**
+     * 목록/섹터/상위 N 조회에 쓸 현재 버전 (ETag와 본문을 같은 버전에서 만들기 위해 먼저 잡음)
+     */
+    public StockSnapshot currentSnapshot() {
+        return stockRepository.snapshot();
+    }
+    
+    /**
+     * 목록/섹터/상위 N 조회 ETag (스냅샷 게시 번호 기반, 본문도 같은 스냅샷으로 만들어야 함)
+     */
+    public String getCollectionETag(StockSnapshot snapshot) {
+        return eTagOf(snapshot.version());
+    }
+    
+    public static String eTagOf(long version) {
+        return "\"" + version + "\"";
     }
     
     /**
      * 재고 ID로 조회 (1단계)
      */
     public StockResponse getStockById(Long id) {
+        return getStockById(id, AnalysisContext.none());
+    }
+    
+    /**
+     * 재고 ID로 조회 (context의 마감이 지나거나 요청 스레드가 인터럽트되면 남은 단계를 실행하지 않고 504)
+     */
+    public StockResponse getStockById(Long id, AnalysisContext context) {
         // 1단계: 기본 검증
         if (id == null || id <= 0) {
             throw new StockValidationException("유효하지 않은 재고 ID입니다");
         }
         
-        // 2단계: 데이터 처리
-        dataProcessor.validateStockId(id);
-        
-        // 3단계: 가격 분석
-        priceAnalyzer.analyzePriceForId(id);
-        
-        // 4단계: 시장 분석
-        marketAnalyzer.analyzeMarketForId(id);
-        
-        // 5단계: 거래량 분석
-        volumeAnalyzer.analyzeVolumeForId(id);
-        
-        // 6단계: 리스크 분석
-        riskAnalyzer.analyzeRiskForId(id);
-        
-        // 7단계: 성과 분석
-        performanceAnalyzer.analyzePerformanceForId(id);
-        
-        // 8단계: 트렌드 분석
-        trendAnalyzer.analyzeTrendForId(id);
-        
-        // 9단계: 예측 엔진
-        predictionEngine.predictForId(id);
-        
-        // 10단계: 추천 엔진
-        recommendationEngine.recommendForId(id);
-        
-        Optional<Stock> stock = stocks.stream()
-                .filter(s -> s.getId().equals(id))
-                .findFirst();
+        runStages(context, "id:" + id,
+                // 2단계: 데이터 처리
+                () -> dataProcessor.validateStockId(id),
+                // 3단계: 가격 분석
+                () -> priceAnalyzer.analyzePriceForId(id),
+                // 4단계: 시장 분석
+                () -> marketAnalyzer.analyzeMarketForId(id),
+                // 5단계: 거래량 분석
+                () -> volumeAnalyzer.analyzeVolumeForId(id),
+                // 6단계: 리스크 분석
+                () -> riskAnalyzer.analyzeRiskForId(id),
+                // 7단계: 성과 분석
+                () -> performanceAnalyzer.analyzePerformanceForId(id),
+                // 8단계: 트렌드 분석
+                () -> trendAnalyzer.analyzeTrendForId(id),
+                // 9단계: 예측 엔진
+                () -> predictionEngine.predictForId(id),
+                // 10단계: 추천 엔진
+                () -> recommendationEngine.recommendForId(id));
+        
+        Optional<Stock> stock = stockRepository.findById(id);
                 
         if (stock.isEmpty()) {
             throw new StockNotFoundException("재고 ID " + id + "를 찾을 수 없습니다");
@@ -116,41 +197,36 @@ public class StockService {
      * 재고 심볼로 조회 (1단계)
      */
     public StockResponse getStockBySymbol(String symbol) {
+        return getStockBySymbol(symbol, AnalysisContext.none());
+    }
+    
+    public StockResponse getStockBySymbol(String symbol, AnalysisContext context) {
         // 1단계: 기본 검증
         if (symbol == null || symbol.trim().isEmpty()) {
             throw new StockValidationException("유효하지 않은 재고 심볼입니다");
         }
         
-        // 2단계: 데이터 처리
-        dataProcessor.validateStockSymbol(symbol);
-        
-        // 3단계: 가격 분석
-        priceAnalyzer.analyzePriceForSymbol(symbol);
-        
-        // 4단계: 시장 분석
-        marketAnalyzer.analyzeMarketForSymbol(symbol);
-        
-        // 5단계: 거래량 분석
-        volumeAnalyzer.analyzeVolumeForSymbol(symbol);
-        
-        // 6단계: 리스크 분석
-        riskAnalyzer.analyzeRiskForSymbol(symbol);
-        
-        // 7단계: 성과 분석
-        performanceAnalyzer.analyzePerformanceForSymbol(symbol);
-        
-        // 8단계: 트렌드 분석
-        trendAnalyzer.analyzeTrendForSymbol(symbol);
-        
-        // 9단계: 예측 엔진
-        predictionEngine.predictForSymbol(symbol);
-        
-        // 10단계: 추천 엔진
-        recommendationEngine.recommendForSymbol(symbol);
-        
-        Optional<Stock> stock = stocks.stream()
-                .filter(s -> s.getSymbol().equalsIgnoreCase(symbol))
-                .findFirst();
+        runStages(context, "symbol:" + symbol,
+                // 2단계: 데이터 처리
+                () -> dataProcessor.validateStockSymbol(symbol),
+                // 3단계: 가격 분석
+                () -> priceAnalyzer.analyzePriceForSymbol(symbol),
+                // 4단계: 시장 분석
+                () -> marketAnalyzer.analyzeMarketForSymbol(symbol),
+                // 5단계: 거래량 분석
+                () -> volumeAnalyzer.analyzeVolumeForSymbol(symbol),
+                // 6단계: 리스크 분석
+                () -> riskAnalyzer.analyzeRiskForSymbol(symbol),
+                // 7단계: 성과 분석
+                () -> performanceAnalyzer.analyzePerformanceForSymbol(symbol),
+                // 8단계: 트렌드 분석
+                () -> trendAnalyzer.analyzeTrendForSymbol(symbol),
+                // 9단계: 예측 엔진
+                () -> predictionEngine.predictForSymbol(symbol),
+                // 10단계: 추천 엔진
+                () -> recommendationEngine.recommendForSymbol(symbol));
+        
+        Optional<Stock> stock = stockRepository.findBySymbol(symbol);
                 
         if (stock.isEmpty()) {
             throw new StockNotFoundException("재고 심볼 " + symbol + "를 찾을 수 없습니다");
@@ -162,92 +238,162 @@ public class StockService {
     /**
      * 모든 재고 조회 (1단계)
      */
-    public List<StockResponse> getAllStocks() {
+    public byte[] getAllStocksJson() {
+        return getAllStocksJson(AnalysisContext.none());
+    }
+    
+    public byte[] getAllStocksJson(AnalysisContext context) {
+        return getAllStocksJson(stockRepository.snapshot(), context);
+    }
+    
+    public byte[] getAllStocksJson(StockSnapshot snapshot, AnalysisContext context) {
+        analyzeAllStocks(context);
+        
+        return jsonCache.toJsonArray(snapshot.values());
+    }
+    
+    /**
+     * 모든 재고 페이지 조회 (키셋 커서: 마지막 ID)
+     */
+    public StockPageResponse getAllStocks(String cursor, int size) {
+        return getAllStocks(cursor, size, AnalysisContext.none());
+    }
+    
+    public StockPageResponse getAllStocks(String cursor, int size, AnalysisContext context) {
+        validatePageSize(size);
+        long afterId = parseIdCursor(cursor);
+        analyzeAllStocks(context);
+        
+        List<Stock> page = stockRepository.findAfterId(afterId, size);
+        String nextCursor = page.size() == size ? String.valueOf(page.get(page.size() - 1).getId()) : null;
+        List<StockResponse> items = page.stream()
+                .map(StockResponse::from)
+                .collect(java.util.stream.Collectors.toList());
+        return new StockPageResponse(items, nextCursor);
+    }
+    
+    /**
+     * 모든 재고 스트리밍 조회
+     * 목록을 만들지 않고 저장소를 순회하면서 한 건씩 변환하므로 소비 측에서 바로 내보내야 합니다.
+     */
+    public java.util.stream.Stream<StockResponse> streamAllStocks() {
+        return streamAllStocks(AnalysisContext.none());
+    }
+    
+    public java.util.stream.Stream<StockResponse> streamAllStocks(AnalysisContext context) {
+        analyzeAllStocks(context);
+        
+        return stockRepository.streamAll().map(StockResponse::from);
+    }
+    
+    // ID 커서는 0 이상의 long (음수나 범위를 넘는 값은 400)
+    private long parseIdCursor(String cursor) {
+        if (cursor == null) {
+            return 0L;
+        }
+        long afterId;
+        try {
+            afterId = Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new StockValidationException("유효하지 않은 커서입니다: " + cursor);
+        }
+        if (afterId < 0) {
+            throw new StockValidationException("유효하지 않은 커서입니다: " + cursor);
+        }
+        return afterId;
+    }
+    
+    private void analyzeAllStocks(AnalysisContext context) {
         // 1단계: 기본 검증
-        if (stocks.isEmpty()) {
+        if (stockRepository.isEmpty()) {
             throw new StockValidationException("재고 데이터가 없습니다");
         }
         
-        // 2단계: 데이터 처리
-        dataProcessor.validateAllStocks();
-        
-        // 3단계: 가격 분석
-        priceAnalyzer.analyzeAllPrices();
-        
-        // 4단계: 시장 분석
-        marketAnalyzer.analyzeAllMarkets();
-        
-        // 5단계: 거래량 분석
-        volumeAnalyzer.analyzeAllVolumes();
-        
-        // 6단계: 리스크 분석
-        riskAnalyzer.analyzeAllRisks();
-        
-        // 7단계: 성과 분석
-        performanceAnalyzer.analyzeAllPerformances();
-        
-        // 8단계: 트렌드 분석
-        trendAnalyzer.analyzeAllTrends();
-        
-        // 9단계: 예측 엔진
-        predictionEngine.predictAll();
-        
-        // 10단계: 추천 엔진
-        recommendationEngine.recommendAll();
-        
-        return stocks.stream()
-                .map(StockResponse::from)
-                .collect(java.util.stream.Collectors.toList());
+        runStages(context, "all",
+                // 2단계: 데이터 처리
+                dataProcessor::validateAllStocks,
+                // 3단계: 가격 분석
+                priceAnalyzer::analyzeAllPrices,
+                // 4단계: 시장 분석
+                marketAnalyzer::analyzeAllMarkets,
+                // 5단계: 거래량 분석
+                volumeAnalyzer::analyzeAllVolumes,
+                // 6단계: 리스크 분석
+                riskAnalyzer::analyzeAllRisks,
+                // 7단계: 성과 분석
+                performanceAnalyzer::analyzeAllPerformances,
+                // 8단계: 트렌드 분석
+                trendAnalyzer::analyzeAllTrends,
+                // 9단계: 예측 엔진
+                predictionEngine::predictAll,
+                // 10단계: 추천 엔진
+                recommendationEngine::recommendAll);
     }
     
     /**
      * 재고 업데이트 (1단계)
      */
     public StockResponse updateStock(Long id, UpdateStockRequest request) {
+        return updateStock(id, request, null);
+    }
+    
+    /**
+     * 재고 업데이트 (expectedVersion은 If-Match로 받은 version, 없으면 null)
+     */
+    public StockResponse updateStock(Long id, UpdateStockRequest request, Long expectedVersion) {
+        return updateStock(id, request, expectedVersion, AnalysisContext.none());
+    }
+    
+    /**
+     * 재고 업데이트 (context의 마감이 반영 전에 지났으면 504, 분석은 커밋 뒤 비동기로 실행)
+     */
+    public StockResponse updateStock(Long id, UpdateStockRequest request, Long expectedVersion, AnalysisContext context) {
         // 1단계: 기본 검증
         if (id == null || request == null) {
             throw new StockValidationException("유효하지 않은 업데이트 요청입니다");
         }
         
+        // 2~3단계 요청 검증은 반영 전에 실행 (실패하면 반영하지 않음)
         // 2단계: 데이터 처리
         dataProcessor.validateUpdateRequest(id, request);
-        
         // 3단계: 가격 분석
         priceAnalyzer.analyzePriceForUpdate(id);
         
-        // 4단계: 시장 분석
-        marketAnalyzer.analyzeMarketForUpdate(id);
-        
-        // 5단계: 거래량 분석
-        volumeAnalyzer.analyzeVolumeForUpdate(id);
-        
-        // 6단계: 리스크 분석
-        riskAnalyzer.analyzeRiskForUpdate(id);
-        
-        // 7단계: 성과 분석
-        performanceAnalyzer.analyzePerformanceForUpdate(id);
+        // 4~10단계 분석은 커밋 뒤 비동기로 실행하고 반영 전에는 마감만 확인
+        checkpoint(context, 0);
         
-        // 8단계: 트렌드 분석
-        trendAnalyzer.analyzeTrendForUpdate(id);
-        
-        // 9단계: 예측 엔진
-        predictionEngine.predictForUpdate(id);
-        
-        // 10단계: 추천 엔진
-        recommendationEngine.recommendForUpdate(id);
-        
-        for (int i = 0; i < stocks.size(); i++) {
-            if (stocks.get(i).getId().equals(id)) {
-                Stock stock = stocks.get(i);
-                if (request.getSymbol() != null) stock.setSymbol(request.getSymbol());
-                if (request.getCompanyName() != null) stock.setCompanyName(request.getCompanyName());
-                if (request.getCurrentPrice() != null) stock.setCurrentPrice(request.getCurrentPrice());
-                if (request.getVolume() != null) stock.setVolume(request.getVolume());
-                if (request.getMarketCap() != null) stock.setMarketCap(request.getMarketCap());
-                if (request.getSector() != null) stock.setSector(request.getSector());
-                stock.setUpdatedAt(java.time.LocalDateTime.now());
-                return StockResponse.from(stock);
+        Stock updated = compareAndUpdateOnShard(id, expectedVersion, stock -> {
+            if (request.getSymbol() != null) {
+                // 파티셔닝 중이면 다른 파티션으로 옮겨지는 심볼 변경은 거부
+                partitioning.checkSymbolChange(stock.getSymbol(), request.getSymbol());
+                stock.setSymbol(request.getSymbol());
             }
+            if (request.getCompanyName() != null) stock.setCompanyName(request.getCompanyName());
+            if (request.getCurrentPrice() != null) stock.setCurrentPrice(request.getCurrentPrice());
+            if (request.getVolume() != null) stock.setVolume(request.getVolume());
+            if (request.getMarketCap() != null) stock.setMarketCap(request.getMarketCap());
+            if (request.getSector() != null) stock.setSector(request.getSector());
+            stock.setUpdatedAt(java.time.LocalDateTime.now());
+            return true;
+        });
+        if (updated != null) {
+            writeAheadLog.awaitDurable(logUpsert(updated));
+            analyzeAfterCommit(id,
+                    // 4단계: 시장 분석
+                    () -> marketAnalyzer.analyzeMarketForUpdate(id),
+                    // 5단계: 거래량 분석
+                    () -> volumeAnalyzer.analyzeVolumeForUpdate(id),
+                    // 6단계: 리스크 분석
+                    () -> riskAnalyzer.analyzeRiskForUpdate(id),
+                    // 7단계: 성과 분석
+                    () -> performanceAnalyzer.analyzePerformanceForUpdate(id),
+                    // 8단계: 트렌드 분석
+                    () -> trendAnalyzer.analyzeTrendForUpdate(id),
+                    // 9단계: 예측 엔진
+                    () -> predictionEngine.predictForUpdate(id),
+                    // 10단계: 추천 엔진
+                    () -> recommendationEngine.recommendForUpdate(id));
+            return StockResponse.from(updated);
         }
         
         throw new StockNotFoundException("재고 ID " + id + "를 찾을 수 없습니다");
@@ -257,97 +403,471 @@ public class StockService {
      * 재고 가격 업데이트 (1단계)
      */
     public StockResponse updateStockPrice(Long id, UpdateStockPriceRequest request) {
+        return updateStockPrice(id, request, null);
+    }
+    
+    /**
+     * 재고 가격 업데이트 (expectedVersion은 If-Match로 받은 version, 없으면 null)
+     * 조건부 업데이트는 다른 업데이트와 합칠 수 없으므로 합치기 창을 거치지 않습니다.
+     */
+    public StockResponse updateStockPrice(Long id, UpdateStockPriceRequest request, Long expectedVersion) {
+        return updateStockPrice(id, request, expectedVersion, AnalysisContext.none());
+    }
+    
+    /**
+     * 재고 가격 업데이트 (context의 마감이 반영 전에 지나면 반영하지 않고 504)
+     * 합쳐진 업데이트는 여러 요청이 함께 기다리므로 요청마다 검증(2~3단계)을 마친 뒤 제출 전에 마감을 확인하고,
+     * 제출 뒤에는 마감까지만 반영을 기다립니다. 기다리다 마감이 지나면 504를 돌려주지만 제출한 업데이트는 나중에 반영될 수 있습니다.
+     */
+    public StockResponse updateStockPrice(Long id, UpdateStockPriceRequest request, Long expectedVersion,
+                                          AnalysisContext context) {
         // 1단계: 기본 검증
         if (id == null || request == null || request.getPrice() == null || request.getPrice() <= 0) {
             throw new StockValidationException("유효하지 않은 가격 업데이트 요청입니다");
         }
         
         Double newPrice = request.getPrice();
-        
+        long timestampMicros = EpochMicros.of(java.time.LocalDateTime.now());
+        
+        // 합치기가 켜져 있으면 같은 주식의 업데이트를 모아 창마다 한 번만 분석/반영
+        if (priceConflator != null && expectedVersion == null) {
+            // 2단계: 데이터 처리
+            dataProcessor.validatePriceUpdate(id, newPrice);
+            // 3단계: 가격 분석
+            priceAnalyzer.analyzePriceUpdate(id, newPrice);
+            checkpoint(context, 0);
+            return awaitConflated(priceConflator.submit(id, newPrice, timestampMicros), context);
+        }
+        return applyPriceUpdate(id, newPrice, timestampMicros, expectedVersion, context);
+    }
+    
+    /**
+     * 합쳐진 업데이트의 반영을 context의 마감까지 기다림 (마감 경과나 인터럽트는 504)
+     */
+    private static StockResponse awaitConflated(CompletableFuture<StockResponse> applied, AnalysisContext context) {
+        try {
+            long remaining = context.remainingNanos();
+            return remaining == Long.MAX_VALUE ? applied.get() : applied.get(Math.max(remaining, 0L), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new StockDeadlineExceededException("요청 처리 마감이 지나 합쳐진 가격 업데이트의 반영을 기다리지 않았습니다");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StockDeadlineExceededException("요청 처리가 중단되어 합쳐진 가격 업데이트의 반영을 기다리지 않았습니다");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+    
+    /**
+     * 합쳐진 가격 업데이트 반영 (PriceConflator의 sink, 검증은 요청마다 제출 전에 끝남)
+     * 교체는 주식을 맡은 쓰기 샤드에 넘기고, 변경 로그 기록과 커밋 후 분석 요청(4~10단계)은 future로 이어 붙이므로
+     * 합치기 드레이너는 반영이나 디스크 기록을 기다리지 않습니다.
+     */
+    private CompletableFuture<StockResponse> applyConflatedPriceUpdate(long id, double newPrice, long timestampMicros) {
+        return writeShards.submit(id, () -> compareAndUpdate(id, null, stock -> applyPrice(stock, newPrice, timestampMicros)))
+                .thenCompose(updated -> {
+                    if (updated == null) {
+                        throw new StockNotFoundException("재고 ID " + id + "를 찾을 수 없습니다");
+                    }
+                    return logUpsert(updated).handle((ignored, failure) -> {
+                        if (failure != null) {
+                            throw new StockPersistenceException("변경 로그 기록에 실패했습니다",
+                                    failure instanceof CompletionException ? failure.getCause() : failure);
+                        }
+                        analyzePriceUpdateAfterCommit(id);
+                        return StockResponse.from(updated);
+                    });
+                });
+    }
+    
+    /**
+     * 가격 업데이트 검증(2~3단계)과 반영, 커밋 후 분석 요청 (4~10단계)
+     */
+    private StockResponse applyPriceUpdate(long id, double newPrice, long timestampMicros, Long expectedVersion,
+                                           AnalysisContext context) {
+        // 2~3단계 요청 검증은 반영 전에 실행 (실패하면 반영하지 않음)
         // 2단계: 데이터 처리
         dataProcessor.validatePriceUpdate(id, newPrice);
-        
         // 3단계: 가격 분석
         priceAnalyzer.analyzePriceUpdate(id, newPrice);
         
-        // 4단계: 시장 분석
-        marketAnalyzer.analyzeMarketForPriceUpdate(id);
-        
-        // 5단계: 거래량 분석
-        volumeAnalyzer.analyzeVolumeForPriceUpdate(id);
-        
-        // 6단계: 리스크 분석
-        riskAnalyzer.analyzeRiskForPriceUpdate(id);
+        // 4~10단계 분석은 커밋 뒤 비동기로 실행하고 반영 전에는 마감만 확인
+        checkpoint(context, 0);
         
-        // 7단계: 성과 분석
-        performanceAnalyzer.analyzePerformanceForPriceUpdate(id);
-        
-        // 8단계: 트렌드 분석
-        trendAnalyzer.analyzeTrendForPriceUpdate(id);
+        Stock updated = compareAndUpdateOnShard(id, expectedVersion, stock -> applyPrice(stock, newPrice, timestampMicros));
+        if (updated != null) {
+            writeAheadLog.awaitDurable(logUpsert(updated));
+            analyzePriceUpdateAfterCommit(id);
+            return StockResponse.from(updated);
+        }
         
-        // 9단계: 예측 엔진
-        predictionEngine.predictForPriceUpdate(id);
+        throw new StockNotFoundException("재고 ID " + id + "를 찾을 수 없습니다");
+    }
+    
+    private void analyzePriceUpdateAfterCommit(long id) {
+        analyzeAfterCommit(id,
+                // 4단계: 시장 분석
+                () -> marketAnalyzer.analyzeMarketForPriceUpdate(id),
+                // 5단계: 거래량 분석
+                () -> volumeAnalyzer.analyzeVolumeForPriceUpdate(id),
+                // 6단계: 리스크 분석
+                () -> riskAnalyzer.analyzeRiskForPriceUpdate(id),
+                // 7단계: 성과 분석
+                () -> performanceAnalyzer.analyzePerformanceForPriceUpdate(id),
+                // 8단계: 트렌드 분석
+                () -> trendAnalyzer.analyzeTrendForPriceUpdate(id),
+                // 9단계: 예측 엔진
+                () -> predictionEngine.predictForPriceUpdate(id),
+                // 10단계: 추천 엔진
+                () -> recommendationEngine.recommendForPriceUpdate(id));
+    }
+    
+    /**
+     * 재고 가격 일괄 업데이트
+     * 같은 주식의 틱은 요청 안에서 가장 최신 것만 반영하고, 4~10단계 전체 분석은 커밋 뒤에 배치당 한 번 수행합니다.
+     * 배치 전체를 저장소의 한 버전으로 게시하므로 목록 조회는 배치의 일부만 반영된 상태를 보지 않습니다.
+     * 변경 로그 기록은 배치 전체를 한 번에 요청한 뒤 함께 기다리며, 분석 단계가 실패해도 반영은 그대로 둡니다.
+     * 타임스탬프가 없는 틱은 요청을 받은 시각으로 찍어 같은 배치의 다른 틱과 비교하므로, 피드가 그보다 나중 시각을
+     * 찍은 틱에는 밀려 SUPERSEDED가 됩니다. 저장된 행과는 비교하지 않아 STALE이 되지 않습니다.
+     */
+    public BulkPriceUpdateResponse updateStockPrices(List<PriceTickRequest> ticks) {
+        return updateStockPrices(ticks, AnalysisContext.none());
+    }
+    
+    public BulkPriceUpdateResponse updateStockPrices(List<PriceTickRequest> ticks, AnalysisContext context) {
+        // 1단계: 기본 검증
+        if (ticks == null || ticks.isEmpty() || ticks.size() > MAX_BULK_SIZE) {
+            throw new StockValidationException("일괄 가격 업데이트는 1건 이상 " + MAX_BULK_SIZE + "건 이하여야 합니다");
+        }
         
-        // 10단계: 추천 엔진
-        recommendationEngine.recommendForPriceUpdate(id);
+        long now = EpochMicros.of(java.time.LocalDateTime.now());
+        PriceUpdateResult[] results = new PriceUpdateResult[ticks.size()];
+        Map<Long, Integer> latestByStock = new LinkedHashMap<>();
+        Stock[] targets = new Stock[ticks.size()];
+        long[] timestamps = new long[ticks.size()];
+        for (int i = 0; i < ticks.size(); i++) {
+            PriceTickRequest tick = ticks.get(i);
+            if (tick == null || tick.getPrice() == null || tick.getPrice() <= 0
+                    || (tick.getId() == null && tick.getSymbol() == null)) {
+                results[i] = new PriceUpdateResult(i, tick != null ? tick.getId() : null,
+                        tick != null ? tick.getSymbol() : null, PriceUpdateResult.Status.INVALID);
+                continue;
+            }
+            Optional<Stock> stock = tick.getId() != null
+                    ? stockRepository.findById(tick.getId())
+                    : stockRepository.findBySymbol(tick.getSymbol());
+            if (stock.isEmpty()) {
+                results[i] = new PriceUpdateResult(i, tick.getId(), tick.getSymbol(), PriceUpdateResult.Status.NOT_FOUND);
+                continue;
+            }
+            targets[i] = stock.get();
+            timestamps[i] = tick.getTimestamp() != null ? EpochMicros.of(tick.getTimestamp()) : now;
+            Integer previous = latestByStock.get(stock.get().getId());
+            if (previous == null || timestamps[i] >= timestamps[previous]) {
+                latestByStock.put(stock.get().getId(), i);
+                if (previous != null) {
+                    results[previous] = superseded(previous, targets[previous]);
+                }
+            } else {
+                results[i] = superseded(i, targets[i]);
+            }
+        }
         
-        for (Stock stock : stocks) {
-            if (stock.getId().equals(id)) {
-                stock.setCurrentPrice(newPrice);
-                stock.setUpdatedAt(java.time.LocalDateTime.now());
-                return StockResponse.from(stock);
+        checkpoint(context, 0);
+        int[] indexes = latestByStock.values().stream().mapToInt(Integer::intValue).toArray();
+        long[] ids = new long[indexes.length];
+        for (int k = 0; k < indexes.length; k++) {
+            ids[k] = targets[indexes[k]].getId();
+        }
+        // 배치 전체를 한 버전으로 게시 (조회는 배치 전이나 후 중 한 상태만 봄)
+        Stock[] updated = stockRepository.commitAll(ids, (k, current) -> {
+            int i = indexes[k];
+            if (current == null) {
+                // 조회 이후 삭제됨
+                results[i] = new PriceUpdateResult(i, ids[k], targets[i].getSymbol(), PriceUpdateResult.Status.NOT_FOUND);
+                return null;
+            }
+            long timestamp = timestamps[i];
+            if (ticks.get(i).getTimestamp() != null && timestamp < current.getUpdatedAtMicros()) {
+                results[i] = new PriceUpdateResult(i, current.getId(), current.getSymbol(), PriceUpdateResult.Status.STALE);
+                return null;
+            }
+            Stock stock = new Stock(current);
+            applyPrice(stock, ticks.get(i).getPrice(), timestamp);
+            stock.setLogPending(true);
+            return stock;
+        });
+        List<CompletableFuture<Void>> durables = new ArrayList<>(indexes.length);
+        int applied = 0;
+        for (int k = 0; k < indexes.length; k++) {
+            if (updated[k] == null) {
+                continue;
             }
+            int i = indexes[k];
+            durables.add(logUpsert(updated[k]));
+            results[i] = new PriceUpdateResult(i, updated[k].getId(), updated[k].getSymbol(), PriceUpdateResult.Status.APPLIED);
+            applied++;
+        }
+        for (CompletableFuture<Void> durable : durables) {
+            writeAheadLog.awaitDurable(durable);
+        }
+        if (applied > 0) {
+            // 4~10단계: 배치 단위 전체 분석 (커밋 뒤, 실패한 단계는 응답에 표시만 함)
+            analyzeAllAfterCommit(context);
         }
         
-        throw new StockNotFoundException("재고 ID " + id + "를 찾을 수 없습니다");
+        return new BulkPriceUpdateResponse(applied, ticks.size() - applied, Arrays.asList(results));
+    }
+    
+    /**
+     * 바이너리 시세 피드/틱 재생의 틱 반영 (updateStockPrice와 같은 2~3단계 검증, 교체, 커밋 후 분석 요청 경로)
+     * 검증에 실패했거나 없는 주식, 이미 더 최신 가격이 반영된 틱, 다른 쓰기와 경합해 반영하지 못한 틱이면 null을 반환합니다.
+     * 반환된 future는 변경 로그 기록이 끝나면 완료되며, 기록을 기다리는 것은 호출자가 묶음 단위로 합니다.
+     * 4~10단계 분석은 기록을 요청한 뒤 커밋 후 분석 큐에 요청하므로, 같은 주식의 연속된 틱은 분석 한 번으로 합쳐집니다.
+     * 쓰기 샤드와 합치기 창은 거치지 않고 호출 스레드에서 바로 교체합니다.
+     */
+    public CompletableFuture<Void> applyPriceTick(long id, double price, long volume, long timestampMicros) {
+        if (!(price > 0)) {
+            return null;
+        }
+        try {
+            // 2단계: 데이터 처리
+            dataProcessor.validatePriceUpdate(id, price);
+            // 3단계: 가격 분석
+            priceAnalyzer.analyzePriceUpdate(id, price);
+        } catch (StockValidationException | InvalidPriceException e) {
+            return null;
+        }
+        boolean stampNow = timestampMicros == EpochMicros.NULL;
+        long timestamp = stampNow ? EpochMicros.of(java.time.LocalDateTime.now()) : timestampMicros;
+        Stock updated;
+        try {
+            updated = compareAndUpdate(id, null, stock -> {
+                if (!stampNow && timestamp < stock.getUpdatedAtMicros()) {
+                    return false;
+                }
+                if (volume >= 0) {
+                    stock.setVolume(volume);
+                }
+                return applyPrice(stock, price, timestamp);
+            });
+        } catch (StockConflictException e) {
+            // 다른 쓰기와 계속 경합한 틱은 반영하지 않음 (다음 틱이 최신 가격을 다시 가져옴)
+            return null;
+        }
+        if (updated == null) {
+            return null;
+        }
+        CompletableFuture<Void> durable = logUpsert(updated);
+        // 같은 주식의 틱 분석이 아직 시작 전이면 그 분석이 이 틱도 보므로 단계 배열을 새로 만들지 않음
+        if (!analysisQueue.isPending(id)) {
+            analyzePriceUpdateAfterCommit(id);
+        }
+        return durable;
+    }
+    
+    /**
+     * 틱 묶음 반영 후 전체 분석 (4~10단계를 묶음당 한 번, 단계별 격리 실행기로 실행)
+     * 실패하거나 시간 제한을 넘긴 단계는 반영한 틱에 영향을 주지 않고 건너뛰며, 건너뛴 단계 수를 반환합니다.
+     */
+    public int analyzePriceTicks() {
+        return analyzeAllAfterCommit(AnalysisContext.withTimeout(0));
+    }
+    
+    /**
+     * 커밋한 묶음의 4~10단계 전체 분석 (실패하거나 끝나지 않은 단계 수를 반환하고 예외는 던지지 않음)
+     * 이미 반영한 쓰기 뒤에 실행하므로 context의 마감이 지나도 504로 바꾸지 않고 남은 단계만 건너뜁니다.
+     */
+    private int analyzeAllAfterCommit(AnalysisContext context) {
+        int unavailableBefore = context.getUnavailableStages().size();
+        int unfinished;
+        try {
+            unfinished = analysisBulkheads.runAll(context, PostCommitAnalysisQueue.POST_COMMIT_STAGES, new Runnable[] {
+                    // 4단계: 시장 분석
+                    marketAnalyzer::analyzeAllMarkets,
+                    // 5단계: 거래량 분석
+                    volumeAnalyzer::analyzeAllVolumes,
+                    // 6단계: 리스크 분석
+                    riskAnalyzer::analyzeAllRisks,
+                    // 7단계: 성과 분석
+                    performanceAnalyzer::analyzeAllPerformances,
+                    // 8단계: 트렌드 분석
+                    trendAnalyzer::analyzeAllTrends,
+                    // 9단계: 예측 엔진
+                    predictionEngine::predictAll,
+                    // 10단계: 추천 엔진
+                    recommendationEngine::recommendAll});
+        } catch (RuntimeException e) {
+            // 단계가 던진 검증 오류로 남은 단계를 버렸으면 모두 건너뛴 것으로 셈
+            return PostCommitAnalysisQueue.POST_COMMIT_STAGES.length;
+        }
+        return unfinished + context.getUnavailableStages().size() - unavailableBefore;
+    }
+    
+    /**
+     * 조회용 2~10단계 분석 파이프라인 실행 (stages는 AnalysisStage 순서)
+     * flightKey가 같은 동시 요청은 한 번만 실행하고 결과를 함께 받습니다.
+     * flightKey는 stages가 하는 일을 구분해야 합니다 (같은 key면 같은 분석).
+     */
+    private void runStages(AnalysisContext context, String flightKey, Runnable... stages) {
+        checkpoint(context, stages.length);
+        int unfinished = singleFlight.run(flightKey, context, stages.length,
+                flightContext -> analysisBulkheads.runAll(flightContext, PIPELINE_STAGES, stages));
+        checkpoint(context, unfinished);
+    }
+    
+    /**
+     * 커밋한 쓰기의 4~10단계 분석을 비동기 큐에 요청 (stages는 MARKET부터 AnalysisStage 순서)
+     * 응답은 분석을 기다리지 않으며, 같은 주식의 아직 시작하지 않은 분석은 최신 요청 하나로 합쳐집니다.
+     */
+    private void analyzeAfterCommit(long id, Runnable... stages) {
+        analysisQueue.submit(id, stages);
+    }
+    
+    // 마감이 지났거나 인터럽트된 요청이면 실행하지 않은 단계 수를 기록하고 504로 중단
+    private void checkpoint(AnalysisContext context, int remainingStages) {
+        if (context.isDone()) {
+            metrics.recordAbandonedAnalysis(remainingStages);
+            throw new StockDeadlineExceededException(context.isExpired()
+                    ? "요청 처리 마감이 지나 남은 " + remainingStages + "개 분석 단계를 건너뛰었습니다"
+                    : "요청 처리가 중단되어 남은 " + remainingStages + "개 분석 단계를 건너뛰었습니다");
+        }
+    }
+    
+    private static PriceUpdateResult superseded(int index, Stock stock) {
+        return new PriceUpdateResult(index, stock.getId(), stock.getSymbol(), PriceUpdateResult.Status.SUPERSEDED);
+    }
+    
+    /**
+     * 복사본에 가격 반영
+     */
+    private static boolean applyPrice(Stock stock, double price, long timestampMicros) {
+        stock.setCurrentPrice(price);
+        stock.setUpdatedAtMicros(timestampMicros);
+        return true;
+    }
+    
+    /**
+     * 주식을 맡은 쓰기 샤드 스레드에서 compareAndUpdate 실행 (HTTP 단건 쓰기 경로)
+     * 같은 주식의 샤드 경로 쓰기는 차례로 실행되므로, 교체 경합은 샤드를 거치지 않는 일괄/피드 쓰기와 겹칠 때만 생깁니다.
+     */
+    private Stock compareAndUpdateOnShard(long id, Long expectedVersion, Predicate<Stock> change) {
+        return writeShards.execute(id, () -> compareAndUpdate(id, expectedVersion, change));
+    }
+    
+    /**
+     * 낙관적 동시성 제어로 주식 변경 (없는 주식이거나 change가 false를 반환하면 null)
+     * 현재 행의 복사본에 change를 적용해 version 비교 교체로 저장하므로 락을 잡지 않고, 다른 주식의 쓰기와 서로 막지 않습니다.
+     * expectedVersion(If-Match)이 있으면 현재 version과 다를 때 412, 교체 경합에서 지면 재시도 없이 409로 실패합니다.
+     * 없으면 최신 행에 다시 적용해 MAX_WRITE_ATTEMPTS번까지 시도한 뒤 409로 실패합니다.
+     * 반환된 행은 logUpsert로 변경 로그 기록을 요청해야 합니다.
+     */
+    private Stock compareAndUpdate(long id, Long expectedVersion, Predicate<Stock> change) {
+        for (int attempt = 1; ; attempt++) {
+            Optional<Stock> found = stockRepository.findById(id);
+            if (found.isEmpty()) {
+                return null;
+            }
+            Stock current = found.get();
+            if (expectedVersion != null && current.getVersion() != expectedVersion) {
+                throw new StockPreconditionFailedException("재고 ID " + id + "의 version이 일치하지 않습니다");
+            }
+            Stock updated = new Stock(current);
+            if (!change.test(updated)) {
+                return null;
+            }
+            updated.setLogPending(true);
+            if (stockRepository.compareAndSet(current, updated)) {
+                return updated;
+            }
+            metrics.recordWriteConflict();
+            if (expectedVersion != null || attempt >= MAX_WRITE_ATTEMPTS) {
+                throw new StockConflictException("재고 ID " + id + "가 동시에 변경되어 반영하지 못했습니다");
+            }
+        }
+    }
+    
+    /**
+     * 교체한 스레드가 stock의 변경 로그 기록을 요청할 때까지 대기
+     * 보통 교체 직후 곧바로 요청하므로 잠깐 돌면 끝나며, 그 스레드가 timeoutNanos 동안 요청하지 못하면
+     * DELETE를 기록하지 않고 StockPersistenceException으로 실패합니다 (먼저 기록하면 재생 때 행이 되살아남).
+     */
+    static void awaitLogRequested(Stock stock, long timeoutNanos) {
+        long deadline = System.nanoTime() + timeoutNanos;
+        for (int spins = 0; stock.isLogPending(); spins++) {
+            if (spins < 64) {
+                Thread.onSpinWait();
+            } else if (spins < 128) {
+                Thread.yield();
+            } else if (System.nanoTime() - deadline < 0) {
+                LockSupport.parkNanos(100_000L);
+            } else {
+                throw new StockPersistenceException("재고 ID " + stock.getId() + "의 변경 로그 기록 요청을 기다리다 시간이 초과되었습니다", null);
+            }
+        }
+    }
+    
+    /**
+     * 교체한 행의 변경 로그 기록 요청
+     * 같은 행을 이어서 바꾼 쓰기는 서로 다른 version을 기록하므로 기록 순서가 뒤바뀌어도 재생 결과가 같습니다.
+     */
+    private CompletableFuture<Void> logUpsert(Stock stock) {
+        try {
+            return writeAheadLog.append(StockMutation.encodeUpsert(stock));
+        } finally {
+            stock.setLogPending(false);
+        }
     }
     
     /**
      * 새 재고 생성 (1단계)
      */
     public StockResponse createStock(CreateStockRequest request) {
+        return createStock(request, AnalysisContext.none());
+    }
+    
+    public StockResponse createStock(CreateStockRequest request, AnalysisContext context) {
         // 1단계: 기본 검증
         if (request == null || request.getSymbol() == null || request.getCompanyName() == null) {
             throw new StockValidationException("유효하지 않은 재고 생성 요청입니다");
         }
         
+        // 2~3단계 요청 검증은 반영 전에 실행 (실패하면 반영하지 않음)
         // 2단계: 데이터 처리
         dataProcessor.validateCreateRequest(request);
-        
         // 3단계: 가격 분석
         priceAnalyzer.analyzePriceForCreate(request);
         
-        // 4단계: 시장 분석
-        marketAnalyzer.analyzeMarketForCreate(request);
-        
-        // 5단계: 거래량 분석
-        volumeAnalyzer.analyzeVolumeForCreate(request);
+        // 4~10단계 분석은 커밋 뒤 비동기로 실행하고 반영 전에는 마감만 확인
+        checkpoint(context, 0);
         
-        // 6단계: 리스크 분석
-        riskAnalyzer.analyzeRiskForCreate(request);
-        
-        // 7단계: 성과 분석
-        performanceAnalyzer.analyzePerformanceForCreate(request);
-        
-        // 8단계: 트렌드 분석
-        trendAnalyzer.analyzeTrendForCreate(request);
-        
-        // 9단계: 예측 엔진
-        predictionEngine.predictForCreate(request);
-        
-        // 10단계: 추천 엔진
-        recommendationEngine.recommendForCreate(request);
-        
-        Long newId = stocks.stream()
-                .mapToLong(Stock::getId)
-                .max()
-                .orElse(0L) + 1;
-                
         Stock newStock = new Stock(request.getSymbol(), request.getCompanyName(), 
                 request.getCurrentPrice(), request.getPreviousPrice(), request.getVolume(), 
                 request.getMarketCap(), request.getSector());
-        newStock.setId(newId);
-        stocks.add(newStock);
+        newStock.setLogPending(true);
+        // 동시에 생성된 주식이 같은 ID를 먼저 차지하면 다음 ID로 다시 시도 (파티셔닝 중이면 심볼의 파티션에 맞춘 ID)
+        do {
+            newStock.setId(partitioning.nextId(newStock.getSymbol()));
+        } while (!stockRepository.insert(newStock));
+        writeAheadLog.awaitDurable(logUpsert(newStock));
+        analyzeAfterCommit(newStock.getId(),
+                // 4단계: 시장 분석
+                () -> marketAnalyzer.analyzeMarketForCreate(request),
+                // 5단계: 거래량 분석
+                () -> volumeAnalyzer.analyzeVolumeForCreate(request),
+                // 6단계: 리스크 분석
+                () -> riskAnalyzer.analyzeRiskForCreate(request),
+                // 7단계: 성과 분석
+                () -> performanceAnalyzer.analyzePerformanceForCreate(request),
+                // 8단계: 트렌드 분석
+                () -> trendAnalyzer.analyzeTrendForCreate(request),
+                // 9단계: 예측 엔진
+                () -> predictionEngine.predictForCreate(request),
+                // 10단계: 추천 엔진
+                () -> recommendationEngine.recommendForCreate(request));
         
         return StockResponse.from(newStock);
     }
@@ -356,60 +876,117 @@ public class StockService {
      * 재고 삭제 (1단계)
      */
     public boolean deleteStock(Long id) {
+        return deleteStock(id, null);
+    }
+    
+    /**
+     * 재고 삭제 (expectedVersion은 If-Match로 받은 version, 없으면 null)
+     */
+    public boolean deleteStock(Long id, Long expectedVersion) {
+        return deleteStock(id, expectedVersion, AnalysisContext.none());
+    }
+    
+    public boolean deleteStock(Long id, Long expectedVersion, AnalysisContext context) {
         // 1단계: 기본 검증
         if (id == null || id <= 0) {
             throw new StockValidationException("유효하지 않은 재고 삭제 요청입니다");
         }
         
+        // 2~3단계 요청 검증은 반영 전에 실행 (실패하면 반영하지 않음)
         // 2단계: 데이터 처리
         dataProcessor.validateDeleteRequest(id);
-        
         // 3단계: 가격 분석
         priceAnalyzer.analyzePriceForDelete(id);
         
-        // 4단계: 시장 분석
-        marketAnalyzer.analyzeMarketForDelete(id);
-        
-        // 5단계: 거래량 분석
-        volumeAnalyzer.analyzeVolumeForDelete(id);
-        
-        // 6단계: 리스크 분석
-        riskAnalyzer.analyzeRiskForDelete(id);
-        
-        // 7단계: 성과 분석
-        performanceAnalyzer.analyzePerformanceForDelete(id);
-        
-        // 8단계: 트렌드 분석
-        trendAnalyzer.analyzeTrendForDelete(id);
-        
-        // 9단계: 예측 엔진
-        predictionEngine.predictForDelete(id);
-        
-        // 10단계: 추천 엔진
-        recommendationEngine.recommendForDelete(id);
-        
-        boolean removed = stocks.removeIf(stock -> stock.getId().equals(id));
-        if (!removed) {
+        // 4~10단계 분석은 커밋 뒤 비동기로 실행하고 반영 전에는 마감만 확인
+        checkpoint(context, 0);
+        
+        for (int attempt = 1; ; attempt++) {
+            // 현재 행 확인과 삭제는 주식을 맡은 쓰기 샤드에서 실행
+            DeletedRow deleted = writeShards.execute(id, () -> deleteCurrent(id, expectedVersion));
+            if (deleted != null) {
+                Stock current = deleted.row;
+                long deletedVersion = deleted.version;
+                // 삭제한 행의 UPSERT가 DELETE보다 먼저 기록되어야 재생 시 되살아나지 않음 (교체 직후 짧은 구간)
+                awaitLogRequested(current, LOG_PENDING_TIMEOUT_NANOS);
+                writeAheadLog.awaitDurable(writeAheadLog.append(StockMutation.encodeDelete(id, deletedVersion)));
+                analyzeAfterCommit(id,
+                        // 4단계: 시장 분석
+                        () -> marketAnalyzer.analyzeMarketForDelete(id),
+                        // 5단계: 거래량 분석
+                        () -> volumeAnalyzer.analyzeVolumeForDelete(id),
+                        // 6단계: 리스크 분석
+                        () -> riskAnalyzer.analyzeRiskForDelete(id),
+                        // 7단계: 성과 분석
+                        () -> performanceAnalyzer.analyzePerformanceForDelete(id),
+                        // 8단계: 트렌드 분석
+                        () -> trendAnalyzer.analyzeTrendForDelete(id),
+                        // 9단계: 예측 엔진
+                        () -> predictionEngine.predictForDelete(id),
+                        // 10단계: 추천 엔진
+                        () -> recommendationEngine.recommendForDelete(id));
+                return true;
+            }
+            metrics.recordWriteConflict();
+            if (expectedVersion != null || attempt >= MAX_WRITE_ATTEMPTS) {
+                throw new StockConflictException("재고 ID " + id + "가 동시에 변경되어 삭제하지 못했습니다");
+            }
+        }
+    }
+    
+    // 현재 행이 그대로일 때만 삭제 (다른 쓰기가 먼저 반영되었으면 null)
+    private DeletedRow deleteCurrent(long id, Long expectedVersion) {
+        Optional<Stock> found = stockRepository.findById(id);
+        if (found.isEmpty()) {
             throw new StockNotFoundException("재고 ID " + id + "를 찾을 수 없습니다");
         }
-        return true;
+        Stock current = found.get();
+        if (expectedVersion != null && current.getVersion() != expectedVersion) {
+            throw new StockPreconditionFailedException("재고 ID " + id + "의 version이 일치하지 않습니다");
+        }
+        long deletedVersion = stockRepository.deleteIfCurrent(current);
+        return deletedVersion != 0 ? new DeletedRow(current, deletedVersion) : null;
+    }
+    
+    /**
+     * 삭제한 행과 삭제 번호
+     */
+    private static final class DeletedRow {
+        private final Stock row;
+        private final long version;
+        
+        private DeletedRow(Stock row, long version) {
+            this.row = row;
+            this.version = version;
+        }
     }
     
     /**
      * 섹터별 주식 조회
      */
-    public List<StockResponse> getStocksBySector(String sector) {
-        return stocks.stream()
+    public byte[] getStocksBySectorJson(String sector) {
+        return getStocksBySectorJson(stockRepository.snapshot(), sector);
+    }
+    
+    public byte[] getStocksBySectorJson(StockSnapshot snapshot, String sector) {
+        if (stockRepository.isColumnarEnabled()) {
+            // 컬럼형 인덱스가 잡은 스냅샷과 같은 행을 담고 있을 때만 그 결과를 쓰고, 뒤처져 있으면 스냅샷 순회
+            long[] ids = stockRepository.columnar().findIdsBySector(sector, snapshot);
+            metrics.recordColumnarScan(ids == null);
+            if (ids != null) {
+                return jsonCache.toJsonArray(findAllById(snapshot, ids));
+            }
+        }
+        return jsonCache.toJsonArray(snapshot.stream()
                 .filter(stock -> stock.getSector().equalsIgnoreCase(sector))
-                .map(StockResponse::from)
-                .collect(java.util.stream.Collectors.toList());
+                .collect(java.util.stream.Collectors.toList()));
     }
     
     /**
      * 주식 검색
      */
     public List<StockResponse> searchStocks(String keyword) {
-        return stocks.stream()
+        return stockRepository.findAll().stream()
                 .filter(stock -> stock.getSymbol().toLowerCase().contains(keyword.toLowerCase()) ||
                                stock.getCompanyName().toLowerCase().contains(keyword.toLowerCase()))
                 .map(StockResponse::from)
@@ -418,25 +995,134 @@ public class StockService {
     
     /**
      * 상위 상승주 조회
+     * 한 스냅샷을 순회하며 상위 10개만 유지 (등락률 내림차순, 같으면 ID 오름차순, 가격이 없으면 마지막)
+     * 컬럼형 인덱스가 켜져 있으면 가격 컬럼을 스캔하고, 인덱스가 잡은 스냅샷과 같은 행 집합일 때만 그 결과를 씁니다.
      */
-    public List<StockResponse> getTopGainers() {
-        return stocks.stream()
-                .sorted((s1, s2) -> Double.compare(
-                    (s2.getCurrentPrice() - s2.getPreviousPrice()) / s2.getPreviousPrice(),
-                    (s1.getCurrentPrice() - s1.getPreviousPrice()) / s1.getPreviousPrice()))
-                .limit(10)
-                .map(StockResponse::from)
-                .collect(java.util.stream.Collectors.toList());
+    public byte[] getTopGainersJson(StockSnapshot snapshot) {
+        int limit = 10;
+        if (stockRepository.isColumnarEnabled()) {
+            ColumnarStockStore.Ranked ranked = stockRepository.columnar()
+                    .findTop(ColumnarStockStore.Ranking.GAIN, limit, snapshot);
+            List<Stock> stocks = ranked != null ? ranked.resolve(snapshot) : null;
+            metrics.recordColumnarScan(stocks == null);
+            if (stocks != null) {
+                return jsonCache.toJsonArray(stocks);
+            }
+        }
+        Stock[] top = new Stock[limit];
+        double[] rates = new double[limit];
+        int count = 0;
+        for (Iterator<Stock> iterator = snapshot.iterator(-1L); iterator.hasNext(); ) {
+            Stock stock = iterator.next();
+            Double current = stock.getCurrentPrice();
+            Double previous = stock.getPreviousPrice();
+            double rate = current != null && previous != null ? (current - previous) / previous : Double.NaN;
+            if (Double.isNaN(rate)) {
+                rate = Double.NEGATIVE_INFINITY;
+            }
+            // ID 순으로 순회하므로 등락률이 같으면 먼저 들어온 주식이 앞
+            if (count == limit && rate <= rates[limit - 1]) {
+                continue;
+            }
+            int position = count < limit ? count++ : limit - 1;
+            while (position > 0 && rate > rates[position - 1]) {
+                top[position] = top[position - 1];
+                rates[position] = rates[position - 1];
+                position--;
+            }
+            top[position] = stock;
+            rates[position] = rate;
+        }
+        return jsonCache.toJsonArray(Arrays.asList(top).subList(0, count));
+    }
+    
+    /**
+     * 시가총액 상위 주식 조회 (순위는 시가총액 인덱스, 행은 잡은 스냅샷에서 읽음)
+     */
+    public byte[] getTopByMarketCapJson(StockSnapshot snapshot, int limit) {
+        validatePageSize(limit);
+        if (stockRepository.isColumnarEnabled()) {
+            ColumnarStockStore.Ranked ranked = stockRepository.columnar()
+                    .findTop(ColumnarStockStore.Ranking.MARKET_CAP, limit, snapshot);
+            List<Stock> stocks = ranked != null ? ranked.resolve(snapshot) : null;
+            metrics.recordColumnarScan(stocks == null);
+            if (stocks != null) {
+                return jsonCache.toJsonArray(stocks);
+            }
+        }
+        return jsonCache.toJsonArray(stockRepository.findByMarketCapAfter(snapshot, null, limit).getStocks());
+    }
+    
+    /**
+     * 섹터 집계 (주식 수, 심볼, 시가총액/거래량 합계, 평균 등락률)
+     * 컬럼형 인덱스가 잡은 스냅샷과 같은 행 집합이면 컬럼을 스캔하고, 아니면 스냅샷을 순회합니다.
+     */
+    public SectorSummaryResponse getSectorSummary(StockSnapshot snapshot, String sector) {
+        if (stockRepository.isColumnarEnabled()) {
+            SectorSummaryResponse summary = stockRepository.columnar().summarizeSector(sector, snapshot);
+            metrics.recordColumnarScan(summary == null);
+            if (summary != null) {
+                return summary;
+            }
+        }
+        List<String> symbols = new ArrayList<>();
+        double totalMarketCap = 0.0;
+        long totalVolume = 0L;
+        double changeSum = 0.0;
+        int changeCount = 0;
+        for (Iterator<Stock> iterator = snapshot.iterator(-1L); iterator.hasNext(); ) {
+            Stock stock = iterator.next();
+            if (stock.getSector() == null || !stock.getSector().equalsIgnoreCase(sector)) {
+                continue;
+            }
+            symbols.add(stock.getSymbol());
+            if (stock.getMarketCap() != null) {
+                totalMarketCap += stock.getMarketCap();
+            }
+            if (stock.getVolume() != null) {
+                totalVolume += stock.getVolume();
+            }
+            Double current = stock.getCurrentPrice();
+            Double previous = stock.getPreviousPrice();
+            if (current != null && previous != null && previous != 0.0) {
+                changeSum += (current - previous) / previous * 100;
+                changeCount++;
+            }
+        }
+        return new SectorSummaryResponse(sector, symbols.size(), symbols, totalMarketCap, totalVolume,
+                changeCount > 0 ? changeSum / changeCount : null);
+    }
+    
+    // 스캔 결과 ID를 한 스냅샷의 주식으로 변환 (스캔과 삭제가 겹친 경우 건너뜀)
+    private static List<Stock> findAllById(StockSnapshot snapshot, long[] ids) {
+        List<Stock> stocks = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            Stock stock = snapshot.get(id);
+            if (stock != null) {
+                stocks.add(stock);
+            }
+        }
+        return stocks;
     }
     
     /**
-     * 시가총액 상위 주식 조회
+     * 시가총액 순위 페이지 조회 (키셋 커서: 시가총액 + ID)
      */
-    public List<StockResponse> getTopByMarketCap() {
-        return stocks.stream()
-                .sorted((s1, s2) -> Double.compare(s2.getMarketCap(), s1.getMarketCap()))
-                .limit(10)
+    public StockPageResponse getStocksByMarketCap(String cursor, int size) {
+        validatePageSize(size);
+        MarketCapIndex.Key after = cursor != null ? MarketCapIndex.Key.fromCursor(cursor) : null;
+        StockRepository.MarketCapPage page = stockRepository.findByMarketCapAfter(after, size);
+        String nextCursor = page.getNextCursor() != null ? page.getNextCursor().toCursor() : null;
+        
+        List<StockResponse> items = page.getStocks().stream()
                 .map(StockResponse::from)
                 .collect(java.util.stream.Collectors.toList());
+        return new StockPageResponse(items, nextCursor);
+    }
+    
+    private void validatePageSize(int size) {
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new StockValidationException("페이지 크기는 1 이상 " + MAX_PAGE_SIZE + " 이하여야 합니다");
+        }
     }
 } 
\ No newline at end of file
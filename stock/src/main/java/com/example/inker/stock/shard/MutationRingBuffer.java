@@ -0,0 +1,97 @@
+package com.example.inker.stock.shard;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 여러 생산자, 한 소비자용 고정 크기 링 버퍼 (LMAX Disruptor 방식, 락 없음)
+ * 생산자는 다음 시퀀스를 CAS로 예약해 슬롯에 쓰고 슬롯별 게시 번호로 공개하며,
+ * 소비자는 시퀀스 순서대로 공개된 슬롯만 읽고 처리한 시퀀스를 알려 슬롯을 돌려줍니다.
+ * 가득 차면 생산자는 버리지 않고 소비자가 슬롯을 돌려줄 때까지 기다립니다.
+ */
+final class MutationRingBuffer {
+
+    private final Object[] entries;
+    // 슬롯별로 마지막으로 공개된 시퀀스 (아직 없으면 -1)
+    private final AtomicLongArray published;
+    private final int mask;
+    // 마지막으로 예약된 시퀀스
+    private final AtomicLong claimed = new AtomicLong(-1L);
+    // 소비자가 마지막으로 처리한 시퀀스 (소비자만 기록)
+    private volatile long consumed = -1L;
+
+    /**
+     * capacity는 2의 거듭제곱으로 올림
+     */
+    MutationRingBuffer(int capacity) {
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.entries = new Object[size];
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1L);
+        }
+        this.mask = size - 1;
+    }
+
+    int capacity() {
+        return entries.length;
+    }
+
+    /**
+     * 항목 게시 (자리가 날 때까지 대기), 게시한 시퀀스 반환
+     */
+    long publish(Object entry) {
+        long sequence;
+        for (int spins = 0; ; spins++) {
+            long current = claimed.get();
+            sequence = current + 1;
+            if (sequence - consumed > entries.length) {
+                // 가득 참: 소비자가 따라올 때까지 잠시 양보
+                backOff(spins);
+                continue;
+            }
+            if (claimed.compareAndSet(current, sequence)) {
+                break;
+            }
+        }
+        int index = (int) (sequence & mask);
+        entries[index] = entry;
+        // 게시 번호 기록이 슬롯 쓰기를 소비자에게 공개
+        published.set(index, sequence);
+        return sequence;
+    }
+
+    /**
+     * sequence 슬롯의 항목 (아직 공개되지 않았으면 null, 소비자 전용)
+     */
+    Object get(long sequence) {
+        int index = (int) (sequence & mask);
+        return published.get(index) == sequence ? entries[index] : null;
+    }
+
+    /**
+     * sequence까지 처리 완료 (슬롯을 생산자에게 돌려줌, 소비자 전용)
+     */
+    void release(long sequence) {
+        entries[(int) (sequence & mask)] = null;
+        consumed = sequence;
+    }
+
+    /**
+     * 예약되었지만 아직 처리되지 않은 항목 수
+     */
+    long depth() {
+        return Math.max(0L, claimed.get() - consumed);
+    }
+
+    private static void backOff(int spins) {
+        if (spins < 64) {
+            Thread.onSpinWait();
+        } else if (spins < 128) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(1_000L);
+        }
+    }
+}
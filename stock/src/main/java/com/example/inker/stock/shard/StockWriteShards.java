@@ -0,0 +1,191 @@
+package com.example.inker.stock.shard;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * 주식 단건 쓰기의 샤드별 단일 작성자 실행기
+ * 주식 ID로 N개 샤드 중 하나를 골라, 샤드마다 전용 스레드 하나가 링 버퍼(MutationRingBuffer)로 받은 쓰기를 순서대로 실행합니다.
+ * 같은 주식의 쓰기는 항상 같은 스레드에서 차례로 실행되므로 version 비교 교체가 서로 경합하지 않습니다.
+ * 조회는 샤드를 거치지 않고 저장소의 불변 스냅샷을 그대로 읽습니다.
+ * stock.write.shards가 0(기본)이면 샤드 없이 호출 스레드에서 바로 실행합니다.
+ * 모든 샤드가 같은 저장소 스냅샷을 게시하므로 샤드를 나눠도 쓰기가 분산되지 않고 스레드 전환만 늘어
+ * 측정상 처리량이 3~5배 줄었습니다. 같은 주식의 쓰기를 한 스레드로 모아야 할 때만 켭니다.
+ */
+@Component
+public class StockWriteShards {
+
+    private static final Logger log = LoggerFactory.getLogger(StockWriteShards.class);
+    // 잠들기 전에 새 쓰기를 기다리며 도는 횟수
+    private static final int IDLE_SPINS = 256;
+
+    private final Shard[] shards;
+
+    public StockWriteShards(
+            @Value("${stock.write.shards:0}") int shardCount,
+            @Value("${stock.write.ring-size:1024}") int ringSize) {
+        int count = Math.max(shardCount, 0);
+        this.shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard(i, new MutationRingBuffer(ringSize));
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        for (Shard shard : shards) {
+            shard.thread.start();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        for (Shard shard : shards) {
+            shard.running = false;
+            LockSupport.unpark(shard.thread);
+        }
+        for (Shard shard : shards) {
+            shard.thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /**
+     * id 주식을 맡은 샤드 스레드에서 mutation을 실행하고 결과를 반환 (끝날 때까지 대기)
+     * mutation이 던진 RuntimeException은 그대로 다시 던집니다. 샤드가 없거나 샤드 스레드에서 호출하면 바로 실행합니다.
+     */
+    public <T> T execute(long id, Supplier<T> mutation) {
+        try {
+            return submit(id, mutation).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * id 주식을 맡은 샤드 스레드에 mutation을 넘기고 실행을 기다리지 않고 결과 future를 반환
+     * 같은 주식에 넘긴 mutation은 넘긴 순서대로 실행됩니다. 샤드가 없거나 샤드 스레드에서 호출하면 바로 실행합니다.
+     * 링 버퍼가 가득 차 있으면 자리가 날 때까지 기다립니다.
+     */
+    public <T> CompletableFuture<T> submit(long id, Supplier<T> mutation) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable task = () -> {
+            try {
+                result.complete(mutation.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        };
+        if (shards.length == 0) {
+            task.run();
+            return result;
+        }
+        Shard shard = shardOf(id);
+        if (Thread.currentThread() == shard.thread) {
+            task.run();
+        } else {
+            shard.submit(task);
+        }
+        return result;
+    }
+
+    private Shard shardOf(long id) {
+        return shards[(int) Math.floorMod(id, (long) shards.length)];
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * 샤드별 대기 중인 쓰기 수와 실행한 쓰기 수
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> values = new LinkedHashMap<>();
+        values.put("writeShards", (long) shards.length);
+        for (Shard shard : shards) {
+            values.put("writeShard" + shard.index + "QueueDepth", shard.ring.depth());
+            values.put("writeShard" + shard.index + "Executed", shard.executed.sum());
+        }
+        return values;
+    }
+
+    /**
+     * 샤드 하나 (링 버퍼와 그것을 비우는 전용 스레드)
+     */
+    private static final class Shard implements Runnable {
+        private final int index;
+        private final MutationRingBuffer ring;
+        private final Thread thread;
+        private final LongAdder executed = new LongAdder();
+        private volatile boolean running = true;
+        // 새 쓰기를 기다리며 잠든 상태 (생산자가 깨움)
+        private volatile boolean sleeping;
+
+        private Shard(int index, MutationRingBuffer ring) {
+            this.index = index;
+            this.ring = ring;
+            this.thread = new Thread(this, "stock-write-shard-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        private void submit(Runnable mutation) {
+            ring.publish(mutation);
+            // 소비자가 sleeping을 기록한 뒤 슬롯을 다시 확인하므로 둘 중 한 쪽은 반드시 새 쓰기를 봄
+            if (sleeping) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        @Override
+        public void run() {
+            long next = 0L;
+            int idle = 0;
+            // 종료 요청 뒤에도 이미 게시된 쓰기는 마저 실행 (기다리는 호출자가 있음)
+            while (running || ring.get(next) != null) {
+                Object entry = ring.get(next);
+                if (entry == null) {
+                    if (++idle < IDLE_SPINS) {
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    sleeping = true;
+                    if (ring.get(next) == null && running) {
+                        LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(10));
+                    }
+                    sleeping = false;
+                    idle = 0;
+                    continue;
+                }
+                idle = 0;
+                try {
+                    ((Runnable) entry).run();
+                } catch (RuntimeException e) {
+                    // execute가 호출자에게 넘기므로 여기까지 오지 않지만 샤드 스레드는 계속 돌아야 함
+                    log.warn("샤드 쓰기 실행 실패: shard={}", index, e);
+                }
+                ring.release(next);
+                executed.increment();
+                next++;
+            }
+        }
+    }
+}
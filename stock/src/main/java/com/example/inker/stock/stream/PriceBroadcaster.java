@@ -0,0 +1,355 @@
+package com.example.inker.stock.stream;
+
+import com.example.inker.stock.dto.PriceUpdateEvent;
+import com.example.inker.stock.entity.Stock;
+import com.example.inker.stock.exception.StockNotFoundException;
+import com.example.inker.stock.exception.StockValidationException;
+import com.example.inker.stock.repository.StockRepository;
+import com.example.inker.stock.service.StockMetrics;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 가격 변경 SSE 브로드캐스터
+ * 저장소 변경 리스너는 주식별 최신 이벤트 슬롯만 갱신하고, 분배 스레드가 이벤트를 한 번 직렬화해
+ * 해당 주식을 구독한 클라이언트 큐에 넣습니다.
+ * 클라이언트 큐는 주식별 최신 값 하나만 보관하므로(구독 주식 수로 제한) 느린 클라이언트는
+ * 메모리를 늘리는 대신 합쳐진 최신 가격을 받습니다. 전송은 작은 전송 스레드 풀이 클라이언트 단위로 수행합니다.
+ * SSE 전송은 소켓에 쓸 때까지 전송 스레드를 막으므로, 전송 묶음 하나가 stock.stream.send-timeout-millis를 넘기면
+ * 그 클라이언트 연결을 끊고 막힌 전송 스레드를 인터럽트해 다른 클라이언트가 전송 스레드를 기다리지 않게 합니다.
+ */
+@Component
+public class PriceBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(PriceBroadcaster.class);
+
+    private static final int MAX_SYMBOLS_PER_SUBSCRIPTION = 100;
+    // 하트비트용 큐 키 (주식 ID는 1부터 시작)
+    private static final long HEARTBEAT = 0L;
+
+    private final StockRepository stockRepository;
+    private final ObjectMapper objectMapper;
+    private final StockMetrics metrics;
+    private final int maxSubscribers;
+    private final int senderThreads;
+    private final long heartbeatSeconds;
+    private final long sendTimeoutNanos;
+
+    // 주식 ID -> 구독자
+    private final ConcurrentHashMap<Long, Set<Subscription>> subscribersById = new ConcurrentHashMap<>();
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    // 분배 대기 중인 주식별 최신 이벤트와 그 ID 큐
+    private final ConcurrentHashMap<Long, PriceUpdateEvent> latest = new ConcurrentHashMap<>();
+    private final LinkedBlockingQueue<Long> dirty = new LinkedBlockingQueue<>();
+
+    private ExecutorService senders;
+    // 하트비트와 전송 시간 초과 확인
+    private ScheduledExecutorService timers;
+    private Thread dispatcher;
+    private volatile boolean running;
+
+    public PriceBroadcaster(
+            StockRepository stockRepository,
+            ObjectMapper objectMapper,
+            StockMetrics metrics,
+            @Value("${stock.stream.max-subscribers:20000}") int maxSubscribers,
+            @Value("${stock.stream.sender-threads:8}") int senderThreads,
+            @Value("${stock.stream.heartbeat-seconds:15}") long heartbeatSeconds,
+            @Value("${stock.stream.send-timeout-millis:5000}") long sendTimeoutMillis) {
+        this.stockRepository = stockRepository;
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        this.maxSubscribers = maxSubscribers;
+        this.senderThreads = senderThreads;
+        this.heartbeatSeconds = heartbeatSeconds;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        AtomicInteger senderIndex = new AtomicInteger();
+        senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "stock-sse-sender-" + senderIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher = new Thread(this::runDispatcher, "stock-sse-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        timers = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-sse-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (heartbeatSeconds > 0) {
+            timers.scheduleWithFixedDelay(() -> subscriptions.forEach(s -> s.offer(HEARTBEAT, null)),
+                    heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        }
+        if (sendTimeoutNanos > 0) {
+            // 제한 시간의 1/4 간격으로 확인하므로 막힌 연결은 제한 시간의 1.25배 안에 끊김
+            long checkNanos = Math.max(sendTimeoutNanos / 4, TimeUnit.MILLISECONDS.toNanos(1));
+            timers.scheduleWithFixedDelay(this::expireStalledSends, checkNanos, checkNanos, TimeUnit.NANOSECONDS);
+        }
+        stockRepository.addChangeListener(this::publish);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        dispatcher.interrupt();
+        timers.shutdownNow();
+        senders.shutdownNow();
+        subscriptions.forEach(subscription -> subscription.emitter.complete());
+    }
+
+    /**
+     * 심볼 목록 구독 (구독자 수가 한도를 넘으면 null)
+     * 구독 직후 각 주식의 현재 가격을 한 번 보냅니다.
+     */
+    public SseEmitter subscribe(List<String> symbols) {
+        if (symbols == null || symbols.isEmpty() || symbols.size() > MAX_SYMBOLS_PER_SUBSCRIPTION) {
+            throw new StockValidationException("구독 심볼은 1개 이상 " + MAX_SYMBOLS_PER_SUBSCRIPTION + "개 이하여야 합니다");
+        }
+        List<Stock> stocks = new ArrayList<>(symbols.size());
+        for (String symbol : symbols) {
+            stocks.add(stockRepository.findBySymbol(symbol.trim())
+                    .orElseThrow(() -> new StockNotFoundException("심볼 " + symbol + "를 찾을 수 없습니다")));
+        }
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            return null;
+        }
+
+        SseEmitter emitter = newEmitter();
+        Subscription subscription = new Subscription(emitter);
+        for (Stock stock : stocks) {
+            subscription.ids.add(stock.getId());
+        }
+        subscriptions.add(subscription);
+        for (Long id : subscription.ids) {
+            // 비어서 제거되는 집합에 추가하지 않도록 compute 안에서 추가
+            subscribersById.compute(id, (key, set) -> {
+                Set<Subscription> subscribers = set != null ? set : ConcurrentHashMap.newKeySet();
+                subscribers.add(subscription);
+                return subscribers;
+            });
+        }
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onTimeout(() -> unsubscribe(subscription));
+        emitter.onError(error -> unsubscribe(subscription));
+        metrics.recordStreamSubscribed();
+
+        for (Stock stock : stocks) {
+            subscription.offer(stock.getId(), serialize(PriceUpdateEvent.from(stock)));
+        }
+        return emitter;
+    }
+
+    /**
+     * 저장소 변경 리스너 (구독자가 없는 주식은 바로 반환)
+     */
+    private void publish(Stock stock) {
+        Long id = stock.getId();
+        if (!subscribersById.containsKey(id)) {
+            return;
+        }
+        if (latest.put(id, PriceUpdateEvent.from(stock)) == null) {
+            dirty.add(id);
+        }
+    }
+
+    /**
+     * 타임아웃 없이 연결을 유지하는 SSE 응답 (끊긴 연결은 전송 실패, 하트비트, 전송 시간 초과로 정리)
+     */
+    SseEmitter newEmitter() {
+        return new SseEmitter(0L);
+    }
+
+    private void expireStalledSends() {
+        long now = System.nanoTime();
+        for (Subscription subscription : subscriptions) {
+            subscription.expireIfStalled(now);
+        }
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        if (!subscriptions.remove(subscription)) {
+            return;
+        }
+        for (Long id : subscription.ids) {
+            subscribersById.computeIfPresent(id, (key, set) -> {
+                set.remove(subscription);
+                return set.isEmpty() ? null : set;
+            });
+        }
+        subscriberCount.decrementAndGet();
+        metrics.recordStreamUnsubscribed();
+    }
+
+    private void runDispatcher() {
+        while (running) {
+            try {
+                Long id = dirty.take();
+                PriceUpdateEvent event = latest.remove(id);
+                Set<Subscription> subscribers = subscribersById.get(id);
+                if (event == null || subscribers == null) {
+                    continue;
+                }
+                // 구독자 수와 관계없이 이벤트당 한 번만 직렬화
+                String json = serialize(event);
+                for (Subscription subscription : subscribers) {
+                    subscription.offer(id, json);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("가격 이벤트 분배 실패", e);
+            }
+        }
+    }
+
+    private String serialize(PriceUpdateEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 클라이언트 하나의 구독 상태와 주식별 최신 값 큐
+     */
+    private final class Subscription {
+        private final SseEmitter emitter;
+        private final Set<Long> ids = new LinkedHashSet<>();
+        // 주식 ID -> 아직 보내지 않은 최신 이벤트 JSON (this로 보호)
+        private Map<Long, String> pending = new LinkedHashMap<>();
+        private boolean scheduled;
+        // 전송 중인 스레드와 전송 묶음 시작 시각 (this로 보호, 전송 중이 아니면 null)
+        private Thread sender;
+        private long sendStartedNanos;
+        private boolean closed;
+
+        private Subscription(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void offer(long id, String json) {
+            synchronized (this) {
+                if (pending.put(id, json) != null && id != HEARTBEAT) {
+                    metrics.recordConflatedStreamUpdate();
+                }
+                if (scheduled) {
+                    return;
+                }
+                scheduled = true;
+            }
+            try {
+                senders.execute(this::drain);
+            } catch (RuntimeException e) {
+                // 종료 중
+                synchronized (this) {
+                    scheduled = false;
+                }
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                Map<Long, String> batch;
+                synchronized (this) {
+                    if (pending.isEmpty()) {
+                        scheduled = false;
+                        return;
+                    }
+                    batch = pending;
+                    pending = new LinkedHashMap<>();
+                    sender = Thread.currentThread();
+                    sendStartedNanos = System.nanoTime();
+                }
+                try {
+                    for (Map.Entry<Long, String> entry : batch.entrySet()) {
+                        if (entry.getKey() == HEARTBEAT) {
+                            emitter.send(SseEmitter.event().comment("heartbeat"));
+                        } else {
+                            emitter.send(SseEmitter.event()
+                                    .id(String.valueOf(entry.getKey()))
+                                    .name("price")
+                                    .data(entry.getValue(), MediaType.APPLICATION_JSON));
+                        }
+                    }
+                } catch (IOException | RuntimeException e) {
+                    // 연결이 끊긴 클라이언트 (시간 초과로 끊은 경우 포함)
+                    close(e);
+                    synchronized (this) {
+                        scheduled = false;
+                    }
+                    return;
+                } finally {
+                    synchronized (this) {
+                        sender = null;
+                    }
+                    // 전송을 마친 직후 도착한 시간 초과 인터럽트를 풀 스레드에 남기지 않음
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        // 전송 묶음 하나가 제한 시간을 넘겼으면 연결을 끊고 막힌 전송 스레드를 깨움
+        private void expireIfStalled(long now) {
+            synchronized (this) {
+                if (sender == null || now - sendStartedNanos < sendTimeoutNanos) {
+                    return;
+                }
+            }
+            metrics.recordStreamSendTimeout();
+            close(new TimeoutException("SSE 전송 시간 초과"));
+            // 아직 이 클라이언트 전송 중일 때만 인터럽트 (다른 클라이언트 전송으로 넘어간 스레드는 건드리지 않음)
+            synchronized (this) {
+                if (sender != null) {
+                    sender.interrupt();
+                    sender = null;
+                }
+            }
+        }
+
+        private void close(Exception cause) {
+            unsubscribe(this);
+            synchronized (this) {
+                pending.clear();
+                if (closed) {
+                    return;
+                }
+                closed = true;
+            }
+            emitter.completeWithError(cause);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.inker.stock.candle;
+
+import com.example.inker.stock.dto.CandleResponse;
+import com.example.inker.stock.entity.EpochMicros;
+import com.example.inker.stock.entity.Stock;
+import com.example.inker.stock.repository.StockRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CandleAggregatorTest {
+
+    private static final long T0 = EpochMicros.of(LocalDateTime.of(2026, 1, 5, 9, 30));
+    private static final long MINUTE = 60_000_000L;
+
+    @Test
+    void metadataOnlyChangesDoNotAddTicks() {
+        StockRepository repository = new StockRepository(false);
+        CandleAggregator aggregator = new CandleAggregator(repository, 100);
+        aggregator.start();
+
+        Stock priced = new Stock(repository.findById(1L).orElseThrow());
+        priced.setCurrentPrice(151.0);
+        priced.setUpdatedAtMicros(T0);
+        repository.save(priced);
+        // 다음 분에 섹터만 바뀐 저장
+        Stock renamed = new Stock(priced);
+        renamed.setSector("Hardware");
+        renamed.setUpdatedAtMicros(T0 + MINUTE);
+        repository.save(renamed);
+
+        List<CandleResponse> bars = aggregator.getCandles(priced.getSymbol(), "1m", null, null, 10);
+        assertEquals(1, bars.size());
+        assertEquals(EpochMicros.toLocalDateTime(T0), bars.get(0).getTime());
+        assertEquals(151.0, bars.get(0).getClose());
+        assertNull(aggregator.getCandles("NOPE", "1m", null, null, 10));
+    }
+}
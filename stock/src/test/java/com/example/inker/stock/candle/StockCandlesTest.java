@@ -0,0 +1,145 @@
+package com.example.inker.stock.candle;
+
+import com.example.inker.stock.dto.CandleResponse;
+import com.example.inker.stock.entity.EpochMicros;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StockCandlesTest {
+
+    // 하루의 시작 (UTC)
+    private static final long T0 = EpochMicros.of(LocalDateTime.of(2026, 1, 5, 0, 0));
+    private static final long SECOND = 1_000_000L;
+    private static final long MINUTE = 60 * SECOND;
+    private static final long HOUR = 60 * MINUTE;
+
+    private static List<CandleResponse> all(StockCandles candles, CandleResolution resolution) {
+        return candles.range(resolution, Long.MIN_VALUE, Long.MAX_VALUE, 100);
+    }
+
+    private static void assertBar(CandleResponse bar, long start, double open, double high, double low, double close,
+                                  long volume) {
+        assertEquals(EpochMicros.toLocalDateTime(start), bar.getTime());
+        assertEquals(open, bar.getOpen());
+        assertEquals(high, bar.getHigh());
+        assertEquals(low, bar.getLow());
+        assertEquals(close, bar.getClose());
+        assertEquals(volume, (long) bar.getVolume());
+    }
+
+    @Test
+    void ticksInTheSameMinuteUpdateTheOpenBarInPlace() {
+        StockCandles candles = new StockCandles(100);
+        assertTrue(candles.onTick(T0 + SECOND, 10.0, 100L));
+        assertTrue(candles.onTick(T0 + 10 * SECOND, 12.0, 150L));
+        assertTrue(candles.onTick(T0 + 20 * SECOND, 9.0, 160L));
+        assertTrue(candles.onTick(T0 + 30 * SECOND, 11.0, 200L));
+
+        // 거래량은 누적 거래량의 증가분 (첫 틱은 0)
+        List<CandleResponse> bars = all(candles, CandleResolution.MINUTE_1);
+        assertEquals(1, bars.size());
+        assertBar(bars.get(0), T0, 10.0, 12.0, 9.0, 11.0, 100L);
+
+        // 다음 봉이 시작된 뒤 앞선 분의 틱은 무시
+        assertTrue(candles.onTick(T0 + MINUTE, 13.0, 210L));
+        assertFalse(candles.onTick(T0 + 50 * SECOND, 1.0, 220L));
+        assertBar(all(candles, CandleResolution.MINUTE_1).get(0), T0, 10.0, 12.0, 9.0, 11.0, 100L);
+    }
+
+    @Test
+    void coarserBarsAreRolledUpFromFinerBars() {
+        StockCandles candles = new StockCandles(100);
+        candles.onTick(T0, 10.0, 0L);
+        candles.onTick(T0 + MINUTE, 11.0, 10L);
+        candles.onTick(T0 + 4 * MINUTE, 9.0, 20L);
+        candles.onTick(T0 + 5 * MINUTE, 12.0, 30L);
+        candles.onTick(T0 + 59 * MINUTE, 13.0, 40L);
+        candles.onTick(T0 + HOUR, 8.0, 50L);
+        candles.onTick(T0 + 24 * HOUR, 20.0, 60L);
+
+        List<CandleResponse> minutes = all(candles, CandleResolution.MINUTE_1);
+        assertEquals(7, minutes.size());
+        assertBar(minutes.get(6), T0 + 24 * HOUR, 20.0, 20.0, 20.0, 20.0, 10L);
+
+        List<CandleResponse> fives = all(candles, CandleResolution.MINUTE_5);
+        assertEquals(5, fives.size());
+        assertBar(fives.get(0), T0, 10.0, 11.0, 9.0, 9.0, 20L);
+        assertBar(fives.get(1), T0 + 5 * MINUTE, 12.0, 12.0, 12.0, 12.0, 10L);
+        assertBar(fives.get(2), T0 + 55 * MINUTE, 13.0, 13.0, 13.0, 13.0, 10L);
+        assertBar(fives.get(3), T0 + HOUR, 8.0, 8.0, 8.0, 8.0, 10L);
+
+        List<CandleResponse> hours = all(candles, CandleResolution.HOUR_1);
+        assertEquals(3, hours.size());
+        assertBar(hours.get(0), T0, 10.0, 13.0, 9.0, 13.0, 40L);
+        assertBar(hours.get(1), T0 + HOUR, 8.0, 8.0, 8.0, 8.0, 10L);
+
+        // 진행 중인 일봉은 진행 중인 1분 봉까지 합쳐 보여줌
+        List<CandleResponse> days = all(candles, CandleResolution.DAY_1);
+        assertEquals(2, days.size());
+        assertBar(days.get(0), T0, 10.0, 13.0, 8.0, 8.0, 50L);
+        assertBar(days.get(1), T0 + 24 * HOUR, 20.0, 20.0, 20.0, 20.0, 10L);
+    }
+
+    @Test
+    void openHigherBarIncludesTheLiveMinute() {
+        StockCandles candles = new StockCandles(100);
+        candles.onTick(T0, 10.0, 0L);
+        candles.onTick(T0 + MINUTE, 14.0, 5L);
+        candles.onTick(T0 + 2 * MINUTE, 7.0, 15L);
+
+        // 마감된 1분 봉 2개(상위 봉에 합쳐짐)와 진행 중인 1분 봉
+        List<CandleResponse> fives = all(candles, CandleResolution.MINUTE_5);
+        assertEquals(1, fives.size());
+        assertBar(fives.get(0), T0, 10.0, 14.0, 7.0, 7.0, 15L);
+    }
+
+    @Test
+    void rangeIncludesFromAndExcludesToAtBarStarts() {
+        StockCandles candles = new StockCandles(100);
+        for (int minute = 0; minute < 4; minute++) {
+            candles.onTick(T0 + minute * MINUTE, 10.0 + minute, minute * 10L);
+        }
+
+        List<CandleResponse> bars = candles.range(CandleResolution.MINUTE_1, T0 + MINUTE, T0 + 3 * MINUTE, 10);
+        assertEquals(2, bars.size());
+        assertEquals(EpochMicros.toLocalDateTime(T0 + MINUTE), bars.get(0).getTime());
+        assertEquals(EpochMicros.toLocalDateTime(T0 + 2 * MINUTE), bars.get(1).getTime());
+
+        // 진행 중인 봉도 시작 시각으로 범위를 판단
+        assertEquals(3, candles.range(CandleResolution.MINUTE_1, T0 + MINUTE, T0 + 3 * MINUTE + 1, 10).size());
+        List<CandleResponse> live = candles.range(CandleResolution.MINUTE_1, T0 + 3 * MINUTE, Long.MAX_VALUE, 10);
+        assertEquals(1, live.size());
+        assertEquals(13.0, live.get(0).getClose());
+
+        // limit은 가장 최근 봉부터
+        List<CandleResponse> latest = candles.range(CandleResolution.MINUTE_1, Long.MIN_VALUE, Long.MAX_VALUE, 2);
+        assertEquals(EpochMicros.toLocalDateTime(T0 + 2 * MINUTE), latest.get(0).getTime());
+        assertEquals(EpochMicros.toLocalDateTime(T0 + 3 * MINUTE), latest.get(1).getTime());
+
+        // 5분 봉은 T0에 시작하므로 T0 다음부터의 범위에는 없음
+        assertEquals(0, candles.range(CandleResolution.MINUTE_5, T0 + 1, Long.MAX_VALUE, 10).size());
+        assertEquals(1, candles.range(CandleResolution.MINUTE_5, T0, T0 + 5 * MINUTE, 10).size());
+    }
+
+    @Test
+    void onlyPriceOrVolumeChangesCountAsTicks() {
+        StockCandles candles = new StockCandles(100);
+        assertTrue(candles.onTick(T0, 10.0, 100L));
+        // 가격도 거래량도 그대로면 다음 분이어도 봉을 만들지 않음
+        assertFalse(candles.onTick(T0 + MINUTE, 10.0, 100L));
+        assertEquals(1, all(candles, CandleResolution.MINUTE_1).size());
+
+        assertTrue(candles.onTick(T0 + 2 * MINUTE, 10.0, 120L));
+        assertTrue(candles.onTick(T0 + 3 * MINUTE, 11.0, 120L));
+        List<CandleResponse> bars = all(candles, CandleResolution.MINUTE_1);
+        assertEquals(3, bars.size());
+        assertBar(bars.get(1), T0 + 2 * MINUTE, 10.0, 10.0, 10.0, 10.0, 20L);
+        assertBar(bars.get(2), T0 + 3 * MINUTE, 11.0, 11.0, 11.0, 11.0, 0L);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.inker.stock.entity;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stock 한 행의 힙 사용량 (JOL)
+ * 박싱 숫자, 행마다 복사된 심볼/섹터 문자열, LocalDateTime을 그대로 들던 이전 형태와 비교합니다.
+ */
+class StockFootprintTest {
+
+    private static final int ROWS = 10_000;
+    private static final String[] SECTORS = {"Technology", "Finance", "Healthcare", "Energy", "Consumer"};
+
+    @Test
+    void stockHasNoPerRowObjectsBesideCompanyName() {
+        long shell = ClassLayout.parseClass(Stock.class).instanceSize();
+        Stock stock = compact(1);
+        long graph = GraphLayout.parseInstance(stock).totalSize();
+        long companyName = GraphLayout.parseInstance(stock.getCompanyName()).totalSize();
+
+        // 필드가 모두 원시 타입이라 Stock 밖의 객체는 회사명 문자열뿐
+        assertTrue(shell <= 96, "Stock 크기: " + shell);
+        assertTrue(graph == shell + companyName, "Stock 그래프: " + graph);
+    }
+
+    @Test
+    void heapPerRowIsWellBelowBoxedLayout() {
+        List<Stock> compact = new ArrayList<>(ROWS);
+        List<BoxedStock> boxed = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            compact.add(compact(i));
+            boxed.add(boxed(i));
+        }
+        // 공유 사전은 행 수와 관계없이 한 번만 들므로 제외하고 비교
+        long compactPerRow = GraphLayout.parseInstance(compact.toArray()).totalSize() / ROWS;
+        long boxedPerRow = GraphLayout.parseInstance(boxed.toArray()).totalSize() / ROWS;
+
+        assertTrue(compactPerRow * 10 <= boxedPerRow * 6,
+                "행당 " + compactPerRow + "바이트 (이전 형태 " + boxedPerRow + "바이트)");
+    }
+
+    private static Stock compact(int i) {
+        Stock stock = new Stock("SYM" + i, "Company " + i, 100.0 + i, 99.0 + i, 1_000L * i,
+                1.0e9 + i, SECTORS[i % SECTORS.length]);
+        stock.setId((long) i + 1);
+        stock.setUpdatedAt(LocalDateTime.now());
+        return stock;
+    }
+
+    private static BoxedStock boxed(int i) {
+        BoxedStock stock = new BoxedStock();
+        stock.id = (long) i + 1;
+        stock.symbol = "SYM" + i;
+        stock.companyName = "Company " + i;
+        stock.currentPrice = 100.0 + i;
+        stock.previousPrice = 99.0 + i;
+        stock.volume = 1_000L * i;
+        stock.marketCap = 1.0e9 + i;
+        // 요청 본문에서 역직렬화한 섹터는 행마다 다른 문자열
+        stock.sector = new String(SECTORS[i % SECTORS.length]);
+        stock.createdAt = LocalDateTime.now();
+        stock.updatedAt = LocalDateTime.now();
+        return stock;
+    }
+
+    /**
+     * 이전 Stock의 필드 구성
+     */
+    private static final class BoxedStock {
+        private Long id;
+        private String symbol;
+        private String companyName;
+        private Double currentPrice;
+        private Double previousPrice;
+        private Long volume;
+        private Double marketCap;
+        private String sector;
+        private LocalDateTime createdAt;
+        private LocalDateTime updatedAt;
+        private long version;
+    }
+}
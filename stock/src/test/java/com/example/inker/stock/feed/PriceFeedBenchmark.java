@@ -0,0 +1,47 @@
+package com.example.inker.stock.feed;
+
+import com.example.inker.stock.service.StockServiceFixture;
+
+import java.net.InetSocketAddress;
+
+/**
+ * 시세 피드 루프백 처리량 측정
+ * 같은 프로세스에 수신기를 띄우고 PriceFeedReplayClient로 틱을 보낸 뒤,
+ * 전송 처리량과 마지막 틱을 받아 반영하기까지의 처리량을 출력합니다.
+ *
+ * 사용법: PriceFeedBenchmark [count] [stockCount] [shards] [rounds]
+ */
+public final class PriceFeedBenchmark {
+
+    private PriceFeedBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        long count = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        int stockCount = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int shards = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        int rounds = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        try (StockServiceFixture fixture = new StockServiceFixture(shards, 0)) {
+            PriceFeedListener listener = new PriceFeedListener(fixture.getService(), true, "127.0.0.1", 0);
+            listener.start();
+            InetSocketAddress address = new InetSocketAddress("127.0.0.1", listener.getLocalPort());
+            try {
+                for (int round = 0; round < rounds; round++) {
+                    long target = listener.getReceivedCount() + count;
+                    long startedAt = System.nanoTime();
+                    long sendNanos = PriceFeedReplayClient.replay(address, count, stockCount);
+                    while (listener.getReceivedCount() < target) {
+                        Thread.onSpinWait();
+                    }
+                    long totalNanos = System.nanoTime() - startedAt;
+                    System.out.printf("round %d: send %.0f ticks/s, received %.0f ticks/s (%.1f MiB/s)%n",
+                            round, count / (sendNanos / 1e9), count / (totalNanos / 1e9),
+                            count * PriceTickMessage.SIZE / (totalNanos / 1e9) / (1 << 20));
+                }
+                System.out.printf("applied %d of %d%n", listener.getAppliedCount(), listener.getReceivedCount());
+            } finally {
+                listener.stop();
+            }
+        }
+    }
+}
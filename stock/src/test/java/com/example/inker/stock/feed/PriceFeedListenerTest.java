@@ -0,0 +1,108 @@
+package com.example.inker.stock.feed;
+
+import com.example.inker.stock.entity.Stock;
+import com.example.inker.stock.service.StockServiceFixture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceFeedListenerTest {
+
+    private StockServiceFixture fixture;
+    private PriceFeedListener listener;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        fixture = new StockServiceFixture(0, 0);
+        listener = new PriceFeedListener(fixture.getService(), true, "127.0.0.1", 0);
+        listener.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        listener.stop();
+        fixture.close();
+    }
+
+    @Test
+    void messageRoundTripsAtOffset() {
+        ByteBuffer buffer = ByteBuffer.allocate(PriceTickMessage.SIZE * 2);
+        PriceTickMessage.put(buffer, 1L, 1.0, 1L, 1L);
+        PriceTickMessage.put(buffer, 42L, 123.25, 9_000L, 1_700_000_000_000_000L);
+
+        assertEquals(42L, PriceTickMessage.stockId(buffer, PriceTickMessage.SIZE));
+        assertEquals(123.25, PriceTickMessage.price(buffer, PriceTickMessage.SIZE));
+        assertEquals(9_000L, PriceTickMessage.volume(buffer, PriceTickMessage.SIZE));
+        assertEquals(1_700_000_000_000_000L, PriceTickMessage.timestampMicros(buffer, PriceTickMessage.SIZE));
+    }
+
+    @Test
+    void replayedTicksAreAllReceivedAndApplied() throws Exception {
+        int count = 10_000;
+        PriceFeedReplayClient.replay(new InetSocketAddress("127.0.0.1", listener.getLocalPort()), count, 3);
+
+        awaitTrue(() -> listener.getReceivedCount() == count);
+        assertTrue(listener.getAppliedCount() > 0);
+        for (long id = 1; id <= 3; id++) {
+            double price = fixture.getRepository().findById(id).orElseThrow().getCurrentPrice();
+            assertTrue(price >= 100 && price < 200, "price " + price);
+        }
+    }
+
+    @Test
+    void messageSplitAcrossReadsIsAppliedOnce() throws Exception {
+        byte[] tick = tick(2L, 77.5, 1234L, System.currentTimeMillis() * 1000);
+        try (Socket socket = new Socket("127.0.0.1", listener.getLocalPort())) {
+            socket.setTcpNoDelay(true);
+            OutputStream out = socket.getOutputStream();
+            out.write(tick, 0, 11);
+            out.flush();
+            Thread.sleep(50);
+            assertEquals(0L, listener.getReceivedCount());
+            out.write(tick, 11, tick.length - 11);
+            out.flush();
+            awaitTrue(() -> listener.getReceivedCount() == 1);
+        }
+
+        Stock stock = fixture.getRepository().findById(2L).orElseThrow();
+        assertEquals(77.5, stock.getCurrentPrice());
+        assertEquals(1234L, stock.getVolume());
+        assertEquals(1L, listener.getAppliedCount());
+    }
+
+    @Test
+    void nonPositivePriceIsReceivedButNotApplied() throws Exception {
+        double before = fixture.getRepository().findById(3L).orElseThrow().getCurrentPrice();
+        try (Socket socket = new Socket("127.0.0.1", listener.getLocalPort())) {
+            socket.getOutputStream().write(tick(3L, 0.0, 1L, System.currentTimeMillis() * 1000));
+            awaitTrue(() -> listener.getReceivedCount() == 1);
+        }
+
+        assertEquals(0L, listener.getAppliedCount());
+        assertEquals(before, fixture.getRepository().findById(3L).orElseThrow().getCurrentPrice());
+    }
+
+    private static byte[] tick(long id, double price, long volume, long timestampMicros) {
+        ByteBuffer buffer = ByteBuffer.allocate(PriceTickMessage.SIZE);
+        PriceTickMessage.put(buffer, id, price, volume, timestampMicros);
+        return buffer.array();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.inker.stock.feed;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 시세 피드 재생 클라이언트 (루프백 처리량 측정용)
+ * 주식 ID 1..stockCount에 대해 임의 가격 틱을 count개 보내고 전송 처리량을 출력합니다.
+ *
+ * 사용법: PriceFeedReplayClient [host] [port] [count] [stockCount]
+ */
+public final class PriceFeedReplayClient {
+
+    private static final int BATCH_TICKS = 2048;
+
+    private PriceFeedReplayClient() {}
+
+    public static void main(String[] args) throws IOException {
+        String host = args.length > 0 ? args[0] : "127.0.0.1";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 9300;
+        long count = args.length > 2 ? Long.parseLong(args[2]) : 1_000_000;
+        int stockCount = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+
+        long elapsed = replay(new InetSocketAddress(host, port), count, stockCount);
+        double seconds = elapsed / 1e9;
+        System.out.printf("%d ticks in %.3fs: %.0f ticks/s, %.1f MiB/s%n", count, seconds, count / seconds,
+                count * PriceTickMessage.SIZE / seconds / (1 << 20));
+    }
+
+    /**
+     * 틱을 전송하고 걸린 시간(나노초)을 반환
+     */
+    public static long replay(InetSocketAddress address, long count, int stockCount) throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(PriceTickMessage.SIZE * BATCH_TICKS);
+        long timestamp = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+        try (SocketChannel channel = SocketChannel.open(address)) {
+            channel.socket().setTcpNoDelay(true);
+            long startedAt = System.nanoTime();
+            for (long sent = 0; sent < count; ) {
+                buffer.clear();
+                int ticks = (int) Math.min(BATCH_TICKS, count - sent);
+                for (int i = 0; i < ticks; i++) {
+                    long stockId = 1 + (sent + i) % stockCount;
+                    PriceTickMessage.put(buffer, stockId, 100 + random.nextDouble() * 100,
+                            random.nextLong(1_000_000), timestamp++);
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                sent += ticks;
+            }
+            return System.nanoTime() - startedAt;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.inker.stock.feed;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TickReplayEngineTest {
+
+    @TempDir
+    Path dir;
+
+    private static final class Recorded implements TickReplayEngine.TickConsumer {
+        private final List<Long> ids = new ArrayList<>();
+        private final List<Double> prices = new ArrayList<>();
+        private final List<Long> volumes = new ArrayList<>();
+        private final List<Long> timestamps = new ArrayList<>();
+
+        @Override
+        public void accept(long stockId, double price, long volume, long timestampMicros) {
+            ids.add(stockId);
+            prices.add(price);
+            volumes.add(volume);
+            timestamps.add(timestampMicros);
+        }
+    }
+
+    private Path binary(String name, long[] ids, long[] timestamps) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(ids.length * PriceTickMessage.SIZE);
+        for (int i = 0; i < ids.length; i++) {
+            PriceTickMessage.put(buffer, ids[i], ids[i] + 0.5, i, timestamps[i]);
+        }
+        return Files.write(dir.resolve(name), buffer.array());
+    }
+
+    @Test
+    void binarySegmentsAndWindowsKeepEveryTickInOrder() throws IOException {
+        int count = 1000;
+        long[] ids = new long[count];
+        long[] timestamps = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = i + 1;
+            timestamps[i] = 1_000 + i;
+        }
+        Path file = binary("ticks.bin", ids, timestamps);
+        Recorded recorded = new Recorded();
+
+        // 구간 4개, 레코드 경계와 맞지 않는 100바이트 창
+        TickReplayEngine.Result result = new TickReplayEngine(4, 100, 256)
+                .replay(List.of(file), TickReplayEngine.Format.BINARY, 0, recorded);
+
+        assertEquals(count, result.getTicks());
+        assertEquals(0L, result.getOutOfOrder());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i + 1L, (long) recorded.ids.get(i));
+            assertEquals(i + 1.5, recorded.prices.get(i));
+            assertEquals((long) i, (long) recorded.volumes.get(i));
+            assertEquals(1_000L + i, (long) recorded.timestamps.get(i));
+        }
+    }
+
+    @Test
+    void csvSegmentsSplitOnLineBoundaries() throws IOException {
+        int count = 500;
+        StringBuilder csv = new StringBuilder("stockId,price,volume,timestampMicros\r\n");
+        for (int i = 0; i < count; i++) {
+            // 거래량이 빈 줄은 -1, 마지막 줄은 줄바꿈 없이 끝남
+            csv.append(i + 1).append(',').append(i).append(".25,").append(i % 3 == 0 ? "" : String.valueOf(i))
+                    .append(',').append(5_000 + i).append(i + 1 < count ? "\r\n" : "");
+        }
+        Path file = Files.write(dir.resolve("ticks.csv"), csv.toString().getBytes(StandardCharsets.US_ASCII));
+        Recorded recorded = new Recorded();
+
+        TickReplayEngine.Result result = new TickReplayEngine(4, 64, 256)
+                .replay(List.of(file), TickReplayEngine.Format.CSV, 0, recorded);
+
+        assertEquals(count, result.getTicks());
+        assertEquals(0L, result.getOutOfOrder());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i + 1L, (long) recorded.ids.get(i));
+            assertEquals(i + 0.25, recorded.prices.get(i));
+            assertEquals(i % 3 == 0 ? -1L : i, (long) recorded.volumes.get(i));
+            assertEquals(5_000L + i, (long) recorded.timestamps.get(i));
+        }
+    }
+
+    @Test
+    void filesAreMergedByTimestampWithEarlierFileFirstOnTies() throws IOException {
+        Path first = binary("a.bin", new long[] {1, 1, 1}, new long[] {10, 20, 30});
+        Path second = binary("b.bin", new long[] {2, 2, 2}, new long[] {5, 20, 40});
+        Recorded recorded = new Recorded();
+
+        TickReplayEngine.Result result = new TickReplayEngine(2)
+                .replay(List.of(first, second), TickReplayEngine.Format.BINARY, 0, recorded);
+
+        assertEquals(6L, result.getTicks());
+        assertEquals(0L, result.getOutOfOrder());
+        assertEquals(List.of(5L, 10L, 20L, 20L, 30L, 40L), recorded.timestamps);
+        assertEquals(List.of(2L, 1L, 1L, 2L, 1L, 2L), recorded.ids);
+    }
+
+    @Test
+    void unsortedInputIsReplayedAndCounted() throws IOException {
+        Path file = binary("unsorted.bin", new long[] {1, 2, 3, 4}, new long[] {10, 30, 20, 25});
+        Recorded recorded = new Recorded();
+
+        TickReplayEngine.Result result = new TickReplayEngine(1)
+                .replay(List.of(file), TickReplayEngine.Format.BINARY, 0, recorded);
+
+        // 한 구간 안에서는 파일 순서 그대로 전달하고 앞선 최대 타임스탬프보다 이른 틱을 셈
+        assertEquals(List.of(10L, 30L, 20L, 25L), recorded.timestamps);
+        assertEquals(2L, result.getOutOfOrder());
+    }
+}
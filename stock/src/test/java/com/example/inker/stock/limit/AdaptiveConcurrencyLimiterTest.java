@@ -0,0 +1,91 @@
+package com.example.inker.stock.limit;
+
+import com.example.inker.stock.exception.StockDeadlineExceededException;
+import com.example.inker.stock.exception.StockOverloadedException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long TARGET_MILLIS = 1_000;
+
+    @Test
+    void limitGrowsAdditivelyWhileBusyAndFastUpToTheMaximum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 1, 10, TARGET_MILLIS, 0.5);
+        assertEquals(5, limiter.getLimit());
+
+        int previous = limiter.getLimit();
+        for (int round = 0; round < 200; round++) {
+            // 한도만큼 채운 뒤 목표 지연 안에 모두 끝냄
+            int acquired = 0;
+            while (limiter.tryAcquire()) {
+                acquired++;
+            }
+            assertEquals(limiter.getLimit(), acquired);
+            long start = System.nanoTime();
+            for (int i = 0; i < acquired; i++) {
+                limiter.release(start, false);
+            }
+            // 한 바퀴에 1 넘게 늘지 않음
+            assertTrue(limiter.getLimit() - previous <= 1);
+            previous = limiter.getLimit();
+        }
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void limitDoesNotGrowWhileMostlyIdle() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 1, 10, TARGET_MILLIS, 0.5);
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(System.nanoTime(), false);
+        }
+        assertEquals(5, limiter.getLimit());
+    }
+
+    @Test
+    void slowOrDroppedRequestsShrinkTheLimitOncePerTargetWindow() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 20, TARGET_MILLIS, 0.5);
+        assertEquals(10, limiter.getLimit());
+        long slowStart = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(2 * TARGET_MILLIS);
+
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+        limiter.release(slowStart, false);
+        assertEquals(5, limiter.getLimit());
+        // 같은 구간에 끝난 느린 요청은 다시 깎지 않음
+        limiter.release(slowStart, false);
+        assertEquals(5, limiter.getLimit());
+
+        // 마감을 넘긴 요청도 감소 대상이며 최소 한도 아래로는 내려가지 않음
+        AdaptiveConcurrencyLimiter dropping = new AdaptiveConcurrencyLimiter("test", 2, 4, TARGET_MILLIS, 0.1);
+        assertThrows(StockDeadlineExceededException.class, () -> dropping.call(() -> {
+            throw new StockDeadlineExceededException();
+        }));
+        assertEquals(2, dropping.getLimit());
+        assertEquals(0, dropping.getInFlight());
+    }
+
+    @Test
+    void requestsOverTheLimitAreShedWithoutRunning() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 1, 2, TARGET_MILLIS, 0.5);
+        assertEquals(1, limiter.getLimit());
+        assertTrue(limiter.tryAcquire());
+
+        AtomicBoolean ran = new AtomicBoolean();
+        assertThrows(StockOverloadedException.class, () -> limiter.call(() -> ran.getAndSet(true)));
+        assertFalse(ran.get());
+        assertEquals(1L, limiter.getRejected());
+
+        limiter.release(System.nanoTime(), false);
+        assertTrue(limiter.call(() -> true));
+        assertEquals(0, limiter.getInFlight());
+    }
+}
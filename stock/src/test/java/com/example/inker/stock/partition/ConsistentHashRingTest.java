@@ -0,0 +1,78 @@
+package com.example.inker.stock.partition;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTest {
+
+    private static final List<String> NODES = List.of("http://a:8080", "http://b:8080", "http://c:8080");
+
+    @Test
+    void sameNodesGiveSameOwnersRegardlessOfListOrder() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 1024, 128);
+        ConsistentHashRing reordered = new ConsistentHashRing(List.of(NODES.get(2), NODES.get(0), NODES.get(1)), 1024, 128);
+
+        for (int partition = 0; partition < 1024; partition++) {
+            assertEquals(ring.ownerOf(partition), reordered.ownerOf(partition));
+            assertTrue(NODES.contains(ring.ownerOf(partition)));
+        }
+        int owned = 0;
+        for (String node : NODES) {
+            int count = ring.partitionsOf(node).size();
+            // 가상 노드 128개면 노드별 몫이 1/3에서 크게 벗어나지 않음
+            assertTrue(count > 1024 / 6 && count < 1024 / 2, node + " owns " + count);
+            owned += count;
+        }
+        assertEquals(1024, owned);
+    }
+
+    @Test
+    void addingNodeMovesAboutOneNthAllToTheNewNode() {
+        ConsistentHashRing before = new ConsistentHashRing(NODES, 1024, 128);
+        String added = "http://d:8080";
+        ConsistentHashRing after = new ConsistentHashRing(List.of(NODES.get(0), NODES.get(1), NODES.get(2), added), 1024, 128);
+
+        int moved = 0;
+        for (int partition = 0; partition < 1024; partition++) {
+            if (!before.ownerOf(partition).equals(after.ownerOf(partition))) {
+                assertEquals(added, after.ownerOf(partition));
+                moved++;
+            }
+        }
+        assertEquals(after.partitionsOf(added).size(), moved);
+        assertTrue(moved > 1024 / 8 && moved < 1024 * 3 / 8, "moved " + moved);
+    }
+
+    @Test
+    void symbolAndIdPartitions() {
+        ConsistentHashRing ring = new ConsistentHashRing(NODES, 256, 16);
+
+        assertEquals(ring.partitionOf("AAPL"), ring.partitionOf("aapl"));
+        for (String symbol : List.of("AAPL", "GOOGL", "MSFT", "005930")) {
+            int partition = ring.partitionOf(symbol);
+            assertTrue(partition >= 0 && partition < 256);
+        }
+        assertEquals(0, ring.partitionOfId(0L));
+        assertEquals(5, ring.partitionOfId(256L * 7 + 5));
+        assertEquals(255, ring.partitionOfId(-1L));
+    }
+
+    @Test
+    void hashIsStableAcrossRuns() {
+        // 모든 인스턴스가 같은 링을 만들려면 해시가 String.hashCode나 JVM에 의존하지 않아야 함
+        assertEquals(ConsistentHashRing.hash("partition-0"), ConsistentHashRing.hash(new String("partition-0")));
+        assertEquals(0x59abe90c82fc3687L, ConsistentHashRing.hash("AAPL"));
+    }
+
+    @Test
+    void invalidArgumentsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of(), 256, 16));
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(NODES, 0, 16));
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(NODES, 256, 0));
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.inker.stock.partition;
+
+import com.example.inker.stock.exception.StockNotFoundException;
+import com.example.inker.stock.persistence.StockWriteAheadLog;
+import com.example.inker.stock.repository.StockRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class PartitionRoutingInterceptorTest {
+
+    private HttpServer nodeB;
+    private HttpServer nodeC;
+    private final AtomicInteger statusB = new AtomicInteger();
+    private final AtomicInteger statusC = new AtomicInteger();
+    private final AtomicInteger requestsC = new AtomicInteger();
+    private StockPartitioning partitioning;
+    private PartitionRoutingInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        nodeB = peer("b", statusB, new AtomicInteger());
+        nodeC = peer("c", statusC, requestsC);
+        String nodes = "a=http://127.0.0.1:1,"
+                + "b=http://127.0.0.1:" + nodeB.getAddress().getPort() + ","
+                + "c=http://127.0.0.1:" + nodeC.getAddress().getPort();
+        StockRepository repository = new StockRepository(false);
+        partitioning = new StockPartitioning(repository, new ObjectMapper(), null,
+                new StockWriteAheadLog("", 200, false), nodes, "a", 16, 32, "forward", 2000);
+        interceptor = new PartitionRoutingInterceptor(partitioning, repository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeB.stop(0);
+        nodeC.stop(0);
+    }
+
+    @Test
+    void stockNotFoundMapsTo404() {
+        ResponseStatus status = StockNotFoundException.class.getAnnotation(ResponseStatus.class);
+        assertNotNull(status);
+        assertEquals(HttpStatus.NOT_FOUND, status.value());
+    }
+
+    @Test
+    void idMissingOnOwnerIsAskedOfOtherNodes() throws Exception {
+        statusB.set(404);
+        statusC.set(200);
+
+        MockHttpServletResponse response = get(idOwnedBy("b"));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("c", response.getContentAsString(StandardCharsets.UTF_8));
+        assertEquals("\"7\"", response.getHeader("ETag"));
+    }
+
+    @Test
+    void idMissingEverywhereReturns404() throws Exception {
+        statusB.set(404);
+        statusC.set(404);
+
+        MockHttpServletResponse response = get(idOwnedBy("b"));
+
+        assertEquals(404, response.getStatus());
+    }
+
+    @Test
+    void idFoundOnOwnerIsNotAskedElsewhere() throws Exception {
+        statusB.set(200);
+        statusC.set(200);
+
+        MockHttpServletResponse response = get(idOwnedBy("b"));
+
+        assertEquals(200, response.getStatus());
+        assertEquals("b", response.getContentAsString(StandardCharsets.UTF_8));
+        assertEquals(0, requestsC.get());
+    }
+
+    private MockHttpServletResponse get(long id) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", StockPartitioning.BASE_PATH + "/" + id);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request, response, null));
+        return response;
+    }
+
+    // 샘플 데이터(1~3)와 겹치지 않고 node가 맡은 ID
+    private long idOwnedBy(String node) {
+        for (long id = 100; ; id++) {
+            if (partitioning.ownerOfId(id).equals(node)) {
+                return id;
+            }
+        }
+    }
+
+    // 상태 코드는 status, 본문은 노드 이름인 단건 조회 노드
+    private static HttpServer peer(String name, AtomicInteger status, AtomicInteger requests) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(StockPartitioning.BASE_PATH, exchange -> {
+            requests.incrementAndGet();
+            byte[] body = name.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("ETag", "\"7\"");
+            exchange.sendResponseHeaders(status.get(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        return server;
+    }
+}
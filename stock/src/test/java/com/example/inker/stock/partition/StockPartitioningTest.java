@@ -0,0 +1,217 @@
+package com.example.inker.stock.partition;
+
+import com.example.inker.stock.entity.Stock;
+import com.example.inker.stock.exception.StockValidationException;
+import com.example.inker.stock.persistence.StockMutation;
+import com.example.inker.stock.persistence.StockWriteAheadLog;
+import com.example.inker.stock.repository.StockRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StockPartitioningTest {
+
+    private HttpServer peer;
+    private final AtomicInteger importStatus = new AtomicInteger(200);
+    private final AtomicReference<byte[]> imported = new AtomicReference<>();
+    private StockRepository repository;
+    private StockPartitioning partitioning;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        peer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        peer.createContext(StockPartitioning.BASE_PATH + "/partitions/rows", exchange -> {
+            int status = 200;
+            if (exchange.getRequestMethod().equals("POST")) {
+                imported.set(exchange.getRequestBody().readAllBytes());
+                status = importStatus.get();
+            }
+            // 받아 올 행은 없음
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        peer.start();
+        repository = new StockRepository(false);
+        partitioning = new StockPartitioning(repository, new ObjectMapper(), null,
+                new StockWriteAheadLog("", 200, false),
+                "a=http://127.0.0.1:1,b=http://127.0.0.1:" + peer.getAddress().getPort(), "a", 16, 32, "forward", 2000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        peer.stop(0);
+    }
+
+    @Test
+    void handsOffRowsOfOtherPartitionsAndPrunesThemOnceAccepted() {
+        List<Long> notOwned = notOwnedIds();
+        assertFalse(notOwned.isEmpty());
+
+        partitioning.start();
+
+        assertNotNull(imported.get());
+        assertEquals(notOwned, idsOf(imported.get()));
+        for (Long id : notOwned) {
+            assertTrue(repository.findById(id).isEmpty());
+        }
+        assertEquals(3 - notOwned.size(), repository.findAll().size());
+    }
+
+    @Test
+    void keepsRowsWhenOwnerDoesNotAcceptThem() {
+        importStatus.set(500);
+        List<Long> notOwned = notOwnedIds();
+
+        partitioning.start();
+
+        for (Long id : notOwned) {
+            assertTrue(repository.findById(id).isPresent());
+        }
+        assertEquals(3, repository.findAll().size());
+        assertEquals(Long.valueOf(notOwned.size()), partitioning.snapshot().get("partitionRowsRetained"));
+    }
+
+    @Test
+    void importedRowsKeepTheNewerVersion() {
+        Stock current = repository.save(new Stock(repository.findById(1L).orElseThrow()));
+        Stock stale = new Stock(current);
+        stale.setVersion(current.getVersion() - 1);
+        stale.setCompanyName("stale");
+        byte[] record = StockMutation.encodeUpsert(stale);
+        ByteBuffer body = ByteBuffer.allocate(Integer.BYTES + record.length).putInt(record.length).put(record);
+
+        assertEquals(1L, partitioning.importRows(body.array()));
+        assertEquals(current.getCompanyName(), repository.findById(1L).orElseThrow().getCompanyName());
+    }
+
+    @Test
+    void malformedImportsAreRejectedWithoutApplyingAnyRow() {
+        Stock valid = new Stock(repository.findById(1L).orElseThrow());
+        valid.setVersion(repository.findById(1L).orElseThrow().getVersion() + 1);
+        valid.setCompanyName("imported");
+        byte[] record = StockMutation.encodeUpsert(valid);
+        Stock huge = new Stock(valid);
+        huge.setVersion(Long.MAX_VALUE - 1);
+
+        // 음수 길이, 남은 바이트보다 긴 길이, 잘린 길이 필드
+        assertThrows(StockValidationException.class, () -> partitioning.importRows(rows(record, -4)));
+        assertThrows(StockValidationException.class, () -> partitioning.importRows(rows(record, record.length + 1)));
+        assertThrows(StockValidationException.class, () -> partitioning.importRows(new byte[] {0, 0}));
+        // 해석할 수 없는 레코드, UPSERT가 아닌 레코드, 너무 큰 version
+        assertThrows(StockValidationException.class, () -> partitioning.importRows(rows(new byte[] {3, 1, 2})));
+        assertThrows(StockValidationException.class,
+                () -> partitioning.importRows(rows(StockMutation.encodeDelete(1L, 0L))));
+        assertThrows(StockValidationException.class,
+                () -> partitioning.importRows(rows(record, StockMutation.encodeUpsert(huge))));
+
+        // 앞의 정상 레코드도 반영하지 않음
+        assertEquals("Apple Inc.", repository.findById(1L).orElseThrow().getCompanyName());
+        assertEquals(1L, partitioning.importRows(rows(record)));
+        assertEquals("imported", repository.findById(1L).orElseThrow().getCompanyName());
+    }
+
+    @Test
+    void onlyConfiguredPeersMayExchangeRows() {
+        assertTrue(partitioning.isPeerRequest("b", "127.0.0.1"));
+        assertFalse(partitioning.isPeerRequest("b", "10.1.2.3"));
+        assertFalse(partitioning.isPeerRequest("a", "127.0.0.1"));
+        assertFalse(partitioning.isPeerRequest("c", "127.0.0.1"));
+        assertFalse(partitioning.isPeerRequest(null, "127.0.0.1"));
+
+        StockPartitioning disabled = new StockPartitioning(repository, new ObjectMapper(), null,
+                new StockWriteAheadLog("", 200, false), "", "", 16, 32, "forward", 2000);
+        assertFalse(disabled.isPeerRequest("b", "127.0.0.1"));
+    }
+
+    @Test
+    void rejectsSymbolChangeAcrossPartitions() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b"), 16, 32);
+        String other = "X0";
+        for (int i = 1; ring.partitionOf(other) == ring.partitionOf("AAPL"); i++) {
+            other = "X" + i;
+        }
+        String across = other;
+        String sibling = "Y0";
+        for (int i = 1; ring.partitionOf(sibling) != ring.partitionOf("AAPL"); i++) {
+            sibling = "Y" + i;
+        }
+
+        assertThrows(StockValidationException.class, () -> partitioning.checkSymbolChange("AAPL", across));
+        partitioning.checkSymbolChange("AAPL", sibling);
+        partitioning.checkSymbolChange("AAPL", "aapl");
+    }
+
+    @Test
+    void pathAndQueryEncodesQueryValues() {
+        String target = StockPartitioning.pathAndQuery(StockPartitioning.BASE_PATH + "/search",
+                Map.of("keyword", "A&B=C+D 한"));
+
+        assertEquals(StockPartitioning.BASE_PATH + "/search?keyword=A%26B%3DC%2BD+%ED%95%9C", target);
+        String value = target.substring(target.indexOf("keyword=") + "keyword=".length());
+        assertEquals("A&B=C+D 한", URLDecoder.decode(value, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void pathAndQueryEncodesPathSegments() {
+        assertEquals(StockPartitioning.BASE_PATH + "/sector/Consumer%20Goods",
+                StockPartitioning.pathAndQuery(StockPartitioning.BASE_PATH + "/sector/Consumer Goods", Map.of()));
+    }
+
+    private List<Long> notOwnedIds() {
+        List<Long> ids = new ArrayList<>();
+        for (Stock stock : repository.findAll()) {
+            if (!partitioning.ownsSymbol(stock.getSymbol())) {
+                ids.add(stock.getId());
+            }
+        }
+        return ids;
+    }
+
+    private static byte[] rows(byte[]... records) {
+        int size = 0;
+        for (byte[] record : records) {
+            size += Integer.BYTES + record.length;
+        }
+        ByteBuffer body = ByteBuffer.allocate(size);
+        for (byte[] record : records) {
+            body.putInt(record.length).put(record);
+        }
+        return body.array();
+    }
+
+    // 길이 필드만 바꾼 레코드 하나
+    private static byte[] rows(byte[] record, int length) {
+        return ByteBuffer.allocate(Integer.BYTES + record.length).putInt(length).put(record).array();
+    }
+
+    private static List<Long> idsOf(byte[] rows) {
+        ByteBuffer buffer = ByteBuffer.wrap(rows);
+        List<Long> ids = new ArrayList<>();
+        while (buffer.hasRemaining()) {
+            int length = buffer.getInt();
+            ids.add(StockMutation.decode(buffer.slice(buffer.position(), length)).getId());
+            buffer.position(buffer.position() + length);
+        }
+        return ids;
+    }
+}
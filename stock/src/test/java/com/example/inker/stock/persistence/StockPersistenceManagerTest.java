@@ -0,0 +1,61 @@
+package com.example.inker.stock.persistence;
+
+import com.example.inker.stock.entity.Stock;
+import com.example.inker.stock.repository.StockRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StockPersistenceManagerTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void loggedChangesToSampleRowsSurviveRestartWithoutSnapshot() throws Exception {
+        Path walPath = dir.resolve("stock.wal");
+        Path snapshotPath = dir.resolve("stock.snapshot");
+
+        // 첫 프로세스: 스냅샷을 남기기 전에 샘플 행을 수정/삭제하고 종료
+        StockRepository first = new StockRepository(false);
+        StockWriteAheadLog firstLog = new StockWriteAheadLog(walPath.toString(), 200, true);
+        firstLog.open();
+        Stock changed = new Stock(first.findById(1L).orElseThrow());
+        changed.setCurrentPrice(171.25);
+        firstLog.awaitDurable(firstLog.append(StockMutation.encodeUpsert(first.save(changed))));
+        long deletedVersion = first.deleteIfCurrent(first.findById(2L).orElseThrow());
+        firstLog.awaitDurable(firstLog.append(StockMutation.encodeDelete(2L, deletedVersion)));
+        firstLog.close();
+        assertFalse(Files.exists(snapshotPath));
+
+        // 재시작: 새 저장소의 샘플 행 위에 로그 재생
+        StockRepository restarted = new StockRepository(false);
+        StockWriteAheadLog restartedLog = new StockWriteAheadLog(walPath.toString(), 200, true);
+        restartedLog.open();
+        new StockPersistenceManager(restarted, restartedLog, snapshotPath.toString(), 0).start();
+        restartedLog.close();
+
+        assertEquals(171.25, restarted.findById(1L).orElseThrow().getCurrentPrice());
+        assertFalse(restarted.findById(2L).isPresent());
+        assertTrue(restarted.findById(3L).isPresent());
+        // 재생 결과는 스냅샷으로 남음
+        assertTrue(Files.exists(snapshotPath));
+        assertEquals(2, StockSnapshotFile.read(snapshotPath).size());
+    }
+
+    @Test
+    void logWithoutSnapshotPathIsRejected() {
+        // 스냅샷이 없으면 로그를 잘라낼 시점이 없어 끝없이 커짐
+        StockWriteAheadLog walOnly = new StockWriteAheadLog(dir.resolve("stock.wal").toString(), 200, true);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new StockPersistenceManager(new StockRepository(false), walOnly, "", 60));
+    }
+}
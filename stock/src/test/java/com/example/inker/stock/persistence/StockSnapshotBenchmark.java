@@ -0,0 +1,55 @@
+package com.example.inker.stock.persistence;
+
+import com.example.inker.stock.entity.Stock;
+import com.example.inker.stock.repository.StockRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 스냅샷 기록/적재 시간 측정 (JUnit 테스트가 아닌 실행용)
+ * 인자: [주식 수, 기본 1000000] [반복 수, 기본 5]
+ * 반복마다 기록, 파일 읽기, 저장소 적재(replaceAll) 시간을 출력하며 첫 반복은 워밍업으로 봅니다.
+ */
+public final class StockSnapshotBenchmark {
+
+    private static final String[] SECTORS = {"Technology", "Finance", "Healthcare", "Energy", "Consumer", "Industrial"};
+
+    private StockSnapshotBenchmark() {}
+
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        List<Stock> stocks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Stock stock = new Stock("S" + i, "Company " + i, 100.0 + i % 1000, 99.0 + i % 1000,
+                    1_000L + i, 1.0e9 + i, SECTORS[i % SECTORS.length]);
+            stock.setId((long) i + 1);
+            stock.setVersion(i + 1L);
+            stocks.add(stock);
+        }
+        Path dir = Files.createTempDirectory("stock-snapshot-bench");
+        Path path = dir.resolve("stocks.snapshot");
+        StockRepository repository = new StockRepository(false);
+        try {
+            for (int round = 1; round <= rounds; round++) {
+                long start = System.nanoTime();
+                StockSnapshotFile.write(path, stocks);
+                long written = System.nanoTime();
+                List<Stock> loaded = StockSnapshotFile.read(path);
+                long read = System.nanoTime();
+                repository.replaceAll(loaded);
+                long published = System.nanoTime();
+                System.out.printf("round %d: %d stocks, %d MB, write %d ms, read %d ms, load into repository %d ms%n",
+                        round, loaded.size(), Files.size(path) >> 20, (written - start) / 1_000_000,
+                        (read - written) / 1_000_000, (published - read) / 1_000_000);
+            }
+        } finally {
+            Files.deleteIfExists(path);
+            Files.deleteIfExists(dir);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.inker.stock.persistence;
+
+import com.example.inker.stock.entity.Stock;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StockSnapshotFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripKeepsEveryField() throws IOException {
+        Stock full = new Stock("AAPL", "Apple Inc.", 150.5, 149.0, 1_000_000L, 2.5e12, "Technology");
+        full.setId(7L);
+        full.setVersion(42L);
+        full.setUpdatedAt(LocalDateTime.of(2024, 1, 2, 3, 4, 5, 6_000));
+        Stock sparse = new Stock();
+        sparse.setId(9L);
+        sparse.setSymbol("한글");
+        Path path = dir.resolve("stocks.snapshot");
+
+        StockSnapshotFile.write(path, List.of(full, sparse));
+        List<Stock> loaded = StockSnapshotFile.read(path);
+
+        assertEquals(2, loaded.size());
+        Stock first = loaded.get(0);
+        assertEquals(7L, (long) first.getId());
+        assertEquals("AAPL", first.getSymbol());
+        assertEquals("Apple Inc.", first.getCompanyName());
+        assertEquals(150.5, first.getCurrentPrice());
+        assertEquals(149.0, first.getPreviousPrice());
+        assertEquals(1_000_000L, (long) first.getVolume());
+        assertEquals(2.5e12, first.getMarketCap());
+        assertEquals("Technology", first.getSector());
+        assertEquals(full.getCreatedAtMicros(), first.getCreatedAtMicros());
+        assertEquals(full.getUpdatedAtMicros(), first.getUpdatedAtMicros());
+        assertEquals(42L, first.getVersion());
+
+        Stock second = loaded.get(1);
+        assertEquals("한글", second.getSymbol());
+        assertNull(second.getCompanyName());
+        assertNull(second.getCurrentPrice());
+        assertNull(second.getVolume());
+        assertNull(second.getMarketCap());
+        assertNull(second.getSector());
+        assertNull(second.getCreatedAt());
+    }
+
+    @Test
+    void writeReplacesFileWithoutLeavingTemporaryFile() throws IOException {
+        Path path = dir.resolve("stocks.snapshot");
+        Stock stock = new Stock("A", "A Corp", 1.0, 1.0, 1L, 1.0, "Tech");
+        stock.setId(1L);
+
+        StockSnapshotFile.write(path, List.of(stock, stock));
+        StockSnapshotFile.write(path, List.of(stock));
+
+        assertEquals(1, StockSnapshotFile.read(path).size());
+        assertFalse(Files.exists(dir.resolve("stocks.snapshot.tmp")));
+    }
+
+    @Test
+    void rejectsForeignAndTruncatedFiles() throws IOException {
+        Path foreign = dir.resolve("foreign");
+        Files.write(foreign, new byte[64]);
+        assertThrows(IOException.class, () -> StockSnapshotFile.read(foreign));
+
+        Path path = dir.resolve("stocks.snapshot");
+        Stock stock = new Stock("A", "A Corp", 1.0, 1.0, 1L, 1.0, "Tech");
+        stock.setId(1L);
+        StockSnapshotFile.write(path, List.of(stock));
+        byte[] bytes = Files.readAllBytes(path);
+        Path truncated = dir.resolve("truncated");
+        Files.write(truncated, java.util.Arrays.copyOf(bytes, bytes.length - 3));
+        assertThrows(IOException.class, () -> StockSnapshotFile.read(truncated));
+
+        // 형식 번호가 다른 파일 (배포된 적 없는 형식 1 포함)
+        byte[] otherFormat = bytes.clone();
+        java.nio.ByteBuffer.wrap(otherFormat).order(java.nio.ByteOrder.LITTLE_ENDIAN).putInt(4, 1);
+        Path older = dir.resolve("older");
+        Files.write(older, otherFormat);
+        assertThrows(IOException.class, () -> StockSnapshotFile.read(older));
+    }
+
+    @Test
+    void rejectsStringReferencesOutsideTheStringArea() throws IOException {
+        Path path = dir.resolve("stocks.snapshot");
+        Stock stock = new Stock("A", "A Corp", 1.0, 1.0, 1L, 1.0, "Tech");
+        stock.setId(1L);
+        StockSnapshotFile.write(path, List.of(stock));
+        byte[] bytes = Files.readAllBytes(path);
+        java.nio.ByteBuffer header = java.nio.ByteBuffer.wrap(bytes).order(java.nio.ByteOrder.LITTLE_ENDIAN);
+        // 32바이트 헤더 뒤 첫 레코드의 심볼 참조 위치
+        int symbolRefOffset = 32 + 56;
+        int stringsOffset = (int) header.getLong(16);
+        int symbolRef = header.getInt(symbolRefOffset);
+
+        // 심볼 참조가 문자열 영역 밖을 가리킴
+        byte[] badRef = bytes.clone();
+        java.nio.ByteBuffer.wrap(badRef).order(java.nio.ByteOrder.LITTLE_ENDIAN)
+                .putInt(symbolRefOffset, bytes.length);
+        Path outOfRange = dir.resolve("out-of-range");
+        Files.write(outOfRange, badRef);
+        assertThrows(IOException.class, () -> StockSnapshotFile.read(outOfRange));
+
+        // 음수 참조
+        java.nio.ByteBuffer.wrap(badRef).order(java.nio.ByteOrder.LITTLE_ENDIAN)
+                .putInt(symbolRefOffset, -8);
+        Path negative = dir.resolve("negative");
+        Files.write(negative, badRef);
+        assertThrows(IOException.class, () -> StockSnapshotFile.read(negative));
+
+        // 문자열 길이가 파일 끝을 넘음
+        byte[] badLength = bytes.clone();
+        java.nio.ByteBuffer.wrap(badLength).order(java.nio.ByteOrder.LITTLE_ENDIAN)
+                .putInt(stringsOffset + symbolRef, Integer.MAX_VALUE);
+        Path tooLong = dir.resolve("too-long");
+        Files.write(tooLong, badLength);
+        assertThrows(IOException.class, () -> StockSnapshotFile.read(tooLong));
+    }
+}
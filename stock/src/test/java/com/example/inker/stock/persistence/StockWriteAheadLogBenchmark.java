@@ -0,0 +1,67 @@
+package com.example.inker.stock.persistence;
+
+import com.example.inker.stock.entity.Stock;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 변경 로그 쓰기 처리량 측정 (JUnit 테스트가 아닌 실행용)
+ * 인자: [스레드 수, 기본 16] [측정 초, 기본 5] [최대 묶음 지연 마이크로초, 기본 200]
+ * 쓰기 요청처럼 스레드마다 UPSERT 레코드를 추가하고 기록될 때까지 기다리며,
+ * 로그 끔 / fsync 없이 기록 / fsync까지 기록 세 경우의 초당 쓰기 수와 평균 지연을 출력합니다.
+ */
+public final class StockWriteAheadLogBenchmark {
+
+    private StockWriteAheadLogBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        long batchDelayMicros = args.length > 2 ? Long.parseLong(args[2]) : 200;
+        Path dir = Files.createTempDirectory("stock-wal-bench");
+        try {
+            run("off", new StockWriteAheadLog("", batchDelayMicros, false), threads, seconds);
+            run("write", new StockWriteAheadLog(dir.resolve("write.wal").toString(), batchDelayMicros, false), threads, seconds);
+            run("fsync", new StockWriteAheadLog(dir.resolve("fsync.wal").toString(), batchDelayMicros, true), threads, seconds);
+        } finally {
+            try (var files = Files.list(dir)) {
+                for (Path file : files.toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static void run(String mode, StockWriteAheadLog log, int threads, int seconds) throws Exception {
+        log.open();
+        LongAdder writes = new LongAdder();
+        LongAdder latencyNanos = new LongAdder();
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            long base = t * 1_000_000_000L;
+            Thread worker = new Thread(() -> {
+                Stock stock = new Stock("S" + base, "Company", 100.0, 99.0, 1_000L, 1.0e9, "Technology");
+                for (long i = 1; System.nanoTime() < end; i++) {
+                    stock.setId(base + i);
+                    stock.setVersion(i);
+                    long start = System.nanoTime();
+                    log.awaitDurable(log.append(StockMutation.encodeUpsert(stock)));
+                    latencyNanos.add(System.nanoTime() - start);
+                    writes.increment();
+                }
+                done.countDown();
+            });
+            worker.start();
+        }
+        done.await();
+        log.close();
+        long total = writes.sum();
+        System.out.printf("%-5s threads=%d: %.0f writes/s, mean latency %.1f us%n",
+                mode, threads, total / (double) seconds, latencyNanos.sum() / 1_000.0 / Math.max(1, total));
+    }
+}
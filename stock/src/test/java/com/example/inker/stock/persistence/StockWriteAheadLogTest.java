@@ -0,0 +1,216 @@
+package com.example.inker.stock.persistence;
+
+import com.example.inker.stock.entity.Stock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class StockWriteAheadLogTest {
+
+    @TempDir
+    Path dir;
+
+    private final List<StockWriteAheadLog> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeLogs() throws Exception {
+        for (StockWriteAheadLog log : opened) {
+            log.close();
+        }
+    }
+
+    @Test
+    void replaysAppendedRecordsInOrder() throws Exception {
+        Path path = dir.resolve("stock.wal");
+        StockWriteAheadLog log = open(path);
+        log.awaitDurable(log.append(StockMutation.encodeUpsert(stock(1L, 10L, "AAPL"))));
+        log.awaitDurable(log.append(StockMutation.encodeUpsert(stock(2L, 11L, "GOOGL"))));
+        log.awaitDurable(log.append(StockMutation.encodeDelete(1L, 12L)));
+        log.close();
+        opened.remove(log);
+
+        List<StockMutation> replayed = replay(path);
+
+        assertEquals(3, replayed.size());
+        assertEquals(StockMutation.Type.UPSERT, replayed.get(0).getType());
+        assertEquals("AAPL", replayed.get(0).getStock().getSymbol());
+        assertEquals(10L, replayed.get(0).getVersion());
+        assertEquals(123.5, replayed.get(0).getStock().getCurrentPrice());
+        assertEquals(2L, replayed.get(1).getId());
+        assertEquals(StockMutation.Type.DELETE, replayed.get(2).getType());
+        assertEquals(1L, replayed.get(2).getId());
+        assertEquals(12L, replayed.get(2).getVersion());
+        assertNull(replayed.get(2).getStock());
+    }
+
+    @Test
+    void truncateBeforeKeepsOnlyLaterRecords() throws Exception {
+        Path path = dir.resolve("stock.wal");
+        StockWriteAheadLog log = open(path);
+        log.awaitDurable(log.append(StockMutation.encodeUpsert(stock(1L, 1L, "A"))));
+        long snapshotted = log.durablePosition();
+        log.awaitDurable(log.append(StockMutation.encodeUpsert(stock(2L, 2L, "B"))));
+
+        log.truncateBefore(snapshotted);
+        // 잘라낸 뒤에도 이어서 기록
+        log.awaitDurable(log.append(StockMutation.encodeUpsert(stock(3L, 3L, "C"))));
+        log.close();
+        opened.remove(log);
+
+        List<StockMutation> replayed = replay(path);
+        assertEquals(2, replayed.size());
+        assertEquals(2L, replayed.get(0).getId());
+        assertEquals(3L, replayed.get(1).getId());
+    }
+
+    @Test
+    void tornTailIsCutOffAndLogStaysAppendable() throws Exception {
+        Path path = dir.resolve("stock.wal");
+        StockWriteAheadLog log = open(path);
+        log.awaitDurable(log.append(StockMutation.encodeUpsert(stock(1L, 1L, "A"))));
+        long validEnd = log.durablePosition();
+        log.close();
+        opened.remove(log);
+        // 기록 도중 멈춘 레코드: 헤더와 본문 일부만 남음
+        byte[] record = StockMutation.encodeUpsert(stock(2L, 2L, "B"));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.allocate(8 + 5).putInt(record.length).putInt(0).put(record, 0, 5).flip());
+        }
+
+        StockWriteAheadLog reopened = open(path);
+        List<StockMutation> replayed = new ArrayList<>();
+        assertEquals(1L, reopened.replay(replayed::add));
+        assertEquals(validEnd, Files.size(path));
+        reopened.awaitDurable(reopened.append(StockMutation.encodeUpsert(stock(3L, 3L, "C"))));
+        reopened.close();
+        opened.remove(reopened);
+
+        List<StockMutation> afterAppend = replay(path);
+        assertEquals(2, afterAppend.size());
+        assertEquals(3L, afterAppend.get(1).getId());
+    }
+
+    @Test
+    void crcMismatchEndsReplayAtLastValidRecord() throws Exception {
+        Path path = dir.resolve("stock.wal");
+        StockWriteAheadLog log = open(path);
+        log.awaitDurable(log.append(StockMutation.encodeUpsert(stock(1L, 1L, "A"))));
+        long firstEnd = log.durablePosition();
+        log.awaitDurable(log.append(StockMutation.encodeUpsert(stock(2L, 2L, "B"))));
+        log.awaitDurable(log.append(StockMutation.encodeUpsert(stock(3L, 3L, "C"))));
+        log.close();
+        opened.remove(log);
+        // 두 번째 레코드 본문 한 바이트 손상
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer one = ByteBuffer.allocate(1);
+            channel.read(one, firstEnd + 8 + 10);
+            one.put(0, (byte) (one.get(0) ^ 0x5a)).rewind();
+            channel.write(one, firstEnd + 8 + 10);
+        }
+
+        List<StockMutation> replayed = replay(path);
+
+        assertEquals(1, replayed.size());
+        assertEquals(1L, replayed.get(0).getId());
+        assertEquals(firstEnd, Files.size(path));
+    }
+
+    @Test
+    void unknownRecordTypeEndsReplayLikeTornTail() throws Exception {
+        Path path = dir.resolve("stock.wal");
+        StockWriteAheadLog log = open(path);
+        log.awaitDurable(log.append(StockMutation.encodeUpsert(stock(1L, 1L, "A"))));
+        long firstEnd = log.durablePosition();
+        log.close();
+        opened.remove(log);
+        // CRC는 맞지만 타입을 알 수 없는 레코드 뒤에 정상 레코드
+        byte[] unknown = StockMutation.encodeUpsert(stock(2L, 2L, "B"));
+        unknown[0] = 1;
+        byte[] valid = StockMutation.encodeUpsert(stock(3L, 3L, "C"));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.APPEND)) {
+            channel.write(record(unknown));
+            channel.write(record(valid));
+        }
+
+        List<StockMutation> replayed = replay(path);
+
+        assertEquals(1, replayed.size());
+        assertEquals(1L, replayed.get(0).getId());
+        assertEquals(firstEnd, Files.size(path));
+    }
+
+    @Test
+    void concurrentAppendsAreAllDurable() throws Exception {
+        Path path = dir.resolve("stock.wal");
+        StockWriteAheadLog log = new StockWriteAheadLog(path.toString(), 1_000, true);
+        log.open();
+        opened.add(log);
+        int threads = 4;
+        int perThread = 250;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long base = t * (long) perThread;
+            writers.add(executor.submit(() -> {
+                for (int i = 1; i <= perThread; i++) {
+                    CompletableFuture<Void> durable = log.append(StockMutation.encodeDelete(base + i, base + i));
+                    log.awaitDurable(durable);
+                }
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        executor.shutdown();
+        log.close();
+        opened.remove(log);
+
+        List<StockMutation> replayed = replay(path);
+        assertEquals(threads * perThread, replayed.size());
+        assertEquals(threads * (long) perThread, replayed.stream().mapToLong(StockMutation::getId).distinct().count());
+    }
+
+    private static ByteBuffer record(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return ByteBuffer.allocate(8 + payload.length).putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+    }
+
+    private StockWriteAheadLog open(Path path) throws IOException {
+        StockWriteAheadLog log = new StockWriteAheadLog(path.toString(), 200, true);
+        log.open();
+        opened.add(log);
+        return log;
+    }
+
+    private List<StockMutation> replay(Path path) throws Exception {
+        StockWriteAheadLog log = open(path);
+        List<StockMutation> replayed = new ArrayList<>();
+        log.replay(replayed::add);
+        return replayed;
+    }
+
+    private static Stock stock(long id, long version, String symbol) {
+        Stock stock = new Stock(symbol, symbol + " Corp", 123.5, 120.0, 1_000L, 1.0e9, "Technology");
+        stock.setId(id);
+        stock.setVersion(version);
+        return stock;
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.inker.stock.replication;
+
+import com.example.inker.stock.entity.Stock;
+import com.example.inker.stock.persistence.StockMutation;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplicationProtocolTest {
+
+    private final LongAdder rawBytes = new LongAdder();
+    private final LongAdder sentBytes = new LongAdder();
+
+    @Test
+    void framesRoundTripWithRecordsInOrder() throws IOException {
+        ReplicationProtocol.Writer writer = new ReplicationProtocol.Writer(rawBytes, sentBytes);
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(stream);
+        byte[][] records = new byte[3][];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = StockMutation.encodeUpsert(stock(i + 1));
+            writer.add(records[i]);
+        }
+        writer.write(out, ReplicationProtocol.ENTRIES, 42L, 10L, 13L, 1_000L);
+        writer.add(StockMutation.encodeDelete(9L, 77L));
+        writer.write(out, ReplicationProtocol.ENTRIES, 42L, 13L, 14L, 2_000L);
+        writer.write(out, ReplicationProtocol.HEARTBEAT, 42L, 14L, 14L, 3_000L);
+        writer.close();
+
+        ReplicationProtocol.Reader reader = new ReplicationProtocol.Reader();
+        ReplicationProtocol.Frame frame = new ReplicationProtocol.Frame();
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(stream.toByteArray()));
+
+        reader.read(in, frame);
+        assertEquals(ReplicationProtocol.ENTRIES, frame.type);
+        assertEquals(42L, frame.epoch);
+        assertEquals(10L, frame.firstOffset);
+        assertEquals(13L, frame.headOffset);
+        assertEquals(1_000L, frame.timestampMillis);
+        assertEquals(3, frame.count);
+        for (byte[] record : records) {
+            assertArrayEquals(record, bytes(ReplicationProtocol.Reader.nextRecord(frame)));
+        }
+        assertFalse(frame.records.hasRemaining());
+
+        reader.read(in, frame);
+        assertEquals(1, frame.count);
+        StockMutation delete = StockMutation.decode(ReplicationProtocol.Reader.nextRecord(frame));
+        assertEquals(StockMutation.Type.DELETE, delete.getType());
+        assertEquals(9L, delete.getId());
+        assertEquals(77L, delete.getVersion());
+
+        reader.read(in, frame);
+        assertEquals(ReplicationProtocol.HEARTBEAT, frame.type);
+        assertEquals(0, frame.count);
+        assertEquals(14L, frame.headOffset);
+        assertFalse(frame.records.hasRemaining());
+
+        assertThrows(EOFException.class, () -> reader.read(in, frame));
+        reader.close();
+    }
+
+    @Test
+    void largeFramesGrowBuffersAndCompress() throws IOException {
+        ReplicationProtocol.Writer writer = new ReplicationProtocol.Writer(rawBytes, sentBytes);
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        int count = 5_000;
+        for (int i = 0; i < count; i++) {
+            writer.add(StockMutation.encodeUpsert(stock(i + 1)));
+        }
+        writer.write(new DataOutputStream(stream), ReplicationProtocol.SNAPSHOT, 1L, 0L, 0L, 0L);
+        writer.close();
+
+        // 본문이 기본 버퍼(64KiB)보다 크고, 비슷한 행은 압축이 잘 됨
+        assertTrue(rawBytes.sum() > 64 * 1024);
+        assertTrue(sentBytes.sum() * 3 < rawBytes.sum(), sentBytes.sum() + "/" + rawBytes.sum());
+
+        ReplicationProtocol.Reader reader = new ReplicationProtocol.Reader();
+        ReplicationProtocol.Frame frame = new ReplicationProtocol.Frame();
+        reader.read(new DataInputStream(new ByteArrayInputStream(stream.toByteArray())), frame);
+        assertEquals(count, frame.count);
+        for (int i = 0; i < count; i++) {
+            Stock stock = StockMutation.decode(ReplicationProtocol.Reader.nextRecord(frame)).getStock();
+            assertEquals((long) stock.getId(), i + 1L);
+            assertEquals("S" + (i + 1), stock.getSymbol());
+        }
+        reader.close();
+    }
+
+    @Test
+    void corruptFramesAreRejected() throws IOException {
+        ReplicationProtocol.Writer writer = new ReplicationProtocol.Writer(rawBytes, sentBytes);
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        writer.add(StockMutation.encodeUpsert(stock(1)));
+        writer.write(new DataOutputStream(stream), ReplicationProtocol.ENTRIES, 1L, 0L, 1L, 0L);
+        writer.close();
+        byte[] frame = stream.toByteArray();
+
+        // 헤더 뒤 원본 길이를 음수로
+        byte[] negative = frame.clone();
+        ByteBuffer.wrap(negative).putInt(1 + 8 * 4 + 4, -1);
+        assertThrows(IOException.class, () -> read(negative));
+
+        // 원본 길이를 실제보다 크게
+        byte[] longer = frame.clone();
+        ByteBuffer header = ByteBuffer.wrap(longer);
+        header.putInt(1 + 8 * 4 + 4, header.getInt(1 + 8 * 4 + 4) + 10);
+        assertThrows(IOException.class, () -> read(longer));
+
+        // 압축 본문 손상
+        byte[] garbled = frame.clone();
+        Arrays.fill(garbled, 1 + 8 * 4 + 4 * 3, garbled.length, (byte) 0x7f);
+        assertThrows(IOException.class, () -> read(garbled));
+    }
+
+    @Test
+    void logKeepsOnlyRecentEntries() throws InterruptedException {
+        ReplicationLog log = new ReplicationLog(4);
+        ReplicationLog.Batch batch = new ReplicationLog.Batch(8);
+        assertEquals(0, log.read(0L, batch, 0L));
+        assertTrue(log.contains(0L));
+
+        for (int i = 1; i <= 6; i++) {
+            log.appendUpsert(stock(i));
+        }
+        log.appendDelete(3L);
+
+        assertEquals(7L, log.head());
+        assertFalse(log.contains(2L));
+        assertTrue(log.contains(3L));
+        assertTrue(log.contains(7L));
+        assertFalse(log.contains(8L));
+        assertEquals(-1, log.read(2L, batch, 0L));
+        assertEquals(4, log.read(3L, batch, 0L));
+        assertEquals(7L, batch.head);
+        assertEquals(4L, (long) ((Stock) batch.entries[0]).getId());
+        assertEquals(Long.valueOf(3L), batch.entries[3]);
+        assertEquals(0, log.read(7L, batch, 10L));
+    }
+
+    private static void read(byte[] frame) throws IOException {
+        ReplicationProtocol.Reader reader = new ReplicationProtocol.Reader();
+        try {
+            reader.read(new DataInputStream(new ByteArrayInputStream(frame)), new ReplicationProtocol.Frame());
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    static Stock stock(long id) {
+        Stock stock = new Stock("S" + id, "Stock " + id, 10.0 + id, 10.0, 100L, 1000.0 * id, "Tech");
+        stock.setId(id);
+        stock.setVersion(id);
+        return stock;
+    }
+}
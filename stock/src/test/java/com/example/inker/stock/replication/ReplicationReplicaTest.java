@@ -0,0 +1,115 @@
+package com.example.inker.stock.replication;
+
+import com.example.inker.stock.entity.Stock;
+import com.example.inker.stock.persistence.StockMutation;
+import com.example.inker.stock.repository.StockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplicationReplicaTest {
+
+    private final StockRepository primaryRepository = new StockRepository(false);
+    private final StockRepository replicaRepository = new StockRepository(false);
+    private final ReplicationLog replicationLog = new ReplicationLog(1024);
+    private ReplicationPrimary primary;
+    private ReplicationReplica replica;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (replica != null) {
+            replica.stop();
+        }
+        if (primary != null) {
+            primary.stop();
+        }
+    }
+
+    @Test
+    void replicaLoadsFullSyncThenAppliesStreamedChanges() throws Exception {
+        primaryRepository.addChangeListener(replicationLog::appendUpsert);
+        primaryRepository.addDeleteListener(replicationLog::appendDelete);
+        // 복제본이 모르는 행: 전체 동기화로 받아야 함
+        insert("EXTRA");
+        primary = startPrimary(0);
+        replica = new ReplicationReplica(replicaRepository, "127.0.0.1", primary.getLocalPort(), 2_000);
+        replica.start();
+
+        awaitTrue(() -> replica.getSnapshotsLoaded() == 1 && replica.getAppliedOffset() == replicationLog.head());
+        assertSameRows();
+
+        Stock first = primaryRepository.findById(1L).orElseThrow();
+        Stock changed = new Stock(first);
+        changed.setCurrentPrice(first.getCurrentPrice() + 1);
+        assertTrue(primaryRepository.compareAndSet(first, changed));
+        primaryRepository.delete(2L);
+        for (int i = 0; i < 50; i++) {
+            insert("N" + i);
+        }
+
+        awaitTrue(() -> replica.getAppliedOffset() == replicationLog.head());
+        assertSameRows();
+        assertEquals(52L, replica.getEntriesApplied());
+        assertEquals(0L, replica.getLagEntries());
+    }
+
+    @Test
+    void reconnectResumesFromAppliedOffsetWithoutFullSync() throws Exception {
+        primaryRepository.addChangeListener(replicationLog::appendUpsert);
+        primaryRepository.addDeleteListener(replicationLog::appendDelete);
+        primary = startPrimary(0);
+        int port = primary.getLocalPort();
+        replica = new ReplicationReplica(replicaRepository, "127.0.0.1", port, 2_000);
+        replica.start();
+        insert("A");
+        awaitTrue(() -> replica.getAppliedOffset() == replicationLog.head() && replica.getSnapshotsLoaded() == 1);
+
+        // primary가 내려간 사이의 변경은 같은 epoch의 로그에 남아 있으므로 이어 받음
+        primary.stop();
+        awaitTrue(() -> !replica.isConnected());
+        insert("B");
+        primaryRepository.delete(3L);
+        primary = startPrimary(port);
+
+        awaitTrue(() -> replica.isConnected() && replica.getAppliedOffset() == replicationLog.head());
+        assertSameRows();
+        assertEquals(1L, replica.getSnapshotsLoaded());
+        assertTrue(replica.getReconnects() >= 1);
+    }
+
+    private ReplicationPrimary startPrimary(int port) throws Exception {
+        ReplicationPrimary started = new ReplicationPrimary(primaryRepository, replicationLog, 42L, 16, 50L);
+        started.start("127.0.0.1", port);
+        return started;
+    }
+
+    private void insert(String symbol) {
+        Stock stock = new Stock(symbol, symbol + " Corp", 10.0, 10.0, 100L, 1000.0, "Tech");
+        stock.setId(primaryRepository.nextId());
+        primaryRepository.insert(stock);
+    }
+
+    private void assertSameRows() {
+        List<Stock> expected = primaryRepository.findAll();
+        List<Stock> actual = replicaRepository.findAll();
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(StockMutation.encodeUpsert(expected.get(i)), StockMutation.encodeUpsert(actual.get(i)));
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(10);
+        }
+    }
+}
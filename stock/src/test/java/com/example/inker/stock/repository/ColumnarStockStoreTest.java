@@ -0,0 +1,133 @@
+package com.example.inker.stock.repository;
+
+import com.example.inker.stock.dto.SectorSummaryResponse;
+import com.example.inker.stock.entity.Stock;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ColumnarStockStoreTest {
+
+    @Test
+    void topScansRankByColumnWithIdTieBreakAndMissingValuesLast() {
+        ColumnarStockStore store = new ColumnarStockStore();
+        store.upsert(stock(5L, 110.0, 100.0, 500.0, 10L, "Tech"));
+        store.upsert(stock(2L, 120.0, 100.0, 900.0, null, "Tech"));
+        store.upsert(stock(9L, null, 100.0, null, 30L, "Energy"));
+        store.upsert(stock(1L, 110.0, 100.0, 700.0, 20L, "tech"));
+        store.upsert(stock(4L, 90.0, 100.0, 100.0, 30L, "Energy"));
+
+        assertArrayEquals(new long[] {2L, 1L, 5L, 4L, 9L}, store.findTop(ColumnarStockStore.Ranking.GAIN, 10).getIds());
+        assertArrayEquals(new long[] {2L, 1L}, store.findTop(ColumnarStockStore.Ranking.GAIN, 2).getIds());
+        assertArrayEquals(new long[] {2L, 1L, 5L, 4L, 9L}, store.findTop(ColumnarStockStore.Ranking.MARKET_CAP, 5).getIds());
+        assertArrayEquals(new long[0], store.findTop(ColumnarStockStore.Ranking.GAIN, 0).getIds());
+        assertArrayEquals(new long[] {5L, 2L, 1L}, store.findIdsBySector("TECH"));
+    }
+
+    @Test
+    void updatesAndCompactionKeepColumnsAligned() {
+        ColumnarStockStore store = new ColumnarStockStore();
+        for (long id = 1; id <= 3_000; id++) {
+            store.upsert(stock(id, 100.0 + id, 100.0, (double) id, id, id % 2 == 0 ? "Even" : "Odd"));
+        }
+        // 툼스톤이 절반을 넘어 압축됨
+        for (long id = 1; id <= 2_000; id++) {
+            store.remove(id);
+        }
+        store.upsert(stock(2_001L, 100.0, 100.0, 1.0e9, 0L, "Odd"));
+
+        assertEquals(1_000, store.size());
+        assertArrayEquals(new long[] {3_000L, 2_999L}, store.findTop(ColumnarStockStore.Ranking.GAIN, 2).getIds());
+        assertArrayEquals(new long[] {2_001L, 3_000L}, store.findTop(ColumnarStockStore.Ranking.MARKET_CAP, 2).getIds());
+        assertEquals(500, store.findIdsBySector("odd").length);
+
+        // 압축 뒤에도 심볼과 거래량 컬럼이 같은 행을 가리킴
+        SectorSummaryResponse odd = store.summarizeSector("ODD", null);
+        assertEquals(500, odd.getCount());
+        assertEquals("S2001", odd.getSymbols().get(0));
+        assertEquals("S2003", odd.getSymbols().get(1));
+        // 홀수 ID 2001~2999의 거래량 합에서 0으로 바뀐 2001을 뺀 값
+        assertEquals(1_250_000L - 2_001L, odd.getTotalVolume());
+    }
+
+    @Test
+    void sectorSummaryAggregatesColumnsAndSkipsMissingValues() {
+        ColumnarStockStore store = new ColumnarStockStore();
+        store.upsert(stock(1L, 110.0, 100.0, 500.0, 10L, "Tech"));
+        store.upsert(stock(2L, 90.0, 100.0, null, 20L, "tech"));
+        store.upsert(stock(3L, null, 100.0, 300.0, null, "Tech"));
+        store.upsert(stock(4L, 50.0, 0.0, 100.0, 5L, "Tech"));
+        store.upsert(stock(5L, 200.0, 100.0, 1_000.0, 40L, "Energy"));
+
+        SectorSummaryResponse tech = store.summarizeSector("TECH", null);
+        assertEquals(4, tech.getCount());
+        assertEquals(List.of("S1", "S2", "S3", "S4"), tech.getSymbols());
+        assertEquals(900.0, tech.getTotalMarketCap());
+        assertEquals(35L, tech.getTotalVolume());
+        // 가격이 없거나 전일가가 0인 행은 평균에서 제외: (10% + -10%) / 2
+        assertEquals(0.0, tech.getAverageChangePercent(), 1e-9);
+
+        SectorSummaryResponse missing = store.summarizeSector("Utilities", null);
+        assertEquals(0, missing.getCount());
+        assertNull(missing.getAverageChangePercent());
+    }
+
+    @Test
+    void resolveRequiresSameVersionInSnapshot() {
+        StockRepository repository = new StockRepository(true);
+        StockSnapshot before = repository.snapshot();
+        ColumnarStockStore.Ranked ranked = repository.columnar().findTop(ColumnarStockStore.Ranking.GAIN, 3);
+
+        List<Stock> resolved = ranked.resolve(before);
+        assertNotNull(resolved);
+        List<Long> ids = new ArrayList<>();
+        resolved.forEach(stock -> ids.add(stock.getId()));
+        // 샘플 데이터 등락률: AAPL 3.4%, MSFT 1.7%, GOOGL 1.8%
+        assertEquals(List.of(1L, 2L, 3L), ids);
+
+        Stock first = before.get(1L);
+        Stock changed = new Stock(first);
+        changed.setCurrentPrice(1.0);
+        repository.compareAndSet(first, changed);
+
+        // 스캔 뒤 바뀐 행이 있으면 스냅샷 순회로 돌아가도록 null
+        assertNull(ranked.resolve(repository.snapshot()));
+        ColumnarStockStore.Ranked rescanned = repository.columnar().findTop(ColumnarStockStore.Ranking.GAIN, 3);
+        assertArrayEquals(new long[] {2L, 3L, 1L}, rescanned.getIds());
+        assertNotNull(rescanned.resolve(repository.snapshot()));
+    }
+
+    @Test
+    void scansOfALaggingStoreAreRejected() {
+        StockRepository repository = new StockRepository(true);
+        StockSnapshot current = repository.snapshot();
+        assertNotNull(repository.columnar().findTop(ColumnarStockStore.Ranking.GAIN, 1, current));
+
+        // 순위 밖의 행이 스냅샷에서만 올라온 상태 (컬럼형 인덱스는 아직 갱신 전)
+        Stock second = new Stock(current.get(2L));
+        second.setCurrentPrice(second.getPreviousPrice() * 2);
+        second.setVersion(current.get(2L).getVersion() + 1);
+        StockSnapshot ahead = current.with(2L, second);
+
+        // 상위 1개 행만 보면 같은 version이라 확인을 통과하지만 순위는 틀림
+        assertNotNull(repository.columnar().findTop(ColumnarStockStore.Ranking.GAIN, 1).resolve(ahead));
+        assertNull(repository.columnar().findTop(ColumnarStockStore.Ranking.GAIN, 1, ahead));
+        assertNull(repository.columnar().findIdsBySector("Technology", ahead));
+
+        repository.columnar().upsert(second);
+        assertArrayEquals(new long[] {2L}, repository.columnar().findTop(ColumnarStockStore.Ranking.GAIN, 1, ahead).getIds());
+    }
+
+    private static Stock stock(long id, Double current, Double previous, Double marketCap, Long volume, String sector) {
+        Stock stock = new Stock("S" + id, "Stock " + id, current, previous, volume, marketCap, sector);
+        stock.setId(id);
+        stock.setVersion(id);
+        return stock;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.inker.stock.repository;
+
+import com.example.inker.stock.entity.Stock;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StockRepositoryTest {
+
+    @Test
+    void marketCapPagesCoverEveryRowInRankOrder() {
+        StockRepository repository = new StockRepository(false);
+        for (int i = 0; i < 10; i++) {
+            Stock stock = new Stock("S" + i, "Stock " + i, 10.0, 10.0, 100L, (double) (i % 4) * 1000, "Tech");
+            stock.setId(repository.nextId());
+            repository.insert(stock);
+        }
+
+        List<Long> seen = new ArrayList<>();
+        MarketCapIndex.Key cursor = null;
+        double previousCap = Double.POSITIVE_INFINITY;
+        do {
+            StockRepository.MarketCapPage page = repository.findByMarketCapAfter(cursor, 3);
+            for (Stock stock : page.getStocks()) {
+                assertTrue(stock.getMarketCap() <= previousCap);
+                previousCap = stock.getMarketCap();
+                seen.add(stock.getId());
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(13, seen.size());
+        assertEquals(13L, seen.stream().distinct().count());
+    }
+
+    @Test
+    void cursorComesFromIndexKeyNotCurrentRow() {
+        StockRepository repository = new StockRepository(false);
+
+        StockRepository.MarketCapPage first = repository.findByMarketCapAfter(null, 1);
+        Stock top = first.getStocks().get(0);
+        assertNotNull(first.getNextCursor());
+        assertEquals((long) top.getId(), first.getNextCursor().getId());
+
+        // 커서를 받은 뒤 1위 행의 시가총액이 바뀌어도 다음 페이지는 그 뒤 순위부터
+        Stock changed = new Stock(top);
+        changed.setMarketCap(1.0);
+        repository.compareAndSet(top, changed);
+        StockRepository.MarketCapPage rest = repository.findByMarketCapAfter(first.getNextCursor(), 10);
+
+        assertEquals(3, rest.getStocks().size());
+        assertNull(rest.getNextCursor());
+    }
+
+    @Test
+    void exactlyFullLastPageEndsWithEmptyPage() {
+        StockRepository repository = new StockRepository(false);
+
+        StockRepository.MarketCapPage page = repository.findByMarketCapAfter(null, 3);
+        assertEquals(3, page.getStocks().size());
+        StockRepository.MarketCapPage next = repository.findByMarketCapAfter(page.getNextCursor(), 3);
+
+        assertEquals(0, next.getStocks().size());
+        assertNull(next.getNextCursor());
+    }
+
+    @Test
+    void everyPublishedVersionGetsALargerVersionNumber() {
+        StockRepository repository = new StockRepository(false);
+        StockSnapshot before = repository.snapshot();
+
+        Stock saved = repository.save(new Stock(repository.findById(1L).orElseThrow()));
+        StockSnapshot afterSave = repository.snapshot();
+        // 변경 번호를 먼저 받고 게시하므로 게시 번호는 그 행의 version보다 작지 않음
+        assertTrue(afterSave.version() > before.version());
+        assertTrue(afterSave.version() >= saved.getVersion());
+
+        repository.commitAll(new long[] {2L}, (index, current) -> new Stock(current));
+        StockSnapshot afterCommit = repository.snapshot();
+        assertTrue(afterCommit.version() > afterSave.version());
+
+        repository.deleteIfCurrent(repository.findById(3L).orElseThrow());
+        assertTrue(repository.snapshot().version() > afterCommit.version());
+
+        // 잡아 둔 버전의 번호와 내용은 그대로
+        assertNotEquals(before.version(), afterSave.version());
+        assertEquals(3, before.size());
+        assertEquals(3, afterCommit.size());
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.inker.stock.repository;
+
+import com.example.inker.stock.entity.Stock;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StockSnapshotTest {
+
+    @Test
+    void putAndGetAcrossLevels() {
+        long[] ids = {1L, 31L, 32L, 1_000L, 33_000L, 1L << 40, Long.MAX_VALUE};
+        StockSnapshot snapshot = StockSnapshot.EMPTY;
+        for (long id : ids) {
+            snapshot = snapshot.with(id, stock(id));
+        }
+
+        assertEquals(ids.length, snapshot.size());
+        for (long id : ids) {
+            assertEquals((long) snapshot.get(id).getId(), id);
+        }
+        assertNull(snapshot.get(2L));
+        assertNull(snapshot.get(-1L));
+        assertEquals(Long.MAX_VALUE, snapshot.lastId());
+    }
+
+    @Test
+    void olderVersionsAreUnchanged() {
+        StockSnapshot first = StockSnapshot.EMPTY.with(1L, stock(1L)).with(2L, stock(2L));
+        Stock replacement = stock(2L);
+        StockSnapshot second = first.with(2L, replacement).with(3L, stock(3L));
+        StockSnapshot third = second.with(1L, null);
+
+        assertEquals(2, first.size());
+        assertNull(first.get(3L));
+        assertFalse(first.get(2L) == replacement);
+        assertSame(replacement, second.get(2L));
+        assertEquals(3, second.size());
+        assertEquals((long) second.get(1L).getId(), 1L);
+        assertNull(third.get(1L));
+        assertEquals(2, third.size());
+    }
+
+    @Test
+    void deleteShrinksSizeAndLastId() {
+        StockSnapshot snapshot = StockSnapshot.EMPTY;
+        for (long id = 1; id <= 100; id++) {
+            snapshot = snapshot.with(id, stock(id));
+        }
+        for (long id = 65; id <= 100; id++) {
+            snapshot = snapshot.with(id, null);
+        }
+
+        assertEquals(64, snapshot.size());
+        assertEquals(64L, snapshot.lastId());
+        assertNull(snapshot.get(65L));
+        // 없는 ID 삭제는 아무것도 바꾸지 않음
+        assertEquals(64, snapshot.with(5_000_000L, null).size());
+        assertEquals(64, snapshot.with(99L, null).size());
+
+        for (long id = 1; id <= 64; id++) {
+            snapshot = snapshot.with(id, null);
+        }
+        assertTrue(snapshot.isEmpty());
+        assertEquals(0L, snapshot.lastId());
+        assertFalse(snapshot.iterator(-1L).hasNext());
+    }
+
+    @Test
+    void iteratesInIdOrderFromAfterId() {
+        StockSnapshot snapshot = StockSnapshot.EMPTY;
+        for (long id : new long[] {3L, 40L, 1_025L, 31L, 32L, 70_000L}) {
+            snapshot = snapshot.with(id, stock(id));
+        }
+
+        assertEquals(List.of(3L, 31L, 32L, 40L, 1_025L, 70_000L), ids(snapshot.iterator(-1L)));
+        assertEquals(List.of(32L, 40L, 1_025L, 70_000L), ids(snapshot.iterator(31L)));
+        assertEquals(List.of(1_025L, 70_000L), ids(snapshot.iterator(41L)));
+        assertEquals(List.of(), ids(snapshot.iterator(70_000L)));
+        assertEquals(List.of(), ids(snapshot.iterator(Long.MAX_VALUE)));
+        assertEquals(List.of(32L, 40L), ids(snapshot.valuesAfter(31L, 2).iterator()));
+        assertEquals(6L, snapshot.stream().count());
+    }
+
+    @Test
+    void batchBuilderMatchesSingleUpdates() {
+        Random random = new Random(7);
+        Map<Long, Stock> expected = new TreeMap<>();
+        StockSnapshot single = StockSnapshot.EMPTY;
+        StockSnapshot.Builder builder = StockSnapshot.EMPTY.toBuilder();
+        for (int i = 0; i < 5_000; i++) {
+            long id = random.nextInt(20_000);
+            Stock stock = random.nextInt(4) == 0 ? null : stock(id);
+            if (stock == null) {
+                expected.remove(id);
+            } else {
+                expected.put(id, stock);
+            }
+            single = single.with(id, stock);
+            builder.put(id, stock);
+        }
+        StockSnapshot batch = builder.build();
+
+        assertEquals(expected.size(), single.size());
+        assertEquals(expected.size(), batch.size());
+        assertEquals(new ArrayList<>(expected.values()), single.values());
+        assertEquals(new ArrayList<>(expected.values()), batch.values());
+        assertEquals(((TreeMap<Long, Stock>) expected).lastKey().longValue(), batch.lastId());
+    }
+
+    @Test
+    void negativeIdIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> StockSnapshot.EMPTY.with(-5L, stock(1L)));
+    }
+
+    private static Stock stock(long id) {
+        Stock stock = new Stock("S" + id, "Stock " + id, 10.0, 10.0, 100L, 1000.0, "Tech");
+        stock.setId(id);
+        return stock;
+    }
+
+    private static List<Long> ids(Iterator<Stock> iterator) {
+        List<Long> ids = new ArrayList<>();
+        iterator.forEachRemaining(stock -> ids.add(stock.getId()));
+        return ids;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.inker.stock.service;
+
+import com.example.inker.stock.exception.InvalidPriceException;
+import com.example.inker.stock.exception.StockValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AnalysisBulkheadsTest {
+
+    private static final AnalysisStage[] STAGES = {AnalysisStage.DATA, AnalysisStage.RECOMMENDATION};
+
+    @Test
+    void analysisFailureDegradesAndCountsTowardBreaker() {
+        AnalysisBulkheads bulkheads = new AnalysisBulkheads(1, 16, 1000, 4, 0.5, 60_000);
+        try {
+            Runnable fails = () -> {
+                throw new InvalidPriceException("전체 추천 중 오류가 발생했습니다");
+            };
+            AnalysisContext context = AnalysisContext.withTimeout(0);
+
+            assertEquals(0, bulkheads.runAll(context, STAGES, new Runnable[] {() -> { }, fails}));
+            assertEquals(Set.of(AnalysisStage.RECOMMENDATION), context.getUnavailableStages());
+            assertEquals(1L, (long) bulkheads.snapshot().get("recommendationStageFailures"));
+
+            // 창(4번)의 절반 이상 실패하면 브레이커가 열리고 단계를 실행하지 않음
+            for (int i = 0; i < 3; i++) {
+                bulkheads.runAll(AnalysisContext.withTimeout(0), STAGES, new Runnable[] {() -> { }, fails});
+            }
+            assertEquals(1L, (long) bulkheads.snapshot().get("recommendationBreakerOpen"));
+            AnalysisContext skipped = AnalysisContext.withTimeout(0);
+            bulkheads.runAll(skipped, STAGES, new Runnable[] {() -> { }, () -> { }});
+            assertEquals(Set.of(AnalysisStage.RECOMMENDATION), skipped.getUnavailableStages());
+            assertEquals(1L, (long) bulkheads.snapshot().get("recommendationStageRejected"));
+        } finally {
+            bulkheads.close();
+        }
+    }
+
+    @Test
+    void requestValidationErrorIsRethrownWithoutCountingFailure() {
+        AnalysisBulkheads bulkheads = new AnalysisBulkheads(1, 16, 1000, 4, 0.5, 60_000);
+        try {
+            Runnable rejects = () -> {
+                throw new StockValidationException("유효하지 않은 재고 ID입니다");
+            };
+
+            assertThrows(StockValidationException.class,
+                    () -> bulkheads.runAll(AnalysisContext.withTimeout(0), STAGES, new Runnable[] {rejects, () -> { }}));
+            assertEquals(0L, (long) bulkheads.snapshot().get("dataStageFailures"));
+            assertEquals(0L, (long) bulkheads.snapshot().get("dataBreakerOpen"));
+        } finally {
+            bulkheads.close();
+        }
+    }
+}
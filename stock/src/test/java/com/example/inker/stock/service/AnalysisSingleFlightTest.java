@@ -0,0 +1,144 @@
+package com.example.inker.stock.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnalysisSingleFlightTest {
+
+    private static final int STAGES = 3;
+
+    private final StockMetrics metrics = new StockMetrics();
+    private final AnalysisSingleFlight singleFlight = new AnalysisSingleFlight(metrics);
+    private final CountDownLatch leaderEntered = new CountDownLatch(1);
+    private final CountDownLatch releaseLeader = new CountDownLatch(1);
+    private final AtomicInteger runs = new AtomicInteger();
+
+    /**
+     * 한 요청의 실행 결과 (끝나지 않은 단계 수 또는 예외, 요청의 context)
+     */
+    private final class Caller extends Thread {
+        private final AnalysisContext context = AnalysisContext.withTimeout(10_000);
+        private final ToIntFunction<AnalysisContext> analysis;
+        private volatile int unfinished = -1;
+        private volatile RuntimeException failure;
+
+        private Caller(ToIntFunction<AnalysisContext> analysis) {
+            this.analysis = analysis;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                unfinished = singleFlight.run("symbol:AAPL", context, STAGES, analysis);
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+    }
+
+    // 첫 실행만 releaseLeader까지 멈춘 뒤 leaderResult로 끝나고, 이후 실행은 바로 모든 단계를 마침
+    private ToIntFunction<AnalysisContext> analysis(ToIntFunction<AnalysisContext> leaderResult) {
+        return context -> {
+            if (runs.incrementAndGet() > 1) {
+                return 0;
+            }
+            leaderEntered.countDown();
+            try {
+                assertTrue(releaseLeader.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return leaderResult.applyAsInt(context);
+        };
+    }
+
+    // 리더가 실행에 들어간 뒤 followers개의 요청이 모두 리더를 기다릴 때까지 대기
+    private List<Caller> startWithFollowers(ToIntFunction<AnalysisContext> analysis, int followers) throws Exception {
+        List<Caller> callers = new ArrayList<>();
+        Caller leader = new Caller(analysis);
+        leader.start();
+        callers.add(leader);
+        assertTrue(leaderEntered.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < followers; i++) {
+            Caller follower = new Caller(analysis);
+            follower.start();
+            callers.add(follower);
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        for (Caller follower : callers.subList(1, callers.size())) {
+            while (follower.getState() != Thread.State.TIMED_WAITING) {
+                assertTrue(System.nanoTime() < deadline, "timed out");
+                Thread.sleep(1);
+            }
+        }
+        return callers;
+    }
+
+    private static void joinAll(List<Caller> callers) throws InterruptedException {
+        for (Caller caller : callers) {
+            caller.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    @Test
+    void concurrentCallersShareOneRunAndItsSkippedStages() throws Exception {
+        List<Caller> callers = startWithFollowers(analysis(context -> {
+            context.markUnavailable(AnalysisStage.RISK);
+            return 0;
+        }), 4);
+        releaseLeader.countDown();
+        joinAll(callers);
+
+        assertEquals(1, runs.get());
+        assertEquals(4L, (long) metrics.snapshot().get("coalescedAnalyses"));
+        for (Caller caller : callers) {
+            assertNull(caller.failure);
+            assertEquals(0, caller.unfinished);
+            // 리더가 결과 없이 넘어간 단계는 기다린 요청에도 표시
+            assertEquals(Set.of(AnalysisStage.RISK), caller.context.getUnavailableStages());
+        }
+    }
+
+    @Test
+    void leaderFailureIsNotSharedAndTheWaiterRunsItself() throws Exception {
+        List<Caller> callers = startWithFollowers(analysis(context -> {
+            throw new IllegalStateException("분석 실패");
+        }), 1);
+        releaseLeader.countDown();
+        joinAll(callers);
+
+        assertInstanceOf(IllegalStateException.class, callers.get(0).failure);
+        // 기다리던 요청은 같은 예외를 받지 않고 새 리더로 다시 실행
+        assertNull(callers.get(1).failure);
+        assertEquals(0, callers.get(1).unfinished);
+        assertEquals(2, runs.get());
+        assertEquals(0L, (long) metrics.snapshot().get("coalescedAnalyses"));
+    }
+
+    @Test
+    void abandonedLeaderResultIsNotShared() throws Exception {
+        // 리더가 자기 마감으로 두 단계를 남기고 중단
+        List<Caller> callers = startWithFollowers(analysis(context -> 2), 1);
+        releaseLeader.countDown();
+        joinAll(callers);
+
+        assertEquals(2, callers.get(0).unfinished);
+        assertEquals(0, callers.get(1).unfinished);
+        assertEquals(2, runs.get());
+        assertEquals(0L, (long) metrics.snapshot().get("coalescedAnalyses"));
+    }
+}
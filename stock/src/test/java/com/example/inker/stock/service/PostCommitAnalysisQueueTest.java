@@ -0,0 +1,96 @@
+package com.example.inker.stock.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostCommitAnalysisQueueTest {
+
+    private final AnalysisBulkheads bulkheads = new AnalysisBulkheads(1, 16, 1000, 20, 0.5, 60_000);
+    private PostCommitAnalysisQueue queue;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        queue.close();
+        bulkheads.close();
+    }
+
+    // 모든 커밋 후 단계에서 counter를 올리는 분석
+    private static Runnable[] counting(AtomicInteger counter) {
+        Runnable[] stages = new Runnable[PostCommitAnalysisQueue.POST_COMMIT_STAGES.length];
+        Arrays.fill(stages, (Runnable) counter::incrementAndGet);
+        return stages;
+    }
+
+    @Test
+    void pendingAnalysisIsReplacedByTheLatestRequestAndRunsOnce() throws Exception {
+        queue = new PostCommitAnalysisQueue(bulkheads, 100, 8, 1);
+        AtomicInteger first = new AtomicInteger();
+        AtomicInteger latest = new AtomicInteger();
+
+        // 작업자를 시작하기 전에 같은 주식을 두 번 요청
+        assertTrue(queue.submit(1L, counting(first)));
+        assertTrue(queue.submit(1L, counting(latest)));
+        assertTrue(queue.isPending(1L));
+        assertEquals(1L, (long) queue.snapshot().get("analysisQueueDepth"));
+        assertEquals(1L, (long) queue.snapshot().get("analysisQueueMerged"));
+
+        queue.start();
+        awaitTrue(() -> queue.snapshot().get("analysisQueueCompleted") == 1L);
+
+        assertEquals(0, first.get());
+        assertEquals(PostCommitAnalysisQueue.POST_COMMIT_STAGES.length, latest.get());
+        assertFalse(queue.isPending(1L));
+        assertEquals(0L, (long) queue.snapshot().get("analysisQueueDepth"));
+    }
+
+    @Test
+    void newStocksAreDroppedWhenFullButWaitingOnesStillMerge() {
+        queue = new PostCommitAnalysisQueue(bulkheads, 2, 8, 1);
+        AtomicInteger counter = new AtomicInteger();
+
+        assertTrue(queue.submit(1L, counting(counter)));
+        assertTrue(queue.submit(2L, counting(counter)));
+        assertFalse(queue.submit(3L, counting(counter)));
+        assertFalse(queue.isPending(3L));
+        // 이미 대기 중인 주식은 가득 차도 합쳐짐
+        assertTrue(queue.submit(2L, counting(counter)));
+
+        assertEquals(2L, (long) queue.snapshot().get("analysisQueueDepth"));
+        assertEquals(1L, (long) queue.snapshot().get("analysisQueueDropped"));
+        assertEquals(1L, (long) queue.snapshot().get("analysisQueueMerged"));
+    }
+
+    @Test
+    void lagIsTheWaitOfTheOldestPendingAnalysis() throws Exception {
+        queue = new PostCommitAnalysisQueue(bulkheads, 100, 8, 1);
+        assertEquals(0L, (long) queue.snapshot().get("analysisQueueLagMicros"));
+
+        queue.submit(1L, counting(new AtomicInteger()));
+        Thread.sleep(30);
+        queue.submit(2L, counting(new AtomicInteger()));
+        // 합쳐도 대기 시작 시각은 처음 요청 기준
+        queue.submit(1L, counting(new AtomicInteger()));
+        assertTrue(queue.snapshot().get("analysisQueueLagMicros") >= TimeUnit.MILLISECONDS.toMicros(30));
+
+        queue.start();
+        awaitTrue(() -> queue.snapshot().get("analysisQueueCompleted") == 2L);
+        assertEquals(0L, (long) queue.snapshot().get("analysisQueueLagMicros"));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.inker.stock.service;
+
+import com.example.inker.stock.dto.StockResponse;
+import com.example.inker.stock.exception.StockNotFoundException;
+import com.example.inker.stock.exception.StockOverloadedException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceConflatorTest {
+
+    private static StockResponse response(long id, double price) {
+        StockResponse response = new StockResponse();
+        response.setId(id);
+        response.setCurrentPrice(price);
+        return response;
+    }
+
+    @Test
+    void mergesUpdatesAndLatestPriceWins() throws Exception {
+        Map<Long, Integer> applied = new ConcurrentHashMap<>();
+        PriceConflator conflator = new PriceConflator(50, (id, price, timestamp) -> {
+            applied.merge(id, 1, Integer::sum);
+            return CompletableFuture.completedFuture(response(id, price));
+        }, new StockMetrics());
+        try {
+            CompletableFuture<StockResponse> first = conflator.submit(1L, 10.0, 1);
+            CompletableFuture<StockResponse> second = conflator.submit(1L, 12.0, 3);
+            // 더 오래된 틱은 최신 가격을 덮지 않음
+            CompletableFuture<StockResponse> third = conflator.submit(1L, 11.0, 2);
+
+            StockResponse result = first.get(5, TimeUnit.SECONDS);
+            assertEquals(12.0, result.getCurrentPrice());
+            assertSame(result, second.get(5, TimeUnit.SECONDS));
+            assertSame(result, third.get(5, TimeUnit.SECONDS));
+            assertEquals(1, (int) applied.get(1L));
+        } finally {
+            conflator.close();
+        }
+    }
+
+    @Test
+    void entryIsNotFlushedBeforeItsOwnWindow() throws Exception {
+        long windowMillis = 200;
+        Map<Long, Long> flushedAt = new ConcurrentHashMap<>();
+        PriceConflator conflator = new PriceConflator(windowMillis, (id, price, timestamp) -> {
+            flushedAt.put(id, System.nanoTime());
+            return CompletableFuture.completedFuture(response(id, price));
+        }, new StockMetrics());
+        try {
+            conflator.submit(1L, 10.0, 1);
+            Thread.sleep(100);
+            long secondSubmittedAt = System.nanoTime();
+            CompletableFuture<StockResponse> second = conflator.submit(2L, 20.0, 1);
+
+            second.get(5, TimeUnit.SECONDS);
+            // 앞선 항목이 먼저 끝나도 뒤 항목은 자기 창이 지난 뒤에만 반영
+            assertTrue(flushedAt.get(1L) < flushedAt.get(2L));
+            assertTrue(flushedAt.get(2L) - secondSubmittedAt >= TimeUnit.MILLISECONDS.toNanos(windowMillis));
+        } finally {
+            conflator.close();
+        }
+    }
+
+    @Test
+    void pendingSinkDoesNotBlockOtherStocks() throws Exception {
+        CompletableFuture<StockResponse> slow = new CompletableFuture<>();
+        PriceConflator conflator = new PriceConflator(10, (id, price, timestamp) ->
+                id == 1L ? slow : CompletableFuture.completedFuture(response(id, price)), new StockMetrics());
+        try {
+            CompletableFuture<StockResponse> blocked = conflator.submit(1L, 10.0, 1);
+            Thread.sleep(20);
+            CompletableFuture<StockResponse> other = conflator.submit(2L, 20.0, 1);
+
+            assertEquals(20.0, other.get(5, TimeUnit.SECONDS).getCurrentPrice());
+            assertFalse(blocked.isDone());
+
+            slow.complete(response(1L, 10.0));
+            assertEquals(10.0, blocked.get(5, TimeUnit.SECONDS).getCurrentPrice());
+        } finally {
+            conflator.close();
+        }
+    }
+
+    @Test
+    void sinkFailureReachesEveryWaiter() throws Exception {
+        PriceConflator conflator = new PriceConflator(20, (id, price, timestamp) ->
+                CompletableFuture.failedFuture(new CompletionException(new StockNotFoundException("없음"))), new StockMetrics());
+        try {
+            CompletableFuture<StockResponse> first = conflator.submit(1L, 10.0, 1);
+            CompletableFuture<StockResponse> second = conflator.submit(1L, 11.0, 2);
+
+            CompletionException failure = assertThrows(CompletionException.class, first::join);
+            assertInstanceOf(StockNotFoundException.class, failure.getCause());
+            assertInstanceOf(StockNotFoundException.class, assertThrows(CompletionException.class, second::join).getCause());
+        } finally {
+            conflator.close();
+        }
+    }
+
+    @Test
+    void closeFailsPendingUpdatesAndRejectsLaterSubmits() throws Exception {
+        Map<Long, Integer> applied = new ConcurrentHashMap<>();
+        PriceConflator conflator = new PriceConflator(60_000, (id, price, timestamp) -> {
+            applied.merge(id, 1, Integer::sum);
+            return CompletableFuture.completedFuture(response(id, price));
+        }, new StockMetrics());
+        CompletableFuture<StockResponse> pending = conflator.submit(1L, 10.0, 1);
+
+        conflator.close();
+
+        // 창이 지나지 않은 항목은 반영하지 않고 실패로 끝냄
+        assertInstanceOf(StockOverloadedException.class, assertThrows(CompletionException.class, pending::join).getCause());
+        assertInstanceOf(StockOverloadedException.class,
+                assertThrows(CompletionException.class, () -> conflator.submit(2L, 20.0, 1).join()).getCause());
+        assertTrue(applied.isEmpty());
+    }
+}
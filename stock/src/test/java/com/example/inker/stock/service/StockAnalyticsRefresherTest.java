@@ -0,0 +1,104 @@
+package com.example.inker.stock.service;
+
+import com.example.inker.stock.candle.CandleAggregator;
+import com.example.inker.stock.candle.CandleResolution;
+import com.example.inker.stock.dto.CandleResponse;
+import com.example.inker.stock.dto.StockAnalysisResponse;
+import com.example.inker.stock.entity.Stock;
+import com.example.inker.stock.exception.StockNotFoundException;
+import com.example.inker.stock.repository.StockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StockAnalyticsRefresherTest {
+
+    private final StockRepository repository = new StockRepository(false);
+    // 이 ID의 봉을 읽는 순간 주식을 삭제 (분석 도중 삭제 재현)
+    private final AtomicLong deleteWhileRefreshing = new AtomicLong();
+    private final CandleAggregator candles = new CandleAggregator(repository, 100) {
+        @Override
+        public List<CandleResponse> getRecentCandles(long id, CandleResolution resolution, int limit) {
+            if (deleteWhileRefreshing.compareAndSet(id, 0L)) {
+                repository.delete(id);
+            }
+            return super.getRecentCandles(id, resolution, limit);
+        }
+    };
+    private StockAnalyticsRefresher refresher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        refresher.close();
+    }
+
+    // 주기는 첫 실행 뒤 다시 오지 않을 만큼 길게 두어 급변 갱신만 관찰
+    private StockAnalyticsRefresher startRefresher() throws InterruptedException {
+        refresher = new StockAnalyticsRefresher(repository, candles, 60_000, 2, 0.05, 20);
+        refresher.start();
+        awaitTrue(() -> refresher.snapshot().get("analyticsViewSize") == 3L);
+        return refresher;
+    }
+
+    @Test
+    void largeMoveJumpsTheQueueAndSmallMoveIsReportedStale() throws Exception {
+        StockAnalyticsRefresher refresher = startRefresher();
+
+        Stock large = new Stock(repository.findById(1L).orElseThrow());
+        large.setCurrentPrice(large.getCurrentPrice() * 1.10);
+        long largeVersion = repository.save(large).getVersion();
+        Stock small = new Stock(repository.findById(2L).orElseThrow());
+        long analyzedVersion = small.getVersion();
+        small.setCurrentPrice(small.getCurrentPrice() * 1.01);
+        repository.save(small);
+
+        // 10% 움직인 주식은 다음 주기(60초)를 기다리지 않고 갱신
+        awaitTrue(() -> refresher.getAnalysis(1L).getAnalyzedVersion() == largeVersion);
+        assertFalse(refresher.getAnalysis(1L).getStale());
+        assertEquals(1L, (long) refresher.snapshot().get("analyticsUrgentRefreshes"));
+
+        // 1% 움직인 주식은 다음 주기까지 이전 분석과 대기 시간을 돌려줌
+        Thread.sleep(20);
+        StockAnalysisResponse stale = refresher.getAnalysis(2L);
+        assertTrue(stale.getStale());
+        assertEquals(analyzedVersion, (long) stale.getAnalyzedVersion());
+        assertTrue(stale.getStalenessMillis() >= 20);
+        assertEquals(1L, (long) refresher.snapshot().get("analyticsPending"));
+    }
+
+    @Test
+    void deletedStockLeavesNoAnalysisBehind() throws Exception {
+        StockAnalyticsRefresher refresher = startRefresher();
+
+        repository.delete(3L);
+        assertThrows(StockNotFoundException.class, () -> refresher.getAnalysis(3L));
+
+        // 급변 갱신이 봉을 읽는 사이 삭제되어도 결과를 남기지 않음
+        deleteWhileRefreshing.set(2L);
+        Stock moved = new Stock(repository.findById(2L).orElseThrow());
+        moved.setCurrentPrice(moved.getCurrentPrice() * 2);
+        repository.save(moved);
+        awaitTrue(() -> deleteWhileRefreshing.get() == 0L && refresher.snapshot().get("analyticsRefreshes") == 4L);
+
+        assertThrows(StockNotFoundException.class, () -> refresher.getAnalysis(2L));
+        assertEquals(1L, (long) refresher.snapshot().get("analyticsViewSize"));
+        assertEquals(0L, (long) refresher.snapshot().get("analyticsPending"));
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(5);
+        }
+    }
+}
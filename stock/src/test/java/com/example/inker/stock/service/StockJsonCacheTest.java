@@ -0,0 +1,41 @@
+package com.example.inker.stock.service;
+
+import com.example.inker.stock.entity.Stock;
+import com.example.inker.stock.repository.StockRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StockJsonCacheTest {
+
+    @Test
+    void currentRowsAreCachedByVersion() {
+        StockRepository repository = new StockRepository(false);
+        StockJsonCache cache = new StockJsonCache(new ObjectMapper().findAndRegisterModules(), repository);
+        Stock stock = repository.findById(1L).orElseThrow();
+
+        byte[] first = cache.bytesOf(stock);
+        assertSame(first, cache.bytesOf(stock));
+
+        Stock changed = new Stock(stock);
+        changed.setCurrentPrice(151.0);
+        Stock saved = repository.save(changed);
+        assertTrue(new String(cache.bytesOf(saved)).contains("151.0"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void rowReadFromAnOlderSnapshotIsNotCachedAfterItsDelete() {
+        StockRepository repository = new StockRepository(false);
+        StockJsonCache cache = new StockJsonCache(new ObjectMapper().findAndRegisterModules(), repository);
+        // 삭제 전에 잡은 스냅샷의 행을 삭제 리스너가 지나간 뒤에 직렬화
+        Stock pinned = repository.snapshot().get(2L);
+        repository.delete(2L);
+
+        assertTrue(cache.bytesOf(pinned).length > 0);
+        assertEquals(0, cache.size());
+    }
+}
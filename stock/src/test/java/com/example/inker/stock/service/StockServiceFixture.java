@@ -0,0 +1,52 @@
+package com.example.inker.stock.service;
+
+import com.example.inker.stock.partition.StockPartitioning;
+import com.example.inker.stock.persistence.StockWriteAheadLog;
+import com.example.inker.stock.repository.StockRepository;
+import com.example.inker.stock.shard.StockWriteShards;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 기본 설정의 실제 구성 요소로 만든 StockService (로그 파일, 파티셔닝 없음)
+ */
+public final class StockServiceFixture implements AutoCloseable {
+
+    private final StockRepository repository = new StockRepository(false);
+    private final StockWriteAheadLog writeAheadLog = new StockWriteAheadLog("", 200, false);
+    private final AnalysisBulkheads bulkheads = new AnalysisBulkheads(4, 256, 200, 20, 0.5, 5000);
+    private final PostCommitAnalysisQueue analysisQueue = new PostCommitAnalysisQueue(bulkheads, 10000, 64, 2);
+    private final StockWriteShards writeShards;
+    private final StockService service;
+
+    public StockServiceFixture(int shardCount, long conflationWindowMillis) {
+        // 스프링 부트처럼 날짜 모듈 등록
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        writeShards = new StockWriteShards(shardCount, 1024);
+        StockPartitioning partitioning = new StockPartitioning(repository, objectMapper, null, writeAheadLog,
+                "", "", 256, 128, "forward", 2000);
+        service = new StockService(repository, writeAheadLog, new StockJsonCache(objectMapper, repository),
+                new StockMetrics(), bulkheads, analysisQueue, writeShards, partitioning, conflationWindowMillis);
+        analysisQueue.start();
+        writeShards.start();
+    }
+
+    public StockRepository getRepository() {
+        return repository;
+    }
+
+    public StockService getService() {
+        return service;
+    }
+
+    public PostCommitAnalysisQueue getAnalysisQueue() {
+        return analysisQueue;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        service.close();
+        writeShards.close();
+        analysisQueue.close();
+        bulkheads.close();
+    }
+}
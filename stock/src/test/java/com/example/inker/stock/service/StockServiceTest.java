@@ -0,0 +1,188 @@
+package com.example.inker.stock.service;
+
+import com.example.inker.stock.dto.BulkPriceUpdateResponse;
+import com.example.inker.stock.dto.PriceTickRequest;
+import com.example.inker.stock.dto.PriceUpdateResult;
+import com.example.inker.stock.dto.UpdateStockPriceRequest;
+import com.example.inker.stock.entity.EpochMicros;
+import com.example.inker.stock.entity.Stock;
+import com.example.inker.stock.exception.StockDeadlineExceededException;
+import com.example.inker.stock.exception.StockNotFoundException;
+import com.example.inker.stock.exception.StockPersistenceException;
+import com.example.inker.stock.exception.StockValidationException;
+import com.example.inker.stock.repository.StockSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StockServiceTest {
+
+    @Test
+    void deleteRemovesStock() throws Exception {
+        try (StockServiceFixture fixture = new StockServiceFixture(0, 0)) {
+            assertTrue(fixture.getService().deleteStock(2L));
+            assertFalse(fixture.getRepository().findById(2L).isPresent());
+            assertThrows(StockNotFoundException.class, () -> fixture.getService().deleteStock(2L));
+        }
+    }
+
+    @Test
+    void logRequestWaitReturnsOnceWriterClearsFlag() throws Exception {
+        Stock stock = new Stock("A", "A Corp", 1.0, 1.0, 1L, 1.0, "Tech");
+        stock.setLogPending(true);
+        Thread writer = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            stock.setLogPending(false);
+        });
+        writer.start();
+
+        StockService.awaitLogRequested(stock, TimeUnit.SECONDS.toNanos(5));
+        assertFalse(stock.isLogPending());
+        writer.join();
+    }
+
+    @Test
+    void logRequestWaitIsBounded() {
+        Stock stock = new Stock("A", "A Corp", 1.0, 1.0, 1L, 1.0, "Tech");
+        stock.setId(9L);
+        stock.setLogPending(true);
+
+        long startedAt = System.nanoTime();
+        assertThrows(StockPersistenceException.class,
+                () -> StockService.awaitLogRequested(stock, TimeUnit.MILLISECONDS.toNanos(50)));
+        assertTrue(System.nanoTime() - startedAt < TimeUnit.SECONDS.toNanos(2));
+    }
+
+    @Test
+    void priceTickAnalysisFailuresAreCountedNotThrown() throws Exception {
+        try (StockServiceFixture fixture = new StockServiceFixture(0, 0)) {
+            // 전체 추천은 임의로 실패하지만 묶음 분석은 건너뛴 단계 수만 돌려줌
+            for (int i = 0; i < 100; i++) {
+                int skipped = fixture.getService().analyzePriceTicks();
+                assertTrue(skipped >= 0 && skipped <= PostCommitAnalysisQueue.POST_COMMIT_STAGES.length);
+            }
+        }
+    }
+
+    @Test
+    void priceTickIsValidatedAndQueuesPostCommitAnalysis() throws Exception {
+        try (StockServiceFixture fixture = new StockServiceFixture(0, 0)) {
+            StockService service = fixture.getService();
+            assertNull(service.applyPriceTick(1L, -1.0, -1L, EpochMicros.NULL));
+            assertNull(service.applyPriceTick(404L, 10.0, -1L, EpochMicros.NULL));
+
+            service.applyPriceTick(1L, 10.0, -1L, EpochMicros.NULL).get(5, TimeUnit.SECONDS);
+            assertEquals(10.0, fixture.getRepository().findById(1L).orElseThrow().getCurrentPrice());
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (fixture.getAnalysisQueue().snapshot().get("analysisQueueCompleted") < 1) {
+                assertTrue(System.nanoTime() < deadline, "post-commit analysis not run");
+                Thread.sleep(5);
+            }
+        }
+    }
+
+    @Test
+    void bulkPriceUpdateIsAppliedEvenWhenBatchAnalysisFails() throws Exception {
+        try (StockServiceFixture fixture = new StockServiceFixture(0, 0)) {
+            // 전체 추천이 임의로 실패해도 배치는 항상 반영됨
+            for (int i = 1; i <= 50; i++) {
+                BulkPriceUpdateResponse response = fixture.getService().updateStockPrices(
+                        List.of(new PriceTickRequest(1L, null, (double) i, null)), AnalysisContext.withTimeout(0));
+                assertEquals(1, response.getApplied());
+                assertEquals((double) i, fixture.getRepository().findById(1L).orElseThrow().getCurrentPrice());
+            }
+        }
+    }
+
+    @Test
+    void untimedTickIsComparedAtReceiveTime() throws Exception {
+        try (StockServiceFixture fixture = new StockServiceFixture(0, 0)) {
+            LocalDateTime past = LocalDateTime.now().minusMinutes(1);
+            LocalDateTime future = LocalDateTime.now().plusMinutes(1);
+            BulkPriceUpdateResponse response = fixture.getService().updateStockPrices(List.of(
+                    new PriceTickRequest(1L, null, 10.0, past),
+                    new PriceTickRequest(1L, null, 11.0, null),
+                    new PriceTickRequest(2L, null, 20.0, future),
+                    new PriceTickRequest(2L, null, 21.0, null)));
+
+            // 받은 시각으로 찍힌 틱은 그보다 이른 틱은 이기고 나중 시각의 틱에는 밀림
+            List<PriceUpdateResult> results = response.getResults();
+            assertEquals(PriceUpdateResult.Status.SUPERSEDED, results.get(0).getStatus());
+            assertEquals(PriceUpdateResult.Status.APPLIED, results.get(1).getStatus());
+            assertEquals(PriceUpdateResult.Status.APPLIED, results.get(2).getStatus());
+            assertEquals(PriceUpdateResult.Status.SUPERSEDED, results.get(3).getStatus());
+            assertEquals(11.0, fixture.getRepository().findById(1L).orElseThrow().getCurrentPrice());
+            assertEquals(20.0, fixture.getRepository().findById(2L).orElseThrow().getCurrentPrice());
+        }
+    }
+
+    @Test
+    void collectionETagAndBodyComeFromTheSamePinnedVersion() throws Exception {
+        try (StockServiceFixture fixture = new StockServiceFixture(0, 0)) {
+            StockService service = fixture.getService();
+            StockSnapshot pinned = service.currentSnapshot();
+            String eTag = service.getCollectionETag(pinned);
+            byte[] before = service.getAllStocksJson(pinned, AnalysisContext.none());
+
+            // ETag를 만든 뒤 게시된 변경은 그 ETag의 본문에 섞이지 않음
+            Stock changed = new Stock(fixture.getRepository().findById(1L).orElseThrow());
+            changed.setCurrentPrice(151.0);
+            fixture.getRepository().save(changed);
+
+            assertTrue(Arrays.equals(before, service.getAllStocksJson(pinned, AnalysisContext.none())));
+            assertEquals(eTag, service.getCollectionETag(pinned));
+            assertNotEquals(eTag, service.getCollectionETag(service.currentSnapshot()));
+            assertFalse(Arrays.equals(before, service.getAllStocksJson(service.currentSnapshot(), AnalysisContext.none())));
+        }
+    }
+
+    @Test
+    void interruptedRequestSkipsRemainingStages() throws Exception {
+        try (StockServiceFixture fixture = new StockServiceFixture(0, 0)) {
+            Thread.currentThread().interrupt();
+            try {
+                assertThrows(StockDeadlineExceededException.class,
+                        () -> fixture.getService().getStockById(1L, AnalysisContext.withTimeout(60_000)));
+            } finally {
+                // 다음 테스트에 인터럽트 상태를 남기지 않음
+                Thread.interrupted();
+            }
+        }
+    }
+
+    @Test
+    void negativeOrOverflowingIdCursorsAreRejected() throws Exception {
+        try (StockServiceFixture fixture = new StockServiceFixture(0, 0)) {
+            StockService service = fixture.getService();
+            assertThrows(StockValidationException.class, () -> service.getAllStocks("-1", 10));
+            assertThrows(StockValidationException.class, () -> service.getAllStocks("9223372036854775808", 10));
+            assertThrows(StockValidationException.class, () -> service.getAllStocks("abc", 10));
+            assertEquals(2, service.getAllStocks("1", 10).getItems().size());
+        }
+    }
+
+    @Test
+    void conflatedUpdateIsAwaitedOnlyUntilTheDeadline() throws Exception {
+        try (StockServiceFixture fixture = new StockServiceFixture(0, 60_000)) {
+            long started = System.nanoTime();
+            assertThrows(StockDeadlineExceededException.class, () -> fixture.getService().updateStockPrice(1L,
+                    new UpdateStockPriceRequest(151.0, null, null), null, AnalysisContext.withTimeout(50)));
+            // 합치기 창(60초)이 아니라 요청 마감에서 돌아옴
+            assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(5));
+        }
+    }
+}
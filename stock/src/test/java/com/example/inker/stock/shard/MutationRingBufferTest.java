@@ -0,0 +1,114 @@
+package com.example.inker.stock.shard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MutationRingBufferTest {
+
+    @Test
+    void capacityRoundsUpToPowerOfTwo() {
+        assertEquals(2, new MutationRingBuffer(0).capacity());
+        assertEquals(2, new MutationRingBuffer(2).capacity());
+        assertEquals(4, new MutationRingBuffer(3).capacity());
+        assertEquals(1024, new MutationRingBuffer(1024).capacity());
+        assertEquals(2048, new MutationRingBuffer(1025).capacity());
+    }
+
+    @Test
+    void entriesAreReadInSequenceOrderAcrossWrapAround() {
+        MutationRingBuffer ring = new MutationRingBuffer(4);
+        assertNull(ring.get(0L));
+        for (long sequence = 0; sequence < 20; sequence++) {
+            Object entry = "e" + sequence;
+            assertEquals(sequence, ring.publish(entry));
+            assertEquals(1L, ring.depth());
+            assertSame(entry, ring.get(sequence));
+            // 다음 바퀴의 같은 슬롯은 아직 공개되지 않음
+            assertNull(ring.get(sequence + ring.capacity()));
+            ring.release(sequence);
+            assertEquals(0L, ring.depth());
+        }
+    }
+
+    @Test
+    void fullRingBlocksProducerUntilRelease() throws Exception {
+        MutationRingBuffer ring = new MutationRingBuffer(2);
+        ring.publish("a");
+        ring.publish("b");
+        AtomicBoolean published = new AtomicBoolean();
+        Thread producer = new Thread(() -> {
+            ring.publish("c");
+            published.set(true);
+        });
+        producer.start();
+
+        Thread.sleep(100);
+        assertFalse(published.get());
+        assertEquals(2L, ring.depth());
+
+        ring.release(0L);
+        producer.join(TimeUnit.SECONDS.toMillis(5));
+        assertTrue(published.get());
+        assertEquals("c", ring.get(2L));
+    }
+
+    @Test
+    void concurrentProducersDeliverEveryEntryOnceInPerProducerOrder() throws Exception {
+        int producers = 4;
+        int perProducer = 50_000;
+        MutationRingBuffer ring = new MutationRingBuffer(64);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    ring.publish(new long[] {producer, i});
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+
+        int[] nextExpected = new int[producers];
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        for (long sequence = 0; sequence < (long) producers * perProducer; ) {
+            Object entry = ring.get(sequence);
+            if (entry == null) {
+                assertTrue(System.nanoTime() < deadline, "timed out at " + sequence);
+                Thread.onSpinWait();
+                continue;
+            }
+            long[] value = (long[]) entry;
+            assertEquals((long) nextExpected[(int) value[0]], value[1]);
+            nextExpected[(int) value[0]]++;
+            ring.release(sequence);
+            sequence++;
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        for (int count : nextExpected) {
+            assertEquals(perProducer, count);
+        }
+        assertEquals(0L, ring.depth());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.inker.stock.shard;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StockWriteShardsTest {
+
+    private final StockWriteShards shards = new StockWriteShards(2, 8);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        shards.close();
+    }
+
+    @Test
+    void sameIdRunsOnOneShardThreadInOrder() {
+        shards.start();
+        AtomicReference<Thread> first = new AtomicReference<>();
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            int value = i;
+            shards.execute(7L, () -> {
+                first.compareAndSet(null, Thread.currentThread());
+                assertSame(first.get(), Thread.currentThread());
+                return order.add(value);
+            });
+        }
+
+        assertNotSame(Thread.currentThread(), first.get());
+        assertEquals(100, order.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, order.get(i).intValue());
+        }
+    }
+
+    @Test
+    void mutationExceptionIsRethrownToCaller() {
+        shards.start();
+        assertThrows(IllegalStateException.class, () -> shards.execute(1L, () -> {
+            throw new IllegalStateException("boom");
+        }));
+        // 실패 뒤에도 샤드는 계속 실행
+        assertEquals("ok", shards.execute(1L, () -> "ok"));
+    }
+
+    @Test
+    void nestedExecuteOnSameShardRunsInline() {
+        shards.start();
+        assertEquals("inner", shards.execute(3L, () -> shards.execute(5L, () -> "inner")));
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.inker.stock.stream;
+
+import com.example.inker.stock.entity.Stock;
+import com.example.inker.stock.repository.StockRepository;
+import com.example.inker.stock.service.StockMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceBroadcasterTest {
+
+    private final StockRepository repository = new StockRepository(false);
+    private final StockMetrics metrics = new StockMetrics();
+    private final Deque<RecordingEmitter> emitters = new ArrayDeque<>();
+    private PriceBroadcaster broadcaster;
+
+    /**
+     * 보낸 이벤트를 SSE 문자열로 기록하고, gate가 열릴 때까지 전송을 막는 응답
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<String> events = new ArrayList<>();
+        private final CountDownLatch gate;
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private volatile Throwable error;
+
+        private RecordingEmitter(boolean open) {
+            this.gate = new CountDownLatch(open ? 0 : 1);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                // 소켓 쓰기처럼 인터럽트되면 IOException
+                throw new InterruptedIOException();
+            }
+            StringBuilder text = new StringBuilder();
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                text.append(part.getData());
+            }
+            synchronized (events) {
+                events.add(text.toString());
+            }
+        }
+
+        @Override
+        public synchronized void completeWithError(Throwable ex) {
+            error = ex;
+        }
+
+        private List<String> events() {
+            synchronized (events) {
+                return new ArrayList<>(events);
+            }
+        }
+
+        private List<String> prices() {
+            return events().stream().filter(event -> event.contains("event:price")).toList();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (broadcaster != null) {
+            broadcaster.stop();
+        }
+    }
+
+    private void start(int senderThreads, long heartbeatSeconds, long sendTimeoutMillis) {
+        broadcaster = new PriceBroadcaster(repository, new ObjectMapper().findAndRegisterModules(), metrics,
+                100, senderThreads, heartbeatSeconds, sendTimeoutMillis) {
+            @Override
+            SseEmitter newEmitter() {
+                return emitters.removeFirst();
+            }
+        };
+        broadcaster.start();
+    }
+
+    private RecordingEmitter subscribe(String symbol, boolean open) {
+        RecordingEmitter emitter = new RecordingEmitter(open);
+        emitters.addLast(emitter);
+        assertEquals(emitter, broadcaster.subscribe(List.of(symbol)));
+        return emitter;
+    }
+
+    @Test
+    void slowClientGetsOnlyTheLatestPendingPrice() throws Exception {
+        start(1, 0, 0);
+        // 첫 현재가 전송이 막힌 동안 세 번 바뀜
+        RecordingEmitter emitter = subscribe("AAPL", false);
+        assertTrue(emitter.sending.await(10, TimeUnit.SECONDS));
+        for (double price : new double[] {151.0, 152.0, 153.0}) {
+            Stock changed = new Stock(repository.findById(1L).orElseThrow());
+            changed.setCurrentPrice(price);
+            repository.save(changed);
+            Thread.sleep(100);
+        }
+        assertEquals(2L, (long) metrics.snapshot().get("conflatedStreamUpdates"));
+
+        emitter.gate.countDown();
+        awaitTrue(() -> emitter.prices().size() == 2);
+
+        List<String> prices = emitter.prices();
+        assertTrue(prices.get(0).contains("150.0"), prices.get(0));
+        assertTrue(prices.get(1).contains("153.0"), prices.get(1));
+        Thread.sleep(100);
+        assertEquals(2, emitter.prices().size());
+    }
+
+    @Test
+    void idleClientReceivesHeartbeats() throws Exception {
+        start(1, 1, 0);
+        RecordingEmitter emitter = subscribe("MSFT", true);
+
+        awaitTrue(() -> emitter.events().stream().anyMatch(event -> event.startsWith(":heartbeat")));
+        assertEquals(1, emitter.prices().size());
+    }
+
+    @Test
+    void stalledSendIsDisconnectedAndFreesTheSender() throws Exception {
+        start(1, 0, 100);
+        RecordingEmitter stalled = subscribe("AAPL", false);
+        // 전송 스레드가 하나뿐이므로 막힌 클라이언트를 끊어야 다음 클라이언트가 받음
+        RecordingEmitter healthy = subscribe("MSFT", true);
+
+        awaitTrue(() -> healthy.prices().size() == 1);
+        assertInstanceOf(TimeoutException.class, stalled.error);
+        assertEquals(1L, (long) metrics.snapshot().get("streamSendTimeouts"));
+        assertEquals(1L, (long) metrics.snapshot().get("streamSubscribers"));
+        assertTrue(stalled.prices().isEmpty());
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(5);
+        }
+    }
+}